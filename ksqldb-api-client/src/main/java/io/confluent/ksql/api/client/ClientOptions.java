@@ -134,6 +134,17 @@ public interface ClientOptions {
    */
   ClientOptions setExecuteQueryMaxResultRows(int maxRows);
 
+  /**
+   * Sets whether to request query results from the ksqlDB server in the binary format, rather
+   * than as newline-delimited JSON. The binary format batches rows, which reduces the cost of
+   * streaming queries with high rates of results. It requires a server version that supports it.
+   * Defaults to false.
+   *
+   * @param useBinaryFormat whether to use the binary format
+   * @return a reference to this
+   */
+  ClientOptions setUseBinaryFormat(boolean useBinaryFormat);
+
   /**
    * Returns the host name of the ksqlDB server to connect to.
    *
@@ -239,6 +250,13 @@ public interface ClientOptions {
    */
   int getExecuteQueryMaxResultRows();
 
+  /**
+   * Returns whether query results are requested from the ksqlDB server in the binary format.
+   *
+   * @return whether to use the binary format
+   */
+  boolean isUseBinaryFormat();
+
   /**
    * Creates a copy of these {@code ClientOptions}.
    *
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client.impl;
+
+import io.confluent.ksql.rest.BinaryQueryStreamFormat;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.parsetools.RecordParser;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Splits a query response in the binary format into frames, and passes each to the response
+ * handler.
+ *
+ * <p>The record parser is switched between reading frame headers and reading the payloads of
+ * frames, so that each frame is passed on whole.
+ */
+final class BinaryQueryResponseParser implements Handler<Buffer> {
+
+  private final RecordParser recordParser;
+  private final QueryResponseHandler<?> responseHandler;
+  private byte frameType;
+  private boolean readingPayload;
+
+  BinaryQueryResponseParser(
+      final RecordParser recordParser,
+      final QueryResponseHandler<?> responseHandler
+  ) {
+    this.recordParser = Objects.requireNonNull(recordParser);
+    this.responseHandler = Objects.requireNonNull(responseHandler);
+  }
+
+  @Override
+  public void handle(final Buffer buff) {
+    if (readingPayload) {
+      readingPayload = false;
+      recordParser.fixedSizeMode(BinaryQueryStreamFormat.FRAME_HEADER_SIZE);
+      responseHandler.handleFrame(frameType, buff);
+      return;
+    }
+
+    frameType = buff.getByte(0);
+    final int payloadSize = buff.getInt(1);
+    if (payloadSize == 0) {
+      responseHandler.handleFrame(frameType, Buffer.buffer());
+    } else {
+      readingPayload = true;
+      recordParser.fixedSizeMode(payloadSize);
+    }
+  }
+
+  /**
+   * Decodes the rows in the payload of a rows frame.
+   *
+   * <p>Values are decoded to the same types as when the rows are read from JSON.
+   *
+   * @param payload the payload of the frame.
+   * @param rowHandler the handler to pass each row to, in order.
+   */
+  static void decodeRows(final Buffer payload, final Consumer<JsonArray> rowHandler) {
+    final int rowCount = payload.getInt(0);
+    final int columnCount = payload.getInt(4);
+    int pos = 8;
+
+    for (int row = 0; row < rowCount; row++) {
+      final List<Object> values = new ArrayList<>(columnCount);
+      for (int column = 0; column < columnCount; column++) {
+        final byte tag = payload.getByte(pos++);
+        switch (tag) {
+          case BinaryQueryStreamFormat.NULL:
+            values.add(null);
+            break;
+          case BinaryQueryStreamFormat.FALSE:
+            values.add(false);
+            break;
+          case BinaryQueryStreamFormat.TRUE:
+            values.add(true);
+            break;
+          case BinaryQueryStreamFormat.INT:
+            values.add(payload.getInt(pos));
+            pos += Integer.BYTES;
+            break;
+          case BinaryQueryStreamFormat.BIGINT:
+            values.add(payload.getLong(pos));
+            pos += Long.BYTES;
+            break;
+          case BinaryQueryStreamFormat.DOUBLE:
+            values.add(payload.getDouble(pos));
+            pos += Double.BYTES;
+            break;
+          case BinaryQueryStreamFormat.STRING:
+            final int stringSize = payload.getInt(pos);
+            pos += Integer.BYTES;
+            values.add(payload.getString(pos, pos + stringSize, StandardCharsets.UTF_8.name()));
+            pos += stringSize;
+            break;
+          case BinaryQueryStreamFormat.JSON:
+            final int jsonSize = payload.getInt(pos);
+            pos += Integer.BYTES;
+            values.add(new JsonArray(payload.getBuffer(pos, pos + jsonSize)).getValue(0));
+            pos += jsonSize;
+            break;
+          default:
+            throw new IllegalStateException("Unknown value tag: " + tag);
+        }
+      }
+      rowHandler.accept(new JsonArray(values));
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package io.confluent.ksql.api.client.impl;
 
 import static io.confluent.ksql.api.client.impl.DdlDmlRequestValidators.validateExecuteStatementRequest;
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
 import static io.netty.handler.codec.http.HttpHeaderNames.AUTHORIZATION;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 
@@ -35,6 +36,7 @@ import io.confluent.ksql.api.client.StreamedQueryResult;
 import io.confluent.ksql.api.client.TableInfo;
 import io.confluent.ksql.api.client.TopicInfo;
 import io.confluent.ksql.api.client.exception.KsqlClientException;
+import io.confluent.ksql.rest.BinaryQueryStreamFormat;
 import io.confluent.ksql.util.VertxSslOptionsFactory;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
@@ -433,6 +435,12 @@ public class ClientImpl implements Client {
     ResponseHandler<T> get(Context ctx, RecordParser recordParser, T cf, HttpClientRequest request);
   }
 
+  @FunctionalInterface
+  private interface QueryResponseHandlerSupplier<T extends CompletableFuture<?>> {
+    QueryResponseHandler<T> get(
+        Context ctx, RecordParser recordParser, T cf, HttpClientRequest request);
+  }
+
   @FunctionalInterface
   private interface SingleEntityResponseHandler<T> {
     void accept(JsonObject entity, CompletableFuture<T> cf);
@@ -442,19 +450,31 @@ public class ClientImpl implements Client {
       final String sql,
       final Map<String, Object> properties,
       final T cf,
-      final StreamedResponseHandlerSupplier<T> responseHandlerSupplier
+      final QueryResponseHandlerSupplier<T> responseHandlerSupplier
   ) {
     final JsonObject requestBody = new JsonObject()
         .put("sql", sql)
         .put("properties", properties)
         .put("sessionVariables", sessionVariables);
 
-    makePostRequest(
-        QUERY_STREAM_ENDPOINT,
-        requestBody,
-        cf,
-        response -> handleStreamedResponse(response, cf, responseHandlerSupplier)
-    );
+    if (clientOptions.isUseBinaryFormat()) {
+      makeRequest(
+          QUERY_STREAM_ENDPOINT,
+          requestBody.toBuffer(),
+          cf,
+          response -> handleBinaryStreamedResponse(response, cf, responseHandlerSupplier),
+          true,
+          HttpMethod.POST,
+          Collections.singletonMap(ACCEPT.toString(), BinaryQueryStreamFormat.CONTENT_TYPE)
+      );
+    } else {
+      makePostRequest(
+          QUERY_STREAM_ENDPOINT,
+          requestBody,
+          cf,
+          response -> handleStreamedResponse(response, cf, responseHandlerSupplier::get)
+      );
+    }
   }
 
   private <T extends CompletableFuture<?>> void makeGetRequest(
@@ -497,11 +517,24 @@ public class ClientImpl implements Client {
       final Handler<HttpClientResponse> responseHandler,
       final boolean endRequest,
       final HttpMethod method) {
+    makeRequest(path, requestBody, cf, responseHandler, endRequest, method,
+        Collections.emptyMap());
+  }
+
+  private <T extends CompletableFuture<?>> void makeRequest(
+      final String path,
+      final Buffer requestBody,
+      final T cf,
+      final Handler<HttpClientResponse> responseHandler,
+      final boolean endRequest,
+      final HttpMethod method,
+      final Map<String, String> headers) {
     HttpClientRequest request = httpClient.request(method,
         serverSocketAddress, clientOptions.getPort(), clientOptions.getHost(),
         path,
         responseHandler)
         .exceptionHandler(cf::completeExceptionally);
+    headers.forEach(request::putHeader);
     if (clientOptions.isUseBasicAuth()) {
       request = configureBasicAuth(request);
     }
@@ -536,6 +569,24 @@ public class ClientImpl implements Client {
     }
   }
 
+  private static <T extends CompletableFuture<?>> void handleBinaryStreamedResponse(
+      final HttpClientResponse response,
+      final T cf,
+      final QueryResponseHandlerSupplier<T> responseHandlerSupplier) {
+    if (response.statusCode() == OK.code()) {
+      final RecordParser recordParser =
+          RecordParser.newFixed(BinaryQueryStreamFormat.FRAME_HEADER_SIZE, response);
+      final QueryResponseHandler<T> responseHandler =
+          responseHandlerSupplier.get(Vertx.currentContext(), recordParser, cf, response.request());
+
+      recordParser.handler(new BinaryQueryResponseParser(recordParser, responseHandler));
+      recordParser.endHandler(responseHandler::handleBodyEnd);
+      recordParser.exceptionHandler(responseHandler::handleException);
+    } else {
+      handleErrorResponse(response, cf);
+    }
+  }
+
   private static void handleCloseQueryResponse(
       final HttpClientResponse response,
       final CompletableFuture<Void> cf
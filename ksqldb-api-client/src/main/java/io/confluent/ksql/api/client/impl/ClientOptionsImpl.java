@@ -35,6 +35,7 @@ public class ClientOptionsImpl implements ClientOptions {
   private String basicAuthUsername;
   private String basicAuthPassword;
   private int executeQueryMaxResultRows = ClientOptions.DEFAULT_EXECUTE_QUERY_MAX_RESULT_ROWS;
+  private boolean useBinaryFormat;
 
   /**
    * {@code ClientOptions} should be instantiated via {@link ClientOptions#create}, NOT via this
@@ -52,7 +53,7 @@ public class ClientOptionsImpl implements ClientOptions {
       final String trustStorePath, final String trustStorePassword,
       final String keyStorePath, final String keyStorePassword, final String keyPassword,
       final String keyAlias, final String basicAuthUsername, final String basicAuthPassword,
-      final int executeQueryMaxResultRows) {
+      final int executeQueryMaxResultRows, final boolean useBinaryFormat) {
     this.host = Objects.requireNonNull(host);
     this.port = port;
     this.useTls = useTls;
@@ -68,6 +69,7 @@ public class ClientOptionsImpl implements ClientOptions {
     this.basicAuthUsername = basicAuthUsername;
     this.basicAuthPassword = basicAuthPassword;
     this.executeQueryMaxResultRows = executeQueryMaxResultRows;
+    this.useBinaryFormat = useBinaryFormat;
   }
 
   @Override
@@ -150,6 +152,12 @@ public class ClientOptionsImpl implements ClientOptions {
     return this;
   }
 
+  @Override
+  public ClientOptions setUseBinaryFormat(final boolean useBinaryFormat) {
+    this.useBinaryFormat = useBinaryFormat;
+    return this;
+  }
+
   @Override
   public String getHost() {
     return host == null ? "" : host;
@@ -225,6 +233,11 @@ public class ClientOptionsImpl implements ClientOptions {
     return executeQueryMaxResultRows;
   }
 
+  @Override
+  public boolean isUseBinaryFormat() {
+    return useBinaryFormat;
+  }
+
   @Override
   public ClientOptions copy() {
     return new ClientOptionsImpl(
@@ -234,7 +247,7 @@ public class ClientOptionsImpl implements ClientOptions {
         trustStorePath, trustStorePassword,
         keyStorePath, keyStorePassword, keyPassword, keyAlias,
         basicAuthUsername, basicAuthPassword,
-        executeQueryMaxResultRows);
+        executeQueryMaxResultRows, useBinaryFormat);
   }
 
   // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
@@ -253,6 +266,7 @@ public class ClientOptionsImpl implements ClientOptions {
         && verifyHost == that.verifyHost
         && useAlpn == that.useAlpn
         && executeQueryMaxResultRows == that.executeQueryMaxResultRows
+        && useBinaryFormat == that.useBinaryFormat
         && host.equals(that.host)
         && Objects.equals(trustStorePath, that.trustStorePath)
         && Objects.equals(trustStorePassword, that.trustStorePassword)
@@ -268,7 +282,7 @@ public class ClientOptionsImpl implements ClientOptions {
   public int hashCode() {
     return Objects.hash(host, port, useTls, verifyHost, useAlpn, trustStorePath,
         trustStorePassword, keyStorePath, keyStorePassword, keyPassword, keyAlias,
-        basicAuthUsername, basicAuthPassword, executeQueryMaxResultRows);
+        basicAuthUsername, basicAuthPassword, executeQueryMaxResultRows, useBinaryFormat);
   }
 
   @Override
@@ -288,6 +302,7 @@ public class ClientOptionsImpl implements ClientOptions {
         + ", basicAuthUsername='" + basicAuthUsername + '\''
         + ", basicAuthPassword='" + basicAuthPassword + '\''
         + ", executeQueryMaxResultRows=" + executeQueryMaxResultRows
+        + ", useBinaryFormat=" + useBinaryFormat
         + '}';
   }
 }
\ No newline at end of file
@@ -61,7 +61,11 @@ public class ExecuteQueryResponseHandler extends QueryResponseHandler<BatchedQue
 
   @Override
   protected void handleRow(final Buffer buff) {
-    final JsonArray values = new JsonArray(buff);
+    handleRow(new JsonArray(buff));
+  }
+
+  @Override
+  protected void handleRow(final JsonArray values) {
     if (rows.size() < maxRows) {
       rows.add(new RowImpl(columnNames, columnTypes, values, columnNameToIndex));
     } else {
@@ -17,9 +17,11 @@ package io.confluent.ksql.api.client.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.confluent.ksql.api.client.util.JsonMapper;
+import io.confluent.ksql.rest.BinaryQueryStreamFormat;
 import io.confluent.ksql.rest.entity.QueryResponseMetadata;
 import io.vertx.core.Context;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.parsetools.RecordParser;
 import java.util.concurrent.CompletableFuture;
 
@@ -42,6 +44,27 @@ abstract class QueryResponseHandler<T extends CompletableFuture<?>> extends Resp
     }
   }
 
+  /**
+   * Handles a frame of a response in the binary format.
+   */
+  void handleFrame(final byte frameType, final Buffer payload) {
+    checkContext();
+    switch (frameType) {
+      case BinaryQueryStreamFormat.METADATA_FRAME:
+        handleArgs(payload);
+        break;
+      case BinaryQueryStreamFormat.ROWS_FRAME:
+        BinaryQueryResponseParser.decodeRows(payload, this::handleRow);
+        break;
+      case BinaryQueryStreamFormat.ERROR_FRAME:
+        // The payload of an error frame is the same JSON object as in the delimited format:
+        handleRow(payload);
+        break;
+      default:
+        throw new IllegalStateException("Unknown frame type: " + frameType);
+    }
+  }
+
   @Override
   protected void doHandleException(final Throwable t) {
     if (!cf.isDone()) {
@@ -55,6 +78,8 @@ abstract class QueryResponseHandler<T extends CompletableFuture<?>> extends Resp
 
   protected abstract void handleRow(Buffer buff);
 
+  protected abstract void handleRow(JsonArray values);
+
   protected abstract void handleExceptionAfterFutureCompleted(Throwable t);
 
   private void handleArgs(final Buffer buff) {
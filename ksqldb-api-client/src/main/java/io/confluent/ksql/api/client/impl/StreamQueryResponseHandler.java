@@ -62,18 +62,7 @@ public class StreamQueryResponseHandler
 
     final Object json = buff.toJson();
     if (json instanceof JsonArray) {
-      final Row row = new RowImpl(
-          queryResult.columnNames(),
-          queryResult.columnTypes(),
-          (JsonArray) json,
-          columnNameToIndex
-      );
-      final boolean full = queryResult.accept(row);
-      if (full && !paused) {
-        recordParser.pause();
-        queryResult.drainHandler(this::publisherReceptive);
-        paused = true;
-      }
+      handleRow((JsonArray) json);
     } else if (json instanceof JsonObject) {
       final JsonObject error = (JsonObject) json;
       queryResult.handleError(new KsqlException(
@@ -85,6 +74,26 @@ public class StreamQueryResponseHandler
     }
   }
 
+  @Override
+  protected void handleRow(final JsonArray values) {
+    if (queryResult == null) {
+      throw new IllegalStateException("handleRow called before metadata processed");
+    }
+
+    final Row row = new RowImpl(
+        queryResult.columnNames(),
+        queryResult.columnTypes(),
+        values,
+        columnNameToIndex
+    );
+    final boolean full = queryResult.accept(row);
+    if (full && !paused) {
+      recordParser.pause();
+      queryResult.drainHandler(this::publisherReceptive);
+      paused = true;
+    }
+  }
+
   @Override
   protected void doHandleBodyEnd() {
     queryResult.complete();
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client;
+
+import io.confluent.ksql.rest.server.KsqlRestConfig;
+import java.util.Map;
+
+/**
+ * Runs the client tests with query results requested in the binary format.
+ */
+public class ClientBinaryFormatTest extends ClientTest {
+
+  @Override
+  protected KsqlRestConfig createServerConfig() {
+    KsqlRestConfig config = super.createServerConfig();
+    Map<String, Object> origs = config.originals();
+    // Small batches, so that results span several frames:
+    origs.put(KsqlRestConfig.QUERY_STREAM_BATCH_MAX_BYTES, 64);
+    return new KsqlRestConfig(origs);
+  }
+
+  @Override
+  protected ClientOptions createJavaClientOptions() {
+    return ClientOptions.create()
+        .setHost("localhost")
+        .setPort(server.getListeners().get(0).getPort())
+        .setUseBinaryFormat(true);
+  }
+
+}
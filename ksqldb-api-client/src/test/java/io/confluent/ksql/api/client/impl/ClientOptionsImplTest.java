@@ -63,6 +63,9 @@ public class ClientOptionsImplTest {
         .addEqualityGroup(
             ClientOptions.create().setExecuteQueryMaxResultRows(10)
         )
+        .addEqualityGroup(
+            ClientOptions.create().setUseBinaryFormat(true)
+        )
         .testEquals();
   }
 
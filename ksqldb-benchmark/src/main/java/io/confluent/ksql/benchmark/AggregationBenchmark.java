@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.FunctionCall;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.function.UdafUtil;
+import io.confluent.ksql.execution.function.udaf.KudafAggregator;
+import io.confluent.ksql.execution.function.udaf.KudafInitializer;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.UdfLoaderUtil;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.FunctionName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of {@link KudafAggregator} for a GROUP BY with ten aggregates, updating
+ * the aggregate row in place versus copying it for every record.
+ *
+ * <p>The state store hands the aggregator a freshly deserialized row for every record. This is
+ * simulated by a shallow copy of the stored row, which both variants pay, so that the difference
+ * between them is the cost of the aggregator itself. Run with {@code -prof gc} to see the
+ * allocation rate of each variant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class AggregationBenchmark {
+
+  private static final ColumnName KEY = ColumnName.of("K");
+
+  // The non-aggregate columns: the GROUP BY column followed by the aggregate arguments:
+  private static final int NON_AGG_COLUMN_COUNT = 7;
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(KEY, SqlTypes.STRING)
+      .valueColumn(ColumnName.of("L0"), SqlTypes.BIGINT)
+      .valueColumn(ColumnName.of("L1"), SqlTypes.BIGINT)
+      .valueColumn(ColumnName.of("L2"), SqlTypes.BIGINT)
+      .valueColumn(ColumnName.of("D0"), SqlTypes.DOUBLE)
+      .valueColumn(ColumnName.of("D1"), SqlTypes.DOUBLE)
+      .valueColumn(ColumnName.of("D2"), SqlTypes.DOUBLE)
+      .build();
+
+  private static final List<FunctionCall> AGGREGATES = ImmutableList.of(
+      aggregate("COUNT", "L0"),
+      aggregate("SUM", "L0"),
+      aggregate("MIN", "L1"),
+      aggregate("MAX", "L1"),
+      aggregate("AVG", "L2"),
+      aggregate("SUM", "D0"),
+      aggregate("MIN", "D1"),
+      aggregate("MAX", "D1"),
+      aggregate("AVG", "D2"),
+      aggregate("STDDEV_SAMP", "D2")
+  );
+
+  @State(Scope.Thread)
+  public static class AggregatorState {
+
+    @Param({"true", "false"})
+    public boolean inPlace;
+
+    KudafAggregator<String> aggregator;
+    GenericRow stored;
+    GenericRow[] records;
+    int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final KsqlConfig ksqlConfig = new KsqlConfig(
+          ImmutableMap.of(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED, inPlace));
+      final FunctionRegistry functionRegistry =
+          UdfLoaderUtil.load(new InternalFunctionRegistry(), "");
+
+      final List<KsqlAggregateFunction<?, ?, ?>> functions = AGGREGATES.stream()
+          .map(call -> UdafUtil.resolveAggregateFunction(
+              functionRegistry, call, SCHEMA, ksqlConfig))
+          .collect(Collectors.toList());
+
+      final List<Supplier<?>> initialValues = functions.stream()
+          .map(KsqlAggregateFunction::getInitialValueSupplier)
+          .collect(Collectors.toList());
+
+      aggregator = new KudafAggregator<>(NON_AGG_COLUMN_COUNT, functions, inPlace);
+      stored = new KudafInitializer(NON_AGG_COLUMN_COUNT, initialValues).apply();
+
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      records = new GenericRow[1024];
+      for (int i = 0; i < records.length; i++) {
+        records[i] = GenericRow.genericRow(
+            "key",
+            random.nextLong(1000),
+            random.nextLong(1000),
+            random.nextLong(1000),
+            random.nextDouble(),
+            random.nextDouble(),
+            random.nextDouble()
+        );
+      }
+    }
+
+    GenericRow nextRecord() {
+      next = (next + 1) & (records.length - 1);
+      return records[next];
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public GenericRow aggregate(final AggregatorState state) {
+    final GenericRow deserialized = GenericRow.fromList(state.stored.values());
+    state.stored = state.aggregator.apply("key", state.nextRecord(), deserialized);
+    return state.stored;
+  }
+
+  private static FunctionCall aggregate(final String function, final String column) {
+    return new FunctionCall(
+        FunctionName.of(function),
+        ImmutableList.of(new UnqualifiedColumnReferenceExp(ColumnName.of(column)))
+    );
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(AggregationBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.CodeGenSpec;
+import io.confluent.ksql.execution.codegen.CompiledExpression;
+import io.confluent.ksql.execution.codegen.SqlToJavaVisitor;
+import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.Operator;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.ArrayUtils;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares evaluating a compiled expression through the reusable per-thread parameter frame in
+ * {@link CompiledExpression} against building a fresh argument array for every record.
+ *
+ * <p>Run with {@code -prof gc} to see the allocation rate of each path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class CompiledExpressionBenchmark {
+
+  private static final ColumnName COL0 = ColumnName.of("COL0");
+  private static final ColumnName COL1 = ColumnName.of("COL1");
+  private static final ColumnName COL2 = ColumnName.of("COL2");
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(COL0, SqlTypes.BIGINT)
+      .valueColumn(COL1, SqlTypes.BIGINT)
+      .valueColumn(COL2, SqlTypes.STRING)
+      .build();
+
+  // COL0 + COL1 > 100
+  private static final Expression EXPRESSION = new ComparisonExpression(
+      ComparisonExpression.Type.GREATER_THAN,
+      new ArithmeticBinaryExpression(
+          Operator.ADD,
+          new UnqualifiedColumnReferenceExp(COL0),
+          new UnqualifiedColumnReferenceExp(COL1)
+      ),
+      new IntegerLiteral(100)
+  );
+
+  private static final ProcessingLogger LOGGER = NoopProcessingLogContext.NOOP_LOGGER;
+
+  @State(Scope.Thread)
+  public static class ExpressionState {
+
+    CompiledExpression compiled;
+    CodeGenSpec spec;
+    IExpressionEvaluator evaluator;
+    Object[] parameters;
+    GenericRow row;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+      final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+      final FunctionRegistry functionRegistry = new InternalFunctionRegistry();
+      final CodeGenRunner codeGenRunner =
+          new CodeGenRunner(SCHEMA, ksqlConfig, functionRegistry);
+
+      compiled = codeGenRunner.buildCodeGenFromParseTree(EXPRESSION, "benchmark");
+
+      spec = codeGenRunner.getCodeGenSpec(EXPRESSION);
+      final String javaCode = SqlToJavaVisitor.of(SCHEMA, functionRegistry, spec, ksqlConfig)
+          .process(EXPRESSION);
+      evaluator = CodeGenRunner.cook(
+          javaCode, Boolean.class, spec.argumentNames(), spec.argumentTypes());
+      parameters = new Object[spec.arguments().size()];
+
+      row = GenericRow.genericRow(75L, 50L, "foo");
+    }
+  }
+
+  /**
+   * The evaluation path used before the parameter frame was reused: a new argument array is
+   * allocated for every record.
+   */
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Object evaluateAllocatingArguments(final ExpressionState state) throws Exception {
+    state.spec.resolve(state.row, state.parameters);
+    return state.evaluator.evaluate(
+        ArrayUtils.addAll(state.parameters, null, LOGGER, state.row));
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Object evaluateReusingFrame(final ExpressionState state) {
+    return state.compiled.evaluate(state.row, null, LOGGER, () -> "benchmark");
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(CompiledExpressionBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
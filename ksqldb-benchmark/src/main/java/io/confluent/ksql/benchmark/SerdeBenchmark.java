@@ -90,7 +90,11 @@ public class SerdeBenchmark {
   private static final String SEPARATOR = "/";
 
   private static final String JSON_FORMAT = "JSON";
+  // JSON deserialized through a JsonNode tree, rather than by the streaming deserializer:
+  private static final String JSON_TREE_FORMAT = "JSON_Tree";
   private static final String AVRO_FORMAT = "Avro";
+  // Avro deserialized through Connect structs, rather than by the direct deserializer:
+  private static final String AVRO_CONNECT_FORMAT = "Avro_Connect";
   private static final String PROTOBUF_FORMAT = "Protobuf";
   private static final String DELIMITED_FORMAT = "Delimited";
   private static final String KAFKA_FORMAT = "Kafka";
@@ -129,19 +133,24 @@ public class SerdeBenchmark {
         SINGLE_KEY_SCHEMA + SEPARATOR + KAFKA_FORMAT,
         // SINGLE_KEY + PROTOBUF excluded as PB isn't yet supported for single key schemas
         SINGLE_KEY_SCHEMA + SEPARATOR + JSON_FORMAT,
+        SINGLE_KEY_SCHEMA + SEPARATOR + JSON_TREE_FORMAT,
         SINGLE_KEY_SCHEMA + SEPARATOR + AVRO_FORMAT,
 
         IMPRESSIONS_SCHEMA + SEPARATOR + DELIMITED_FORMAT,
         // IMPRESSIONS + KAFKA excluded as KAFKA does not support multiple columns
         IMPRESSIONS_SCHEMA + SEPARATOR + PROTOBUF_FORMAT,
         IMPRESSIONS_SCHEMA + SEPARATOR + JSON_FORMAT,
+        IMPRESSIONS_SCHEMA + SEPARATOR + JSON_TREE_FORMAT,
         IMPRESSIONS_SCHEMA + SEPARATOR + AVRO_FORMAT,
+        IMPRESSIONS_SCHEMA + SEPARATOR + AVRO_CONNECT_FORMAT,
 
         // METRICS + DELIMITED_FORMAT excluded as DELIMITED does not support complex types
         // METRICS + KAFKA excluded as KAFKA does not support multiple columns
         METRICS_SCHEMA + SEPARATOR + PROTOBUF_FORMAT,
         METRICS_SCHEMA + SEPARATOR + JSON_FORMAT,
-        METRICS_SCHEMA + SEPARATOR + AVRO_FORMAT
+        METRICS_SCHEMA + SEPARATOR + JSON_TREE_FORMAT,
+        METRICS_SCHEMA + SEPARATOR + AVRO_FORMAT,
+        METRICS_SCHEMA + SEPARATOR + AVRO_CONNECT_FORMAT
     })
     public String params;
 
@@ -155,9 +164,12 @@ public class SerdeBenchmark {
       final LogicalSchema schema = generator.schema();
       final Pair<GenericKey, GenericRow> row = generator.generateRow();
 
+      final KsqlConfig ksqlConfig = getKsqlConfig(params.formatName);
+
       if (params.schemaName.equals(SINGLE_KEY_SCHEMA)) {
         // Benchmark the key serde:
-        final Serde<GenericKey> serde = getGenericKeySerde(schema, params.formatName);
+        final Serde<GenericKey> serde =
+            getGenericKeySerde(schema, params.formatName, ksqlConfig);
 
         serializer = (Serializer) serde.serializer();
         deserializer = (Deserializer) serde.deserializer();
@@ -165,7 +177,8 @@ public class SerdeBenchmark {
       } else {
 
         // Benchmark the value serde:
-        final Serde<GenericRow> serde = getGenericRowSerde(schema, params.formatName);
+        final Serde<GenericRow> serde =
+            getGenericRowSerde(schema, params.formatName, ksqlConfig);
 
         serializer = (Serializer) serde.serializer();
         deserializer = (Deserializer) serde.deserializer();
@@ -199,8 +212,29 @@ public class SerdeBenchmark {
       }
     }
 
+    private static KsqlConfig getKsqlConfig(final String formatName) {
+      if (JSON_TREE_FORMAT.equalsIgnoreCase(formatName)) {
+        return new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED, false
+        ));
+      }
+
+      if (AVRO_CONNECT_FORMAT.equalsIgnoreCase(formatName)) {
+        return new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED, false
+        ));
+      }
+
+      return new KsqlConfig(Collections.emptyMap());
+    }
+
     private static FormatInfo getFormatInfo(final String formatName) {
-      if (AvroFormat.NAME.equals(formatName)) {
+      if (JSON_TREE_FORMAT.equalsIgnoreCase(formatName)) {
+        return FormatInfo.of(FormatFactory.JSON.name());
+      }
+
+      if (AvroFormat.NAME.equals(formatName)
+          || AVRO_CONNECT_FORMAT.equalsIgnoreCase(formatName)) {
         return FormatInfo.of(
             FormatFactory.AVRO.name(),
             ImmutableMap.of(AvroFormat.FULL_SCHEMA_NAME, "benchmarkSchema")
@@ -212,7 +246,8 @@ public class SerdeBenchmark {
 
     private static Serde<GenericKey> getGenericKeySerde(
         final LogicalSchema schema,
-        final String formatName
+        final String formatName,
+        final KsqlConfig ksqlConfig
     ) {
       final FormatInfo formatInfo = getFormatInfo(formatName);
 
@@ -224,7 +259,7 @@ public class SerdeBenchmark {
       return new GenericKeySerDe().create(
           formatInfo,
           persistenceSchema,
-          new KsqlConfig(Collections.emptyMap()),
+          ksqlConfig,
           () -> srClient,
           "benchmark",
           ProcessingLogContext.create(),
@@ -234,7 +269,8 @@ public class SerdeBenchmark {
 
     private static Serde<GenericRow> getGenericRowSerde(
         final LogicalSchema schema,
-        final String formatName
+        final String formatName,
+        final KsqlConfig ksqlConfig
     ) {
       final FormatInfo format = getFormatInfo(formatName);
 
@@ -243,7 +279,7 @@ public class SerdeBenchmark {
       return GenericRowSerDe.from(
           format,
           PersistenceSchema.from(schema.value(), SerdeFeatures.of()),
-          new KsqlConfig(Collections.emptyMap()),
+          ksqlConfig,
           () -> srClient,
           "benchmark",
           ProcessingLogContext.create()
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.function.AggregateFunctionInitArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
+import io.confluent.ksql.function.udaf.topkdistinct.TopkDistinctAggFunctionFactory;
+import io.confluent.ksql.schema.ksql.SqlArgument;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of the TOPK and TOPKDISTINCT aggregates for different values of k.
+ *
+ * <p>The aggregate is filled before each iteration, so that the benchmark measures the steady
+ * state, where every value is either rejected or displaces the smallest value in the aggregate.
+ * Values are drawn from a range ten times larger than k, so that TOPKDISTINCT sees duplicates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class TopkBenchmark {
+
+  @State(Scope.Thread)
+  public static class TopkState {
+
+    @Param({"10", "100", "1000"})
+    public int k;
+
+    @Param({"TOPK", "TOPKDISTINCT"})
+    public String function;
+
+    KsqlAggregateFunction<Long, List<Long>, List<Long>> aggregateFunction;
+    List<Long> aggregate;
+    long[] values;
+    int next;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final List<SqlArgument> args = Collections.singletonList(SqlArgument.of(SqlTypes.BIGINT));
+      final AggregateFunctionInitArguments initArgs = new AggregateFunctionInitArguments(0, k);
+
+      aggregateFunction = (KsqlAggregateFunction<Long, List<Long>, List<Long>>)
+          (function.equals("TOPK")
+              ? new TopKAggregateFunctionFactory().createAggregateFunction(args, initArgs)
+              : new TopkDistinctAggFunctionFactory().createAggregateFunction(args, initArgs));
+
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      values = new long[1024];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextLong(k * 10L);
+      }
+
+      aggregate = aggregateFunction.getInitialValueSupplier().get();
+      for (int i = 0; i < k * 10; i++) {
+        aggregate = aggregateFunction.aggregate(random.nextLong(k * 10L), aggregate);
+      }
+    }
+
+    long nextValue() {
+      next = (next + 1) & (values.length - 1);
+      return values[next];
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public List<Long> aggregate(final TopkState state) {
+    state.aggregate = state.aggregateFunction.aggregate(state.nextValue(), state.aggregate);
+    return state.aggregate;
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(TopkBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.CompiledExpressionBenchmark.ExpressionState;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledExpressionBenchmarkTest {
+
+  private final CompiledExpressionBenchmark benchmark = new CompiledExpressionBenchmark();
+  private final ExpressionState state = new ExpressionState();
+
+  @Before
+  public void setUp() throws Exception {
+    state.setUp();
+  }
+
+  @Test
+  public void shouldEvaluateToSameResultOnBothPaths() throws Exception {
+    assertThat(benchmark.evaluateAllocatingArguments(state), is(true));
+    assertThat(benchmark.evaluateReusingFrame(state), is(true));
+  }
+}
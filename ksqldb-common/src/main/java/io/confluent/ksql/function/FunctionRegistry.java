@@ -131,4 +131,14 @@ public interface FunctionRegistry {
    * @return all UDAF factories.
    */
   List<AggregateFunctionFactory> listAggregateFunctions();
+
+  /**
+   * The version of the registry changes whenever functions are added to it, allowing code
+   * generated against the registry's functions to be reused while the version is unchanged.
+   *
+   * @return the current version of the registry.
+   */
+  default long version() {
+    return 0L;
+  }
 }
@@ -34,12 +34,20 @@ public interface KsqlAggregateFunction<I, A, O> extends FunctionSignature {
   /**
    * Merges values inside the window.
    *
+   * <p>The {@code aggregateValue} is owned by the call: it is either freshly initialized or
+   * freshly deserialized from the state store, and is not used again once the new aggregate is
+   * returned. Implementations with mutable aggregates may therefore update it in place and return
+   * it, rather than allocating a new aggregate for each value.
+   *
    * @return A - type of return value
    */
   A aggregate(I currentValue, A aggregateValue);
 
   /**
    * Merges two session windows together with the same merge key.
+   *
+   * <p>As with {@link #aggregate}, the merger may update the first aggregate in place and return
+   * it. The second aggregate must not be modified.
    */
   Merger<GenericKey, A> getMerger();
 
@@ -15,17 +15,34 @@
 
 package io.confluent.ksql.properties.with;
 
+import io.confluent.ksql.configdef.ConfigValidators;
+import io.confluent.ksql.util.KsqlConfig;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigDef.Importance;
 
 /**
  * 'With Clause' properties for 'CREATE AS' statements.
  */
 public final class CreateAsConfigs {
 
+  public static final String ROCKSDB_PROFILE_PROPERTY = "ROCKSDB_PROFILE";
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef();
 
   static {
     CommonCreateConfigs.addToConfigDef(CONFIG_DEF, false);
+    CONFIG_DEF.define(
+        ROCKSDB_PROFILE_PROPERTY,
+        ConfigDef.Type.STRING,
+        null,
+        ConfigValidators.nullsAllowed(
+            ConfigValidators.ValidCaseInsensitiveString.in(
+                KsqlConfig.KSQL_ROCKSDB_STORE_PROFILES.toArray(new String[0]))),
+        Importance.LOW,
+        "The RocksDB tuning profile of the state stores of the query. Overrides the profile "
+            + "picked for each store from how it is accessed. See '"
+            + KsqlConfig.KSQL_ROCKSDB_STORE_PROFILE_CONFIG + "'"
+    );
   }
 
   public static final ConfigMetaData CONFIG_METADATA = ConfigMetaData.of(CONFIG_DEF);
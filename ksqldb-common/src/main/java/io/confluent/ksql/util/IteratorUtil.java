@@ -27,8 +27,19 @@ public final class IteratorUtil {
     return new IteratorWithCallbacks<T>(iterator, runnable);
   }
 
-  public static <T> Iterator<T> of(final T... elements) {
-    return ImmutableList.copyOf(elements).iterator();
+  /**
+   * Wraps the supplied {@code iterator} so that {@code closeRunnable} is run, at most once, either
+   * when the iterator is exhausted or when it is closed before then.
+   */
+  public static <T> CloseableIterator<T> onClose(
+      final Iterator<T> iterator,
+      final Runnable closeRunnable
+  ) {
+    return new ClosingIterator<>(iterator, closeRunnable);
+  }
+
+  public static <T> CloseableIterator<T> of(final T... elements) {
+    return onClose(ImmutableList.copyOf(elements).iterator(), () -> { });
   }
 
   private static class IteratorWithCallbacks<T> implements Iterator<T> {
@@ -72,4 +83,49 @@ public final class IteratorUtil {
       }
     }
   }
+
+  private static final class ClosingIterator<T> implements CloseableIterator<T> {
+
+    private final Iterator<T> backingIterator;
+    private final Runnable closeRunnable;
+    private boolean closed = false;
+
+    ClosingIterator(final Iterator<T> backingIterator, final Runnable closeRunnable) {
+      this.backingIterator = backingIterator;
+      this.closeRunnable = closeRunnable;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (closed) {
+        return false;
+      }
+      final boolean hasNext = backingIterator.hasNext();
+      if (!hasNext) {
+        close();
+      }
+      return hasNext;
+    }
+
+    @Override
+    public T next() {
+      if (closed) {
+        throw new NoSuchElementException();
+      }
+      try {
+        return backingIterator.next();
+      } catch (NoSuchElementException e) {
+        close();
+        throw e;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        closeRunnable.run();
+      }
+    }
+  }
 }
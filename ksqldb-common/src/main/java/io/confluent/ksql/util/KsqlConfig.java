@@ -35,6 +35,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -137,7 +138,7 @@ public class KsqlConfig extends AbstractConfig {
   private static final String KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_DOC =
       "An upper limit on the number of active, persistent queries that may be running at a time, "
       + "in interactive mode. Once this limit is reached, any further persistent queries will not "
-      + "be accepted.";
+      + "be accepted. Queries that share a runtime count as a single query.";
 
   public static final String KSQL_DEFAULT_KEY_FORMAT_CONFIG = "ksql.persistence.default.format.key";
   private static final String KSQL_DEFAULT_KEY_FORMAT_DEFAULT = "KAFKA";
@@ -180,6 +181,23 @@ public class KsqlConfig extends AbstractConfig {
 
   public static final String KSQL_INSERT_INTO_VALUES_ENABLED = "ksql.insert.into.values.enabled";
 
+  public static final String KSQL_INSERT_INTO_VALUES_ASYNC_ACK_CONFIG =
+      "ksql.insert.into.values.async.ack";
+  public static final boolean KSQL_INSERT_INTO_VALUES_ASYNC_ACK_DEFAULT = false;
+  public static final String KSQL_INSERT_INTO_VALUES_ASYNC_ACK_DOC =
+      "If true, INSERT INTO ... VALUES statements return once their record is handed to the "
+          + "producer, rather than once Kafka acknowledges it. This lets many statements share "
+          + "the batches of a pooled producer, as configured by ksql.streams.producer.linger.ms, "
+          + "but errors writing a record are only logged, not returned to the client.";
+
+  public static final String KSQL_INSERTS_STREAM_BATCH_SIZE_CONFIG =
+      "ksql.inserts.stream.batch.size";
+  public static final int KSQL_INSERTS_STREAM_BATCH_SIZE_DEFAULT = 0;
+  public static final String KSQL_INSERTS_STREAM_BATCH_SIZE_DOC =
+      "The maximum number of rows of an /inserts-stream request that are serialized and sent "
+          + "together on a worker thread. If 0, each row is serialized and sent on the event loop "
+          + "as it arrives.";
+
   public static final String DEFAULT_EXT_DIR = "ext";
 
   public static final String KSQL_SECURITY_EXTENSION_CLASS = "ksql.security.extension.class";
@@ -228,6 +246,28 @@ public class KsqlConfig extends AbstractConfig {
           + "or set in the CLI. It's only enabled when lag.reporting.enable is true. "
           + "By default, any amount of lag is is allowed.";
 
+  public static final String KSQL_QUERY_PULL_HEDGING_ENABLED =
+      "ksql.query.pull.hedging.enabled";
+  public static final String KSQL_QUERY_PULL_HEDGING_ENABLED_DOC =
+      "Config to enable/disable hedging pull query requests. When enabled, if a host has not "
+          + "answered within the hedging delay, the same request is sent to the next host "
+          + "storing the partitions, and whichever answers first is used. Only applies when "
+          + KSQL_QUERY_PULL_ENABLE_STANDBY_READS + " is enabled.";
+  public static final boolean KSQL_QUERY_PULL_HEDGING_ENABLED_DEFAULT = false;
+
+  public static final String KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_CONFIG =
+      "ksql.query.pull.hedging.delay.percentile";
+  public static final String KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_DOC =
+      "The percentile of recent pull query request latencies to wait for before hedging a "
+          + "request.";
+  public static final double KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_DEFAULT = 95.0;
+
+  public static final String KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_CONFIG =
+      "ksql.query.pull.hedging.min.delay.ms";
+  public static final String KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_DOC =
+      "The minimum time, in milliseconds, to wait before hedging a pull query request.";
+  public static final long KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_DEFAULT = 10L;
+
   public static final String KSQL_QUERY_PULL_METRICS_ENABLED =
       "ksql.query.pull.metrics.enabled";
   public static final String KSQL_QUERY_PULL_METRICS_ENABLED_DOC =
@@ -257,6 +297,41 @@ public class KsqlConfig extends AbstractConfig {
       "Config to enable full table scans for pull queries";
   public static final boolean KSQL_QUERY_PULL_TABLE_SCAN_ENABLED_DEFAULT = false;
 
+  public static final String KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_CONFIG
+      = "ksql.query.pull.table.scan.parallelism";
+  public static final String KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_DOC =
+      "The number of partitions a pull query table scan reads at once on this host. With the "
+          + "default of 1 partitions are scanned one after the other. Scans run on a thread pool "
+          + "shared by all pull queries, which is sized to the number of available processors.";
+  public static final int KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_DEFAULT = 1;
+
+  public static final String KSQL_QUERY_PULL_RANGE_SCAN_ENABLED
+      = "ksql.query.pull.range.scan.enabled";
+  public static final String KSQL_QUERY_PULL_RANGE_SCAN_ENABLED_DOC =
+      "Enables limiting pull query table scans to the range of keys that the WHERE clause can "
+          + "match, e.g. for 'WHERE K > 5 AND K <= 10', by reading only that range from the state "
+          + "store. Only used for single column keys in the KAFKA format.";
+  public static final boolean KSQL_QUERY_PULL_RANGE_SCAN_ENABLED_DEFAULT = true;
+
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_CONFIG
+      = "ksql.query.pull.result.cache.max.bytes";
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_DOC =
+      "The maximum estimated size, in bytes, of the rows held in the server-wide cache of pull "
+          + "query key lookup results. Entries are invalidated as the materializing query updates "
+          + "the key and least recently used entries are evicted once the cache is full. Only "
+          + "the tables of queries started with cache.max.bytes.buffering set to 0 are cached, "
+          + "as record caching delays the updates that invalidate entries. Set to 0 to disable.";
+  public static final long KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_DEFAULT = 0L;
+
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG
+      = "ksql.query.pull.plan.cache.max.entries";
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DOC =
+      "The maximum number of distinct pull query statements whose analysis is cached for "
+          + "reuse when a statement that differs only in its literals is issued again. Entries "
+          + "are invalidated when a source the statement reads from changes. Set to 0 to "
+          + "disable.";
+  public static final int KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DEFAULT = 0;
+
   public static final String KSQL_QUERY_PULL_INTERPRETER_ENABLED
       = "ksql.query.pull.interpreter.enabled";
   public static final String KSQL_QUERY_PULL_INTERPRETER_ENABLED_DOC =
@@ -265,6 +340,144 @@ public class KsqlConfig extends AbstractConfig {
           + " much faster for short-lived queries.";
   public static final boolean KSQL_QUERY_PULL_INTERPRETER_ENABLED_DEFAULT = true;
 
+  public static final String KSQL_PROJECTION_CODEGEN_ENABLED
+      = "ksql.query.projection.codegen.enabled";
+  public static final String KSQL_PROJECTION_CODEGEN_ENABLED_DOC =
+      "Enables compiling all the expressions of a projection into a single generated class, "
+          + "which evaluates the columns in one pass and resolves each referenced source column "
+          + "once per record, rather than compiling and evaluating each expression separately.";
+  public static final boolean KSQL_PROJECTION_CODEGEN_ENABLED_DEFAULT = false;
+
+  public static final String KSQL_AGGREGATE_IN_PLACE_ENABLED
+      = "ksql.query.aggregate.in.place.enabled";
+  public static final String KSQL_AGGREGATE_IN_PLACE_ENABLED_DOC =
+      "Enables updating the aggregate row read from the state store in place for each input "
+          + "record and session merge, rather than copying it first. The row is freshly "
+          + "deserialized for every update, so the copy is only needed if the previous aggregate "
+          + "is used once updated, which queries do not do. Also controls whether AVG and "
+          + "STDDEV_SAMP update their intermediate struct in place.";
+  public static final boolean KSQL_AGGREGATE_IN_PLACE_ENABLED_DEFAULT = true;
+
+  public static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLED
+      = "ksql.json.streaming.deserializer.enabled";
+  public static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DOC =
+      "Enables deserializing JSON and JSON_SR values by streaming over the tokens of the "
+          + "document, converting each field directly to the type of its column and skipping "
+          + "fields that are not in the schema, rather than first reading the whole document "
+          + "into a tree.";
+  public static final boolean KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DEFAULT = true;
+
+  public static final String KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED
+      = "ksql.avro.direct.deserializer.enabled";
+  public static final String KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED_DOC =
+      "Enables deserializing AVRO values by decoding the Avro binary directly into the columns "
+          + "of the row, using a reader compiled for each writer schema, rather than first "
+          + "converting it to Connect data. Writer schemas the reader does not support are "
+          + "deserialized via Connect data.";
+  public static final boolean KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED_DEFAULT = true;
+
+  public static final String KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED
+      = "ksql.serialization.pooled.buffers.enabled";
+  public static final String KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED_DOC =
+      "Enables serializing records into growable buffers that are reused by each thread, rather "
+          + "than allocating new intermediate buffers for every record. Only the final copy of "
+          + "each record is allocated. This only applies to the DELIMITED format. Formats that "
+          + "serialize via a Connect converter, such as JSON, AVRO and PROTOBUF, are not "
+          + "affected, as the converter allocates its own buffers.";
+  public static final boolean KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED_DEFAULT = true;
+
+  public static final String KSQL_SOURCE_COLUMN_PRUNING_ENABLED
+      = "ksql.query.source.column.pruning.enabled";
+  public static final String KSQL_SOURCE_COLUMN_PRUNING_ENABLED_DOC =
+      "Enables skipping the deserialization of value columns of a stream source that are not "
+          + "read by the query. Such columns are left null. Value formats that do not support "
+          + "this deserialize all columns. Skipped columns are not validated, so a record whose "
+          + "only malformed values are in skipped columns is processed rather than failing "
+          + "deserialization and being logged to the processing log.";
+  public static final boolean KSQL_SOURCE_COLUMN_PRUNING_ENABLED_DEFAULT = true;
+
+  public static final String KSQL_ROCKSDB_STORE_PROFILE_CONFIG = "ksql.rocksdb.store.profile";
+  public static final String KSQL_ROCKSDB_STORE_PROFILE_DOC =
+      "The RocksDB tuning profile applied to all state stores of a query, overriding the "
+          + "profile the engine picks for each store from how it is accessed. One of DEFAULT, "
+          + "POINT_LOOKUP, SCAN or WINDOWED. Only applies if the "
+          + "KsqlBoundedMemoryRocksDBConfigSetter is used, with "
+          + "ksql.plugins.rocksdb.profiles.enabled set.";
+  public static final List<String> KSQL_ROCKSDB_STORE_PROFILES = ImmutableList.of(
+      "DEFAULT", "POINT_LOOKUP", "SCAN", "WINDOWED"
+  );
+
+  public static final String KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG
+      = "ksql.codegen.cache.max.entries";
+  public static final int KSQL_CODEGEN_CACHE_MAX_ENTRIES_DEFAULT = 1000;
+  public static final String KSQL_CODEGEN_CACHE_MAX_ENTRIES_DOC =
+      "The maximum number of compiled expressions held in the JVM-wide code generation cache. "
+          + "Identical expressions compiled against the same schema, functions and config reuse "
+          + "the cached generated class rather than compiling it again. Only the server config "
+          + "sizes the cache: setting this on a query has no effect. Each query still gets its "
+          + "own instances of the UDFs an expression calls. Set to 0 to disable.";
+
+  public static final String KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED
+      = "ksql.query.transient.queue.ring.buffer.enabled";
+  public static final String KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED_DOC =
+      "Enables buffering the rows of transient queries in a bounded, array-backed ring buffer, "
+          + "rather than a linked blocking queue. The ring buffer does not allocate per row and "
+          + "its consumer does not lock.";
+  public static final boolean KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED_DEFAULT = false;
+
+  public static final String KSQL_TRANSIENT_QUEUE_CAPACITY_CONFIG
+      = "ksql.query.transient.queue.capacity";
+  public static final int KSQL_TRANSIENT_QUEUE_CAPACITY_DEFAULT = 500;
+  public static final String KSQL_TRANSIENT_QUEUE_CAPACITY_DOC =
+      "The maximum number of rows a transient query buffers before the stream thread producing "
+          + "them blocks, waiting for the client to consume them.";
+
+  public static final String KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_CONFIG
+      = "ksql.query.transient.queue.wait.strategy";
+  public static final String KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_DEFAULT = "PARK";
+  public static final String KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_DOC =
+      "How threads wait on the ring buffer of a transient query when it is full or empty. "
+          + "One of SPIN, which busy-waits, YIELD, which yields the CPU between checks, or PARK, "
+          + "which parks the thread until it is signalled. Only applies when "
+          + KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED + " is enabled.";
+
+  public static final String KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED
+      = "ksql.query.transient.shared.runtime.enabled";
+  public static final String KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED_DOC =
+      "Enables running transient queries that filter and project the same stream, with the same "
+          + "property overrides, in a single shared Kafka Streams runtime that reads the stream "
+          + "once and passes each record to every query. Only applies to queries that read from "
+          + "the latest offset.";
+  public static final boolean KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED_DEFAULT = false;
+
+  public static final String KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED
+      = "ksql.query.persistent.shared.runtime.enabled";
+  public static final String KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED_DOC =
+      "Enables running persistent queries that filter and project the same stream into a stream "
+          + "in a single shared Kafka Streams runtime, which reads the stream once and writes each "
+          + "query's rows to its sink. Only applies to queries that read from the latest offset "
+          + "and set no property overrides. The setting a query was created with is kept when the "
+          + "server restarts.";
+
+  public static final String KSQL_QUERY_PUSH_SCALABLE_ENABLED
+      = "ksql.query.push.scalable.enabled";
+  public static final String KSQL_QUERY_PUSH_SCALABLE_ENABLED_DOC =
+      "Enables serving push queries that filter and project a stream or table from the output "
+          + "of the persistent query that populates it, on every host running the persistent "
+          + "query, rather than from a Kafka Streams application of their own. Only applies to "
+          + "queries that read from the latest offset. Persistent queries started while this is "
+          + "disabled can not serve push queries until they are restarted.";
+  public static final boolean KSQL_QUERY_PUSH_SCALABLE_ENABLED_DEFAULT = false;
+
+  public static final String KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_CONFIG
+      = "ksql.query.push.scalable.max.forwarded.requests";
+  public static final String KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_DOC =
+      "The maximum number of requests a host forwards to other hosts, on behalf of push queries "
+          + "served from the output of persistent queries, at any one time. Each request holds a "
+          + "thread for as long as its query runs. A push query that would exceed the limit "
+          + "fails.";
+  public static final int KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_DEFAULT = 100;
+
   public static final String KSQL_STRING_CASE_CONFIG_TOGGLE = "ksql.cast.strings.preserve.nulls";
   public static final String KSQL_STRING_CASE_CONFIG_TOGGLE_DOC =
       "When casting a SQLType to string, if false, use String.valueof(), else if true use"
@@ -441,6 +654,15 @@ public class KsqlConfig extends AbstractConfig {
               Importance.LOW,
               Optional.empty(),
               KSQL_NESTED_ERROR_HANDLING_CONFIG_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED,
+              Type.BOOLEAN,
+              false,
+              false,
+              Importance.LOW,
+              Optional.empty(),
+              KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED_DOC
           )
       );
 
@@ -668,6 +890,19 @@ public class KsqlConfig extends AbstractConfig {
             true,
             ConfigDef.Importance.LOW,
             "Enable the INSERT INTO ... VALUES functionality."
+        ).define(
+            KSQL_INSERT_INTO_VALUES_ASYNC_ACK_CONFIG,
+            Type.BOOLEAN,
+            KSQL_INSERT_INTO_VALUES_ASYNC_ACK_DEFAULT,
+            ConfigDef.Importance.LOW,
+            KSQL_INSERT_INTO_VALUES_ASYNC_ACK_DOC
+        ).define(
+            KSQL_INSERTS_STREAM_BATCH_SIZE_CONFIG,
+            Type.INT,
+            KSQL_INSERTS_STREAM_BATCH_SIZE_DEFAULT,
+            zeroOrPositive(),
+            ConfigDef.Importance.LOW,
+            KSQL_INSERTS_STREAM_BATCH_SIZE_DOC
         ).define(
             KSQL_SECURITY_EXTENSION_CLASS,
             Type.CLASS,
@@ -759,6 +994,26 @@ public class KsqlConfig extends AbstractConfig {
             zeroOrPositive(),
             Importance.MEDIUM,
             KSQL_QUERY_PULL_MAX_ALLOWED_OFFSET_LAG_DOC
+        ).define(
+            KSQL_QUERY_PULL_HEDGING_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_PULL_HEDGING_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PULL_HEDGING_ENABLED_DOC
+        ).define(
+            KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_CONFIG,
+            Type.DOUBLE,
+            KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_DEFAULT,
+            ConfigDef.Range.between(0, 100),
+            Importance.LOW,
+            KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_DOC
+        ).define(
+            KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_CONFIG,
+            Type.LONG,
+            KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_DEFAULT,
+            zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_DOC
         ).define(
             KSQL_PERSISTENT_QUERY_NAME_PREFIX_CONFIG,
             Type.STRING,
@@ -846,6 +1101,37 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_QUERY_PULL_TABLE_SCAN_ENABLED_DOC
         )
+        .define(
+            KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_RANGE_SCAN_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_PULL_RANGE_SCAN_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PULL_RANGE_SCAN_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_CONFIG,
+            Type.LONG,
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            Importance.LOW,
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            Importance.LOW,
+            KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DOC
+        )
         .define(
             KSQL_QUERY_PULL_INTERPRETER_ENABLED,
             Type.BOOLEAN,
@@ -853,6 +1139,110 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_QUERY_PULL_INTERPRETER_ENABLED_DOC
         )
+        .define(
+            KSQL_PROJECTION_CODEGEN_ENABLED,
+            Type.BOOLEAN,
+            KSQL_PROJECTION_CODEGEN_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_PROJECTION_CODEGEN_ENABLED_DOC
+        )
+        .define(
+            KSQL_AGGREGATE_IN_PLACE_ENABLED,
+            Type.BOOLEAN,
+            KSQL_AGGREGATE_IN_PLACE_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_AGGREGATE_IN_PLACE_ENABLED_DOC
+        )
+        .define(
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED,
+            Type.BOOLEAN,
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DOC
+        )
+        .define(
+            KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED,
+            Type.BOOLEAN,
+            KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED_DOC
+        )
+        .define(
+            KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED,
+            Type.BOOLEAN,
+            KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED_DOC
+        )
+        .define(
+            KSQL_SOURCE_COLUMN_PRUNING_ENABLED,
+            Type.BOOLEAN,
+            KSQL_SOURCE_COLUMN_PRUNING_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_SOURCE_COLUMN_PRUNING_ENABLED_DOC
+        )
+        .define(
+            KSQL_ROCKSDB_STORE_PROFILE_CONFIG,
+            Type.STRING,
+            null,
+            ConfigValidators.nullsAllowed(
+                ConfigValidators.ValidCaseInsensitiveString.in(
+                    KSQL_ROCKSDB_STORE_PROFILES.toArray(new String[0]))),
+            Importance.LOW,
+            KSQL_ROCKSDB_STORE_PROFILE_DOC
+        )
+        .define(
+            KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG,
+            Type.INT,
+            KSQL_CODEGEN_CACHE_MAX_ENTRIES_DEFAULT,
+            Importance.LOW,
+            KSQL_CODEGEN_CACHE_MAX_ENTRIES_DOC
+        )
+        .define(
+            KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED,
+            Type.BOOLEAN,
+            KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED_DOC
+        )
+        .define(
+            KSQL_TRANSIENT_QUEUE_CAPACITY_CONFIG,
+            Type.INT,
+            KSQL_TRANSIENT_QUEUE_CAPACITY_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_TRANSIENT_QUEUE_CAPACITY_DOC
+        )
+        .define(
+            KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_CONFIG,
+            Type.STRING,
+            KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_DEFAULT,
+            ConfigValidators.ValidCaseInsensitiveString.in("SPIN", "YIELD", "PARK"),
+            Importance.LOW,
+            KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_DOC
+        )
+        .define(
+            KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED,
+            Type.BOOLEAN,
+            KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PUSH_SCALABLE_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_PUSH_SCALABLE_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PUSH_SCALABLE_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_DOC
+        )
         .define(
             KSQL_ERROR_CLASSIFIER_REGEX_PREFIX,
             Type.STRING,
@@ -50,6 +50,13 @@ public class KsqlRequestConfig extends AbstractConfig {
   private static final String KSQL_REQUEST_QUERY_PULL_PARTITIONS_DOC =
       "Indicates which partitions to limit pull queries to.";
 
+  public static final String KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING =
+      "request.ksql.query.push.skip.forwarding";
+  public static final boolean KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING_DEFAULT = false;
+  private static final String KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING_DOC =
+      "Controls whether a ksql host forwards a push query request served from the output of a "
+          + "persistent query to the other hosts running the persistent query";
+
   private static ConfigDef buildConfigDef() {
     final ConfigDef configDef = new ConfigDef()
         .define(
@@ -76,6 +83,12 @@ public class KsqlRequestConfig extends AbstractConfig {
             KSQL_REQUEST_QUERY_PULL_PARTITIONS_DEFAULT,
             ConfigDef.Importance.LOW,
             KSQL_REQUEST_QUERY_PULL_PARTITIONS_DOC
+        ).define(
+            KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING,
+            Type.BOOLEAN,
+            KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING_DEFAULT,
+            ConfigDef.Importance.LOW,
+            KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING_DOC
         );
     return configDef;
   }
@@ -77,6 +77,7 @@ final class EngineContext {
   private final QueryCleanupService cleanupService;
   private final KsqlConfig ksqlConfig;
   private final QueryRegistry queryRegistry;
+  private final PullQueryPlanCache pullQueryPlanCache;
 
   static EngineContext create(
       final ServiceContext serviceContext,
@@ -119,6 +120,8 @@ final class EngineContext {
     this.cleanupService = requireNonNull(cleanupService, "cleanupService");
     this.ksqlConfig = requireNonNull(ksqlConfig, "ksqlConfig");
     this.queryRegistry = requireNonNull(queryRegistry, "queryRegistry");
+    this.pullQueryPlanCache = new PullQueryPlanCache(
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG));
   }
 
   EngineContext createSandbox(final ServiceContext serviceContext) {
@@ -158,6 +161,10 @@ final class EngineContext {
     return queryRegistry;
   }
 
+  PullQueryPlanCache getPullQueryPlanCache() {
+    return pullQueryPlanCache;
+  }
+
   private ParsedStatement substituteVariables(
       final ParsedStatement stmt,
       final Map<String, String> variablesMap
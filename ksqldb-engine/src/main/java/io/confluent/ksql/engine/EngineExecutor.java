@@ -171,20 +171,22 @@ final class EngineExecutor {
     RoutingNodeType routingNodeType = null;
 
     try {
-      final QueryAnalyzer queryAnalyzer = new QueryAnalyzer(engineContext.getMetaStore(), "");
-      final ImmutableAnalysis analysis = new RewrittenAnalysis(
-          queryAnalyzer.analyze(statement.getStatement(), Optional.empty()),
-          new PullQueryExecutionUtil.ColumnReferenceRewriter()::process
-      );
       // Do not set sessionConfig.getConfig to true! The copying is inefficient and slows down pull
       // query performance significantly.  Instead use PullPlannerOptions which check overrides
       // deliberately.
       final KsqlConfig ksqlConfig = sessionConfig.getConfig(false);
+      final ImmutableAnalysis analysis = engineContext.getPullQueryPlanCache().get(
+          statement.getStatement(),
+          engineContext.getMetaStore(),
+          () -> analyzePullQuery(statement),
+          pullQueryMetrics
+      );
       final LogicalPlanNode logicalPlan = buildAndValidateLogicalPlan(
           statement, analysis, ksqlConfig, pullPlannerOptions);
       final PullPhysicalPlan physicalPlan = buildPullPhysicalPlan(
           logicalPlan,
-          analysis
+          analysis,
+          pullPlannerOptions
       );
       sourceType = physicalPlan.getSourceType();
       planType = physicalPlan.getPlanType();
@@ -380,6 +382,14 @@ final class EngineExecutor {
     return new ExecutorPlans(logicalPlan, physicalPlan);
   }
 
+  private ImmutableAnalysis analyzePullQuery(final ConfiguredStatement<Query> statement) {
+    final QueryAnalyzer queryAnalyzer = new QueryAnalyzer(engineContext.getMetaStore(), "");
+    return new RewrittenAnalysis(
+        queryAnalyzer.analyze(statement.getStatement(), Optional.empty()),
+        new PullQueryExecutionUtil.ColumnReferenceRewriter()::process
+    );
+  }
+
   private LogicalPlanNode buildAndValidateLogicalPlan(
       final ConfiguredStatement<?> statement,
       final ImmutableAnalysis analysis,
@@ -396,13 +406,15 @@ final class EngineExecutor {
 
   private PullPhysicalPlan buildPullPhysicalPlan(
       final LogicalPlanNode logicalPlan,
-      final ImmutableAnalysis analysis
+      final ImmutableAnalysis analysis,
+      final PullPlannerOptions pullPlannerOptions
   ) {
 
     final PullPhysicalPlanBuilder builder = new PullPhysicalPlanBuilder(
         engineContext.getProcessingLogContext(),
         PullQueryExecutionUtil.findMaterializingQuery(engineContext, analysis),
-        analysis
+        analysis,
+        pullPlannerOptions
     );
     return builder.buildPullPhysicalPlan(logicalPlan);
   }
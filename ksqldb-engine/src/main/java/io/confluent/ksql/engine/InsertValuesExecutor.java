@@ -16,6 +16,9 @@
 package io.confluent.ksql.engine;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
@@ -41,6 +44,7 @@ import io.confluent.ksql.serde.KeyFormat;
 import io.confluent.ksql.serde.KeySerdeFactory;
 import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.ValueSerdeFactory;
+import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
@@ -48,17 +52,20 @@ import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.util.ReservedInternalTopics;
+import java.security.Principal;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.hc.core5.http.HttpStatus;
-import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.acl.AclOperation;
@@ -68,28 +75,51 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
-public class InsertValuesExecutor {
+public class InsertValuesExecutor implements AutoCloseable {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
   private static final Logger LOG = LoggerFactory.getLogger(InsertValuesExecutor.class);
-  private static final Duration MAX_SEND_TIMEOUT = Duration.ofSeconds(5);
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+  private static final int MAX_CACHED_SERDES = 1000;
 
   private final LongSupplier clock;
   private final boolean canBeDisabledByConfig;
   private final RecordProducer producer;
+  private final Optional<InsertValuesProducerPool> producerPool;
   private final ValueSerdeFactory valueSerdeFactory;
   private final KeySerdeFactory keySerdeFactory;
+  private final Cache<SerdeKey, Serde<GenericKey>> keySerdes = newSerdeCache();
+  private final Cache<SerdeKey, Serde<GenericRow>> valueSerdes = newSerdeCache();
 
   public InsertValuesExecutor() {
-    this(true, InsertValuesExecutor::sendRecord);
+    this(
+        new InsertValuesProducerPool(IDLE_TIMEOUT),
+        System::currentTimeMillis,
+        new GenericKeySerDe(),
+        new GenericRowSerDe()
+    );
   }
 
   public interface RecordProducer {
 
-    void sendRecord(
+    /**
+     * Send a record.
+     *
+     * @param record the record to send.
+     * @param serviceContext the services of the statement.
+     * @param producerProps the producer configs of the statement.
+     * @param principal the principal that submitted the statement, if any.
+     * @param callback the callback to call once the send completes, or {@code null} if the
+     *     caller waits for the returned future, in which case the record should be sent without
+     *     delay.
+     * @return a future that completes once the send completes.
+     */
+    Future<RecordMetadata> sendRecord(
         ProducerRecord<byte[], byte[]> record,
         ServiceContext serviceContext,
-        Map<String, Object> producerProps
+        Map<String, Object> producerProps,
+        Optional<Principal> principal,
+        Callback callback
     );
   }
 
@@ -100,6 +130,7 @@ public class InsertValuesExecutor {
   ) {
     this(
         producer,
+        Optional.empty(),
         canBeDisabledByConfig,
         System::currentTimeMillis,
         new GenericKeySerDe(),
@@ -113,11 +144,33 @@ public class InsertValuesExecutor {
       final KeySerdeFactory keySerdeFactory,
       final ValueSerdeFactory valueSerdeFactory
   ) {
-    this(InsertValuesExecutor::sendRecord, true, clock, keySerdeFactory, valueSerdeFactory);
+    this(
+        new InsertValuesProducerPool(IDLE_TIMEOUT),
+        clock,
+        keySerdeFactory,
+        valueSerdeFactory
+    );
+  }
+
+  private InsertValuesExecutor(
+      final InsertValuesProducerPool producerPool,
+      final LongSupplier clock,
+      final KeySerdeFactory keySerdeFactory,
+      final ValueSerdeFactory valueSerdeFactory
+  ) {
+    this(
+        producerPool::send,
+        Optional.of(producerPool),
+        true,
+        clock,
+        keySerdeFactory,
+        valueSerdeFactory
+    );
   }
 
   private InsertValuesExecutor(
       final RecordProducer producer,
+      final Optional<InsertValuesProducerPool> producerPool,
       final boolean canBeDisabledByConfig,
       final LongSupplier clock,
       final KeySerdeFactory keySerdeFactory,
@@ -125,6 +178,7 @@ public class InsertValuesExecutor {
   ) {
     this.canBeDisabledByConfig = canBeDisabledByConfig;
     this.producer = Objects.requireNonNull(producer, "producer");
+    this.producerPool = Objects.requireNonNull(producerPool, "producerPool");
     this.clock = Objects.requireNonNull(clock, "clock");
     this.keySerdeFactory = Objects.requireNonNull(keySerdeFactory, "keySerdeFactory");
     this.valueSerdeFactory = Objects.requireNonNull(valueSerdeFactory, "valueSerdeFactory");
@@ -143,11 +197,24 @@ public class InsertValuesExecutor {
 
     final DataSource dataSource = getDataSource(config, metaStore, insertValues);
 
-    final ProducerRecord<byte[], byte[]> record =
-        buildRecord(statement, metaStore, dataSource, serviceContext);
+    final ProducerRecord<byte[], byte[]> record = buildRecord(
+        statement, metaStore, dataSource, serviceContext, sessionProperties.getUserPrincipal());
+
+    final boolean asyncAck =
+        config.getBoolean(KsqlConfig.KSQL_INSERT_INTO_VALUES_ASYNC_ACK_CONFIG);
 
     try {
-      producer.sendRecord(record, serviceContext, config.getProducerClientConfigProps());
+      final Future<RecordMetadata> result = producer.sendRecord(
+          record,
+          serviceContext,
+          config.getProducerClientConfigProps(),
+          sessionProperties.getUserPrincipal(),
+          asyncAck ? (metadata, e) -> logAsyncSendFailure(insertValues, e) : null
+      );
+
+      if (!asyncAck) {
+        waitForAck(result);
+      }
     } catch (final TopicAuthorizationException e) {
       // TopicAuthorizationException does not give much detailed information about why it failed,
       // except which topics are denied. Here we just add the ACL to make the error message
@@ -163,6 +230,14 @@ public class InsertValuesExecutor {
     }
   }
 
+  /**
+   * Close any pooled producers.
+   */
+  @Override
+  public void close() {
+    producerPool.ifPresent(InsertValuesProducerPool::close);
+  }
+
   private static DataSource getDataSource(
       final KsqlConfig ksqlConfig,
       final MetaStore metaStore,
@@ -191,7 +266,8 @@ public class InsertValuesExecutor {
       final ConfiguredStatement<InsertValues> statement,
       final MetaStore metaStore,
       final DataSource dataSource,
-      final ServiceContext serviceContext
+      final ServiceContext serviceContext,
+      final Optional<Principal> principal
   ) {
     throwIfDisabled(statement.getSessionConfig().getConfig(false));
 
@@ -206,8 +282,9 @@ public class InsertValuesExecutor {
           dataSource.getDataSourceType()
       );
 
-      final byte[] key = serializeKey(row.key, dataSource, config, serviceContext);
-      final byte[] value = serializeValue(row.value, dataSource, config, serviceContext);
+      final SerdeKey serdeKey = new SerdeKey(principal, dataSource, config, serviceContext);
+      final byte[] key = serializeKey(row.key, dataSource, config, serviceContext, serdeKey);
+      final byte[] value = serializeValue(row.value, dataSource, config, serviceContext, serdeKey);
 
       final String topicName = dataSource.getKafkaTopicName();
 
@@ -244,7 +321,8 @@ public class InsertValuesExecutor {
       final GenericKey keyValue,
       final DataSource dataSource,
       final KsqlConfig config,
-      final ServiceContext serviceContext
+      final ServiceContext serviceContext,
+      final SerdeKey serdeKey
   ) {
     final PhysicalSchema physicalSchema = PhysicalSchema.from(
         dataSource.getSchema(),
@@ -254,15 +332,16 @@ public class InsertValuesExecutor {
 
     ensureKeySchemasMatch(physicalSchema.keySchema(), dataSource, serviceContext);
 
-    final Serde<GenericKey> keySerde = keySerdeFactory.create(
-        dataSource.getKsqlTopic().getKeyFormat().getFormatInfo(),
-        physicalSchema.keySchema(),
-        config,
-        serviceContext.getSchemaRegistryClientFactory(),
-        "",
-        NoopProcessingLogContext.INSTANCE,
-        Optional.empty()
-    );
+    final Serde<GenericKey> keySerde = getOrCreate(keySerdes, serdeKey, () ->
+        keySerdeFactory.create(
+            dataSource.getKsqlTopic().getKeyFormat().getFormatInfo(),
+            physicalSchema.keySchema(),
+            config,
+            serviceContext.getSchemaRegistryClientFactory(),
+            "",
+            NoopProcessingLogContext.INSTANCE,
+            Optional.empty()
+        ));
 
     final String topicName = dataSource.getKafkaTopicName();
     try {
@@ -328,7 +407,8 @@ public class InsertValuesExecutor {
       final GenericRow row,
       final DataSource dataSource,
       final KsqlConfig config,
-      final ServiceContext serviceContext
+      final ServiceContext serviceContext,
+      final SerdeKey serdeKey
   ) {
     final PhysicalSchema physicalSchema = PhysicalSchema.from(
         dataSource.getSchema(),
@@ -336,15 +416,16 @@ public class InsertValuesExecutor {
         dataSource.getKsqlTopic().getValueFormat().getFeatures()
     );
 
-    final Serde<GenericRow> valueSerde = valueSerdeFactory.create(
-        dataSource.getKsqlTopic().getValueFormat().getFormatInfo(),
-        physicalSchema.valueSchema(),
-        config,
-        serviceContext.getSchemaRegistryClientFactory(),
-        "",
-        NoopProcessingLogContext.INSTANCE,
-        Optional.empty()
-    );
+    final Serde<GenericRow> valueSerde = getOrCreate(valueSerdes, serdeKey, () ->
+        valueSerdeFactory.create(
+            dataSource.getKsqlTopic().getValueFormat().getFormatInfo(),
+            physicalSchema.valueSchema(),
+            config,
+            serviceContext.getSchemaRegistryClientFactory(),
+            "",
+            NoopProcessingLogContext.INSTANCE,
+            Optional.empty()
+        ));
 
     final String topicName = dataSource.getKafkaTopicName();
 
@@ -387,24 +468,7 @@ public class InsertValuesExecutor {
     }
   }
 
-  private static void sendRecord(
-      final ProducerRecord<byte[], byte[]> record,
-      final ServiceContext serviceContext,
-      final Map<String, Object> producerProps
-  ) {
-    // for now, just create a new producer each time
-    final Producer<byte[], byte[]> producer = serviceContext
-        .getKafkaClientSupplier()
-        .getProducer(producerProps);
-
-    final Future<RecordMetadata> producerCallResult;
-
-    try {
-      producerCallResult = producer.send(record);
-    } finally {
-      producer.close(MAX_SEND_TIMEOUT);
-    }
-
+  private static void waitForAck(final Future<RecordMetadata> producerCallResult) {
     try {
       // Check if the producer failed to write to the topic. This can happen if the
       // ServiceContext does not have write permissions.
@@ -420,4 +484,86 @@ public class InsertValuesExecutor {
     }
   }
 
+  private static void logAsyncSendFailure(
+      final InsertValues insertValues,
+      final Exception exception
+  ) {
+    if (exception != null) {
+      LOG.error(createInsertFailedExceptionMessage(insertValues), exception);
+    }
+  }
+
+  private static <K, V> Cache<K, V> newSerdeCache() {
+    return CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_SERDES)
+        .expireAfterAccess(IDLE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  private static <T> T getOrCreate(
+      final Cache<SerdeKey, T> cache,
+      final SerdeKey key,
+      final Supplier<T> factory
+  ) {
+    try {
+      return cache.get(key, factory::get);
+    } catch (final ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new KsqlException(e.getCause());
+    }
+  }
+
+  /**
+   * The key of a cached serde.
+   *
+   * <p>Serdes are cached per principal, as they hold a Schema Registry client with the
+   * credentials of the principal that created them. The source is compared by identity, as the
+   * metastore replaces the instance whenever the source changes, and the config by the properties
+   * it was created with, which include any overrides of the statement.
+   *
+   * <p>Serdes of sandboxed statements are kept apart from those of real ones: a sandbox shares
+   * the sources of the real metastore, but its Schema Registry client does not register schemas.
+   */
+  private static final class SerdeKey {
+
+    private final Optional<String> principal;
+    private final DataSource dataSource;
+    private final Map<String, Object> configProps;
+    private final boolean sandboxed;
+
+    SerdeKey(
+        final Optional<Principal> principal,
+        final DataSource dataSource,
+        final KsqlConfig config,
+        final ServiceContext serviceContext
+    ) {
+      this.principal = principal.map(Principal::getName);
+      this.dataSource = dataSource;
+      this.configProps = config.originals();
+      this.sandboxed = serviceContext instanceof SandboxedServiceContext;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final SerdeKey that = (SerdeKey) o;
+      return dataSource == that.dataSource
+          && sandboxed == that.sandboxed
+          && principal.equals(that.principal)
+          && configProps.equals(that.configProps);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          principal, System.identityHashCode(dataSource), configProps, sandboxed);
+    }
+  }
 }
\ No newline at end of file
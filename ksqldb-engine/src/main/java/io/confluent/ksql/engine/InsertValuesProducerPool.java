@@ -0,0 +1,220 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.ksql.services.ServiceContext;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.apache.kafka.streams.processor.internals.DefaultKafkaClientSupplier;
+
+/**
+ * Producers for INSERT VALUES statements, shared by the statements of each principal that use
+ * the same producer configs, so that their records are sent in the same batches.
+ *
+ * <p>A producer created by the {@link DefaultKafkaClientSupplier} depends only on its configs, so
+ * is shared by all statements with the same configs when there is no principal. Any other
+ * supplier may create producers with the credentials of the principal it was created for, so
+ * producers from such a supplier are only shared by the statements of the same principal. If such
+ * a supplier has no principal, e.g. a sandbox, a producer is created and closed for each record.
+ * Producers from different types of supplier, e.g. the sandboxed producers used to validate
+ * statements, are never shared.
+ *
+ * <p>Producers are closed once unused for the idle timeout, or when the pool is closed. The pool
+ * only expires idle producers when it is used, so it is also cleaned up every minute, in case no
+ * statements are run.
+ *
+ * <p>A pooled producer sends records in batches, waiting up to {@code linger.ms} to fill each
+ * batch. A record sent without a callback is one the caller waits for, so the producer is flushed
+ * to send it without waiting to fill its batch.
+ */
+final class InsertValuesProducerPool implements AutoCloseable {
+
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+  private static final Duration CLEAN_UP_INTERVAL = Duration.ofMinutes(1);
+
+  private final Cache<Key, Producer<byte[], byte[]>> producers;
+  private final ScheduledExecutorService cleanUpExecutor;
+
+  InsertValuesProducerPool(final Duration idleTimeout) {
+    this(
+        idleTimeout,
+        Ticker.systemTicker(),
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("insert-values-producer-pool-%d")
+            .setDaemon(true)
+            .build())
+    );
+  }
+
+  @VisibleForTesting
+  InsertValuesProducerPool(
+      final Duration idleTimeout,
+      final Ticker ticker,
+      final ScheduledExecutorService cleanUpExecutor
+  ) {
+    this.producers = CacheBuilder.newBuilder()
+        .expireAfterAccess(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .removalListener(InsertValuesProducerPool::closeProducer)
+        .build();
+    this.cleanUpExecutor = Objects.requireNonNull(cleanUpExecutor, "cleanUpExecutor");
+
+    cleanUpExecutor.scheduleAtFixedRate(
+        producers::cleanUp,
+        CLEAN_UP_INTERVAL.toMillis(),
+        CLEAN_UP_INTERVAL.toMillis(),
+        TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Send a record with a pooled producer.
+   *
+   * @param record the record to send.
+   * @param serviceContext the services of the statement, which supply any new producer.
+   * @param producerProps the producer configs of the statement.
+   * @param principal the principal that submitted the statement, if any.
+   * @param callback the callback to call once the send completes, or {@code null} if the caller
+   *     waits for the returned future, in which case the record is sent without delay.
+   * @return a future that completes once the send completes.
+   */
+  Future<RecordMetadata> send(
+      final ProducerRecord<byte[], byte[]> record,
+      final ServiceContext serviceContext,
+      final Map<String, Object> producerProps,
+      final Optional<Principal> principal,
+      final Callback callback
+  ) {
+    final KafkaClientSupplier clientSupplier = serviceContext.getKafkaClientSupplier();
+    if (!principal.isPresent() && !(clientSupplier instanceof DefaultKafkaClientSupplier)) {
+      final Producer<byte[], byte[]> producer = clientSupplier.getProducer(producerProps);
+      try {
+        return send(producer, record, callback);
+      } finally {
+        producer.close(CLOSE_TIMEOUT);
+      }
+    }
+
+    final Key key = new Key(
+        principal.map(Principal::getName),
+        clientSupplier.getClass(),
+        producerProps
+    );
+    final Producer<byte[], byte[]> producer;
+    try {
+      producer = producers.get(key, () -> clientSupplier.getProducer(producerProps));
+    } catch (final ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+
+    return send(producer, record, callback);
+  }
+
+  /**
+   * @return the number of pooled producers.
+   */
+  long size() {
+    producers.cleanUp();
+    return producers.size();
+  }
+
+  @Override
+  public void close() {
+    cleanUpExecutor.shutdownNow();
+    producers.invalidateAll();
+    producers.cleanUp();
+  }
+
+  private static Future<RecordMetadata> send(
+      final Producer<byte[], byte[]> producer,
+      final ProducerRecord<byte[], byte[]> record,
+      final Callback callback
+  ) {
+    if (callback != null) {
+      return producer.send(record, callback);
+    }
+
+    final Future<RecordMetadata> result = producer.send(record);
+    producer.flush();
+    return result;
+  }
+
+  private static void closeProducer(
+      final RemovalNotification<Key, Producer<byte[], byte[]>> notification
+  ) {
+    notification.getValue().close(CLOSE_TIMEOUT);
+  }
+
+  private static final class Key {
+
+    private final Optional<String> principal;
+    private final Class<?> clientSupplierType;
+    private final Map<String, Object> producerProps;
+
+    private Key(
+        final Optional<String> principal,
+        final Class<?> clientSupplierType,
+        final Map<String, Object> producerProps
+    ) {
+      this.principal = principal;
+      this.clientSupplierType = clientSupplierType;
+      this.producerProps = new HashMap<>(producerProps);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return principal.equals(key.principal)
+          && clientSupplierType.equals(key.clientSupplierType)
+          && producerProps.equals(key.producerProps);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(principal, clientSupplierType, producerProps);
+    }
+  }
+}
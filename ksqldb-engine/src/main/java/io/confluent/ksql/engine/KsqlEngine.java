@@ -37,6 +37,7 @@ import io.confluent.ksql.parser.tree.QueryContainer;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.physical.pull.HARouting;
 import io.confluent.ksql.physical.pull.PullQueryResult;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
 import io.confluent.ksql.planner.PullPlannerOptions;
 import io.confluent.ksql.planner.plan.ConfiguredKsqlPlan;
 import io.confluent.ksql.query.QueryId;
@@ -114,6 +115,8 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     this.orphanedTransientQueryCleaner = new OrphanedTransientQueryCleaner(this.cleanupService);
     this.serviceId = Objects.requireNonNull(serviceId, "serviceId");
     this.engineMetrics = engineMetricsFactory.apply(this);
+    // The result cache is shared by all queries, so is only sized from the server config:
+    PullQueryResultCache.instance().configure(ksqlConfig);
     this.primaryContext = EngineContext.create(
         serviceContext,
         processingLogContext,
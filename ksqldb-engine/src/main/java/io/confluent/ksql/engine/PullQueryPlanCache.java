@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import io.confluent.ksql.analyzer.ImmutableAnalysis;
+import io.confluent.ksql.analyzer.RewrittenAnalysis;
+import io.confluent.ksql.engine.rewrite.ExpressionTreeRewriter;
+import io.confluent.ksql.engine.rewrite.ExpressionTreeRewriter.Context;
+import io.confluent.ksql.engine.rewrite.QueryLiterals;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.internal.PullQueryExecutorMetrics;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.SingleColumn;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the analysis of pull queries.
+ *
+ * <p>Entries are keyed on the template of the parsed statement, i.e. the statement with its
+ * literals replaced by {@code NULL}, which is independent of whitespace, comments, the case of
+ * unquoted identifiers and the values of literals. So statements that differ only in, for
+ * example, the key being looked up share an entry. A hit returns the cached analysis with the
+ * literals of the statement being executed substituted for those it was built with.
+ *
+ * <p>Only the analysis is cached. The logical plan embeds literals, e.g. in the lookup
+ * constraints of its filter, and its compiled expressions hold UDF instances, which are not
+ * safe to share between concurrent pull queries, so it is rebuilt on every execution.
+ *
+ * <p>An entry is only used while the metastore still holds the same instance of each source the
+ * statement reads from. Any change to a source, e.g. dropping and recreating it, replaces the
+ * instance and so invalidates the entry.
+ */
+final class PullQueryPlanCache {
+
+  private final Cache<Key, Entry> cache;
+
+  PullQueryPlanCache(final int maxEntries) {
+    this.cache = maxEntries <= 0
+        ? null
+        : CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .build();
+  }
+
+  /**
+   * Get the analysis of the supplied {@code statement}, analyzing it if necessary.
+   *
+   * @param statement the pull query.
+   * @param metaStore the metastore the statement is analyzed against.
+   * @param analyzer called to analyze the statement if it is not cached.
+   * @param pullQueryMetrics the metrics to record hits and misses to.
+   * @return the analysis.
+   */
+  ImmutableAnalysis get(
+      final Query statement,
+      final MetaStore metaStore,
+      final Supplier<ImmutableAnalysis> analyzer,
+      final Optional<PullQueryExecutorMetrics> pullQueryMetrics
+  ) {
+    if (cache == null) {
+      return analyzer.get();
+    }
+
+    final QueryLiterals literals = QueryLiterals.of(statement);
+    final Key key = new Key(literals);
+
+    final Entry cached = cache.getIfPresent(key);
+    if (cached != null) {
+      if (cached.isCurrent(metaStore)) {
+        pullQueryMetrics.ifPresent(metrics -> metrics.recordPlanCacheHit(
+            TimeUnit.NANOSECONDS.toMillis(cached.analysisTimeNanos)));
+        return cached.bind(literals.getLiterals());
+      }
+      cache.asMap().remove(key, cached);
+    }
+
+    pullQueryMetrics.ifPresent(PullQueryExecutorMetrics::recordPlanCacheMiss);
+    final long startTimeNanos = System.nanoTime();
+    final ImmutableAnalysis analysis = analyzer.get();
+    final long analysisTimeNanos = System.nanoTime() - startTimeNanos;
+
+    if (canBind(analysis, literals.getLiterals())) {
+      cache.put(key, new Entry(analysis, literals.getLiterals(), analysisTimeNanos));
+    }
+    return analysis;
+  }
+
+  /**
+   * Literals can only be substituted in the expressions {@link RewrittenAnalysis} rewrites, and
+   * only if the analysis holds the same instances as the statement, rather than copies.
+   */
+  private static boolean canBind(final ImmutableAnalysis analysis, final List<Literal> literals) {
+    final List<Expression> expressions = new ArrayList<>();
+    analysis.getWhereExpression().ifPresent(expressions::add);
+    analysis.getHavingExpression().ifPresent(expressions::add);
+    analysis.getSelectItems().stream()
+        .filter(SingleColumn.class::isInstance)
+        .map(item -> ((SingleColumn) item).getExpression())
+        .forEach(expressions::add);
+    expressions.addAll(analysis.getTableFunctions());
+
+    final Set<Expression> analyzed = Sets.newIdentityHashSet();
+    final BiFunction<Expression, Context<Void>, Optional<Expression>> collector = (exp, ctx) -> {
+      if (exp instanceof Literal) {
+        analyzed.add(exp);
+      }
+      return Optional.empty();
+    };
+    expressions.forEach(expression -> ExpressionTreeRewriter.rewriteWith(collector, expression));
+
+    final Set<Expression> parsed = Sets.newIdentityHashSet();
+    parsed.addAll(literals);
+    return analyzed.equals(parsed);
+  }
+
+  private static final class Entry {
+
+    private final ImmutableAnalysis analysis;
+    private final List<Literal> literals;
+    private final List<DataSource> sources;
+    private final long analysisTimeNanos;
+
+    Entry(
+        final ImmutableAnalysis analysis,
+        final List<Literal> literals,
+        final long analysisTimeNanos
+    ) {
+      this.analysis = requireNonNull(analysis, "analysis");
+      this.literals = ImmutableList.copyOf(literals);
+      this.analysisTimeNanos = analysisTimeNanos;
+      this.sources = analysis.getAllDataSources().stream()
+          .map(source -> source.getDataSource())
+          .collect(ImmutableList.toImmutableList());
+    }
+
+    private boolean isCurrent(final MetaStore metaStore) {
+      return sources.stream()
+          .allMatch(source -> metaStore.getSource(source.getName()) == source);
+    }
+
+    /**
+     * @param values the literals of a statement with the same template, in the same order.
+     * @return the analysis with each literal replaced by the value at the same position.
+     */
+    private ImmutableAnalysis bind(final List<Literal> values) {
+      final Map<Expression, Expression> substitutions = new IdentityHashMap<>();
+      for (int i = 0; i < literals.size(); i++) {
+        substitutions.put(literals.get(i), values.get(i));
+      }
+      return new RewrittenAnalysis(
+          analysis,
+          (exp, ctx) -> Optional.ofNullable(substitutions.get(exp))
+      );
+    }
+  }
+
+  private static final class Key {
+
+    private final Query template;
+    private final List<Class<?>> literalTypes;
+
+    Key(final QueryLiterals literals) {
+      this.template = literals.getTemplate();
+      // The template replaces every literal with NULL, so record what each one was:
+      this.literalTypes = literals.getLiterals().stream()
+          .<Class<?>>map(Literal::getClass)
+          .collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return Objects.equals(template, that.template)
+          && Objects.equals(literalTypes, that.literalTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(template, literalTypes);
+    }
+  }
+}
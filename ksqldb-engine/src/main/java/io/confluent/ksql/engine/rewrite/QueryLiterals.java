@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine.rewrite;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.engine.rewrite.ExpressionTreeRewriter.Context;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.NullLiteral;
+import io.confluent.ksql.parser.tree.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Splits a query into its literals and a template, which is the query with each literal replaced
+ * by {@code NULL}.
+ *
+ * <p>Queries that differ only in the values of their literals have equal templates, and list
+ * their literals in the same order.
+ */
+public final class QueryLiterals {
+
+  private final Query template;
+  private final ImmutableList<Literal> literals;
+
+  public static QueryLiterals of(final Query query) {
+    final List<Literal> literals = new ArrayList<>();
+    final BiFunction<Expression, Context<Void>, Optional<Expression>> plugin = (exp, ctx) -> {
+      if (!(exp instanceof Literal)) {
+        return Optional.empty();
+      }
+      literals.add((Literal) exp);
+      return Optional.of(new NullLiteral());
+    };
+
+    final Query template = (Query) new StatementRewriter<Void>(
+        (exp, ctx) -> ExpressionTreeRewriter.rewriteWith(plugin, exp),
+        (node, ctx) -> Optional.empty()
+    ).rewrite(query, null);
+
+    return new QueryLiterals(template, literals);
+  }
+
+  private QueryLiterals(final Query template, final List<Literal> literals) {
+    this.template = Objects.requireNonNull(template, "template");
+    this.literals = ImmutableList.copyOf(literals);
+  }
+
+  /**
+   * @return the query with each literal replaced by {@code NULL}.
+   */
+  public Query getTemplate() {
+    return template;
+  }
+
+  /**
+   * @return the literals of the query, i.e. the same instances as the query holds, in the order
+   *     they were replaced in the template.
+   */
+  public List<Literal> getLiterals() {
+    return literals;
+  }
+}
@@ -41,6 +41,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
   private final Map<String, AggregateFunctionFactory> udafs = new HashMap<>();
   private final Map<String, TableFunctionFactory> udtfs = new HashMap<>();
   private final ParserKeywordValidatorUtil functionNameValidator = new ParserKeywordValidatorUtil();
+  private long version;
 
   public InternalFunctionRegistry() {
     new BuiltInInitializer(this).init();
@@ -63,6 +64,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
       throw new KsqlException("Unknown function factory: " + ksqlFunction.name());
     }
     udfFactory.addFunction(ksqlFunction);
+    version++;
   }
 
   @Override
@@ -78,7 +80,9 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
     }
 
     final UdfFactory existing = udfs.putIfAbsent(functionName, factory);
-    if (existing != null && !existing.matches(factory)) {
+    if (existing == null) {
+      version++;
+    } else if (!existing.matches(factory)) {
       throw new KsqlException("UdfFactory not compatible with existing factory."
           + " function: " + functionName
           + " existing: " + existing
@@ -161,6 +165,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
       throw new KsqlException("Aggregate function already registered: " + functionName);
     }
 
+    version++;
   }
 
   @Override
@@ -183,6 +188,7 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
       throw new KsqlException("Table function already registered: " + functionName);
     }
 
+    version++;
   }
 
   @Override
@@ -223,6 +229,11 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
     return new ArrayList<>(udtfs.values());
   }
 
+  @Override
+  public synchronized long version() {
+    return version;
+  }
+
   private void validateFunctionName(final String functionName) {
     if (!functionNameValidator.test(functionName)) {
       throw new KsqlException(functionName + " is not a valid function name."
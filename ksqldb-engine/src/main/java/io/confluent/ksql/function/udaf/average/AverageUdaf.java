@@ -18,8 +18,11 @@ package io.confluent.ksql.function.udaf.average;
 import io.confluent.ksql.function.udaf.TableUdaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
+import java.util.Map;
 import java.util.function.BiFunction;
+import org.apache.kafka.common.Configurable;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -98,7 +101,15 @@ public final class AverageUdaf {
       final BiFunction<Struct, Struct, I> merger,
       final BiFunction<Struct, I, I> subtracter) {
 
-    return new TableUdaf<I, Struct, Double>() {
+    return new ConfigurableTableUdaf<I, Struct, Double>() {
+
+      private boolean inPlace;
+
+      @Override
+      public void configure(final Map<String, ?> props) {
+        inPlace = Boolean.parseBoolean(
+            String.valueOf(props.get(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED)));
+      }
 
       @Override
       public Struct initialize() {
@@ -112,8 +123,9 @@ public final class AverageUdaf {
         if (newValue == null) {
           return aggregate;
         }
-        return new Struct(structSchema)
-            .put(SUM, adder.apply(aggregate, newValue))
+        final I sum = adder.apply(aggregate, newValue);
+        return target(aggregate)
+            .put(SUM, sum)
             .put(COUNT, aggregate.getInt64(COUNT) + 1);
 
       }
@@ -131,8 +143,9 @@ public final class AverageUdaf {
       public Struct merge(final Struct agg1,
                           final Struct agg2) {
 
-        return new Struct(structSchema)
-            .put(SUM, merger.apply(agg1, agg2))
+        final I sum = merger.apply(agg1, agg2);
+        return target(agg1)
+            .put(SUM, sum)
             .put(COUNT, agg1.getInt64(COUNT) + agg2.getInt64(COUNT));
       }
 
@@ -140,10 +153,19 @@ public final class AverageUdaf {
       public Struct undo(final I valueToUndo,
                          final Struct aggregate) {
 
-        return new Struct(structSchema)
-            .put(SUM, subtracter.apply(aggregate, valueToUndo))
+        final I sum = subtracter.apply(aggregate, valueToUndo);
+        return target(aggregate)
+            .put(SUM, sum)
             .put(COUNT, aggregate.getInt64(COUNT) - 1);
       }
+
+      private Struct target(final Struct aggregate) {
+        // The copying aggregator copies only the row, not the structs in it:
+        return inPlace ? aggregate : new Struct(structSchema);
+      }
     };
   }
+
+  private interface ConfigurableTableUdaf<I, A, O> extends TableUdaf<I, A, O>, Configurable {
+  }
 }
@@ -15,9 +15,12 @@
 
 package io.confluent.ksql.function.udaf.count;
 
+import com.clearspring.analytics.hash.MurmurHash;
 import com.clearspring.analytics.stream.cardinality.HyperLogLog;
 import com.clearspring.analytics.stream.cardinality.RegisterSet;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.primitives.Ints;
+import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udaf.Udaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
@@ -33,27 +36,37 @@ public final class CountDistinct {
 
   static final String DESCRIPTION = "This function returns the number of items found in a group. "
       + "The implementation is probabilistic with a typical accuracy (standard error) of less "
-      + "than 1%.";
+      + "than 1%. The optional precision, from 4 to 16 and 14 by default, trades accuracy for "
+      + "state size: each step down halves the size and increases the error by about 40%.";
 
-  // magic number causes accuracy < .01 - we can consider making
-  // this configurable if the need arises
-  private static final int M = 1 << 14;
-  private static final int LOG_2_M = 14;
+  // magic number causes accuracy < .01
+  private static final int DEFAULT_PRECISION = 14;
+  private static final int MIN_PRECISION = 4;
+  private static final int MAX_PRECISION = 16;
+
+  private static final int REGISTER_MASK = (1 << RegisterSet.REGISTER_SIZE) - 1;
 
   private CountDistinct() {
   }
 
-  // NOTE: since our UDAF framework requires the aggregate values to
-  // be serializable, and we don't support serialization of native int[],
-  // this implementation can be optimized by avoiding conversions between
-  // int[] and List<Integer> - since RegisterSet requires an int[], we would
-  // need to duplicate a lot of code to get this to be zero-copy
-  private static <T> Udaf<T, List<Integer>, Long> countDistinct() {
+  // NOTE: since our UDAF framework requires the aggregate values to be serializable, and we don't
+  // support serialization of native int[], the aggregate is the List<Integer> of packed words of
+  // a RegisterSet. Offers and merges update the registers in place, rather than converting to and
+  // from int[], so only map copies the registers.
+  @VisibleForTesting
+  static <T> Udaf<T, List<Integer>, Long> countDistinct(final int precision) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+      throw new KsqlFunctionException("precision must be between "
+          + MIN_PRECISION + " and " + MAX_PRECISION + ", but was " + precision);
+    }
+
+    final int count = 1 << precision;
+
     return new Udaf<T, List<Integer>, Long>() {
 
       @Override
       public List<Integer> initialize() {
-        return Ints.asList(new int[RegisterSet.getSizeForCount(M)]);
+        return Ints.asList(new int[RegisterSet.getSizeForCount(count)]);
       }
 
       @Override
@@ -62,39 +75,63 @@ public final class CountDistinct {
           return aggregate;
         }
 
-        // this operation updates the underlying bytes
-        final int[] ints = Ints.toArray(aggregate);
-        final RegisterSet set = new RegisterSet(M, ints);
-
-        // this modifies the underlying ints
-        toHyperLogLog(set).offer(current);
-
-        return Ints.asList(ints);
+        // As HyperLogLog.offerHashed:
+        final int hash = MurmurHash.hash(current);
+        final int position = hash >>> (Integer.SIZE - precision);
+        final int value = Integer.numberOfLeadingZeros(
+            (hash << precision) | (1 << (precision - 1)) + 1) + 1;
+
+        final int word = position / RegisterSet.LOG2_BITS_PER_WORD;
+        final int shift = registerShift(position);
+        final int bits = aggregate.get(word);
+        if (((bits >>> shift) & REGISTER_MASK) < value) {
+          aggregate.set(word, (bits & ~(REGISTER_MASK << shift)) | (value << shift));
+        }
+        return aggregate;
       }
 
       @Override
       public List<Integer> merge(final List<Integer> aggOne, final List<Integer> aggTwo) {
-        final RegisterSet registerSet = new RegisterSet(M, Ints.toArray(aggOne));
-        registerSet.merge(new RegisterSet(M, Ints.toArray(aggTwo)));
-
-        return Ints.asList(registerSet.bits());
+        for (int word = 0; word < aggOne.size(); word++) {
+          final int bitsOne = aggOne.get(word);
+          final int bitsTwo = aggTwo.get(word);
+          if (bitsOne == bitsTwo) {
+            continue;
+          }
+
+          int merged = 0;
+          for (int i = 0; i < RegisterSet.LOG2_BITS_PER_WORD; i++) {
+            final int mask = REGISTER_MASK << registerShift(i);
+            merged |= Math.max(bitsOne & mask, bitsTwo & mask);
+          }
+          aggOne.set(word, merged);
+        }
+        return aggOne;
       }
 
       @Override
       public Long map(final List<Integer> agg) {
-        return toHyperLogLog(new RegisterSet(M, Ints.toArray(agg))).cardinality();
+        return toHyperLogLog(precision, new RegisterSet(count, Ints.toArray(agg))).cardinality();
       }
     };
   }
 
+  private static int registerShift(final int position) {
+    return RegisterSet.REGISTER_SIZE * (position % RegisterSet.LOG2_BITS_PER_WORD);
+  }
+
   @SuppressWarnings("deprecation")
-  private static HyperLogLog toHyperLogLog(final RegisterSet set) {
-    return new HyperLogLog(LOG_2_M, set);
+  private static HyperLogLog toHyperLogLog(final int precision, final RegisterSet set) {
+    return new HyperLogLog(precision, set);
   }
 
   @UdafFactory(description = "Count distinct")
   public static <T> Udaf<T, List<Integer>, Long> distinct() {
-    return countDistinct();
+    return countDistinct(DEFAULT_PRECISION);
   }
 
+  @UdafFactory(description = "Count distinct with the given precision")
+  public static <T> Udaf<T, List<Integer>, Long> distinct(final int precision) {
+    return countDistinct(precision);
+  }
 }
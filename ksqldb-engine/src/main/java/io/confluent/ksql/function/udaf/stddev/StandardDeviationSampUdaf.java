@@ -18,9 +18,12 @@ package io.confluent.ksql.function.udaf.stddev;
 import io.confluent.ksql.function.udaf.TableUdaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
 
+import java.util.Map;
 import java.util.function.BiFunction;
+import org.apache.kafka.common.Configurable;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -114,7 +117,15 @@ public final class StandardDeviationSampUdaf {
       final BiFunction<Struct, Struct, Double> mergeInner,
       final BiFunction<Struct, Struct, I> mergeSum,
       final BiFunction<Struct, I, I> undoSum) {
-    return new TableUdaf<I, Struct, Double>() {
+    return new ConfigurableTableUdaf<I, Struct, Double>() {
+
+      private boolean inPlace;
+
+      @Override
+      public void configure(final Map<String, ?> props) {
+        inPlace = Boolean.parseBoolean(
+            String.valueOf(props.get(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED)));
+      }
 
       @Override
       public Struct initialize() {
@@ -138,9 +149,10 @@ public final class StandardDeviationSampUdaf {
           newM2 = 0;
         }
 
-        return new Struct(structSchema)
+        final I sum = add.apply(aggregate, newValue);
+        return target(aggregate)
             .put(COUNT, newCount)
-            .put(SUM, add.apply(aggregate, newValue))
+            .put(SUM, sum)
             .put(M2, newM2 + aggregate.getFloat64(M2));
       }
 
@@ -161,9 +173,10 @@ public final class StandardDeviationSampUdaf {
           newM2 = m2One + m2Two + countOne * countTwo * innerCalc * innerCalc / newCount;
         }
 
-        return new Struct(structSchema)
+        final I sum = mergeSum.apply(aggOne, aggTwo);
+        return target(aggOne)
             .put(COUNT, newCount)
-            .put(SUM, mergeSum.apply(aggOne, aggTwo))
+            .put(SUM, sum)
             .put(M2, newM2);
       }
 
@@ -189,11 +202,20 @@ public final class StandardDeviationSampUdaf {
         } else {
           newM2 = 0;
         }
-        return new Struct(structSchema)
+        final I sum = undoSum.apply(aggregate, valueToUndo);
+        return target(aggregate)
             .put(COUNT, newCount)
-            .put(SUM, undoSum.apply(aggregate, valueToUndo))
+            .put(SUM, sum)
             .put(M2, aggregate.getFloat64(M2) - newM2);
       }
+
+      private Struct target(final Struct aggregate) {
+        // A copied row still shares this struct, so it is only reused if rows are too:
+        return inPlace ? aggregate : new Struct(structSchema);
+      }
     };
   }
+
+  private interface ConfigurableTableUdaf<I, A, O> extends TableUdaf<I, A, O>, Configurable {
+  }
 }
@@ -21,6 +21,7 @@ import io.confluent.ksql.function.ParameterInfo;
 import io.confluent.ksql.function.types.ParamType;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -69,21 +70,21 @@ public class TopkKudaf<T extends Comparable<? super T>>
     }
 
     final int currentSize = aggregateValue.size();
-    if (!aggregateValue.isEmpty()) {
-      final T last = aggregateValue.get(currentSize - 1);
-      if (currentValue.compareTo(last) <= 0
-          && currentSize == topKSize) {
-        return aggregateValue;
-      }
+    if (currentSize == topKSize
+        && currentValue.compareTo(aggregateValue.get(currentSize - 1)) <= 0) {
+      return aggregateValue;
     }
 
+    // The aggregate is kept in descending order, so the value can be inserted at its position
+    // rather than sorting the whole list:
+    final int found = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    final int idx = found >= 0 ? found : -found - 1;
+
     if (currentSize == topKSize) {
-      aggregateValue.set(currentSize - 1, currentValue);
-    } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.remove(currentSize - 1);
     }
-
-    aggregateValue.sort(Comparator.reverseOrder());
+    aggregateValue.add(idx, currentValue);
     return aggregateValue;
   }
 
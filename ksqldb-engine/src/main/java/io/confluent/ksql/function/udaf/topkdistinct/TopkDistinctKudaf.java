@@ -71,17 +71,18 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    if (aggregateValue.contains(currentValue)) {
+    // The aggregate is kept in descending order, so the value can be found, or inserted at its
+    // position, without scanning or sorting the whole list:
+    final int found = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    if (found >= 0) {
       return aggregateValue;
     }
 
     if (currentSize == tkVal) {
-      aggregateValue.set(currentSize - 1, currentValue);
-    } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.remove(currentSize - 1);
     }
-
-    aggregateValue.sort(Comparator.reverseOrder());
+    aggregateValue.add(-found - 1, currentValue);
     return aggregateValue;
   }
 
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.engine.QueryEventListener;
 import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.serde.SerializationStats;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.ReservedInternalTopics;
 import java.io.Closeable;
@@ -68,6 +69,7 @@ public class KsqlEngineMetrics implements Closeable {
 
   private final KsqlEngine ksqlEngine;
   private final Metrics metrics;
+  private final List<MetricName> serializationMetrics;
 
   public KsqlEngineMetrics(
       final String metricGroupPrefix,
@@ -122,12 +124,14 @@ public class KsqlEngineMetrics implements Closeable {
         .forEach(this::configureNumActiveQueriesForGivenState);
 
     configureCustomMetrics();
+    this.serializationMetrics = SerializationStats.instance().addMetrics(metrics);
   }
 
   @Override
   public void close() {
     sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
     countMetrics.forEach(countMetric -> metrics.removeMetric(countMetric.getMetricName()));
+    serializationMetrics.forEach(metrics::removeMetric);
   }
 
   public void updateMetrics() {
@@ -15,20 +15,26 @@
 
 package io.confluent.ksql.internal;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullSourceType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.RoutingNodeType;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.ReservedInternalTopics;
 import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
@@ -41,6 +47,7 @@ import org.apache.kafka.common.metrics.stats.Percentile;
 import org.apache.kafka.common.metrics.stats.Percentiles;
 import org.apache.kafka.common.metrics.stats.Percentiles.BucketSizing;
 import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
 import org.apache.kafka.common.utils.Time;
 
 @SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
@@ -48,10 +55,17 @@ public class PullQueryExecutorMetrics implements Closeable {
 
   private static final String PULL_QUERY_METRIC_GROUP = "pull-query";
   private static final String PULL_REQUESTS = "pull-query-requests";
+  private static final String RESULT_CACHE = "pull-query-result-cache";
+  private static final String PLAN_CACHE = "pull-query-plan-cache";
+  private static final String HOST_TAG = "host";
 
   private final List<Sensor> sensors;
   private final Sensor localRequestsSensor;
   private final Sensor remoteRequestsSensor;
+  private final Sensor hedgedRequestsSensor;
+  private final Sensor hedgeWonSensor;
+  private final Sensor planCacheHitSensor;
+  private final Sensor planCacheMissSensor;
   private final Sensor latencySensor;
   private final Map<MetricsKey, Sensor> latencySensorMap;
   private final Sensor requestRateSensor;
@@ -66,12 +80,15 @@ public class PullQueryExecutorMetrics implements Closeable {
   private final Sensor responseCode5XX;
   private final Map<MetricsKey, Sensor> rowsReturnedSensorMap;
   private final Map<MetricsKey, Sensor> rowsProcessedSensorMap;
+  private final Map<String, Sensor> hostLatencySensorMap;
+  private final List<MetricName> resultCacheMetricNames;
   private final Metrics metrics;
   private final Map<String, String> legacyCustomMetricsTags;
   private final Map<String, String> customMetricsTags;
   private final String ksqlServiceIdLegacyPrefix;
   private final String ksqlServicePrefix;
   private final Time time;
+  private volatile boolean closed;
 
   public PullQueryExecutorMetrics(
       final String ksqlServiceId,
@@ -89,9 +106,15 @@ public class PullQueryExecutorMetrics implements Closeable {
 
     this.time = Objects.requireNonNull(time, "time");
     this.metrics = MetricCollectors.getMetrics();
-    this.sensors = new ArrayList<>();
+    this.sensors = Collections.synchronizedList(new ArrayList<>());
     this.localRequestsSensor = configureLocalRequestsSensor();
     this.remoteRequestsSensor = configureRemoteRequestsSensor();
+    this.hedgedRequestsSensor = configureHedgeSensor("hedged",
+        "hedged pull query requests, sent to a standby because the host did not answer in time");
+    this.hedgeWonSensor = configureHedgeSensor("hedge-won",
+        "hedged pull query requests answered by the standby before the original host");
+    this.planCacheHitSensor = configurePlanCacheHitSensor();
+    this.planCacheMissSensor = configurePlanCacheMissSensor();
     this.latencySensor = configureLatencySensor();
     this.latencySensorMap = configureLatencySensorMap();
     this.requestRateSensor = configureRateSensor();
@@ -106,11 +129,17 @@ public class PullQueryExecutorMetrics implements Closeable {
     this.responseCode5XX = configureStatusCodeSensor("5XX");
     this.rowsReturnedSensorMap = configureRowsReturnedSensorMap();
     this.rowsProcessedSensorMap = configureRowsProcessedSensorMap();
+    this.hostLatencySensorMap = new ConcurrentHashMap<>();
+    this.resultCacheMetricNames = configureResultCacheMetrics(PullQueryResultCache.instance());
   }
 
   @Override
   public void close() {
+    closed = true;
     sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
+    hostLatencySensorMap.values().forEach(sensor -> metrics.removeSensor(sensor.name()));
+    hostLatencySensorMap.clear();
+    resultCacheMetricNames.forEach(metrics::removeMetric);
   }
 
   public void recordLocalRequests(final double value) {
@@ -121,6 +150,25 @@ public class PullQueryExecutorMetrics implements Closeable {
     this.remoteRequestsSensor.record(value);
   }
 
+  public void recordHedgedRequest() {
+    this.hedgedRequestsSensor.record(1);
+  }
+
+  public void recordHedgeWon() {
+    this.hedgeWonSensor.record(1);
+  }
+
+  /**
+   * @param planningTimeSavedMs the time it took to analyze the statement when it was cached.
+   */
+  public void recordPlanCacheHit(final long planningTimeSavedMs) {
+    this.planCacheHitSensor.record(planningTimeSavedMs);
+  }
+
+  public void recordPlanCacheMiss() {
+    this.planCacheMissSensor.record(1);
+  }
+
   public void recordLatency(
       final long startTimeNanos,
       final PullSourceType sourceType,
@@ -140,6 +188,29 @@ public class PullQueryExecutorMetrics implements Closeable {
     }
   }
 
+  /**
+   * Record the latency of a request routed to a single host, whether it succeeded or fell back
+   * to a standby. Sensors are created on demand, as the set of hosts is not known up front.
+   *
+   * @param host the host, e.g. {@code node1:8088}.
+   * @param startTimeNanos the time the request was sent, from {@link #nanoseconds()}.
+   */
+  public void recordHostLatency(final String host, final long startTimeNanos) {
+    if (closed) {
+      // Requests still in flight must not recreate sensors that close() removed
+      return;
+    }
+    // Record latency at microsecond scale
+    final double latency = TimeUnit.NANOSECONDS.toMicros(time.nanoseconds() - startTimeNanos);
+    hostLatencySensorMap
+        .computeIfAbsent(host, this::configureHostLatencySensor)
+        .record(latency);
+  }
+
+  public long nanoseconds() {
+    return time.nanoseconds();
+  }
+
   public void recordErrorRate(
       final double value,
       final PullSourceType sourceType,
@@ -309,6 +380,118 @@ public class PullQueryExecutorMetrics implements Closeable {
     return sensor;
   }
 
+  private Sensor configureHedgeSensor(final String name, final String description) {
+    final Sensor sensor = metrics.sensor(
+        PULL_QUERY_METRIC_GROUP + "-" + PULL_REQUESTS + "-" + name);
+
+    addSensor(
+        sensor,
+        PULL_REQUESTS + "-" + name + "-count",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Count of " + description,
+        customMetricsTags,
+        new CumulativeCount()
+    );
+    addSensor(
+        sensor,
+        PULL_REQUESTS + "-" + name + "-rate",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Rate of " + description,
+        customMetricsTags,
+        new Rate()
+    );
+    sensors.add(sensor);
+    return sensor;
+  }
+
+  private Sensor configurePlanCacheHitSensor() {
+    final Sensor sensor = metrics.sensor(PULL_QUERY_METRIC_GROUP + "-" + PLAN_CACHE + "-hit");
+
+    addSensor(
+        sensor,
+        PLAN_CACHE + "-hit-count",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Count of pull queries whose analysis was served from the plan cache",
+        customMetricsTags,
+        new CumulativeCount()
+    );
+    addSensor(
+        sensor,
+        PLAN_CACHE + "-hit-rate",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Rate of pull queries whose analysis was served from the plan cache",
+        customMetricsTags,
+        new Rate(new WindowedCount())
+    );
+    addSensor(
+        sensor,
+        PLAN_CACHE + "-planning-time-saved-ms",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Total time in milliseconds saved by serving pull query analyses from the plan cache",
+        customMetricsTags,
+        new CumulativeSum()
+    );
+    sensors.add(sensor);
+    return sensor;
+  }
+
+  private Sensor configurePlanCacheMissSensor() {
+    final Sensor sensor = metrics.sensor(PULL_QUERY_METRIC_GROUP + "-" + PLAN_CACHE + "-miss");
+
+    addSensor(
+        sensor,
+        PLAN_CACHE + "-miss-count",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Count of pull queries analyzed because their analysis was not in the plan cache",
+        customMetricsTags,
+        new CumulativeCount()
+    );
+    addSensor(
+        sensor,
+        PLAN_CACHE + "-miss-rate",
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        "Rate of pull queries analyzed because their analysis was not in the plan cache",
+        customMetricsTags,
+        new Rate()
+    );
+    sensors.add(sensor);
+    return sensor;
+  }
+
+  private List<MetricName> configureResultCacheMetrics(final PullQueryResultCache resultCache) {
+    final MetricName hitCount = resultCacheMetricName(
+        "hit-count", "Count of pull query key lookups served from the result cache");
+    final MetricName missCount = resultCacheMetricName(
+        "miss-count", "Count of pull query key lookups that missed the result cache");
+    final MetricName hitRatio = resultCacheMetricName(
+        "hit-ratio", "Ratio of pull query key lookups served from the result cache");
+    final MetricName sizeBytes = resultCacheMetricName(
+        "size-bytes", "Estimated size in bytes of the rows in the pull query result cache");
+
+    metrics.addMetricIfAbsent(hitCount, null,
+        (Gauge<Long>) (config, now) -> resultCache.hitCount());
+    metrics.addMetricIfAbsent(missCount, null,
+        (Gauge<Long>) (config, now) -> resultCache.missCount());
+    metrics.addMetricIfAbsent(hitRatio, null, (Gauge<Double>) (config, now) -> {
+      final long hits = resultCache.hitCount();
+      final long lookups = hits + resultCache.missCount();
+      return lookups == 0 ? 0.0 : (double) hits / lookups;
+    });
+    metrics.addMetricIfAbsent(sizeBytes, null,
+        (Gauge<Long>) (config, now) -> resultCache.sizeBytes());
+
+    return ImmutableList.of(hitCount, missCount, hitRatio, sizeBytes);
+  }
+
+  private MetricName resultCacheMetricName(final String name, final String description) {
+    return metrics.metricName(
+        RESULT_CACHE + "-" + name,
+        ksqlServicePrefix + PULL_QUERY_METRIC_GROUP,
+        description,
+        customMetricsTags
+    );
+  }
+
   private Sensor configureRateSensor() {
     final Sensor sensor = metrics.sensor(
         PULL_QUERY_METRIC_GROUP + "-" + PULL_REQUESTS + "-rate");
@@ -431,6 +614,21 @@ public class PullQueryExecutorMetrics implements Closeable {
     });
   }
 
+  private Sensor configureHostLatencySensor(final String host) {
+    final Sensor sensor = metrics.sensor(
+        PULL_QUERY_METRIC_GROUP + "-" + PULL_REQUESTS + "-host-latency-" + host);
+
+    final Map<String, String> tags = ImmutableMap.<String, String>builder()
+        .putAll(customMetricsTags)
+        .put(HOST_TAG, host)
+        .build();
+
+    addRequestMetricsToSensor(sensor, ksqlServicePrefix, PULL_REQUESTS + "-host", tags,
+        " - routed to host " + host);
+
+    return sensor;
+  }
+
   private void addRequestMetricsToSensor(
       final Sensor sensor,
       final String servicePrefix,
@@ -17,7 +17,6 @@ package io.confluent.ksql.physical.pull;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.ksql.execution.streams.RoutingFilter.RoutingFilterFactory;
@@ -45,18 +44,23 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
 public final class HARouting implements AutoCloseable {
 
   private static final Logger LOG = LoggerFactory.getLogger(HARouting.class);
@@ -65,6 +69,8 @@ public final class HARouting implements AutoCloseable {
   private final RoutingFilterFactory routingFilterFactory;
   private final Optional<PullQueryExecutorMetrics> pullQueryMetrics;
   private final RouteQuery routeQuery;
+  private final Optional<HedgeDelay> hedgeDelay;
+  private final Optional<ScheduledExecutorService> hedgeScheduler;
 
   public HARouting(
       final RoutingFilterFactory routingFilterFactory,
@@ -90,11 +96,26 @@ public final class HARouting implements AutoCloseable {
         new ThreadFactoryBuilder().setNameFormat("pull-query-executor-%d").build());
     this.pullQueryMetrics = Objects.requireNonNull(pullQueryMetrics, "pullQueryMetrics");
     this.routeQuery = Objects.requireNonNull(routeQuery);
+
+    // Hedging sends requests to standbys, so is only possible if reading from standbys is enabled:
+    final boolean hedgingEnabled =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_ENABLE_STANDBY_READS)
+            && ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_HEDGING_ENABLED);
+    this.hedgeDelay = hedgingEnabled
+        ? Optional.of(new HedgeDelay(
+            ksqlConfig.getDouble(KsqlConfig.KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_CONFIG),
+            ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_CONFIG)))
+        : Optional.empty();
+    this.hedgeScheduler = hedgingEnabled
+        ? Optional.of(Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("pull-query-hedge-%d").build()))
+        : Optional.empty();
   }
 
   @Override
   public void close() {
     executorService.shutdown();
+    hedgeScheduler.ifPresent(ExecutorService::shutdown);
   }
 
   public CompletableFuture<Void> handlePullQuery(
@@ -123,20 +144,47 @@ public final class HARouting implements AutoCloseable {
     }
 
     final CompletableFuture<Void> completableFuture = new CompletableFuture<>();
-    executorService.submit(() -> {
-      try {
-        executeRounds(serviceContext, pullPhysicalPlan, statement, routingOptions, outputSchema,
-            queryId, locations, pullQueryQueue);
-        completableFuture.complete(null);
-      } catch (Throwable t) {
-        completableFuture.completeExceptionally(t);
-      }
-    });
+    try {
+      executeRound(serviceContext, pullPhysicalPlan, statement, routingOptions, outputSchema,
+          queryId, locations, 0, pullQueryQueue, completableFuture)
+          .whenComplete((v, t) -> {
+            if (t == null) {
+              pullQueryQueue.close();
+              completableFuture.complete(null);
+            } else {
+              completableFuture.completeExceptionally(unwrap(t));
+            }
+          });
+    } catch (final Throwable t) {
+      completableFuture.completeExceptionally(t);
+    }
 
     return completableFuture;
   }
 
-  private void executeRounds(
+  /**
+   * Fetches the supplied partition locations from the round-th entry in their prioritized list of
+   * host nodes.
+   *
+   * <p>Partition locations are grouped by host, and all keys associated with that host are
+   * batched together into a single request. Requests to each host are made in parallel, and
+   * rows are written to the {@code pullQueryQueue} as each host responds. If a request fails in a
+   * way that allows falling back to a standby, the next round for just that request's locations
+   * starts as soon as it fails, without waiting for requests to other hosts to complete.
+   *
+   * <p>For example, locations might be:
+   * [ Partition 0 &lt;Host 1, Host 2&gt;,
+   *   Partition 1 &lt;Host 2, Host 1&gt;,
+   *   Partition 2 &lt;Host 1, Host 2&gt; ]
+   * In Round 0, fetch from Host 1: [Partition 0, Partition 2], from Host 2: [Partition 1].
+   * If Host 1 fails, fetch [Partition 0, Partition 2] from Host 2 in Round 1, regardless of
+   * whether the Round 0 request to Host 2 has completed.
+   *
+   * @return a future completed once all the locations have been fetched. Any error that can not
+   *     be handled by falling back to a standby is also reported to {@code result} immediately,
+   *     so the query fails without waiting for requests to other hosts.
+   */
+  private CompletableFuture<Void> executeRound(
       final ServiceContext serviceContext,
       final PullPhysicalPlan pullPhysicalPlan,
       final ConfiguredStatement<Query> statement,
@@ -144,65 +192,218 @@ public final class HARouting implements AutoCloseable {
       final LogicalSchema outputSchema,
       final QueryId queryId,
       final List<KsqlPartitionLocation> locations,
+      final int round,
+      final PullQueryQueue pullQueryQueue,
+      final CompletableFuture<Void> result
+  ) {
+    // Group all partition location objects by their nth round node
+    final Map<KsqlNode, List<KsqlPartitionLocation>> groupedByHost
+        = groupByHost(statement, locations, round);
+
+    final List<CompletableFuture<Void>> futures = new ArrayList<>(groupedByHost.size());
+    for (Map.Entry<KsqlNode, List<KsqlPartitionLocation>> entry : groupedByHost.entrySet()) {
+      final KsqlNode node = entry.getKey();
+      final List<KsqlPartitionLocation> hostLocations = entry.getValue();
+
+      final CompletableFuture<Void> future = hedgeDelay.isPresent()
+          && canHedge(hostLocations, round)
+          ? routeHedged(serviceContext, pullPhysicalPlan, statement, routingOptions, outputSchema,
+              queryId, node, hostLocations, round, pullQueryQueue)
+          : routeToHost(serviceContext, pullPhysicalPlan, statement, routingOptions, outputSchema,
+              queryId, node, hostLocations, pullQueryQueue)
+              .thenCompose(routingResult -> {
+                if (routingResult == RoutingResult.STANDBY_FALLBACK) {
+                  return executeRound(serviceContext, pullPhysicalPlan, statement,
+                      routingOptions, outputSchema, queryId, hostLocations, round + 1,
+                      pullQueryQueue, result);
+                }
+
+                Preconditions.checkState(routingResult == RoutingResult.SUCCESS);
+                return CompletableFuture.completedFuture(null);
+              });
+
+      future.whenComplete((v, t) -> {
+        if (t != null) {
+          result.completeExceptionally(unwrap(t));
+        }
+      });
+      futures.add(future);
+    }
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private CompletableFuture<RoutingResult> routeToHost(
+      final ServiceContext serviceContext,
+      final PullPhysicalPlan pullPhysicalPlan,
+      final ConfiguredStatement<Query> statement,
+      final RoutingOptions routingOptions,
+      final LogicalSchema outputSchema,
+      final QueryId queryId,
+      final KsqlNode node,
+      final List<KsqlPartitionLocation> hostLocations,
       final PullQueryQueue pullQueryQueue
-  ) throws InterruptedException {
-    // The remaining partition locations to retrieve without error
-    List<KsqlPartitionLocation> remainingLocations = ImmutableList.copyOf(locations);
-    // For each round, each set of partition location objects is grouped by host, and all
-    // keys associated with that host are batched together. For any requests that fail,
-    // the partition location objects will be added to remainingLocations, and the next round
-    // will attempt to fetch them from the next node in their prioritized list.
-    // For example, locations might be:
-    // [ Partition 0 <Host 1, Host 2>,
-    //   Partition 1 <Host 2, Host 1>,
-    //   Partition 2 <Host 1, Host 2> ]
-    // In Round 0, fetch from Host 1: [Partition 0, Partition 2], from Host 2: [Partition 1]
-    // If everything succeeds, we're done.  If Host 1 failed, then we'd have a Round 1:
-    // In Round 1, fetch from Host 2: [Partition 0, Partition 2].
-    for (int round = 0; ; round++) {
-      // Group all partition location objects by their nth round node
-      final Map<KsqlNode, List<KsqlPartitionLocation>> groupedByHost
-          = groupByHost(statement, remainingLocations, round);
-
-      // Make requests to each host, specifying the partitions we're interested in from
-      // this host.
-      final Map<KsqlNode, Future<RoutingResult>> futures = new LinkedHashMap<>();
-      for (Map.Entry<KsqlNode, List<KsqlPartitionLocation>> entry : groupedByHost.entrySet()) {
-        final KsqlNode node = entry.getKey();
-        futures.put(node, executorService.submit(
+  ) {
+    final long startTimeNanos = System.nanoTime();
+    // Host latency is timed with the clock of the metrics it is recorded to
+    final long metricsStartTimeNanos = pullQueryMetrics
+        .map(PullQueryExecutorMetrics::nanoseconds)
+        .orElse(0L);
+    return CompletableFuture
+        .supplyAsync(
             () -> routeQuery.routeQuery(
-                node, entry.getValue(), statement, serviceContext, routingOptions,
-                pullQueryMetrics, pullPhysicalPlan, outputSchema, queryId, pullQueryQueue)
-        ));
-      }
+                node, hostLocations, statement, serviceContext, routingOptions,
+                pullQueryMetrics, pullPhysicalPlan, outputSchema, queryId, pullQueryQueue),
+            executorService)
+        .whenComplete((routingResult, t) -> {
+          pullQueryMetrics.ifPresent(metrics ->
+              metrics.recordHostLatency(node.location().getAuthority(), metricsStartTimeNanos));
+          if (routingResult == RoutingResult.SUCCESS) {
+            hedgeDelay.ifPresent(delay -> delay.record(System.nanoTime() - startTimeNanos));
+          }
+        });
+  }
 
-      // Go through all of the results of the requests, either aggregating rows or adding
-      // the locations to the nextRoundRemaining list.
-      final ImmutableList.Builder<KsqlPartitionLocation> nextRoundRemaining
-          = ImmutableList.builder();
-      for (Map.Entry<KsqlNode, Future<RoutingResult>> entry : futures.entrySet()) {
-        final Future<RoutingResult> future = entry.getValue();
-        final KsqlNode node = entry.getKey();
-        RoutingResult routingResult = null;
-        try {
-          routingResult = future.get();
-        } catch (ExecutionException e) {
-          throw new MaterializationException("Unable to execute pull query", e);
-        }
-        if (routingResult == RoutingResult.STANDBY_FALLBACK) {
-          nextRoundRemaining.addAll(groupedByHost.get(node));
-        } else {
-          Preconditions.checkState(routingResult == RoutingResult.SUCCESS);
+  /**
+   * Fetches the supplied partition locations from {@code node}, hedging the request if the node
+   * has not answered within the hedging delay.
+   *
+   * <p>The hedge fetches the same locations from the next round of hosts, i.e. it is the standby
+   * fallback, started early. It is also started as soon as the node fails in a way that allows
+   * falling back to a standby, though it is only counted as a hedged request if it was started
+   * because the delay expired. Standbys are only ever selected from each location's list of
+   * hosts, which has already been filtered by the routing filters, so lag limits still apply.
+   *
+   * <p>Whichever of the original request and the hedge first produces a row, or completes, wins.
+   * The rows of the other are discarded, and local execution of the other stops early.
+   */
+  private CompletableFuture<Void> routeHedged(
+      final ServiceContext serviceContext,
+      final PullPhysicalPlan pullPhysicalPlan,
+      final ConfiguredStatement<Query> statement,
+      final RoutingOptions routingOptions,
+      final LogicalSchema outputSchema,
+      final QueryId queryId,
+      final KsqlNode node,
+      final List<KsqlPartitionLocation> hostLocations,
+      final int round,
+      final PullQueryQueue pullQueryQueue
+  ) {
+    final AtomicReference<PullQueryQueue> winner = new AtomicReference<>();
+    final HedgedPullQueryQueue primary = new HedgedPullQueryQueue(pullQueryQueue, winner);
+    final HedgedPullQueryQueue hedge = new HedgedPullQueryQueue(pullQueryQueue, winner);
+
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+    final AtomicInteger running = new AtomicInteger(1);
+    final AtomicBoolean hedged = new AtomicBoolean(false);
+    final AtomicBoolean hedgedOnDelay = new AtomicBoolean(false);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    final Consumer<HedgedPullQueryQueue> onSuccess = attempt -> {
+      if (attempt.finish() && attempt.claim()) {
+        if (attempt == hedge && hedgedOnDelay.get()) {
+          pullQueryMetrics.ifPresent(PullQueryExecutorMetrics::recordHedgeWon);
         }
+        done.complete(null);
+      }
+    };
+
+    final BiConsumer<HedgedPullQueryQueue, Throwable> onFailure = (attempt, t) -> {
+      if (!attempt.finish()) {
+        return;
       }
-      remainingLocations = nextRoundRemaining.build();
+      if (t != null) {
+        failure.compareAndSet(null, t);
+      }
+      // Fail if the attempt had already produced rows, or if no attempt remains:
+      if (attempt.isWinner() || running.decrementAndGet() == 0) {
+        final Throwable cause = failure.get();
+        done.completeExceptionally(cause != null
+            ? cause
+            : new MaterializationException("Exhausted standby hosts to try."));
+      }
+    };
 
-      // If there are no partition locations remaining, then we're done.
-      if (remainingLocations.size() == 0) {
-        pullQueryQueue.close();
+    final Consumer<Boolean> startHedge = onDelay -> {
+      if (done.isDone() || !hedged.compareAndSet(false, true)) {
         return;
       }
+      int current;
+      do {
+        current = running.get();
+        if (current == 0) {
+          return;
+        }
+      } while (!running.compareAndSet(current, current + 1));
+
+      if (onDelay) {
+        hedgedOnDelay.set(true);
+        LOG.debug("Hedging pull query request to host {}", node.location());
+        pullQueryMetrics.ifPresent(PullQueryExecutorMetrics::recordHedgedRequest);
+      }
+
+      // Errors of the hedge must not fail the query if the original request wins:
+      final CompletableFuture<Void> hedgeErrors = new CompletableFuture<>();
+      hedgeErrors.whenComplete((v, t) -> {
+        if (t != null) {
+          onFailure.accept(hedge, unwrap(t));
+        }
+      });
+      try {
+        executeRound(serviceContext, pullPhysicalPlan, statement, routingOptions,
+            outputSchema, queryId, hostLocations, round + 1, hedge, hedgeErrors)
+            .whenComplete((v, t) -> {
+              if (t == null) {
+                onSuccess.accept(hedge);
+              } else {
+                onFailure.accept(hedge, unwrap(t));
+              }
+            });
+      } catch (final Exception e) {
+        onFailure.accept(hedge, unwrap(e));
+      }
+    };
+
+    routeToHost(serviceContext, pullPhysicalPlan, statement, routingOptions, outputSchema,
+        queryId, node, hostLocations, primary)
+        .whenComplete((routingResult, t) -> {
+          if (t != null) {
+            onFailure.accept(primary, unwrap(t));
+          } else if (routingResult == RoutingResult.STANDBY_FALLBACK) {
+            startHedge.accept(false);
+            onFailure.accept(primary, null);
+          } else {
+            onSuccess.accept(primary);
+          }
+        });
+
+    final ScheduledFuture<?> timer = hedgeScheduler.get().schedule(
+        () -> startHedge.accept(true),
+        hedgeDelay.get().delayMicros(),
+        TimeUnit.MICROSECONDS
+    );
+    done.whenComplete((v, t) -> timer.cancel(false));
+
+    return done;
+  }
+
+  /**
+   * @return {@code true} if every location has a host to hedge to in the next round.
+   */
+  private static boolean canHedge(final List<KsqlPartitionLocation> locations, final int round) {
+    return locations.stream().allMatch(location -> location.getNodes().size() > round + 1);
+  }
+
+  private static Throwable unwrap(final Throwable t) {
+    Throwable cause = t;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
     }
+
+    if (cause instanceof MaterializationException) {
+      return cause;
+    }
+    return new MaterializationException("Unable to execute pull query", cause);
   }
 
   /**
@@ -390,6 +591,10 @@ public final class HARouting implements AutoCloseable {
         if (streamedRows == null || streamedRows.isEmpty()) {
           return;
         }
+        // The rows are no longer wanted, e.g. the client has gone or another host answered first:
+        if (pullQueryQueue.isClosed()) {
+          return;
+        }
         final List<PullQueryRow> rows = new ArrayList<>();
 
         // If this is the first row overall, skip the header
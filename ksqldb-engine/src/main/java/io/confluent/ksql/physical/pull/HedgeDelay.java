@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the latency of recent pull query requests to compute how long to wait before hedging a
+ * request to a standby.
+ *
+ * <p>The delay is the configured percentile of the most recent request latencies, but never less
+ * than the configured minimum. The percentile is recomputed periodically, rather than on every
+ * request.
+ */
+final class HedgeDelay {
+
+  private static final int WINDOW_SIZE = 1024;
+  private static final int RECOMPUTE_INTERVAL = 64;
+
+  private final double percentile;
+  private final long minDelayMicros;
+  private final long[] samplesMicros = new long[WINDOW_SIZE];
+  private int count;
+  private int next;
+  private int sinceRecompute;
+  private volatile long delayMicros;
+
+  HedgeDelay(final double percentile, final long minDelayMs) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+    }
+
+    this.percentile = percentile;
+    this.minDelayMicros = TimeUnit.MILLISECONDS.toMicros(minDelayMs);
+    this.delayMicros = minDelayMicros;
+  }
+
+  /**
+   * @param latencyNanos the latency of a completed request.
+   */
+  synchronized void record(final long latencyNanos) {
+    samplesMicros[next] = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+    next = (next + 1) % WINDOW_SIZE;
+    count = Math.min(count + 1, WINDOW_SIZE);
+
+    // Recompute eagerly until there are enough samples for the percentile to be stable:
+    if (++sinceRecompute >= RECOMPUTE_INTERVAL || count <= RECOMPUTE_INTERVAL) {
+      recompute();
+    }
+  }
+
+  /**
+   * @return the time to wait, in microseconds, for a host to answer before hedging.
+   */
+  long delayMicros() {
+    return delayMicros;
+  }
+
+  private void recompute() {
+    sinceRecompute = 0;
+
+    final long[] sorted = Arrays.copyOf(samplesMicros, count);
+    Arrays.sort(sorted);
+
+    final int idx = (int) Math.ceil(percentile / 100.0 * count) - 1;
+    final long value = sorted[Math.max(0, Math.min(idx, count - 1))];
+    delayMicros = Math.max(minDelayMicros, value);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.query.PullQueryQueue;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The producer side of a {@link PullQueryQueue} for one of several attempts racing to answer the
+ * same request.
+ *
+ * <p>The first attempt to produce a row, or to complete, wins and its rows are passed to the
+ * underlying queue. An empty chunk, e.g. one holding only the header of a forwarded response, does
+ * not win the race, as the attempt may yet fail, e.g. by falling back to a standby. The rows of every other attempt are dropped, and it sees the queue as closed
+ * so that it stops early.
+ */
+final class HedgedPullQueryQueue extends PullQueryQueue {
+
+  private final PullQueryQueue delegate;
+  private final AtomicReference<PullQueryQueue> winner;
+  private final AtomicBoolean finished = new AtomicBoolean(false);
+
+  HedgedPullQueryQueue(
+      final PullQueryQueue delegate,
+      final AtomicReference<PullQueryQueue> winner
+  ) {
+    super(1, 0);
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.winner = requireNonNull(winner, "winner");
+  }
+
+  @Override
+  public boolean acceptRow(final PullQueryRow row) {
+    return claim() && delegate.acceptRow(row);
+  }
+
+  @Override
+  public boolean acceptRows(final List<PullQueryRow> tableRows) {
+    if (tableRows == null || tableRows.isEmpty()) {
+      return tableRows != null && !lost();
+    }
+    return claim() && delegate.acceptRows(tableRows);
+  }
+
+  @Override
+  public boolean isClosed() {
+    return lost() || delegate.isClosed();
+  }
+
+  /**
+   * @return {@code true} if this attempt won, or has already won, the race.
+   */
+  boolean claim() {
+    return winner.compareAndSet(null, this) || winner.get() == this;
+  }
+
+  boolean isWinner() {
+    return winner.get() == this;
+  }
+
+  /**
+   * @return {@code true} if another attempt won the race.
+   */
+  boolean lost() {
+    final PullQueryQueue current = winner.get();
+    return current != null && current != this;
+  }
+
+  /**
+   * @return {@code true} the first time it is called, used to handle the outcome of the attempt
+   *     only once.
+   */
+  boolean finish() {
+    return finished.compareAndSet(false, true);
+  }
+}
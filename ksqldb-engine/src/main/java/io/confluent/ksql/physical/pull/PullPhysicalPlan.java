@@ -84,20 +84,24 @@ public class PullPhysicalPlan {
     dataSourceOperator.setPartitionLocations(locations);
 
     open();
-    List<?> row;
-    while ((row = (List<?>)next()) != null) {
-      if (pullQueryQueue.isClosed()) {
-        // If the queue has been closed, we stop adding rows and cleanup. This should be triggered
-        // because the client has closed their connection with the server before the results have
-        // completed.
-        LOGGER.info("Queue closed before results completed. Stopping execution.");
-        break;
-      }
-      if (!pullQueryQueue.acceptRow(rowFactory.apply(row, schema))) {
-        LOGGER.info("Failed to queue row");
+    try {
+      List<?> row;
+      while ((row = (List<?>)next()) != null) {
+        if (pullQueryQueue.isClosed()) {
+          // If the queue has been closed, we stop adding rows and cleanup. This should be
+          // triggered because the client has closed their connection with the server before the
+          // results have completed.
+          LOGGER.info("Queue closed before results completed. Stopping execution.");
+          break;
+        }
+        if (!pullQueryQueue.acceptRow(rowFactory.apply(row, schema))) {
+          LOGGER.info("Failed to queue row");
+        }
       }
+    } finally {
+      // Operators may hold resources, e.g. partition scans running in the background:
+      close();
     }
-    close();
   }
 
   private void open() {
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.physical.pull;
 
+import com.google.common.collect.Range;
 import io.confluent.ksql.analyzer.ImmutableAnalysis;
 import io.confluent.ksql.analyzer.PullQueryValidator;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
@@ -29,6 +30,7 @@ import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullSourceType;
 import io.confluent.ksql.physical.pull.operators.AbstractPhysicalOperator;
 import io.confluent.ksql.physical.pull.operators.DataSourceOperator;
+import io.confluent.ksql.physical.pull.operators.KeyScanBounds;
 import io.confluent.ksql.physical.pull.operators.KeyedTableLookupOperator;
 import io.confluent.ksql.physical.pull.operators.KeyedWindowedTableLookupOperator;
 import io.confluent.ksql.physical.pull.operators.ProjectOperator;
@@ -36,7 +38,9 @@ import io.confluent.ksql.physical.pull.operators.SelectOperator;
 import io.confluent.ksql.physical.pull.operators.TableScanOperator;
 import io.confluent.ksql.physical.pull.operators.WindowedTableScanOperator;
 import io.confluent.ksql.planner.LogicalPlanNode;
+import io.confluent.ksql.planner.PullPlannerOptions;
 import io.confluent.ksql.planner.plan.DataSourceNode;
+import io.confluent.ksql.planner.plan.KeyRangeConstraint;
 import io.confluent.ksql.planner.plan.KsqlBareOutputNode;
 import io.confluent.ksql.planner.plan.LookupConstraint;
 import io.confluent.ksql.planner.plan.NonKeyConstraint;
@@ -45,11 +49,13 @@ import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.PullFilterNode;
 import io.confluent.ksql.planner.plan.PullProjectNode;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Traverses the logical plan top-down and creates a physical plan for pull queries.
@@ -66,6 +72,7 @@ public class PullPhysicalPlanBuilder {
   private final PersistentQueryMetadata persistentQueryMetadata;
   private final QueryId queryId;
   private final Materialization mat;
+  private final PullPlannerOptions pullPlannerOptions;
 
   private List<LookupConstraint> lookupConstraints;
   private PullPhysicalPlanType pullPhysicalPlanType;
@@ -75,12 +82,14 @@ public class PullPhysicalPlanBuilder {
   public PullPhysicalPlanBuilder(
       final ProcessingLogContext processingLogContext,
       final PersistentQueryMetadata persistentQueryMetadata,
-      final ImmutableAnalysis analysis
+      final ImmutableAnalysis analysis,
+      final PullPlannerOptions pullPlannerOptions
   ) {
     this.processingLogContext = Objects.requireNonNull(
         processingLogContext, "processingLogContext");
     this.persistentQueryMetadata = Objects.requireNonNull(
         persistentQueryMetadata, "persistentQueryMetadata");
+    this.pullPlannerOptions = Objects.requireNonNull(pullPlannerOptions, "pullPlannerOptions");
     this.contextStacker = new Stacker();
     queryId = uniqueQueryId();
     mat = this.persistentQueryMetadata
@@ -187,27 +196,61 @@ public class PullPhysicalPlanBuilder {
     if (!seenSelectOperator) {
       lookupConstraints = Collections.emptyList();
       isTableScan = true;
-    } else if (lookupConstraints.stream().anyMatch(lc -> lc instanceof NonKeyConstraint)) {
+    } else if (lookupConstraints.stream().anyMatch(
+        lc -> lc instanceof NonKeyConstraint || lc instanceof KeyRangeConstraint)) {
       isTableScan = true;
     }
     pullSourceType = logicalNode.isWindowed()
         ? PullSourceType.WINDOWED : PullSourceType.NON_WINDOWED;
     if (isTableScan) {
       pullPhysicalPlanType = PullPhysicalPlanType.TABLE_SCAN;
+      final KeyScanBounds keyScanBounds = keyScanBounds(logicalNode);
       if (!logicalNode.isWindowed()) {
-        return new TableScanOperator(mat, logicalNode);
+        return new TableScanOperator(
+            mat, logicalNode, pullPlannerOptions.getTableScanParallelism(), keyScanBounds);
       } else {
-        return new WindowedTableScanOperator(mat, logicalNode);
+        return new WindowedTableScanOperator(
+            mat, logicalNode, pullPlannerOptions.getTableScanParallelism(), keyScanBounds);
       }
     }
     pullPhysicalPlanType = PullPhysicalPlanType.KEY_LOOKUP;
+    final Optional<PullQueryResultCache.QueryCache> resultCache = PullQueryResultCache.instance()
+        .forQuery(persistentQueryMetadata.getQueryId());
     if (!logicalNode.isWindowed()) {
-      return new KeyedTableLookupOperator(mat, logicalNode);
+      return new KeyedTableLookupOperator(mat, logicalNode, resultCache);
     } else {
-      return new KeyedWindowedTableLookupOperator(mat, logicalNode);
+      return new KeyedWindowedTableLookupOperator(mat, logicalNode, resultCache);
     }
   }
 
+  /**
+   * If every disjunct of the WHERE clause bounds the key, the scan only needs to read the keys
+   * between the lowest and highest of those bounds.
+   */
+  @SuppressWarnings({"UnstableApiUsage", "unchecked", "rawtypes"})
+  private KeyScanBounds keyScanBounds(final DataSourceNode logicalNode) {
+    if (lookupConstraints.isEmpty()
+        || !lookupConstraints.stream().allMatch(lc -> lc instanceof KeyRangeConstraint)) {
+      return KeyScanBounds.all();
+    }
+
+    Range span = null;
+    for (final LookupConstraint lookupConstraint : lookupConstraints) {
+      final Range range = ((KeyRangeConstraint) lookupConstraint).getRange();
+      if (range.isEmpty() && span != null) {
+        continue;
+      }
+      span = span == null || span.isEmpty() ? range : span.span(range);
+    }
+
+    final LogicalSchema schema = logicalNode.getSchema();
+    return KeyScanBounds.of(
+        span,
+        logicalNode.getDataSource().getKsqlTopic().getKeyFormat().getFormatInfo(),
+        schema.key().get(0).type()
+    );
+  }
+
   private QueryId uniqueQueryId() {
     return new QueryId("query_" + System.currentTimeMillis());
   }
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.streams.materialization.TableRow;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.util.KsqlConfig;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKey;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKeySupplier;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.processor.ProcessorContext;
+
+/**
+ * JVM-wide, byte-bounded cache of the rows returned by pull query key lookups.
+ *
+ * <p>Entries are keyed on the materializing query, the partition and the key looked up. Each
+ * entry holds the rows read from the state store for one set of window bounds, before any
+ * projection, so lookups of the same key with different projections share the entry.
+ *
+ * <p>Entries are invalidated by a processor added to the end of each materializing query, which
+ * sees every update to the table as it is written to the state store. This only holds for queries
+ * without a Kafka Streams record cache, i.e. with {@code cache.max.bytes.buffering} set to 0, as
+ * otherwise updates are only forwarded when the record cache is flushed, so no processor is added
+ * to, and nothing is cached for, other queries. Only partitions with a
+ * running processor on this server are cached: when a task is assigned or revoked, including
+ * when its store is restored from the changelog without going through the processor, all entries
+ * of its partition are dropped. Lookups of standby partitions are never cached.
+ *
+ * <p>The maximum size of the cache is controlled by
+ * {@link KsqlConfig#KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_CONFIG} in the server config. Least
+ * recently used entries are evicted once the estimated size of the cached rows exceeds it.
+ */
+public final class PullQueryResultCache {
+
+  // Approximate overhead of an entry in the cache, its key and the list of rows:
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+  private static final int ROW_OVERHEAD_BYTES = 64;
+  private static final int VALUE_OVERHEAD_BYTES = 16;
+
+  private static final PullQueryResultCache INSTANCE = new PullQueryResultCache();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final AtomicLong sizeBytes = new AtomicLong();
+  private final ConcurrentMap<QueryPartition, PartitionState> partitions =
+      new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+  private volatile Cache<EntryKey, Entry> cache;
+  private volatile long maxBytes;
+
+  public static PullQueryResultCache instance() {
+    return INSTANCE;
+  }
+
+  @VisibleForTesting
+  PullQueryResultCache() {
+  }
+
+  /**
+   * Sizes the cache from the supplied server config. Changing the size drops all cached entries.
+   * Per-query overrides are not passed here, as the cache is shared by all queries.
+   */
+  public void configure(final KsqlConfig ksqlConfig) {
+    configure(ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_CONFIG));
+  }
+
+  @VisibleForTesting
+  void configure(final long requiredMaxBytes) {
+    if (requiredMaxBytes == maxBytes) {
+      return;
+    }
+
+    synchronized (lock) {
+      if (requiredMaxBytes != maxBytes) {
+        final Cache<EntryKey, Entry> old = cache;
+        cache = requiredMaxBytes <= 0 ? null : buildCache(requiredMaxBytes);
+        maxBytes = requiredMaxBytes;
+        if (old != null) {
+          old.invalidateAll();
+        }
+      }
+    }
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * @param queryId the id of the query materializing the table.
+   * @return the view of the cache for lookups of the table, if the cache is enabled.
+   */
+  public Optional<QueryCache> forQuery(final QueryId queryId) {
+    requireNonNull(queryId, "queryId");
+    return isEnabled() ? Optional.of(new QueryCache(queryId)) : Optional.empty();
+  }
+
+  /**
+   * @param queryId the id of the query materializing the table.
+   * @return a supplier of the processor that invalidates entries as the table is updated. It
+   *         passes values through unchanged.
+   */
+  public ValueTransformerWithKeySupplier<Object, GenericRow, GenericRow> invalidator(
+      final QueryId queryId
+  ) {
+    requireNonNull(queryId, "queryId");
+    return () -> new Invalidator(queryId);
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long sizeBytes() {
+    return sizeBytes.get();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends TableRow> List<T> get(
+      final QueryPartition queryPartition,
+      final GenericKey key,
+      final Object bounds,
+      final Supplier<List<T>> loader
+  ) {
+    final Cache<EntryKey, Entry> cache = this.cache;
+    final PartitionState state = partitions.get(queryPartition);
+    if (cache == null || state == null || !state.active) {
+      return loader.get();
+    }
+
+    final EntryKey entryKey = new EntryKey(queryPartition, key);
+    final Entry cached = cache.getIfPresent(entryKey);
+    if (cached != null && Objects.equals(cached.bounds, bounds)) {
+      hits.increment();
+      return (List<T>) cached.rows;
+    }
+
+    misses.increment();
+    final long version = state.version.get();
+    final List<T> rows = ImmutableList.copyOf(loader.get());
+    final Entry entry = new Entry(bounds, rows);
+    sizeBytes.addAndGet(entry.weight);
+    cache.put(entryKey, entry);
+
+    // The table may have been updated while the rows were read, in which case the invalidation
+    // may have run before the put:
+    if (state.version.get() != version || !state.active) {
+      cache.asMap().remove(entryKey, entry);
+    }
+    return rows;
+  }
+
+  private void activate(final QueryPartition queryPartition) {
+    final PartitionState state = partitions.computeIfAbsent(
+        queryPartition, qp -> new PartitionState());
+    state.version.incrementAndGet();
+    invalidatePartition(queryPartition);
+    state.active = true;
+  }
+
+  private void invalidate(final QueryPartition queryPartition, final GenericKey key) {
+    final PartitionState state = partitions.get(queryPartition);
+    if (state != null) {
+      state.version.incrementAndGet();
+    }
+
+    final Cache<EntryKey, Entry> cache = this.cache;
+    if (cache != null) {
+      cache.invalidate(new EntryKey(queryPartition, key));
+    }
+  }
+
+  private void deactivate(final QueryPartition queryPartition) {
+    final PartitionState state = partitions.get(queryPartition);
+    if (state != null) {
+      state.active = false;
+      state.version.incrementAndGet();
+      partitions.remove(queryPartition, state);
+    }
+    invalidatePartition(queryPartition);
+  }
+
+  private void invalidatePartition(final QueryPartition queryPartition) {
+    final Cache<EntryKey, Entry> cache = this.cache;
+    if (cache != null) {
+      cache.asMap().keySet().removeIf(key -> key.queryPartition.equals(queryPartition));
+    }
+  }
+
+  private Cache<EntryKey, Entry> buildCache(final long maxBytes) {
+    return CacheBuilder.newBuilder()
+        .maximumWeight(maxBytes)
+        .<EntryKey, Entry>weigher((key, entry) -> entry.weight)
+        .removalListener(notification -> sizeBytes.addAndGet(-notification.getValue().weight))
+        .build();
+  }
+
+  @VisibleForTesting
+  static int estimateSize(final List<? extends TableRow> rows) {
+    long size = ENTRY_OVERHEAD_BYTES;
+    for (final TableRow row : rows) {
+      size += ROW_OVERHEAD_BYTES
+          + estimateSize(row.key().values())
+          + estimateSize(row.value().values());
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  private static long estimateSize(final Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof String) {
+      return VALUE_OVERHEAD_BYTES + 2L * ((String) value).length();
+    }
+    if (value instanceof ByteBuffer) {
+      return VALUE_OVERHEAD_BYTES + ((ByteBuffer) value).remaining();
+    }
+    if (value instanceof Collection) {
+      long size = VALUE_OVERHEAD_BYTES;
+      for (final Object element : (Collection<?>) value) {
+        size += estimateSize(element);
+      }
+      return size;
+    }
+    if (value instanceof Map) {
+      long size = VALUE_OVERHEAD_BYTES;
+      for (final Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+        size += estimateSize(e.getKey()) + estimateSize(e.getValue());
+      }
+      return size;
+    }
+    if (value instanceof Struct) {
+      final Struct struct = (Struct) value;
+      long size = VALUE_OVERHEAD_BYTES;
+      for (final Field field : struct.schema().fields()) {
+        size += estimateSize(struct.get(field));
+      }
+      return size;
+    }
+    return VALUE_OVERHEAD_BYTES;
+  }
+
+  /**
+   * The cache as seen by lookups of a single materialized table.
+   */
+  public final class QueryCache {
+
+    private final QueryId queryId;
+
+    private QueryCache(final QueryId queryId) {
+      this.queryId = queryId;
+    }
+
+    /**
+     * Get the rows for the supplied key, reading them with the {@code loader} if not cached.
+     *
+     * @param partition the partition of the key.
+     * @param key the key.
+     * @param bounds any other bounds of the lookup, e.g. the window bounds, or {@code null}.
+     * @param loader reads the rows from the state store.
+     * @return the rows.
+     */
+    public <T extends TableRow> List<T> get(
+        final int partition,
+        final GenericKey key,
+        final Object bounds,
+        final Supplier<List<T>> loader
+    ) {
+      return PullQueryResultCache.this.get(
+          new QueryPartition(queryId, partition), key, bounds, loader);
+    }
+  }
+
+  private final class Invalidator
+      implements ValueTransformerWithKey<Object, GenericRow, GenericRow> {
+
+    private final QueryId queryId;
+    private QueryPartition queryPartition;
+
+    Invalidator(final QueryId queryId) {
+      this.queryId = queryId;
+    }
+
+    @Override
+    public void init(final ProcessorContext context) {
+      queryPartition = new QueryPartition(queryId, context.taskId().partition());
+      activate(queryPartition);
+    }
+
+    @Override
+    public GenericRow transform(final Object key, final GenericRow value) {
+      final Object tableKey = key instanceof Windowed ? ((Windowed<?>) key).key() : key;
+      if (tableKey instanceof GenericKey) {
+        invalidate(queryPartition, (GenericKey) tableKey);
+      } else {
+        // Unknown key type, so drop everything that could be affected:
+        activate(queryPartition);
+      }
+      return value;
+    }
+
+    @Override
+    public void close() {
+      deactivate(queryPartition);
+    }
+  }
+
+  private static final class PartitionState {
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean active;
+  }
+
+  private static final class Entry {
+
+    private final Object bounds;
+    private final List<?> rows;
+    private final int weight;
+
+    Entry(final Object bounds, final List<? extends TableRow> rows) {
+      this.bounds = bounds;
+      this.rows = rows;
+      this.weight = estimateSize(rows);
+    }
+  }
+
+  private static final class QueryPartition {
+
+    private final QueryId queryId;
+    private final int partition;
+
+    QueryPartition(final QueryId queryId, final int partition) {
+      this.queryId = queryId;
+      this.partition = partition;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final QueryPartition that = (QueryPartition) o;
+      return partition == that.partition
+          && Objects.equals(queryId, that.queryId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(queryId, partition);
+    }
+  }
+
+  private static final class EntryKey {
+
+    private final QueryPartition queryPartition;
+    private final GenericKey key;
+
+    EntryKey(final QueryPartition queryPartition, final GenericKey key) {
+      this.queryPartition = queryPartition;
+      this.key = requireNonNull(key, "key");
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final EntryKey that = (EntryKey) o;
+      return Objects.equals(queryPartition, that.queryPartition)
+          && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(queryPartition, key);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull.operators;
+
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.serde.kafka.KafkaFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The inclusive bounds on the keys a table scan reads from the state store.
+ *
+ * <p>State stores order keys by their serialized bytes, which only matches the order of the key
+ * values for some formats and types. The bounds are therefore a superset of the keys in a range
+ * of values: they may include keys outside of the range, which the scan's filter removes, but
+ * never exclude one within it. Where no such bounds exist, the whole store is scanned.
+ */
+public final class KeyScanBounds {
+
+  private static final KeyScanBounds ALL = new KeyScanBounds(null, null);
+
+  private final GenericKey from;
+  private final GenericKey to;
+
+  private KeyScanBounds(final GenericKey from, final GenericKey to) {
+    this.from = from;
+    this.to = to;
+  }
+
+  public static KeyScanBounds all() {
+    return ALL;
+  }
+
+  /**
+   * @param range the range of values of a single column key.
+   * @param keyFormat the format the key is serialized with in the state store.
+   * @param keyType the type of the key column.
+   * @return the bounds to scan to read every key within the range.
+   */
+  public static KeyScanBounds of(
+      final Range<Comparable<?>> range,
+      final FormatInfo keyFormat,
+      final SqlType keyType
+  ) {
+    // Other formats frame or encode the value, e.g. with a length prefix or quotes:
+    if (!KafkaFormat.NAME.equals(keyFormat.getFormat())) {
+      return ALL;
+    }
+
+    switch (keyType.baseType()) {
+      case STRING:
+        return forString(range);
+      case INTEGER:
+      case BIGINT:
+        return forInteger(range);
+      default:
+        return ALL;
+    }
+  }
+
+  public boolean isBounded() {
+    return from != null || to != null;
+  }
+
+  public Optional<GenericKey> getFrom() {
+    return Optional.ofNullable(from);
+  }
+
+  public Optional<GenericKey> getTo() {
+    return Optional.ofNullable(to);
+  }
+
+  /**
+   * Strings are serialized as UTF-8, whose byte order is code point order. This only differs
+   * from the UTF-16 order strings are compared in for surrogates, so bounds with chars from
+   * U+D800 onwards are not used.
+   */
+  private static KeyScanBounds forString(final Range<Comparable<?>> range) {
+    final Object lower = range.hasLowerBound() ? range.lowerEndpoint() : null;
+    final Object upper = range.hasUpperBound() ? range.upperEndpoint() : null;
+    if (hasSurrogateOrAbove(lower) || hasSurrogateOrAbove(upper)) {
+      return ALL;
+    }
+    return new KeyScanBounds(key(lower), key(upper));
+  }
+
+  /**
+   * Integers are serialized big-endian in two's complement, so negative values sort after
+   * positive ones, but each keep their order.
+   */
+  private static KeyScanBounds forInteger(final Range<Comparable<?>> range) {
+    final Object lower = range.hasLowerBound() ? range.lowerEndpoint() : null;
+    final Object upper = range.hasUpperBound() ? range.upperEndpoint() : null;
+
+    if (lower != null && !isNegative(lower)) {
+      // Without a non-negative upper bound, scan to the end, including all negative values:
+      final Object to = upper != null && !isNegative(upper) ? upper : null;
+      return new KeyScanBounds(key(lower), key(to));
+    }
+
+    if (lower != null && upper != null && isNegative(upper)) {
+      return new KeyScanBounds(key(lower), key(upper));
+    }
+
+    return ALL;
+  }
+
+  private static boolean hasSurrogateOrAbove(final Object value) {
+    return value != null && ((String) value).chars().anyMatch(c -> c >= Character.MIN_SURROGATE);
+  }
+
+  private static boolean isNegative(final Object value) {
+    return ((Number) value).longValue() < 0;
+  }
+
+  private static GenericKey key(final Object value) {
+    return value == null ? null : GenericKey.genericKey(value);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    final KeyScanBounds that = (KeyScanBounds) o;
+    return Objects.equals(from, that.from)
+        && Objects.equals(to, that.to);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(from, to);
+  }
+
+  @Override
+  public String toString() {
+    return "KeyScanBounds{from=" + from + ", to=" + to + "}";
+  }
+}
@@ -21,11 +21,13 @@ import io.confluent.ksql.execution.streams.materialization.Locator.KsqlKey;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
 import io.confluent.ksql.planner.plan.DataSourceNode;
 import io.confluent.ksql.planner.plan.PlanNode;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +39,7 @@ public class KeyedTableLookupOperator
 
   private final Materialization mat;
   private final DataSourceNode logicalNode;
+  private final Optional<PullQueryResultCache.QueryCache> resultCache;
 
   private List<KsqlPartitionLocation> partitionLocations;
   private Iterator<Row> resultIterator;
@@ -49,9 +52,21 @@ public class KeyedTableLookupOperator
   public KeyedTableLookupOperator(
       final Materialization mat,
       final DataSourceNode logicalNode
+  ) {
+    this(mat, logicalNode, Optional.empty());
+  }
+
+  /**
+   * @param resultCache the cache of lookup results for the table, if enabled.
+   */
+  public KeyedTableLookupOperator(
+      final Materialization mat,
+      final DataSourceNode logicalNode,
+      final Optional<PullQueryResultCache.QueryCache> resultCache
   ) {
     this.mat = Objects.requireNonNull(mat, "mat");
     this.logicalNode = Objects.requireNonNull(logicalNode, "logicalNode");
+    this.resultCache = Objects.requireNonNull(resultCache, "resultCache");
   }
 
   @Override
@@ -65,10 +80,7 @@ public class KeyedTableLookupOperator
       keyIterator = nextLocation.getKeys().get().stream().map(KsqlKey::getKey).iterator();
       if (keyIterator.hasNext()) {
         nextKey = keyIterator.next();
-        resultIterator = mat.nonWindowed()
-            .get(nextKey, nextLocation.getPartition())
-            .map(ImmutableList::of)
-            .orElse(ImmutableList.of()).iterator();
+        resultIterator = lookup(nextKey, nextLocation.getPartition());
       }
     }
   }
@@ -90,16 +102,29 @@ public class KeyedTableLookupOperator
         keyIterator = nextLocation.getKeys().get().stream().map(KsqlKey::getKey).iterator();
       }
       nextKey = keyIterator.next();
-      resultIterator = mat.nonWindowed()
-          .get(nextKey, nextLocation.getPartition())
-          .map(ImmutableList::of)
-          .orElse(ImmutableList.of()).iterator();
+      resultIterator = lookup(nextKey, nextLocation.getPartition());
     }
 
     returnedRows++;
     return resultIterator.next();
   }
 
+  private Iterator<Row> lookup(final GenericKey key, final int partition) {
+    if (!resultCache.isPresent()) {
+      return getRows(key, partition).iterator();
+    }
+    return resultCache.get()
+        .get(partition, key, null, () -> getRows(key, partition))
+        .iterator();
+  }
+
+  private List<Row> getRows(final GenericKey key, final int partition) {
+    return mat.nonWindowed()
+        .get(key, partition)
+        .map(ImmutableList::of)
+        .orElse(ImmutableList.of());
+  }
+
   @Override
   public void close() {
 
@@ -15,10 +15,12 @@
 
 package io.confluent.ksql.physical.pull.operators;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlKey;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.WindowedRow;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
 import io.confluent.ksql.planner.plan.DataSourceNode;
 import io.confluent.ksql.planner.plan.KeyConstraint.KeyConstraintKey;
 import io.confluent.ksql.planner.plan.PlanNode;
@@ -26,6 +28,8 @@ import io.confluent.ksql.planner.plan.PullFilterNode.WindowBounds;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +42,7 @@ public class KeyedWindowedTableLookupOperator
 
   private final Materialization mat;
   private final DataSourceNode logicalNode;
+  private final Optional<PullQueryResultCache.QueryCache> resultCache;
 
   private List<KsqlPartitionLocation> partitionLocations;
   private Iterator<WindowedRow> resultIterator;
@@ -51,9 +56,21 @@ public class KeyedWindowedTableLookupOperator
   public KeyedWindowedTableLookupOperator(
       final Materialization mat,
       final DataSourceNode logicalNode
+  ) {
+    this(mat, logicalNode, Optional.empty());
+  }
+
+  /**
+   * @param resultCache the cache of lookup results for the table, if enabled.
+   */
+  public KeyedWindowedTableLookupOperator(
+      final Materialization mat,
+      final DataSourceNode logicalNode,
+      final Optional<PullQueryResultCache.QueryCache> resultCache
   ) {
     this.logicalNode = Objects.requireNonNull(logicalNode, "logicalNode");
     this.mat = Objects.requireNonNull(mat, "mat");
+    this.resultCache = Objects.requireNonNull(resultCache, "resultCache");
   }
 
   @Override
@@ -67,13 +84,7 @@ public class KeyedWindowedTableLookupOperator
       keyIterator = nextLocation.getKeys().get().stream().iterator();
       if (keyIterator.hasNext()) {
         nextKey = keyIterator.next();
-        final WindowBounds windowBounds = getWindowBounds(nextKey);
-        resultIterator = mat.windowed().get(
-            nextKey.getKey(),
-            nextLocation.getPartition(),
-            windowBounds.getMergedStart(),
-            windowBounds.getMergedEnd())
-            .iterator();
+        resultIterator = lookup(nextKey, nextLocation.getPartition());
       }
     }
   }
@@ -95,18 +106,28 @@ public class KeyedWindowedTableLookupOperator
         keyIterator = nextLocation.getKeys().get().iterator();
       }
       nextKey = keyIterator.next();
-      final WindowBounds windowBounds = getWindowBounds(nextKey);
-      resultIterator = mat.windowed().get(
-          nextKey.getKey(),
-          nextLocation.getPartition(),
-          windowBounds.getMergedStart(),
-          windowBounds.getMergedEnd())
-          .iterator();
+      resultIterator = lookup(nextKey, nextLocation.getPartition());
     }
     returnedRows++;
     return resultIterator.next();
   }
 
+  private Iterator<WindowedRow> lookup(final KsqlKey ksqlKey, final int partition) {
+    final WindowBounds windowBounds = getWindowBounds(ksqlKey);
+    final Supplier<List<WindowedRow>> loader = () -> mat.windowed().get(
+        ksqlKey.getKey(),
+        partition,
+        windowBounds.getMergedStart(),
+        windowBounds.getMergedEnd());
+
+    if (!resultCache.isPresent()) {
+      return loader.get().iterator();
+    }
+    final List<?> bounds = ImmutableList.of(
+        windowBounds.getMergedStart(), windowBounds.getMergedEnd());
+    return resultCache.get().get(partition, ksqlKey.getKey(), bounds, loader).iterator();
+  }
+
   private static WindowBounds getWindowBounds(final KsqlKey ksqlKey) {
     if (!(ksqlKey instanceof KeyConstraintKey)) {
       throw new IllegalStateException(String.format("Table windowed queries should be done with "
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull.operators;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.ksql.util.CloseableIterator;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * Scans several partitions at once, merging their rows into a single stream.
+ *
+ * <p>Each worker opens the iterator of the next unscanned partition and copies its rows into a
+ * bounded buffer. Rows from different partitions are interleaved in no particular order. A worker
+ * always closes the iterator it opened, whether the partition is exhausted, the scan is closed
+ * early, e.g. once a LIMIT is reached, or the scan fails, so that the underlying store iterators
+ * are released.
+ *
+ * <p>Workers run on a bounded executor shared by all pull queries on this server, so that the
+ * number of concurrent partition scans is capped regardless of how many queries are running, and
+ * each query runs at most {@code parallelism} workers. A worker never waits for the consumer: once
+ * the buffer is full it parks, keeping its iterator open, and gives its thread back to the
+ * executor. The consumer resubmits parked workers as it makes room in the buffer, so a slow client
+ * holds back its own scan without starving the scans of other queries.
+ */
+final class ParallelPartitionScanner<T> {
+
+  private static final int BUFFER_SIZE = 1024;
+  private static final long POLL_INTERVAL_MS = 100;
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private final List<Integer> partitions;
+  private final IntFunction<CloseableIterator<T>> scan;
+  private final ExecutorService executor;
+  private final BlockingQueue<T> buffer;
+  private final int resumeCapacity;
+  private final long timeoutMs;
+  private final List<Worker> workers = new ArrayList<>();
+  private final Queue<Worker> parked = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger nextPartition = new AtomicInteger();
+  private final AtomicInteger runningWorkers = new AtomicInteger();
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+  private volatile boolean closed;
+  private volatile boolean finished;
+  private boolean done;
+
+  ParallelPartitionScanner(
+      final List<Integer> partitions,
+      final IntFunction<CloseableIterator<T>> scan,
+      final int parallelism
+  ) {
+    this(partitions, scan, parallelism, SharedExecutor.INSTANCE, BUFFER_SIZE, TIMEOUT);
+  }
+
+  @VisibleForTesting
+  ParallelPartitionScanner(
+      final List<Integer> partitions,
+      final IntFunction<CloseableIterator<T>> scan,
+      final int parallelism,
+      final ExecutorService executor,
+      final int bufferSize,
+      final Duration timeout
+  ) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+    }
+
+    this.partitions = requireNonNull(partitions, "partitions");
+    this.scan = requireNonNull(scan, "scan");
+    this.executor = requireNonNull(executor, "executor");
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    // Only resume parked workers once they can fill some of the buffer:
+    this.resumeCapacity = Math.max(1, bufferSize / 2);
+    this.timeoutMs = requireNonNull(timeout, "timeout").toMillis();
+
+    final int workerCount = Math.min(parallelism, Math.max(1, partitions.size()));
+    for (int i = 0; i < workerCount; i++) {
+      workers.add(new Worker());
+    }
+  }
+
+  void start() {
+    runningWorkers.set(workers.size());
+    workers.forEach(this::submit);
+  }
+
+  /**
+   * @return the next row from any partition, or {@code null} once all partitions are exhausted.
+   * @throws KsqlException if no row is produced within the timeout, e.g. as the executor is busy
+   *     with the scans of other queries.
+   */
+  T next() {
+    if (done) {
+      return null;
+    }
+
+    final long deadline = System.currentTimeMillis() + timeoutMs;
+    try {
+      while (true) {
+        resumeParked();
+
+        // Read the flag before polling, so rows queued before the last worker finished are seen:
+        final boolean allFinished = finished;
+        final T row = buffer.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        throwIfFailed();
+        if (row != null) {
+          return row;
+        }
+        if (allFinished) {
+          done = true;
+          return null;
+        }
+        if (System.currentTimeMillis() >= deadline) {
+          close();
+          throw new KsqlException("Timed out after " + timeoutMs + "ms waiting for rows "
+              + "from partition scans.");
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new KsqlException("Interrupted while scanning partitions", e);
+    }
+  }
+
+  void close() {
+    closed = true;
+    workers.forEach(Worker::cancel);
+    closeParked();
+    buffer.clear();
+  }
+
+  private void submit(final Worker worker) {
+    worker.future = executor.submit(worker);
+  }
+
+  private void resumeParked() {
+    while (!closed && buffer.remainingCapacity() >= resumeCapacity) {
+      final Worker worker = parked.poll();
+      if (worker == null) {
+        return;
+      }
+      submit(worker);
+    }
+  }
+
+  private void park(final Worker worker) {
+    parked.add(worker);
+    if (closed) {
+      // The scan was closed while parking, so close() may have missed the worker:
+      closeParked();
+    }
+  }
+
+  private void closeParked() {
+    Worker worker;
+    while ((worker = parked.poll()) != null) {
+      worker.closeRows();
+    }
+  }
+
+  private void throwIfFailed() {
+    final Throwable t = error.get();
+    if (t == null) {
+      return;
+    }
+
+    close();
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    }
+    throw new KsqlException("Failed to scan partitions", t);
+  }
+
+  /**
+   * Scans partitions until none are left, parking whenever the buffer is full.
+   *
+   * <p>Only ever run by one thread at a time: it is resubmitted only once it has parked.
+   */
+  private final class Worker implements Runnable {
+
+    private volatile Future<?> future;
+    private CloseableIterator<T> rows;
+    private T pending;
+
+    @Override
+    public void run() {
+      try {
+        while (!closed) {
+          if (pending != null) {
+            if (!buffer.offer(pending)) {
+              park(this);
+              return;
+            }
+            pending = null;
+          }
+
+          if (rows == null) {
+            final int idx = nextPartition.getAndIncrement();
+            if (idx >= partitions.size()) {
+              break;
+            }
+            rows = scan.apply(partitions.get(idx));
+          }
+
+          if (rows.hasNext()) {
+            pending = rows.next();
+          } else {
+            closeRows();
+          }
+        }
+      } catch (final Throwable t) {
+        error.compareAndSet(null, t);
+        closed = true;
+      }
+
+      closeRows();
+      if (runningWorkers.decrementAndGet() == 0) {
+        finished = true;
+      }
+    }
+
+    void cancel() {
+      final Future<?> current = future;
+      if (current != null) {
+        current.cancel(true);
+      }
+    }
+
+    void closeRows() {
+      if (rows != null) {
+        rows.close();
+        rows = null;
+      }
+      pending = null;
+    }
+  }
+
+  private static final class SharedExecutor {
+
+    private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        new ThreadFactoryBuilder()
+            .setNameFormat("pull-query-table-scan-%d")
+            .setDaemon(true)
+            .build());
+
+    private SharedExecutor() {
+    }
+  }
+}
@@ -21,9 +21,11 @@ import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.WindowedRow;
 import io.confluent.ksql.planner.plan.DataSourceNode;
 import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.util.CloseableIterator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,36 +36,70 @@ public class WindowedTableScanOperator extends AbstractPhysicalOperator
 
   private final Materialization mat;
   private final DataSourceNode logicalNode;
+  private final int scanParallelism;
+  private final KeyScanBounds keyScanBounds;
 
   private List<KsqlPartitionLocation> partitionLocations;
-  private Iterator<WindowedRow> resultIterator;
+  private CloseableIterator<WindowedRow> resultIterator;
   private Iterator<KsqlPartitionLocation> partitionLocationIterator;
   private KsqlPartitionLocation nextLocation;
+  private ParallelPartitionScanner<WindowedRow> parallelScanner;
   private long returnedRows = 0;
 
   public WindowedTableScanOperator(
       final Materialization mat,
       final DataSourceNode logicalNode
+  ) {
+    this(mat, logicalNode, 1, KeyScanBounds.all());
+  }
+
+  /**
+   * @param scanParallelism the number of partitions to scan at once. With a value of 1 the
+   *                        partitions are scanned one after the other, in order.
+   * @param keyScanBounds the bounds on the keys to read from each partition.
+   */
+  public WindowedTableScanOperator(
+      final Materialization mat,
+      final DataSourceNode logicalNode,
+      final int scanParallelism,
+      final KeyScanBounds keyScanBounds
   ) {
     this.mat = Objects.requireNonNull(mat, "mat");
     this.logicalNode = Objects.requireNonNull(logicalNode, "logicalNode");
+    if (scanParallelism < 1) {
+      throw new IllegalArgumentException("scanParallelism must be positive: " + scanParallelism);
+    }
+    this.scanParallelism = scanParallelism;
+    this.keyScanBounds = Objects.requireNonNull(keyScanBounds, "keyScanBounds");
   }
 
   @Override
   public void open() {
+    if (scanParallelism > 1 && partitionLocations.size() > 1) {
+      openParallel();
+      return;
+    }
+
     partitionLocationIterator = partitionLocations.iterator();
     if (partitionLocationIterator.hasNext()) {
       nextLocation = partitionLocationIterator.next();
       if (nextLocation.getKeys().isPresent()) {
         throw new IllegalStateException("Table scans should not be done with keys");
       }
-      resultIterator = mat.windowed()
-          .get(nextLocation.getPartition(), Range.all(), Range.all());
+      resultIterator = scan(nextLocation.getPartition());
     }
   }
 
   @Override
   public Object next() {
+    if (parallelScanner != null) {
+      final Object row = parallelScanner.next();
+      if (row != null) {
+        returnedRows++;
+      }
+      return row;
+    }
+
     while (!resultIterator.hasNext()) {
       // Exhausted resultIterator
       if (partitionLocationIterator.hasNext()) {
@@ -75,8 +111,7 @@ public class WindowedTableScanOperator extends AbstractPhysicalOperator
       if (nextLocation.getKeys().isPresent()) {
         throw new IllegalStateException("Table scans should not be done with keys");
       }
-      resultIterator = mat.windowed()
-          .get(nextLocation.getPartition(), Range.all(), Range.all());
+      resultIterator = scan(nextLocation.getPartition());
     }
 
     returnedRows++;
@@ -85,7 +120,39 @@ public class WindowedTableScanOperator extends AbstractPhysicalOperator
 
   @Override
   public void close() {
+    if (parallelScanner != null) {
+      parallelScanner.close();
+    }
+    if (resultIterator != null) {
+      resultIterator.close();
+    }
+  }
 
+  private void openParallel() {
+    if (partitionLocations.stream().anyMatch(location -> location.getKeys().isPresent())) {
+      throw new IllegalStateException("Table scans should not be done with keys");
+    }
+
+    parallelScanner = new ParallelPartitionScanner<>(
+        partitionLocations.stream()
+            .map(KsqlPartitionLocation::getPartition)
+            .collect(Collectors.toList()),
+        this::scan,
+        scanParallelism
+    );
+    parallelScanner.start();
+  }
+
+  private CloseableIterator<WindowedRow> scan(final int partition) {
+    if (!keyScanBounds.isBounded()) {
+      return mat.windowed().get(partition, Range.all(), Range.all());
+    }
+    return mat.windowed().get(
+        partition,
+        keyScanBounds.getFrom().orElse(null),
+        keyScanBounds.getTo().orElse(null),
+        Range.all(),
+        Range.all());
   }
 
   @Override
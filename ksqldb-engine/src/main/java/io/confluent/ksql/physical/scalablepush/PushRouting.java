@@ -0,0 +1,315 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.scalablepush;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.rest.client.RestResponse;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.KsqlRequestConfig;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.StreamsMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forwards push queries served from the output of a persistent query to the other hosts running
+ * the persistent query, so that the query receives the rows of every partition.
+ *
+ * <p>Each host serves the query from the tasks of the persistent query it runs itself, and is not
+ * asked to forward the query any further. The hosts are those running active tasks of the
+ * persistent query when the query starts: a rebalance that moves tasks between hosts fails the
+ * query if a host stops serving it, but does not add hosts.
+ *
+ * <p>The client only offers a blocking streamed request, so each forwarded request holds a thread
+ * for as long as its query runs. The number of forwarded requests is therefore bounded, and a
+ * query that would exceed the bound is failed rather than queued behind running queries.
+ */
+public final class PushRouting implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PushRouting.class);
+
+  private final ExecutorService executorService;
+  private final int maxForwardedRequests;
+  private final Semaphore forwardedRequests;
+
+  /**
+   * @param maxForwardedRequests the maximum number of requests forwarded at any one time.
+   */
+  public PushRouting(final int maxForwardedRequests) {
+    this(newExecutor(maxForwardedRequests), maxForwardedRequests);
+  }
+
+  @VisibleForTesting
+  PushRouting(final ExecutorService executorService, final int maxForwardedRequests) {
+    this.executorService = Objects.requireNonNull(executorService, "executorService");
+    this.maxForwardedRequests = maxForwardedRequests;
+    this.forwardedRequests = new Semaphore(maxForwardedRequests);
+  }
+
+  private static ExecutorService newExecutor(final int maxThreads) {
+    // Admission is controlled by the semaphore, so a request only queues while the thread of a
+    // request that has just ended is returned to the pool:
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        maxThreads,
+        maxThreads,
+        60L,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("push-query-router-%d").build()
+    );
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  @Override
+  public void close() {
+    // Forwarded requests only end with their queries, so must be interrupted:
+    executorService.shutdownNow();
+  }
+
+  /**
+   * Forward the supplied query to the other hosts running active tasks of the persistent query it
+   * is served from. Rows received from each host are added to the query, and an error from any
+   * host fails the query, as does exceeding the maximum number of forwarded requests.
+   *
+   * <p>The query must already have been started, with its uncaught exception handler set.
+   *
+   * @param serviceContext the service context of the request.
+   * @param query the query.
+   * @param statement the statement of the query.
+   */
+  public void handlePushQuery(
+      final ServiceContext serviceContext,
+      final ScalablePushQueryMetadata query,
+      final ConfiguredStatement<Query> statement
+  ) {
+    final Optional<URL> localUrl = getLocalUrl(query.getSourceQuery());
+    if (!localUrl.isPresent()) {
+      // Without an advertised listener the persistent query is not distributed across hosts:
+      return;
+    }
+
+    final Set<URI> remoteHosts = getRemoteHosts(query.getSourceQuery(), localUrl.get());
+    LOG.debug("Forwarding push query {} to hosts {}", query.getQueryId(), remoteHosts);
+
+    if (remoteHosts.isEmpty()) {
+      return;
+    }
+
+    if (!forwardedRequests.tryAcquire(remoteHosts.size())) {
+      query.fail(new KsqlException(String.format(
+          "Push query can not be forwarded to the %d other hosts running the persistent query, "
+              + "as this host is already forwarding the maximum of %d requests. "
+              + "The limit can be raised with %s.",
+          remoteHosts.size(),
+          maxForwardedRequests,
+          KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_CONFIG)));
+      return;
+    }
+
+    for (final URI host : remoteHosts) {
+      try {
+        executorService.execute(() -> {
+          try {
+            forwardTo(host, serviceContext, query, statement);
+          } finally {
+            forwardedRequests.release();
+          }
+        });
+      } catch (final RejectedExecutionException e) {
+        // Closing:
+        forwardedRequests.release();
+        failIfRunning(query, host, "the server is shutting down", e);
+      }
+    }
+  }
+
+  private static void forwardTo(
+      final URI host,
+      final ServiceContext serviceContext,
+      final ScalablePushQueryMetadata query,
+      final ConfiguredStatement<Query> statement
+  ) {
+    final Map<String, Object> requestProperties = ImmutableMap.of(
+        KsqlRequestConfig.KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING, true,
+        KsqlRequestConfig.KSQL_REQUEST_INTERNAL_REQUEST, true);
+    final AtomicBoolean completed = new AtomicBoolean(false);
+
+    final RestResponse<Integer> response;
+    try {
+      response = serviceContext
+          .getKsqlClient()
+          .makeQueryRequest(
+              host,
+              statement.getStatementText(),
+              statement.getSessionConfig().getOverrides(),
+              requestProperties,
+              streamedRowsHandler(host, query, completed)
+          );
+    } catch (final Exception e) {
+      failIfRunning(query, host, causedByKsqlException(e)
+          .map(KsqlException::getMessage)
+          .orElse(e.getMessage()), e);
+      return;
+    }
+
+    if (response.isErroneous()) {
+      failIfRunning(query, host, response.getErrorMessage().getMessage(), null);
+    } else if (!completed.get()) {
+      failIfRunning(query, host, "the host stopped serving the query", null);
+    }
+  }
+
+  private static void failIfRunning(
+      final ScalablePushQueryMetadata query,
+      final URI host,
+      final String reason,
+      final Throwable cause
+  ) {
+    // Requests to other hosts are expected to end once the query has stopped:
+    if (!query.isRunning()) {
+      return;
+    }
+
+    query.fail(new KsqlException(
+        String.format("Error forwarding push query to host %s: %s", host, reason), cause));
+  }
+
+  @VisibleForTesting
+  static Consumer<List<StreamedRow>> streamedRowsHandler(
+      final URI host,
+      final ScalablePushQueryMetadata query,
+      final AtomicBoolean completed
+  ) {
+    // Push queries only return value columns:
+    final LogicalSchema.Builder expectedSchema = LogicalSchema.builder();
+    query.getLogicalSchema().value().forEach(expectedSchema::valueColumn);
+    final LogicalSchema expected = expectedSchema.build();
+
+    return streamedRows -> {
+      // Throwing stops the request, which closes the connection, so the host stops the query:
+      if (!query.isRunning()) {
+        throw new KsqlException("Push query " + query.getQueryId() + " has stopped");
+      }
+      if (streamedRows == null) {
+        return;
+      }
+
+      for (final StreamedRow row : streamedRows) {
+        if (row.getHeader().isPresent()) {
+          validateSchema(expected, row.getHeader().get().getSchema(), host);
+        } else if (row.getErrorMessage().isPresent()) {
+          throw new KsqlException(row.getErrorMessage().get().getMessage());
+        } else if (row.getFinalMessage().isPresent()) {
+          completed.set(true);
+        } else if (row.getRow().isPresent()) {
+          // Waits for the client, which slows down the host's response rather than failing:
+          query.acceptRemoteRow(GenericRow.fromList(row.getRow().get().getColumns()));
+        }
+      }
+    };
+  }
+
+  private static void validateSchema(
+      final LogicalSchema expectedSchema,
+      final LogicalSchema forwardedSchema,
+      final URI host
+  ) {
+    if (!forwardedSchema.equals(expectedSchema)) {
+      throw new KsqlException(String.format(
+          "Schema %s from host %s differs from schema %s",
+          forwardedSchema, host, expectedSchema));
+    }
+  }
+
+  private static Optional<URL> getLocalUrl(final PersistentQueryMetadata sourceQuery) {
+    final Object applicationServer =
+        sourceQuery.getStreamsProperties().get(StreamsConfig.APPLICATION_SERVER_CONFIG);
+    if (applicationServer == null) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(new URL(applicationServer.toString()));
+    } catch (final MalformedURLException e) {
+      throw new KsqlException("Invalid " + StreamsConfig.APPLICATION_SERVER_CONFIG
+          + ": " + applicationServer, e);
+    }
+  }
+
+  private static Set<URI> getRemoteHosts(
+      final PersistentQueryMetadata sourceQuery,
+      final URL localUrl
+  ) {
+    return sourceQuery.getAllMetadata().stream()
+        .filter(metadata -> metadata != StreamsMetadata.NOT_AVAILABLE)
+        .filter(metadata -> !metadata.topicPartitions().isEmpty())
+        .map(StreamsMetadata::hostInfo)
+        .filter(hostInfo -> !(hostInfo.host().equals(localUrl.getHost())
+            && hostInfo.port() == localUrl.getPort()))
+        .map(hostInfo -> toUri(localUrl, hostInfo))
+        .collect(Collectors.toSet());
+  }
+
+  private static URI toUri(final URL localUrl, final HostInfo hostInfo) {
+    try {
+      return new URL(localUrl.getProtocol(), hostInfo.host(), hostInfo.port(), "/").toURI();
+    } catch (final MalformedURLException | URISyntaxException e) {
+      throw new KsqlException("Invalid host: " + hostInfo, e);
+    }
+  }
+
+  private static Optional<KsqlException> causedByKsqlException(final Exception e) {
+    Throwable throwable = e;
+    while (throwable != null) {
+      if (throwable instanceof KsqlException) {
+        return Optional.of((KsqlException) throwable);
+      }
+      throwable = throwable.getCause();
+    }
+    return Optional.empty();
+  }
+}
@@ -21,6 +21,11 @@ public interface PullPlannerOptions {
 
   boolean getInterpreterEnabled();
 
+  /**
+   * @return the number of partitions a table scan reads at once.
+   */
+  int getTableScanParallelism();
+
   /**
    * @return a human readable representation of the {@code PullPlannerOptions},
    *         used to debug requests
@@ -29,6 +34,7 @@ public interface PullPlannerOptions {
     return "PullPlannerOptions{"
         + "tableScansEnabled: " + getTableScansEnabled()
         + ", interpreterEnabled: " + getInterpreterEnabled()
+        + ", tableScanParallelism: " + getTableScanParallelism()
         + "}";
   }
 
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner.plan;
+
+import com.google.common.collect.Range;
+import java.util.Objects;
+
+/**
+ * The range of values of a single column key that a given disjunct can match, e.g. for
+ * "KEY > 5 AND KEY <= 10 AND COUNT > 2" the range is (5, 10]. Comparisons on other columns are
+ * ignored, so the range is only a hint for which rows to fetch: the expression must still be
+ * evaluated on every row within it.
+ */
+public class KeyRangeConstraint implements LookupConstraint {
+
+  private final Range<Comparable<?>> range;
+
+  public KeyRangeConstraint(final Range<Comparable<?>> range) {
+    this.range = Objects.requireNonNull(range, "range");
+  }
+
+  // The range of key values, which may be empty if the disjunct can not match any key.
+  public Range<Comparable<?>> getRange() {
+    return range;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    final KeyRangeConstraint that = (KeyRangeConstraint) o;
+    return Objects.equals(range, that.range);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(range);
+  }
+
+  @Override
+  public String toString() {
+    return "KeyRangeConstraint{range=" + range + "}";
+  }
+}
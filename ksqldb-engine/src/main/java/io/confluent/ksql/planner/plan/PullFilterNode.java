@@ -220,8 +220,14 @@ public class PullFilterNode extends SingleSourcePlanNode {
    */
   private List<LookupConstraint> extractLookupConstraints() {
     if (requiresTableScan) {
-      LOG.debug("Skipping extracting key value extraction. Already requires table scan");
-      return ImmutableList.of(new NonKeyConstraint());
+      if (schema.key().size() != 1
+          || !ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_RANGE_SCAN_ENABLED)) {
+        LOG.debug("Skipping extracting key value extraction. Already requires table scan");
+        return ImmutableList.of(new NonKeyConstraint());
+      }
+      return disjuncts.stream()
+          .map(this::extractKeyRangeConstraint)
+          .collect(ImmutableList.toImmutableList());
     }
     final ImmutableList.Builder<LookupConstraint> constraintPerDisjunct = ImmutableList.builder();
     for (Expression disjunct : disjuncts) {
@@ -249,6 +255,21 @@ public class PullFilterNode extends SingleSourcePlanNode {
     return constraintPerDisjunct.build();
   }
 
+  /**
+   * Extracts the range of key values a disjunct that requires a table scan can match, so that the
+   * scan can be limited to that range. For example, for "KEY > 5 AND KEY <= 10" the range is
+   * (5, 10]. If the key is not bounded, there is no range to extract.
+   */
+  private LookupConstraint extractKeyRangeConstraint(final Expression disjunct) {
+    final KeyRangeExtractor keyRangeExtractor = new KeyRangeExtractor();
+    keyRangeExtractor.process(disjunct);
+
+    if (keyRangeExtractor.range.equals(Range.all())) {
+      return new NonKeyConstraint();
+    }
+    return new KeyRangeConstraint(keyRangeExtractor.range);
+  }
+
   /**
    * Validate the WHERE clause for pull queries. Each of these validation steps are taken for each
    * disjunct of a DNF expression.
@@ -448,46 +469,129 @@ public class PullFilterNode extends SingleSourcePlanNode {
       }
       return null;
     }
+  }
 
-    private Object resolveKey(
-        final Expression exp,
-        final Column keyColumn,
-        final MetaStore metaStore,
-        final KsqlConfig config,
-        final Expression errorMessageHint
-    ) {
-      final Object obj;
-      if (exp instanceof NullLiteral) {
-        obj = null;
-      } else if (exp instanceof Literal) {
-        // skip the GenericExpressionResolver because this is
-        // a critical code path executed once-per-query
-        obj = ((Literal) exp).getValue();
-      } else {
-        obj = new GenericExpressionResolver(
-            keyColumn.type(),
-            keyColumn.name(),
-            metaStore,
-            config,
-            "pull query",
-            pullPlannerOptions.getInterpreterEnabled()
-        ).resolve(exp);
+  /**
+   * Extracts the range of values of a single column key from a disjunct, by intersecting the
+   * bounds of its conjuncts that directly compare the key with a value. Any other conjunct, e.g.
+   * a NOT, an OR, or a comparison nested within a CASE or function call, is treated as not
+   * bounding the key, which is always safe as the scan still evaluates the whole disjunct.
+   */
+  private final class KeyRangeExtractor {
+    private Range<Comparable<?>> range = Range.all();
+
+    void process(final Expression conjunct) {
+      if (conjunct instanceof LogicalBinaryExpression
+          && ((LogicalBinaryExpression) conjunct).getType() == LogicalBinaryExpression.Type.AND) {
+        process(((LogicalBinaryExpression) conjunct).getLeft());
+        process(((LogicalBinaryExpression) conjunct).getRight());
+      } else if (conjunct instanceof ComparisonExpression) {
+        processComparison((ComparisonExpression) conjunct);
+      }
+    }
+
+    private void processComparison(final ComparisonExpression node) {
+      final UnqualifiedColumnReferenceExp column = getColumnRefSideOrNull(node);
+      if (column == null) {
+        return;
+      }
+
+      final Optional<Column> col = schema.findColumn(column.getColumnName());
+      if (!col.isPresent() || col.get().namespace() != Namespace.KEY) {
+        return;
+      }
+
+      final Expression other = getNonColumnRefSide(node);
+      final HasColumnRef hasColumnRef = new HasColumnRef();
+      hasColumnRef.process(other, null);
+      if (hasColumnRef.hasColumnRef()) {
+        return;
+      }
+
+      final Object value;
+      try {
+        value = resolveKey(other, col.get(), metaStore, ksqlConfig, node);
+      } catch (final KsqlException e) {
+        LOG.debug("Unable to resolve key bound {}", node, e);
+        return;
       }
 
-      if (obj == null) {
-        throw new KsqlException("Primary key columns can not be NULL: " + errorMessageHint);
+      if (value instanceof Comparable) {
+        toRange(node, (Comparable<?>) value).ifPresent(this::intersect);
       }
+    }
 
-      return DefaultSqlValueCoercer.STRICT.coerce(obj, keyColumn.type())
-          .orElseThrow(() -> new KsqlException(
-              "'" + obj + "' can not be converted "
-                  + "to the type of the key column: "
-                  + keyColumn.toString(
-                  FormatOptions.noEscape())))
-          .orElse(null);
+    private Optional<Range<Comparable<?>>> toRange(
+        final ComparisonExpression node,
+        final Comparable<?> value
+    ) {
+      final boolean inverted = node.getRight() instanceof UnqualifiedColumnReferenceExp;
+      switch (node.getType()) {
+        case EQUAL:
+          return Optional.of(Range.singleton(value));
+        case LESS_THAN:
+          return Optional.of(inverted ? Range.greaterThan(value) : Range.lessThan(value));
+        case LESS_THAN_OR_EQUAL:
+          return Optional.of(inverted ? Range.atLeast(value) : Range.atMost(value));
+        case GREATER_THAN:
+          return Optional.of(inverted ? Range.lessThan(value) : Range.greaterThan(value));
+        case GREATER_THAN_OR_EQUAL:
+          return Optional.of(inverted ? Range.atMost(value) : Range.atLeast(value));
+        default:
+          return Optional.empty();
+      }
+    }
+
+    private void intersect(final Range<Comparable<?>> bound) {
+      if (range.isConnected(bound)) {
+        range = range.intersection(bound);
+      } else {
+        // Disjoint bounds, e.g. KEY < 5 AND KEY > 10, can not match any key:
+        final Comparable<?> endpoint = bound.hasLowerBound()
+            ? bound.lowerEndpoint()
+            : bound.upperEndpoint();
+        range = Range.closedOpen(endpoint, endpoint);
+      }
     }
   }
 
+  private Object resolveKey(
+      final Expression exp,
+      final Column keyColumn,
+      final MetaStore metaStore,
+      final KsqlConfig config,
+      final Expression errorMessageHint
+  ) {
+    final Object obj;
+    if (exp instanceof NullLiteral) {
+      obj = null;
+    } else if (exp instanceof Literal) {
+      // skip the GenericExpressionResolver because this is
+      // a critical code path executed once-per-query
+      obj = ((Literal) exp).getValue();
+    } else {
+      obj = new GenericExpressionResolver(
+          keyColumn.type(),
+          keyColumn.name(),
+          metaStore,
+          config,
+          "pull query",
+          pullPlannerOptions.getInterpreterEnabled()
+      ).resolve(exp);
+    }
+
+    if (obj == null) {
+      throw new KsqlException("Primary key columns can not be NULL: " + errorMessageHint);
+    }
+
+    return DefaultSqlValueCoercer.STRICT.coerce(obj, keyColumn.type())
+        .orElseThrow(() -> new KsqlException(
+            "'" + obj + "' can not be converted "
+                + "to the type of the key column: "
+                + keyColumn.toString(
+                FormatOptions.noEscape())))
+        .orElse(null);
+  }
 
   /**
    * Extracts the upper and lower bounds on windowstart/windowend columns.
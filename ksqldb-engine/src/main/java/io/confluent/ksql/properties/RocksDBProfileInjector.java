@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.properties;
+
+import io.confluent.ksql.parser.tree.CreateAsSelect;
+import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.statement.Injector;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An injector which moves the ROCKSDB_PROFILE property from the WITH clause of a CREATE AS
+ * statement into its config overrides.
+ *
+ * <p>The overrides are stored with the plan of the query, so the profile applies whenever the
+ * query is started, including when the plan is replayed without the statement being parsed.
+ *
+ * <p>If the statement does not set the property then the {@code statement} is returned
+ * unchanged.
+ */
+public class RocksDBProfileInjector implements Injector {
+
+  @Override
+  public <T extends Statement> ConfiguredStatement<T> inject(
+      final ConfiguredStatement<T> statement
+  ) {
+    if (!(statement.getStatement() instanceof CreateAsSelect)) {
+      return statement;
+    }
+
+    final Optional<String> profile = ((CreateAsSelect) statement.getStatement())
+        .getProperties()
+        .getRocksDbProfile();
+
+    if (!profile.isPresent()) {
+      return statement;
+    }
+
+    final Map<String, Object> overrides =
+        new HashMap<>(statement.getSessionConfig().getOverrides());
+    overrides.put(
+        KsqlConfig.KSQL_ROCKSDB_STORE_PROFILE_CONFIG,
+        profile.get().toUpperCase(Locale.ROOT)
+    );
+
+    return statement.withConfigOverrides(overrides);
+  }
+}
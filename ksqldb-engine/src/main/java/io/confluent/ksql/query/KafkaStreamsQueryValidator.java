@@ -20,10 +20,13 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.kafka.streams.StreamsConfig;
 
@@ -34,9 +37,14 @@ public class KafkaStreamsQueryValidator implements QueryValidator {
       final PhysicalPlan physicalPlan,
       final Collection<QueryMetadata> runningQueries
   ) {
+    final Set<String> sharedRuntimes = new HashSet<>();
     validateCacheBytesUsage(
         runningQueries.stream()
             .filter(q -> q instanceof PersistentQueryMetadata)
+            // Queries that share a runtime share its cache, so it is only counted once:
+            .filter(q -> ((PersistentQueryMetadata) q).getSharedRuntimeId()
+                .map(sharedRuntimes::add)
+                .orElse(true))
             .collect(Collectors.toList()),
         config,
         config.getConfig(false)
@@ -50,9 +58,16 @@ public class KafkaStreamsQueryValidator implements QueryValidator {
       final PhysicalPlan physicalPlan,
       final Collection<QueryMetadata> runningQueries
   ) {
+    final Set<String> sharedRuntimes = new HashSet<>();
     validateCacheBytesUsage(
         runningQueries.stream()
             .filter(q -> q instanceof TransientQueryMetadata)
+            // Queries served from a persistent query's output use the cache of its runtime:
+            .filter(q -> !(q instanceof ScalablePushQueryMetadata))
+            // Queries that share a runtime share its cache, so it is only counted once:
+            .filter(q -> ((TransientQueryMetadata) q).getSharedRuntimeId()
+                .map(sharedRuntimes::add)
+                .orElse(true))
             .collect(Collectors.toList()),
         config,
         config.getConfig(false)
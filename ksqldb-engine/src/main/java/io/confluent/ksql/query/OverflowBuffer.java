@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericRow;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Queues rows for a query fed by stream threads it shares with other queries, which must never
+ * wait for it.
+ *
+ * <p>Rows the query's queue has no room for are held in a bounded overflow buffer, which is
+ * drained into the queue as the client catches up. The query has fallen behind once its client
+ * makes no progress for {@link #MAX_LAG}, or the overflow buffer fills up.
+ *
+ * <p>Rows may be offered by several stream threads at once.
+ */
+final class OverflowBuffer {
+
+  static final Duration MAX_LAG = Duration.ofSeconds(10);
+  static final int MAX_OVERFLOW_ROWS = 1000;
+
+  /**
+   * How often stream threads should drain the buffer while no rows are offered.
+   */
+  static final Duration DRAIN_INTERVAL = Duration.ofMillis(100);
+
+  private final TransientQueryQueue queue;
+  private final Time time;
+  // Guarded by itself:
+  private final Deque<GenericRow> overflow = new ArrayDeque<>();
+  private long stalledSinceMs = -1;
+
+  OverflowBuffer(final TransientQueryQueue queue, final Time time) {
+    this.queue = Objects.requireNonNull(queue, "queue");
+    this.time = Objects.requireNonNull(time, "time");
+  }
+
+  /**
+   * Queue the supplied row, or buffer it if the queue is full.
+   *
+   * @param row the row.
+   * @return {@code false} if the query has fallen behind, otherwise {@code true}.
+   */
+  boolean offer(final GenericRow row) {
+    synchronized (overflow) {
+      if (drainLocked() && queue.offerRow(null, row)) {
+        return true;
+      }
+
+      if (overflow.size() >= MAX_OVERFLOW_ROWS) {
+        return false;
+      }
+
+      overflow.add(row);
+      return !hasStalledTooLongLocked();
+    }
+  }
+
+  /**
+   * Move buffered rows into the queue, as far as there is room for them.
+   *
+   * @return {@code false} if the query has fallen behind, otherwise {@code true}.
+   */
+  boolean drain() {
+    synchronized (overflow) {
+      return drainLocked() || !hasStalledTooLongLocked();
+    }
+  }
+
+  /**
+   * Drop any buffered rows, e.g. as the query has failed.
+   */
+  void clear() {
+    synchronized (overflow) {
+      overflow.clear();
+      stalledSinceMs = -1;
+    }
+  }
+
+  private boolean drainLocked() {
+    boolean progressed = false;
+    while (!overflow.isEmpty() && queue.offerRow(null, overflow.peek())) {
+      overflow.poll();
+      progressed = true;
+    }
+
+    if (overflow.isEmpty()) {
+      stalledSinceMs = -1;
+      return true;
+    }
+
+    if (progressed || stalledSinceMs < 0) {
+      // Lag only counts from the last time the client made room for a row:
+      stalledSinceMs = time.milliseconds();
+    }
+    return false;
+  }
+
+  private boolean hasStalledTooLongLocked() {
+    if (stalledSinceMs < 0) {
+      stalledSinceMs = time.milliseconds();
+    }
+    return time.milliseconds() - stalledSinceMs >= MAX_LAG.toMillis();
+  }
+}
@@ -19,32 +19,52 @@ import static io.confluent.ksql.util.KsqlConfig.KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import io.confluent.ksql.GenericKey;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.config.SessionConfig;
 import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
+import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.materialization.MaterializationInfo.Builder;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.PlanBuilder;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.SourceStep;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamSelect;
+import io.confluent.ksql.execution.plan.StreamSink;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.plan.TableFilter;
+import io.confluent.ksql.execution.plan.TableSelect;
+import io.confluent.ksql.execution.plan.TableSource;
 import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
 import io.confluent.ksql.execution.streams.KSPlanBuilder;
 import io.confluent.ksql.execution.streams.materialization.KsqlMaterializationFactory;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterializationFactory;
 import io.confluent.ksql.execution.streams.metrics.RocksDBMetricsCollector;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.execution.transform.select.SelectValueMapper;
+import io.confluent.ksql.execution.transform.select.Selection;
+import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
 import io.confluent.ksql.execution.util.KeyUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metrics.ConsumerCollector;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.metrics.ProducerCollector;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
 import io.confluent.ksql.properties.PropertiesUtil;
+import io.confluent.ksql.rocksdb.RocksDBStoreProfile;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.serde.WindowInfo;
@@ -54,8 +74,13 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryApplicationId;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.QueryMetadata.RetryEvent;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
+import io.confluent.ksql.util.SharedPersistentQueryMetadata;
+import io.confluent.ksql.util.SharedTransientQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata.ResultType;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -65,17 +90,25 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.processor.internals.DefaultKafkaClientSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 final class QueryExecutor {
 
+  private static final Logger LOG = LoggerFactory.getLogger(QueryExecutor.class);
+
   private static final String KSQL_THREAD_EXCEPTION_UNCAUGHT_LOGGER
       = "ksql.logger.thread.exception.uncaught";
 
@@ -145,15 +178,56 @@ final class QueryExecutor {
       final OptionalInt limit,
       final Optional<WindowInfo> windowInfo,
       final boolean excludeTombstones,
-      final QueryMetadata.Listener listener
+      final QueryMetadata.Listener listener,
+      final SharedTransientRuntimes sharedRuntimes,
+      final Optional<PersistentQueryMetadata> scalablePushSource
   ) {
     final KsqlConfig ksqlConfig = config.getConfig(true);
     final String applicationId = QueryApplicationId.build(ksqlConfig, false, queryId);
     final RuntimeBuildContext runtimeBuildContext = buildContext(applicationId, queryId);
 
     final Map<String, Object> streamsProperties = buildStreamsProperties(applicationId, queryId);
+    final Optional<SourceStep<?>> pushSource =
+        getScalablePushSource(physicalPlan, streamsProperties, scalablePushSource);
+    if (pushSource.isPresent()) {
+      return buildScalablePushQuery(
+          statementText,
+          queryId,
+          sources,
+          physicalPlan,
+          pushSource.get(),
+          planSummary,
+          schema,
+          limit,
+          applicationId,
+          runtimeBuildContext,
+          listener,
+          scalablePushSource.get()
+      );
+    }
+
+    final Optional<StreamSource> sharedSource =
+        getSharedRuntimeSource(physicalPlan, streamsProperties);
+    if (sharedSource.isPresent()) {
+      return buildSharedTransientQuery(
+          statementText,
+          queryId,
+          sources,
+          (StreamSelect<?>) physicalPlan,
+          sharedSource.get(),
+          planSummary,
+          schema,
+          limit,
+          applicationId,
+          runtimeBuildContext,
+          listener,
+          sharedRuntimes
+      );
+    }
+
     final Object buildResult = buildQueryImplementation(physicalPlan, runtimeBuildContext);
-    final BlockingRowQueue queue = buildTransientQueryQueue(buildResult, limit, excludeTombstones);
+    final BlockingRowQueue queue = buildTransientQueryQueue(
+        queryId, buildResult, limit, excludeTombstones, ksqlConfig);
     final Topology topology = streamsBuilder.build(PropertiesUtil.asProperties(streamsProperties));
 
     final TransientQueryMetadata.ResultType resultType = buildResult instanceof KTableHolder
@@ -180,6 +254,275 @@ final class QueryExecutor {
     );
   }
 
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  private TransientQueryMetadata buildSharedTransientQuery(
+      final String statementText,
+      final QueryId queryId,
+      final Set<SourceName> sources,
+      final StreamSelect<?> select,
+      final StreamSource source,
+      final String planSummary,
+      final LogicalSchema schema,
+      final OptionalInt limit,
+      final String applicationId,
+      final RuntimeBuildContext runtimeBuildContext,
+      final QueryMetadata.Listener listener,
+      final SharedTransientRuntimes sharedRuntimes
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    final KsqlConfig ksqlConfig = config.getConfig(true);
+    final TransientQueryQueue queue = TransientQueryQueue.create(limit, ksqlConfig);
+    queue.registerMetrics(MetricCollectors.getMetrics(), queryId);
+
+    final SharedTransientRuntime.Member member = sharedRuntimes.join(
+        source,
+        config.getOverrides(),
+        () -> buildSharedTransientRuntime(queryId, source),
+        buildPipeline(select, source, runtimeBuildContext),
+        queue
+    );
+
+    final TransientQueryMetadata query = new SharedTransientQueryMetadata(
+        statementText,
+        schema,
+        sources,
+        planSummary,
+        queue,
+        applicationId,
+        member,
+        kafkaStreamsBuilder,
+        config.getOverrides(),
+        ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG),
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_ERROR_MAX_QUEUE_SIZE),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_INITIAL_MS),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_MAX_MS),
+        listener
+    );
+    LOG.info(
+        "Transient query {} shares runtime {} with {} other queries",
+        queryId,
+        member.getRuntime().getApplicationId(),
+        member.getRuntime().size() - 1
+    );
+    return query;
+  }
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  private TransientQueryMetadata buildScalablePushQuery(
+      final String statementText,
+      final QueryId queryId,
+      final Set<SourceName> sources,
+      final ExecutionStep<?> select,
+      final SourceStep<?> source,
+      final String planSummary,
+      final LogicalSchema schema,
+      final OptionalInt limit,
+      final String applicationId,
+      final RuntimeBuildContext runtimeBuildContext,
+      final QueryMetadata.Listener listener,
+      final PersistentQueryMetadata sourceQuery
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    final KsqlConfig ksqlConfig = config.getConfig(true);
+    final TransientQueryQueue queue = TransientQueryQueue.create(limit, ksqlConfig);
+    queue.registerMetrics(MetricCollectors.getMetrics(), queryId);
+
+    final TransientQueryMetadata query = new ScalablePushQueryMetadata(
+        statementText,
+        schema,
+        sources,
+        planSummary,
+        queue,
+        applicationId,
+        sourceQuery,
+        buildPipeline(select, source, runtimeBuildContext),
+        kafkaStreamsBuilder,
+        config.getOverrides(),
+        ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG),
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_ERROR_MAX_QUEUE_SIZE),
+        select instanceof TableSelect ? ResultType.TABLE : ResultType.STREAM,
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_INITIAL_MS),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_MAX_MS),
+        listener
+    );
+    LOG.info(
+        "Push query {} is served from the output of persistent query {}",
+        queryId,
+        sourceQuery.getQueryId()
+    );
+    return query;
+  }
+
+  private SharedTransientRuntime buildSharedTransientRuntime(
+      final QueryId queryId,
+      final StreamSource source
+  ) {
+    final KsqlConfig ksqlConfig = config.getConfig(true);
+    final QueryId runtimeId = new QueryId(SharedTransientRuntime.QUERY_ID_PREFIX + queryId);
+    final String applicationId = QueryApplicationId.build(ksqlConfig, false, runtimeId);
+    final Map<String, Object> streamsProperties = buildStreamsProperties(applicationId, runtimeId);
+    final KStreamHolder<GenericKey> stream =
+        source.build(new KSPlanBuilder(buildContext(applicationId, runtimeId)));
+
+    return SharedTransientRuntime.create(
+        applicationId,
+        stream.getStream(),
+        streamsBuilder,
+        streamsProperties,
+        kafkaStreamsBuilder,
+        Duration.ofMillis(ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG))
+    );
+  }
+
+  /**
+   * Build the filter and projection of a query that is not built as a topology of its own, in
+   * the same way as the filter and select steps of its plan would be built.
+   *
+   * @param select the {@link StreamSelect} or {@link TableSelect} step of the plan.
+   * @param source the source step of the plan.
+   */
+  private static Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> buildPipeline(
+      final ExecutionStep<?> select,
+      final SourceStep<?> source,
+      final RuntimeBuildContext buildContext
+  ) {
+    // The schema of the rows the source step would build:
+    final LogicalSchema sourceSchema = source.getSourceSchema().withPseudoAndKeyColsInValue(false);
+
+    final ExecutionStep<?> filter = Iterables.getOnlyElement(select.getSources());
+    final Optional<Expression> filterExpression;
+    if (filter instanceof StreamFilter) {
+      filterExpression = Optional.of(((StreamFilter<?>) filter).getFilterExpression());
+    } else if (filter instanceof TableFilter) {
+      filterExpression = Optional.of(((TableFilter<?>) filter).getFilterExpression());
+    } else {
+      filterExpression = Optional.empty();
+    }
+    final Optional<SqlPredicate> predicate = filterExpression.map(expression -> new SqlPredicate(
+        expression,
+        sourceSchema,
+        buildContext.getKsqlConfig(),
+        buildContext.getFunctionRegistry()
+    ));
+    final Optional<ProcessingLogger> filterLogger = filterExpression.map(expression ->
+        buildContext.getProcessingLogger(filter.getProperties().getQueryContext()));
+
+    final List<ColumnName> keyColumnNames;
+    final List<SelectExpression> selectExpressions;
+    if (select instanceof TableSelect) {
+      keyColumnNames = ((TableSelect<?>) select).getKeyColumnNames();
+      selectExpressions = ((TableSelect<?>) select).getSelectExpressions();
+    } else {
+      keyColumnNames = ((StreamSelect<?>) select).getKeyColumnNames();
+      selectExpressions = ((StreamSelect<?>) select).getSelectExpressions();
+    }
+    final SelectValueMapper<GenericKey> selectMapper = Selection.<GenericKey>of(
+        sourceSchema,
+        keyColumnNames,
+        selectExpressions,
+        buildContext.getKsqlConfig(),
+        buildContext.getFunctionRegistry()
+    ).getMapper();
+    final ProcessingLogger selectLogger =
+        buildContext.getProcessingLogger(select.getProperties().getQueryContext());
+
+    return () -> {
+      final KsqlTransformer<GenericKey, Optional<GenericRow>> filterTransformer = predicate
+          .map(p -> p.<GenericKey>getTransformer(filterLogger.get()))
+          .orElse((key, value, ctx) -> Optional.ofNullable(value));
+      final KsqlTransformer<GenericKey, GenericRow> selectTransformer =
+          selectMapper.getTransformer(selectLogger);
+
+      // Null values for a stream are invalid, so are dropped, as for a dedicated runtime:
+      return (key, value, ctx) -> filterTransformer.transform(key, value, ctx)
+          .map(row -> selectTransformer.transform(key, row, ctx));
+    };
+  }
+
+  /**
+   * @return the source of the plan, if the query can share a runtime with other transient
+   *     queries: it only filters and projects a non-windowed stream, reading from the latest
+   *     offset with the default client supplier.
+   */
+  private Optional<StreamSource> getSharedRuntimeSource(
+      final ExecutionStep<?> physicalPlan,
+      final Map<String, Object> streamsProperties
+  ) {
+    if (!config.getConfig(true).getBoolean(KsqlConfig.KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED)
+        || !(physicalPlan instanceof StreamSelect)
+        || !canShareRuntime(streamsProperties)) {
+      return Optional.empty();
+    }
+
+    return getProjectedSource(physicalPlan)
+        .filter(StreamSource.class::isInstance)
+        .map(StreamSource.class::cast);
+  }
+
+  /**
+   * @return the source of the plan, if the query can be served from the output of the persistent
+   *     query that writes its source: it only filters and projects the source, reading from the
+   *     latest offset with the default client supplier, and the source has not changed since the
+   *     persistent query started.
+   */
+  private Optional<SourceStep<?>> getScalablePushSource(
+      final ExecutionStep<?> physicalPlan,
+      final Map<String, Object> streamsProperties,
+      final Optional<PersistentQueryMetadata> sourceQuery
+  ) {
+    if (!sourceQuery.isPresent()
+        || !sourceQuery.get().getScalablePushRegistry().isPresent()
+        || !config.getConfig(true).getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)
+        || !canShareRuntime(streamsProperties)) {
+      return Optional.empty();
+    }
+
+    return getProjectedSource(physicalPlan)
+        .filter(source -> source.getSourceSchema().equals(sourceQuery.get().getSink().getSchema()));
+  }
+
+  /**
+   * @return whether the query may be run in a Kafka Streams runtime shared with other queries.
+   */
+  private boolean canShareRuntime(final Map<String, Object> streamsProperties) {
+    // Clients from any other supplier may carry the credentials of the requesting user:
+    if (!(serviceContext.getKafkaClientSupplier() instanceof DefaultKafkaClientSupplier)) {
+      return false;
+    }
+
+    // A query joining a running runtime only sees records that arrive after it starts:
+    final Object offsetReset = streamsProperties.getOrDefault(
+        StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG),
+        streamsProperties.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG)
+    );
+    return "latest".equals(offsetReset);
+  }
+
+  /**
+   * @return the source of the plan, if the plan only filters and projects a stream or table.
+   */
+  private static Optional<SourceStep<?>> getProjectedSource(final ExecutionStep<?> physicalPlan) {
+    final Class<?> filterType;
+    final Class<?> sourceType;
+    if (physicalPlan instanceof StreamSelect) {
+      filterType = StreamFilter.class;
+      sourceType = StreamSource.class;
+    } else if (physicalPlan instanceof TableSelect) {
+      filterType = TableFilter.class;
+      sourceType = TableSource.class;
+    } else {
+      return Optional.empty();
+    }
+
+    ExecutionStep<?> source = Iterables.getOnlyElement(physicalPlan.getSources());
+    if (filterType.isInstance(source)) {
+      source = Iterables.getOnlyElement(source.getSources());
+    }
+    return sourceType.isInstance(source)
+        ? Optional.of((SourceStep<?>) source)
+        : Optional.empty();
+  }
+
   private static Optional<MaterializationInfo> getMaterializationInfo(final Object result) {
     if (result instanceof KTableHolder) {
       return ((KTableHolder<?>) result).getMaterializationBuilder().map(Builder::build);
@@ -194,7 +537,8 @@ final class QueryExecutor {
       final Set<SourceName> sources,
       final ExecutionStep<?> physicalPlan,
       final String planSummary,
-      final QueryMetadata.Listener listener
+      final QueryMetadata.Listener listener,
+      final SharedPersistentRuntimes sharedRuntimes
   ) {
     final KsqlConfig ksqlConfig = config.getConfig(true);
 
@@ -208,11 +552,47 @@ final class QueryExecutor {
     );
 
     final RuntimeBuildContext runtimeBuildContext = buildContext(applicationId, queryId);
+
+    final Optional<StreamSource> sharedSource =
+        getSharedPersistentRuntimeSource(physicalPlan, streamsProperties);
+    if (sharedSource.isPresent()) {
+      final Optional<PersistentQueryMetadata> sharedQuery = buildSharedPersistentQuery(
+          statementText,
+          queryId,
+          sinkDataSource,
+          sources,
+          (StreamSink<?>) physicalPlan,
+          sharedSource.get(),
+          planSummary,
+          querySchema,
+          applicationId,
+          runtimeBuildContext,
+          listener,
+          sharedRuntimes
+      );
+      if (sharedQuery.isPresent()) {
+        return sharedQuery.get();
+      }
+    }
+
     final Object result = buildQueryImplementation(physicalPlan, runtimeBuildContext);
+    final Optional<MaterializationInfo> materializationInfo = getMaterializationInfo(result);
+    if (materializationInfo.isPresent()) {
+      addPullQueryResultCacheInvalidator((KTableHolder<?>) result, queryId, streamsProperties);
+      if (ksqlConfig.getBoolean(KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG)) {
+        // Pull queries read the materialized store by key:
+        streamsProperties.put(
+            RocksDBStoreProfile.LOOKUP_STORES_CONFIG,
+            materializationInfo.get().stateStoreName()
+        );
+      }
+    }
+    final Optional<ScalablePushRegistry> scalablePushRegistry =
+        buildScalablePushRegistry(result, queryId, sinkDataSource, ksqlConfig);
     final Topology topology = streamsBuilder.build(PropertiesUtil.asProperties(streamsProperties));
 
     final Optional<MaterializationProviderBuilderFactory.MaterializationProviderBuilder>
-        materializationProviderBuilder = getMaterializationInfo(result).map(info ->
+        materializationProviderBuilder = materializationInfo.map(info ->
             materializationProviderBuilderFactory.materializationProviderBuilder(
                 info,
                 querySchema,
@@ -221,12 +601,6 @@ final class QueryExecutor {
                 applicationId
             ));
 
-    final QueryErrorClassifier userErrorClassifiers = new MissingTopicClassifier(applicationId)
-        .and(new AuthorizationClassifier(applicationId));
-    final QueryErrorClassifier classifier = buildConfiguredClassifiers(ksqlConfig, applicationId)
-        .map(userErrorClassifiers::and)
-        .orElse(userErrorClassifiers);
-
     return new PersistentQueryMetadata(
         statementText,
         querySchema,
@@ -242,16 +616,217 @@ final class QueryExecutor {
         streamsProperties,
         config.getOverrides(),
         ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG),
-        classifier,
+        buildErrorClassifier(ksqlConfig, applicationId),
         physicalPlan,
         ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_ERROR_MAX_QUEUE_SIZE),
         getUncaughtExceptionProcessingLogger(queryId),
         ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_INITIAL_MS),
         ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_MAX_MS),
+        scalablePushRegistry,
         listener
     );
   }
 
+  /**
+   * Build a query that shares the runtime of its source with other persistent queries.
+   *
+   * @return the query, or empty if the source's runtime can't be shared by the query.
+   */
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  private Optional<PersistentQueryMetadata> buildSharedPersistentQuery(
+      final String statementText,
+      final QueryId queryId,
+      final DataSource sinkDataSource,
+      final Set<SourceName> sources,
+      final StreamSink<?> sink,
+      final StreamSource source,
+      final String planSummary,
+      final PhysicalSchema querySchema,
+      final String applicationId,
+      final RuntimeBuildContext runtimeBuildContext,
+      final QueryMetadata.Listener listener,
+      final SharedPersistentRuntimes sharedRuntimes
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    final KsqlConfig ksqlConfig = config.getConfig(true);
+    final QueryContext queryContext = sink.getProperties().getQueryContext();
+    final Serde<GenericKey> keySerde = runtimeBuildContext.buildKeySerde(
+        sink.getFormats().getKeyFormat(),
+        querySchema,
+        queryContext
+    );
+    final Serde<GenericRow> valueSerde = runtimeBuildContext.buildValueSerde(
+        sink.getFormats().getValueFormat(),
+        querySchema,
+        queryContext
+    );
+
+    final Optional<SharedPersistentRuntime.Member> member = sharedRuntimes.join(
+        source,
+        () -> buildSharedPersistentRuntime(source),
+        queryId,
+        buildPipeline(sink.getSource(), source, runtimeBuildContext),
+        sink.getTopicName(),
+        keySerde.serializer(),
+        valueSerde.serializer()
+    );
+    if (!member.isPresent()) {
+      return Optional.empty();
+    }
+
+    final PersistentQueryMetadata query = new SharedPersistentQueryMetadata(
+        statementText,
+        querySchema,
+        sources,
+        sinkDataSource,
+        planSummary,
+        queryId,
+        applicationId,
+        member.get(),
+        kafkaStreamsBuilder,
+        runtimeBuildContext.getSchemas(),
+        config.getOverrides(),
+        ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG),
+        buildErrorClassifier(ksqlConfig, member.get().getRuntime().getApplicationId()),
+        sink,
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_ERROR_MAX_QUEUE_SIZE),
+        getUncaughtExceptionProcessingLogger(queryId),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_INITIAL_MS),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_MAX_MS),
+        listener
+    );
+    LOG.info(
+        "Persistent query {} shares runtime {} with {} other queries",
+        queryId,
+        member.get().getRuntime().getApplicationId(),
+        member.get().getRuntime().size() - 1
+    );
+    return Optional.of(query);
+  }
+
+  private SharedPersistentRuntime buildSharedPersistentRuntime(final StreamSource source) {
+    final KsqlConfig ksqlConfig = config.getConfig(true);
+    // The runtime's consumer group must be the same when the server restarts:
+    final QueryId runtimeId =
+        new QueryId(SharedPersistentRuntime.QUERY_ID_PREFIX + source.getTopicName());
+    final String applicationId = QueryApplicationId.build(ksqlConfig, true, runtimeId);
+    final Map<String, Object> streamsProperties = buildStreamsProperties(applicationId, runtimeId);
+    final KStreamHolder<GenericKey> stream =
+        source.build(new KSPlanBuilder(buildContext(applicationId, runtimeId)));
+
+    return SharedPersistentRuntime.create(
+        applicationId,
+        source,
+        stream.getStream(),
+        streamsBuilder,
+        streamsProperties,
+        kafkaStreamsBuilder,
+        Duration.ofMillis(ksqlConfig.getLong(KSQL_SHUTDOWN_TIMEOUT_MS_CONFIG)),
+        () -> serviceContext.getConsumerGroupClient()
+            .deleteConsumerGroups(ImmutableSet.of(applicationId)),
+        new RetryEvent(
+            runtimeId,
+            ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_INITIAL_MS),
+            ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_RETRY_BACKOFF_MAX_MS)
+        )
+    );
+  }
+
+  /**
+   * @return the source of the plan, if the query can share a runtime with other persistent
+   *     queries: it only filters and projects a stream into a stream that takes its timestamps
+   *     from the source, reading from the latest offset with the default client supplier and
+   *     no property overrides.
+   */
+  private Optional<StreamSource> getSharedPersistentRuntimeSource(
+      final ExecutionStep<?> physicalPlan,
+      final Map<String, Object> streamsProperties
+  ) {
+    if (!config.getConfig(true).getBoolean(KsqlConfig.KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED)
+        || !(physicalPlan instanceof StreamSink)
+        || ((StreamSink<?>) physicalPlan).getTimestampColumn().isPresent()
+        // The runtime is built with the properties of the query that creates it:
+        || !config.getOverrides().isEmpty()
+        || !canShareRuntime(streamsProperties)) {
+      return Optional.empty();
+    }
+
+    return getProjectedSource(((StreamSink<?>) physicalPlan).getSource())
+        .filter(StreamSource.class::isInstance)
+        .map(StreamSource.class::cast);
+  }
+
+  private static QueryErrorClassifier buildErrorClassifier(
+      final KsqlConfig ksqlConfig,
+      final String applicationId
+  ) {
+    final QueryErrorClassifier userErrorClassifiers = new MissingTopicClassifier(applicationId)
+        .and(new AuthorizationClassifier(applicationId));
+    return buildConfiguredClassifiers(ksqlConfig, applicationId)
+        .map(userErrorClassifiers::and)
+        .orElse(userErrorClassifiers);
+  }
+
+  /**
+   * @return the registry of the push queries to serve from the output of a persistent query, if
+   *     enabled and the output holds the rows of the sink as a query reading the sink would see
+   *     them: the sink is not windowed, and takes its timestamps from the output's records.
+   */
+  @SuppressWarnings("unchecked")
+  private static Optional<ScalablePushRegistry> buildScalablePushRegistry(
+      final Object result,
+      final QueryId queryId,
+      final DataSource sinkDataSource,
+      final KsqlConfig ksqlConfig
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)
+        || sinkDataSource.getKsqlTopic().getKeyFormat().isWindowed()
+        || sinkDataSource.getTimestampColumn().isPresent()) {
+      return Optional.empty();
+    }
+
+    final KStream<GenericKey, GenericRow> output;
+    if (result instanceof KStreamHolder) {
+      output = (KStream<GenericKey, GenericRow>) ((KStreamHolder<?>) result).getStream();
+    } else if (result instanceof KTableHolder) {
+      output = (KStream<GenericKey, GenericRow>) ((KTableHolder<?>) result).getTable().toStream();
+    } else {
+      return Optional.empty();
+    }
+
+    final ScalablePushRegistry registry =
+        new ScalablePushRegistry(queryId, sinkDataSource.getSchema());
+    registry.tap(output);
+    return Optional.of(registry);
+  }
+
+  private static void addPullQueryResultCacheInvalidator(
+      final KTableHolder<?> table,
+      final QueryId queryId,
+      final Map<String, Object> streamsProperties
+  ) {
+    final PullQueryResultCache resultCache = PullQueryResultCache.instance();
+    if (!resultCache.isEnabled()) {
+      return;
+    }
+
+    // With record caching, updates are only forwarded past the store when the cache is flushed,
+    // so the invalidator would run long after the store was written:
+    final Object recordCacheBytes = streamsProperties.get(
+        StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG);
+    if (recordCacheBytes == null || (long) ConfigDef.parseType(
+        StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG,
+        recordCacheBytes,
+        ConfigDef.Type.LONG
+    ) != 0) {
+      LOG.info("Not caching pull query results of query {} as {} is not 0",
+          queryId, StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG);
+      return;
+    }
+
+    table.getTable().toStream().transformValues(resultCache.invalidator(queryId));
+  }
+
   private ProcessingLogger getUncaughtExceptionProcessingLogger(final QueryId queryId) {
     final QueryContext.Stacker stacker = new QueryContext.Stacker()
         .push(KSQL_THREAD_EXCEPTION_UNCAUGHT_LOGGER);
@@ -261,11 +836,14 @@ final class QueryExecutor {
   }
 
   private static TransientQueryQueue buildTransientQueryQueue(
+      final QueryId queryId,
       final Object buildResult,
       final OptionalInt limit,
-      final boolean excludeTombstones
+      final boolean excludeTombstones,
+      final KsqlConfig ksqlConfig
   ) {
-    final TransientQueryQueue queue = new TransientQueryQueue(limit);
+    final TransientQueryQueue queue = TransientQueryQueue.create(limit, ksqlConfig);
+    queue.registerMetrics(MetricCollectors.getMetrics(), queryId);
 
     if (buildResult instanceof KStreamHolder<?>) {
       final KStream<?, GenericRow> kstream = ((KStreamHolder<?>) buildResult).getStream();
@@ -318,6 +896,11 @@ final class QueryExecutor {
     final Map<String, Object> newStreamsProperties
         = new HashMap<>(config.getConfig(true).getKsqlStreamConfigProps(applicationId));
     newStreamsProperties.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+    final String storeProfile = config.getConfig(true)
+        .getString(KsqlConfig.KSQL_ROCKSDB_STORE_PROFILE_CONFIG);
+    if (storeProfile != null) {
+      newStreamsProperties.put(RocksDBStoreProfile.PROFILE_CONFIG, storeProfile);
+    }
     final ProcessingLogger logger
         = processingLogContext.getLoggerFactory().getLogger(queryId.toString());
     newStreamsProperties.put(
@@ -58,6 +58,8 @@ public class QueryRegistryImpl implements QueryRegistry {
   private final Map<SourceName, Set<QueryId>> insertQueries;
   private final Collection<QueryEventListener> eventListeners;
   private final QueryExecutorFactory executorFactory;
+  private final SharedTransientRuntimes sharedTransientRuntimes;
+  private final SharedPersistentRuntimes sharedPersistentRuntimes;
 
   public QueryRegistryImpl(final Collection<QueryEventListener> eventListeners) {
     this(eventListeners, QueryExecutor::new);
@@ -73,11 +75,15 @@ public class QueryRegistryImpl implements QueryRegistry {
     this.insertQueries = new ConcurrentHashMap<>();
     this.eventListeners = Objects.requireNonNull(eventListeners);
     this.executorFactory = Objects.requireNonNull(executorFactory);
+    this.sharedTransientRuntimes = new SharedTransientRuntimes();
+    this.sharedPersistentRuntimes = new SharedPersistentRuntimes();
   }
 
   // Used to construct a sandbox
   private QueryRegistryImpl(final QueryRegistryImpl original) {
     executorFactory = original.executorFactory;
+    sharedTransientRuntimes = new SharedTransientRuntimes();
+    sharedPersistentRuntimes = new SharedPersistentRuntimes();
     persistentQueries = new ConcurrentHashMap<>();
     allLiveQueries = ConcurrentHashMap.newKeySet();
     createAsQueries = new ConcurrentHashMap<>();
@@ -140,7 +146,9 @@ public class QueryRegistryImpl implements QueryRegistry {
         limit,
         windowInfo,
         excludeTombstones,
-        new ListenerImpl()
+        new ListenerImpl(),
+        sharedTransientRuntimes,
+        getScalablePushSource(sources)
     );
     registerQuery(serviceContext, metaStore, query, false);
     return query;
@@ -170,7 +178,8 @@ public class QueryRegistryImpl implements QueryRegistry {
         sources,
         physicalPlan,
         planSummary,
-        new ListenerImpl()
+        new ListenerImpl(),
+        sharedPersistentRuntimes
     );
     registerQuery(serviceContext, metaStore, query, createAsQuery);
     return query;
@@ -243,6 +252,26 @@ public class QueryRegistryImpl implements QueryRegistry {
     }
   }
 
+  /**
+   * @return the running persistent query that alone writes to the single source of a transient
+   *     query, if it serves push queries from its output.
+   */
+  private Optional<PersistentQueryMetadata> getScalablePushSource(final Set<SourceName> sources) {
+    if (sources.size() != 1) {
+      return Optional.empty();
+    }
+
+    final SourceName source = Iterables.getOnlyElement(sources);
+    if (getQueriesWithSink(source).size() != 1) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(createAsQueries.get(source))
+        .map(persistentQueries::get)
+        .filter(query -> query.getScalablePushRegistry().isPresent())
+        .filter(query -> query.getState().isRunningOrRebalancing());
+  }
+
   private void registerQuery(
       final ServiceContext serviceContext,
       final MetaStore metaStore,
@@ -275,6 +304,13 @@ public class QueryRegistryImpl implements QueryRegistry {
         sinkAndSources(persistentQuery).forEach(sourceName ->
             insertQueries.computeIfAbsent(sourceName,
                 x -> Collections.synchronizedSet(new HashSet<>())).add(queryId));
+
+        // The output of the CREATE_AS query no longer holds every row written to the sink:
+        Optional.ofNullable(createAsQueries.get(persistentQuery.getSinkName()))
+            .map(persistentQueries::get)
+            .flatMap(PersistentQueryMetadata::getScalablePushRegistry)
+            .ifPresent(registry -> registry.unsubscribeAll(
+                "Query " + queryId + " now also writes to " + persistentQuery.getSinkName()));
       }
     }
     allLiveQueries.add(query);
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A bounded, array-backed, single-consumer queue.
+ *
+ * <p>Unlike {@link java.util.concurrent.LinkedBlockingQueue} this queue does not allocate a node
+ * per element and the consumer never takes a lock. The queue is designed for a single producer:
+ * producers are serialized on a monitor, which is uncontended when there is only one, so that
+ * queries running more than one stream thread remain safe. Only one thread may consume at a time.
+ *
+ * <p>How threads wait for the queue to become non-full or non-empty is controlled by the
+ * {@link WaitStrategy}.
+ */
+final class RingBufferQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+
+  enum WaitStrategy {
+    /**
+     * Busy-spin. Lowest latency, but burns a core while waiting.
+     */
+    SPIN,
+    /**
+     * Yield the CPU between checks.
+     */
+    YIELD,
+    /**
+     * Park until signalled by the other side, or the timeout elapses.
+     */
+    PARK
+  }
+
+  private final Object[] buffer;
+  private final int mask;
+  private final int capacity;
+  private final WaitStrategy waitStrategy;
+  private final Object producerLock = new Object();
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicReference<Thread> waitingConsumer = new AtomicReference<>();
+  private final AtomicReference<Thread> waitingProducer = new AtomicReference<>();
+
+  RingBufferQueue(final int capacity, final WaitStrategy waitStrategy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+
+    this.capacity = capacity;
+    this.buffer = new Object[nextPowerOfTwo(capacity)];
+    this.mask = buffer.length - 1;
+    this.waitStrategy = requireNonNull(waitStrategy, "waitStrategy");
+  }
+
+  @Override
+  public boolean offer(final T e) {
+    requireNonNull(e, "e");
+
+    synchronized (producerLock) {
+      final long t = tail.get();
+      if (t - head.get() >= capacity) {
+        return false;
+      }
+
+      buffer[index(t)] = e;
+      tail.set(t + 1);
+    }
+
+    signal(waitingConsumer);
+    return true;
+  }
+
+  @Override
+  public boolean offer(final T e, final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    requireNonNull(e, "e");
+
+    synchronized (producerLock) {
+      if (!await(this::hasSpace, unit.toNanos(timeout), waitingProducer)) {
+        return false;
+      }
+
+      // Space can only be consumed by the lock holder, so the offer will succeed:
+      return offer(e);
+    }
+  }
+
+  @Override
+  public void put(final T e) throws InterruptedException {
+    offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public T poll() {
+    final long h = head.get();
+    if (h >= tail.get()) {
+      return null;
+    }
+
+    final T e = take(h);
+    head.set(h + 1);
+    signal(waitingProducer);
+    return e;
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    if (!await(this::hasElements, unit.toNanos(timeout), waitingConsumer)) {
+      return null;
+    }
+
+    return poll();
+  }
+
+  @Override
+  public T take() throws InterruptedException {
+    return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T peek() {
+    final long h = head.get();
+    return h < tail.get()
+        ? (T) buffer[index(h)]
+        : null;
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Moves up to {@code maxElements} into {@code c}, publishing the new head only once.
+   */
+  @Override
+  public int drainTo(final Collection<? super T> c, final int maxElements) {
+    requireNonNull(c, "c");
+    if (c == this) {
+      throw new IllegalArgumentException("Can not drain to self");
+    }
+
+    final long h = head.get();
+    final long available = Math.min(tail.get() - h, maxElements);
+    if (available <= 0) {
+      return 0;
+    }
+
+    int drained = 0;
+    try {
+      while (drained < available) {
+        c.add(take(h + drained));
+        drained++;
+      }
+    } finally {
+      if (drained > 0) {
+        head.set(h + drained);
+        signal(waitingProducer);
+      }
+    }
+    return drained;
+  }
+
+  @Override
+  public int size() {
+    final long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, capacity));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  /**
+   * @return a weakly consistent snapshot of the elements in the queue.
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public Iterator<T> iterator() {
+    final long t = tail.get();
+    final List<T> snapshot = new ArrayList<>();
+    for (long i = head.get(); i < t; i++) {
+      final Object e = buffer[index(i)];
+      if (e != null) {
+        snapshot.add((T) e);
+      }
+    }
+    return Collections.unmodifiableList(snapshot).iterator();
+  }
+
+  private boolean hasSpace() {
+    return tail.get() - head.get() < capacity;
+  }
+
+  private boolean hasElements() {
+    return head.get() < tail.get();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T take(final long position) {
+    final int idx = index(position);
+    final T e = (T) buffer[idx];
+    buffer[idx] = null;
+    return e;
+  }
+
+  private int index(final long position) {
+    return (int) (position & mask);
+  }
+
+  private boolean await(
+      final BooleanSupplier ready,
+      final long timeoutNs,
+      final AtomicReference<Thread> waiter
+  ) throws InterruptedException {
+    final long deadline = System.nanoTime() + timeoutNs;
+
+    while (!ready.getAsBoolean()) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+
+      switch (waitStrategy) {
+        case SPIN:
+          break;
+        case YIELD:
+          Thread.yield();
+          break;
+        default:
+          // Register before re-checking, so a concurrent signal can not be missed:
+          waiter.set(Thread.currentThread());
+          try {
+            if (!ready.getAsBoolean()) {
+              LockSupport.parkNanos(this, remaining);
+            }
+          } finally {
+            waiter.lazySet(null);
+          }
+          break;
+      }
+    }
+    return true;
+  }
+
+  private static void signal(final AtomicReference<Thread> waiter) {
+    final Thread thread = waiter.get();
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private static int nextPowerOfTwo(final int value) {
+    final int highest = Integer.highestOneBit(value);
+    return highest == value ? value : highest << 1;
+  }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.streams.transform.KsTransformer;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.KsqlException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The push queries served from the output of a persistent query, rather than by a Kafka Streams
+ * application of their own.
+ *
+ * <p>The registry taps the stream the persistent query writes to its sink. Each record is laid out
+ * as it would be by a query reading the sink topic, i.e. with the {@code ROWTIME} and key columns
+ * appended to the value, and passed to the pipeline of every started subscriber, which applies the
+ * subscriber's filter and projection and queues the resulting row for its client.
+ *
+ * <p>The tap runs on the persistent query's stream threads, so never waits for a subscriber. Rows a
+ * subscriber's queue has no room for are held in an {@link OverflowBuffer}, and a subscriber that
+ * has fallen behind regardless is failed rather than slowing the persistent query down. Likewise,
+ * a subscriber whose pipeline throws is failed, without affecting the persistent query.
+ */
+public final class ScalablePushRegistry {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ScalablePushRegistry.class);
+
+  private final QueryId queryId;
+  private final GenericKey nullKey;
+  private final Time time;
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+  /**
+   * @param queryId the id of the persistent query.
+   * @param schema the schema of the persistent query's sink.
+   */
+  public ScalablePushRegistry(final QueryId queryId, final LogicalSchema schema) {
+    this(queryId, schema, Time.SYSTEM);
+  }
+
+  @VisibleForTesting
+  ScalablePushRegistry(final QueryId queryId, final LogicalSchema schema, final Time time) {
+    this.queryId = Objects.requireNonNull(queryId, "queryId");
+    this.nullKey = GenericKey.builder(schema).appendNulls().build();
+    this.time = Objects.requireNonNull(time, "time");
+  }
+
+  /**
+   * Tap the supplied {@code output} of the persistent query.
+   *
+   * @param output the stream the persistent query writes to its sink.
+   */
+  void tap(final KStream<GenericKey, GenericRow> output) {
+    output.transformValues(
+        () -> {
+          final Tap tap = newTap();
+          return new KsTransformer<GenericKey, Void>(tap) {
+            @Override
+            public void init(final ProcessorContext processorContext) {
+              super.init(processorContext);
+              // Drain overflow buffers even while the persistent query outputs no records:
+              processorContext.schedule(
+                  OverflowBuffer.DRAIN_INTERVAL,
+                  PunctuationType.WALL_CLOCK_TIME,
+                  timestamp -> tap.drainOverflow()
+              );
+            }
+          };
+        },
+        Named.as("SCALABLE-PUSH-TAP")
+    );
+  }
+
+  @VisibleForTesting
+  Tap newTap() {
+    return new Tap(subscribers, nullKey);
+  }
+
+  /**
+   * Subscribe to the output of the persistent query.
+   *
+   * @param pipeline creates the subscriber's filter and projection, once for each stream task.
+   * @param queue the queue of the subscriber's rows.
+   * @param onError called if the subscriber can no longer be served.
+   * @return the subscriber, which receives no rows until started.
+   */
+  public Subscriber subscribe(
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final TransientQueryQueue queue,
+      final Consumer<Throwable> onError
+  ) {
+    final Subscriber subscriber = new Subscriber(pipeline, queue, onError);
+    subscribers.add(subscriber);
+    return subscriber;
+  }
+
+  /**
+   * Fail and remove all subscribers, e.g. as the persistent query has stopped.
+   *
+   * <p>Queries may subscribe again, e.g. once the persistent query is restarted.
+   *
+   * @param reason why the subscribers can no longer be served.
+   */
+  public void unsubscribeAll(final String reason) {
+    for (final Subscriber subscriber : subscribers) {
+      subscriber.fail(new KsqlException(reason));
+    }
+  }
+
+  /**
+   * @return the number of subscribers.
+   */
+  public int size() {
+    return subscribers.size();
+  }
+
+  /**
+   * A push query served from the output of the persistent query.
+   */
+  public final class Subscriber {
+
+    private final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline;
+    private final OverflowBuffer overflow;
+    private final Consumer<Throwable> onError;
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+    private volatile boolean started;
+
+    private Subscriber(
+        final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+        final TransientQueryQueue queue,
+        final Consumer<Throwable> onError
+    ) {
+      this.pipeline = Objects.requireNonNull(pipeline, "pipeline");
+      this.overflow = new OverflowBuffer(queue, time);
+      this.onError = Objects.requireNonNull(onError, "onError");
+    }
+
+    /**
+     * Start receiving rows.
+     */
+    public void start() {
+      started = true;
+    }
+
+    /**
+     * Stop receiving rows.
+     */
+    public void unsubscribe() {
+      subscribers.remove(this);
+    }
+
+    boolean isStarted() {
+      return started;
+    }
+
+    KsqlTransformer<GenericKey, Optional<GenericRow>> newTransformer() {
+      return pipeline.get();
+    }
+
+    boolean offerRow(final GenericRow row) {
+      return overflow.offer(row);
+    }
+
+    boolean drainOverflow() {
+      return overflow.drain();
+    }
+
+    void fail(final Throwable e) {
+      if (!failed.compareAndSet(false, true)) {
+        return;
+      }
+
+      unsubscribe();
+      overflow.clear();
+      try {
+        onError.accept(e);
+      } catch (final Exception handlerException) {
+        LOG.warn("Error failing push query subscribed to query {}", queryId, handlerException);
+      }
+    }
+  }
+
+  /**
+   * Passes each record to the pipeline of every started subscriber.
+   *
+   * <p>Kafka Streams creates a tap for each task, which is only ever called by the stream thread
+   * running the task, so each tap keeps its own instances of the subscribers' pipelines. A
+   * subscriber whose pipeline throws is failed, without affecting the other subscribers.
+   */
+  @VisibleForTesting
+  static final class Tap implements KsqlTransformer<GenericKey, Void> {
+
+    private final List<Subscriber> subscribers;
+    private final GenericKey nullKey;
+    private final Map<Subscriber, KsqlTransformer<GenericKey, Optional<GenericRow>>> pipelines =
+        new HashMap<>();
+
+    Tap(final List<Subscriber> subscribers, final GenericKey nullKey) {
+      this.subscribers = Objects.requireNonNull(subscribers, "subscribers");
+      this.nullKey = Objects.requireNonNull(nullKey, "nullKey");
+    }
+
+    @Override
+    public Void transform(
+        final GenericKey readOnlyKey,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      // Tombstones are not passed on. Subscribers get a copy of the row, as the sink writes it:
+      if (value != null && !subscribers.isEmpty()) {
+        final GenericRow row = withRowTimeAndKey(readOnlyKey, value, ctx);
+        for (final Subscriber subscriber : subscribers) {
+          if (subscriber.isStarted()) {
+            process(subscriber, readOnlyKey, row, ctx);
+          }
+        }
+      }
+
+      if (pipelines.size() > subscribers.size()) {
+        // Drop the pipelines of subscribers that have gone:
+        pipelines.keySet().retainAll(subscribers);
+      }
+      return null;
+    }
+
+    private void process(
+        final Subscriber subscriber,
+        final GenericKey key,
+        final GenericRow row,
+        final KsqlProcessingContext ctx
+    ) {
+      final Optional<GenericRow> result;
+      try {
+        result = pipelines
+            .computeIfAbsent(subscriber, Subscriber::newTransformer)
+            .transform(key, row, ctx);
+      } catch (final Exception e) {
+        LOG.error("Error processing record for push query subscriber", e);
+        subscriber.fail(e);
+        return;
+      }
+
+      if (result.isPresent() && !subscriber.offerRow(result.get())) {
+        failBehind(subscriber);
+      }
+    }
+
+    void drainOverflow() {
+      for (final Subscriber subscriber : subscribers) {
+        if (subscriber.isStarted() && !subscriber.drainOverflow()) {
+          failBehind(subscriber);
+        }
+      }
+    }
+
+    private static void failBehind(final Subscriber subscriber) {
+      subscriber.fail(new KsqlException(
+          "Push query fell behind the persistent query it is served from, "
+              + "as its client is not reading rows fast enough."));
+    }
+
+    private GenericRow withRowTimeAndKey(
+        final GenericKey key,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      final List<?> keyColumns = key == null ? nullKey.values() : key.values();
+      final GenericRow row = new GenericRow(value.size() + 1 + keyColumns.size());
+      row.appendAll(value.values());
+      row.append(ctx.getRowTime());
+      row.appendAll(keyColumns);
+      return row;
+    }
+  }
+}
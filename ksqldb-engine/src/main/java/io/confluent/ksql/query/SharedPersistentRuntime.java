@@ -0,0 +1,525 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.properties.PropertiesUtil;
+import io.confluent.ksql.util.QueryMetadata.RetryEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.kstream.Transformer;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.TopicNameExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Kafka Streams runtime shared by persistent queries that filter and project the same stream
+ * into a stream of their own.
+ *
+ * <p>Kafka Streams can not change the topology of a running application, so the runtime's
+ * topology is fixed: it consumes the stream once and passes each record to the pipeline of every
+ * member, which applies the member's filter and projection. The resulting row is serialized with
+ * the formats of the member's sink and written to the member's sink topic. Members join and leave
+ * through {@link SharedPersistentRuntimes}, without the runtime restarting.
+ *
+ * <p>The runtime's application id is derived from the stream's topic, rather than from any of its
+ * members, so members rejoin the same consumer group when the server restarts.
+ *
+ * <p>If a member fails to process a record, only that member fails: the error is passed to it, it
+ * stops receiving records and its query reports an error state, while the record is still written
+ * for the other members. The member receives records again once its query is restarted. Errors
+ * of the runtime itself, e.g. failing to write to a sink, fail the stream thread, which is
+ * replaced after the runtime backs off, as a dedicated query's would be.
+ */
+public final class SharedPersistentRuntime {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedPersistentRuntime.class);
+
+  static final String QUERY_ID_PREFIX = "shared_";
+
+  private static final String DISPATCH_NAME = "SHARED-PERSISTENT-DISPATCH";
+  private static final String SINK_NAME = "SHARED-PERSISTENT-SINK";
+
+  private final String applicationId;
+  private final StreamSource source;
+  private final Topology topology;
+  private final Map<String, Object> streamsProperties;
+  private final KafkaStreams kafkaStreams;
+  private final Duration closeTimeout;
+  private final Runnable cleanUp;
+  private final List<Member> members;
+  private final RetryEvent retryEvent;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+
+  /**
+   * Create a runtime that passes the records of the supplied {@code source} to its members.
+   *
+   * @param applicationId the application id of the runtime.
+   * @param source the source step the runtime is built from.
+   * @param stream the source stream, built on the {@code streamsBuilder}.
+   * @param streamsBuilder the builder of the runtime's topology.
+   * @param streamsProperties the properties of the runtime.
+   * @param kafkaStreamsBuilder the builder of the runtime's {@link KafkaStreams}.
+   * @param closeTimeout how long to wait for the runtime to close.
+   * @param cleanUp deletes the runtime's consumer group, once its last member is closed.
+   * @param retryEvent backs off before a failed stream thread is replaced.
+   * @return the runtime, which has no members and is not started.
+   */
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  static SharedPersistentRuntime create(
+      final String applicationId,
+      final StreamSource source,
+      final KStream<GenericKey, GenericRow> stream,
+      final StreamsBuilder streamsBuilder,
+      final Map<String, Object> streamsProperties,
+      final KafkaStreamsBuilder kafkaStreamsBuilder,
+      final Duration closeTimeout,
+      final Runnable cleanUp,
+      final RetryEvent retryEvent
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    final List<Member> members = new CopyOnWriteArrayList<>();
+
+    stream.flatTransform(
+        () -> new KsDispatcher(new Dispatcher(members)),
+        Named.as(DISPATCH_NAME)
+    );
+
+    final Topology topology = streamsBuilder.build(PropertiesUtil.asProperties(streamsProperties));
+
+    // Sink values are only ever written, so the sink is added with serializers alone:
+    final TopicNameExtractor<byte[], SinkValue> sinkTopic =
+        (key, value, recordContext) -> value.getTopic();
+    final Serializer<SinkValue> sinkValueSerializer =
+        (topic, value) -> value == null ? null : value.getBytes();
+    topology.addSink(
+        SINK_NAME,
+        sinkTopic,
+        new ByteArraySerializer(),
+        sinkValueSerializer,
+        DISPATCH_NAME
+    );
+    return new SharedPersistentRuntime(
+        applicationId,
+        source,
+        topology,
+        streamsProperties,
+        kafkaStreamsBuilder.build(topology, streamsProperties),
+        closeTimeout,
+        cleanUp,
+        members,
+        retryEvent
+    );
+  }
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  @VisibleForTesting
+  SharedPersistentRuntime(
+      final String applicationId,
+      final StreamSource source,
+      final Topology topology,
+      final Map<String, Object> streamsProperties,
+      final KafkaStreams kafkaStreams,
+      final Duration closeTimeout,
+      final Runnable cleanUp,
+      final List<Member> members,
+      final RetryEvent retryEvent
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
+    this.source = Objects.requireNonNull(source, "source");
+    this.topology = Objects.requireNonNull(topology, "topology");
+    this.streamsProperties = Objects.requireNonNull(streamsProperties, "streamsProperties");
+    this.kafkaStreams = Objects.requireNonNull(kafkaStreams, "kafkaStreams");
+    this.closeTimeout = Objects.requireNonNull(closeTimeout, "closeTimeout");
+    this.cleanUp = Objects.requireNonNull(cleanUp, "cleanUp");
+    this.members = Objects.requireNonNull(members, "members");
+    this.retryEvent = Objects.requireNonNull(retryEvent, "retryEvent");
+    this.kafkaStreams.setUncaughtExceptionHandler(this::uncaughtHandler);
+    this.kafkaStreams.setStateListener(this::onStateChange);
+  }
+
+  public String getApplicationId() {
+    return applicationId;
+  }
+
+  public Topology getTopology() {
+    return topology;
+  }
+
+  public Map<String, Object> getStreamsProperties() {
+    return streamsProperties;
+  }
+
+  public KafkaStreams getKafkaStreams() {
+    return kafkaStreams;
+  }
+
+  /**
+   * @return the number of queries sharing the runtime.
+   */
+  public int size() {
+    return members.size();
+  }
+
+  StreamSource getSource() {
+    return source;
+  }
+
+  /**
+   * Add a member, replacing any member with the same query id, e.g. as the query is replaced.
+   */
+  Member addMember(
+      final QueryId queryId,
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final String sinkTopic,
+      final Serializer<GenericKey> keySerializer,
+      final Serializer<GenericRow> valueSerializer,
+      final BiConsumer<Member, Boolean> onLeave
+  ) {
+    final Member member =
+        new Member(queryId, pipeline, sinkTopic, keySerializer, valueSerializer, onLeave);
+
+    // Replace in place, so that no record is passed to both members, or to neither:
+    final AtomicBoolean replaced = new AtomicBoolean(false);
+    members.replaceAll(existing -> {
+      if (existing.queryId.equals(queryId)) {
+        replaced.set(true);
+        return member;
+      }
+      return existing;
+    });
+    if (!replaced.get()) {
+      members.add(member);
+    }
+    return member;
+  }
+
+  void removeMember(final Member member) {
+    members.remove(member);
+  }
+
+  boolean isEmpty() {
+    return members.isEmpty();
+  }
+
+  /**
+   * Close the runtime.
+   *
+   * @param cleanUp whether to delete the runtime's consumer group, as its queries are gone.
+   */
+  void close(final boolean cleanUp) {
+    LOG.info("Closing shared persistent runtime with application id: {}", applicationId);
+    kafkaStreams.close(closeTimeout);
+    if (!cleanUp) {
+      return;
+    }
+
+    kafkaStreams.cleanUp();
+    try {
+      this.cleanUp.run();
+    } catch (final Exception e) {
+      LOG.warn("Failed to clean up shared persistent runtime {}", applicationId, e);
+    }
+  }
+
+  private void start() {
+    if (started.compareAndSet(false, true)) {
+      LOG.info("Starting shared persistent runtime with application id: {}", applicationId);
+      kafkaStreams.start();
+    }
+  }
+
+  private void onStateChange(final KafkaStreams.State newState, final KafkaStreams.State oldState) {
+    members.forEach(member -> member.onStateChange(newState, oldState));
+  }
+
+  private StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse uncaughtHandler(
+      final Throwable e
+  ) {
+    LOG.error(
+        "Unhandled exception caught in shared persistent runtime {}, thread {}",
+        applicationId,
+        Thread.currentThread().getName(),
+        e
+    );
+
+    // Errors of members are handled by the dispatcher, so this is an error of the runtime itself,
+    // and any member's output may be incomplete:
+    members.forEach(member -> member.onUncaughtException(e));
+
+    // The new thread processes the uncommitted records again, so back off in case they fail again:
+    synchronized (retryEvent) {
+      retryEvent.backOff();
+    }
+    return StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse.REPLACE_THREAD;
+  }
+
+  /**
+   * A persistent query that shares a runtime.
+   *
+   * <p>A member receives records as soon as it joins, rather than once it is started, so that no
+   * records are skipped while the queries of the runtime are started one by one.
+   */
+  public final class Member {
+
+    private final QueryId queryId;
+    private final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline;
+    private final String sinkTopic;
+    private final Serializer<GenericKey> keySerializer;
+    private final Serializer<GenericRow> valueSerializer;
+    private final BiConsumer<Member, Boolean> onLeave;
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+    private volatile StreamsUncaughtExceptionHandler uncaughtExceptionHandler;
+    private volatile StateListener stateListener;
+
+    private Member(
+        final QueryId queryId,
+        final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+        final String sinkTopic,
+        final Serializer<GenericKey> keySerializer,
+        final Serializer<GenericRow> valueSerializer,
+        final BiConsumer<Member, Boolean> onLeave
+    ) {
+      this.queryId = Objects.requireNonNull(queryId, "queryId");
+      this.pipeline = Objects.requireNonNull(pipeline, "pipeline");
+      this.sinkTopic = Objects.requireNonNull(sinkTopic, "sinkTopic");
+      this.keySerializer = Objects.requireNonNull(keySerializer, "keySerializer");
+      this.valueSerializer = Objects.requireNonNull(valueSerializer, "valueSerializer");
+      this.onLeave = Objects.requireNonNull(onLeave, "onLeave");
+    }
+
+    public SharedPersistentRuntime getRuntime() {
+      return SharedPersistentRuntime.this;
+    }
+
+    public QueryId getQueryId() {
+      return queryId;
+    }
+
+    /**
+     * Start the runtime, if this is its first member to start, and receive records again if the
+     * member had failed.
+     */
+    public void start() {
+      if (failed.compareAndSet(true, false)) {
+        synchronized (members) {
+          if (!members.contains(this)) {
+            members.add(this);
+          }
+        }
+      }
+      SharedPersistentRuntime.this.start();
+    }
+
+    /**
+     * @return {@code true} if the member failed to process a record, so no longer receives
+     *     records until it is started again.
+     */
+    public boolean hasFailed() {
+      return failed.get();
+    }
+
+    public void setUncaughtExceptionHandler(final StreamsUncaughtExceptionHandler handler) {
+      this.uncaughtExceptionHandler = handler;
+    }
+
+    public void setStateListener(final StateListener listener) {
+      this.stateListener = listener;
+    }
+
+    /**
+     * Stop receiving records, closing the runtime if this was its last member.
+     *
+     * @param cleanUp whether the query is gone, rather than stopped, so the runtime should delete
+     *     its consumer group if it is closed.
+     */
+    public void leave(final boolean cleanUp) {
+      onLeave.accept(this, cleanUp);
+    }
+
+    KsqlTransformer<GenericKey, Optional<GenericRow>> newTransformer() {
+      return pipeline.get();
+    }
+
+    KeyValue<byte[], SinkValue> serialize(final GenericKey key, final GenericRow row) {
+      return new KeyValue<>(
+          keySerializer.serialize(sinkTopic, key),
+          new SinkValue(sinkTopic, valueSerializer.serialize(sinkTopic, row))
+      );
+    }
+
+    /**
+     * Stop passing records to this member, which failed to process one, and pass it the error.
+     */
+    void fail(final Throwable e) {
+      if (!failed.compareAndSet(false, true)) {
+        return;
+      }
+
+      LOG.error("Query {} failed to process a record in shared persistent runtime {}",
+          queryId, applicationId, e);
+      removeMember(this);
+      onUncaughtException(e);
+      onStateChange(KafkaStreams.State.ERROR, kafkaStreams.state());
+    }
+
+    void onUncaughtException(final Throwable e) {
+      final StreamsUncaughtExceptionHandler handler = uncaughtExceptionHandler;
+      if (handler == null) {
+        LOG.warn("Query {} failed in shared persistent runtime", queryId, e);
+        return;
+      }
+
+      try {
+        // The runtime decides whether to replace the thread, whatever the response:
+        handler.handle(e);
+      } catch (final Exception handlerException) {
+        LOG.warn("Error handling exception in shared persistent runtime", handlerException);
+      }
+    }
+
+    private void onStateChange(final KafkaStreams.State newState, final KafkaStreams.State old) {
+      final StateListener listener = stateListener;
+      if (listener != null) {
+        listener.onChange(newState, old);
+      }
+    }
+  }
+
+  /**
+   * The serialized value of a member's row, with the topic it is written to.
+   */
+  static final class SinkValue {
+
+    private final String topic;
+    private final byte[] bytes;
+
+    SinkValue(final String topic, final byte[] bytes) {
+      this.topic = Objects.requireNonNull(topic, "topic");
+      this.bytes = bytes;
+    }
+
+    String getTopic() {
+      return topic;
+    }
+
+    byte[] getBytes() {
+      return bytes;
+    }
+  }
+
+  /**
+   * Passes each record to the pipeline of every member, and serializes the resulting rows for
+   * their sinks.
+   *
+   * <p>Kafka Streams creates a dispatcher for each task, which is only ever called by the stream
+   * thread running the task, so each dispatcher keeps its own instances of the members'
+   * pipelines.
+   */
+  @VisibleForTesting
+  static final class Dispatcher
+      implements KsqlTransformer<GenericKey, List<KeyValue<byte[], SinkValue>>> {
+
+    private final List<Member> members;
+    private final Map<Member, KsqlTransformer<GenericKey, Optional<GenericRow>>> pipelines =
+        new HashMap<>();
+
+    Dispatcher(final List<Member> members) {
+      this.members = Objects.requireNonNull(members, "members");
+    }
+
+    @Override
+    public List<KeyValue<byte[], SinkValue>> transform(
+        final GenericKey readOnlyKey,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      final List<KeyValue<byte[], SinkValue>> output = new ArrayList<>(members.size());
+      for (final Member member : members) {
+        try {
+          pipelines.computeIfAbsent(member, Member::newTransformer)
+              .transform(readOnlyKey, value, ctx)
+              .map(row -> member.serialize(readOnlyKey, row))
+              .ifPresent(output::add);
+        } catch (final Exception e) {
+          // Fail the member only, so that the others are not held up or sent the record again:
+          member.fail(e);
+        }
+      }
+
+      if (pipelines.size() > members.size()) {
+        // Drop the pipelines of members that have left:
+        pipelines.keySet().retainAll(members);
+      }
+      return output;
+    }
+  }
+
+  private static final class KsDispatcher implements
+      Transformer<GenericKey, GenericRow, Iterable<KeyValue<byte[], SinkValue>>> {
+
+    private final Dispatcher dispatcher;
+    private ProcessorContext processorContext;
+
+    KsDispatcher(final Dispatcher dispatcher) {
+      this.dispatcher = Objects.requireNonNull(dispatcher, "dispatcher");
+    }
+
+    @Override
+    public void init(final ProcessorContext processorContext) {
+      this.processorContext = Objects.requireNonNull(processorContext, "processorContext");
+    }
+
+    @Override
+    public Iterable<KeyValue<byte[], SinkValue>> transform(
+        final GenericKey key,
+        final GenericRow value
+    ) {
+      final KsqlProcessingContext ctx = processorContext::timestamp;
+      return dispatcher.transform(key, value, ctx);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
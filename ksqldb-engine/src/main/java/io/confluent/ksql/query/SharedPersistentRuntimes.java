@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * The {@link SharedPersistentRuntime}s of the persistent queries of a {@link QueryRegistry}.
+ *
+ * <p>There is at most one runtime for each source topic, as the application id of a runtime is
+ * derived from its topic. A runtime is created by the first query to join it, and closed once its
+ * last query leaves.
+ */
+final class SharedPersistentRuntimes {
+
+  private final Map<String, SharedPersistentRuntime> runtimes = new HashMap<>();
+
+  /**
+   * Join the runtime of the supplied {@code source}, creating it if needed.
+   *
+   * @param source the source the query reads.
+   * @param runtimeFactory creates the runtime if there is none for the source's topic.
+   * @param queryId the id of the query.
+   * @param pipeline creates the query's filter and projection, once for each stream task.
+   * @param sinkTopic the topic the query writes to.
+   * @param keySerializer the serializer of the keys of the query's sink.
+   * @param valueSerializer the serializer of the values of the query's sink.
+   * @return the query's membership of the runtime, or empty if the runtime of the source's topic
+   *     reads it as a different source, e.g. with a different schema, so can't be shared.
+   */
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  synchronized Optional<SharedPersistentRuntime.Member> join(
+      final StreamSource source,
+      final Supplier<SharedPersistentRuntime> runtimeFactory,
+      final QueryId queryId,
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final String sinkTopic,
+      final Serializer<GenericKey> keySerializer,
+      final Serializer<GenericRow> valueSerializer
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    final String topic = source.getTopicName();
+    final SharedPersistentRuntime runtime = runtimes.computeIfAbsent(
+        topic,
+        k -> runtimeFactory.get()
+    );
+    if (!runtime.getSource().equals(source)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(runtime.addMember(
+        queryId,
+        pipeline,
+        sinkTopic,
+        keySerializer,
+        valueSerializer,
+        (member, cleanUp) -> leave(topic, member, cleanUp)
+    ));
+  }
+
+  /**
+   * @return the number of runtimes.
+   */
+  synchronized int size() {
+    return runtimes.size();
+  }
+
+  private void leave(
+      final String topic,
+      final SharedPersistentRuntime.Member member,
+      final boolean cleanUp
+  ) {
+    final SharedPersistentRuntime runtime = member.getRuntime();
+    synchronized (this) {
+      runtime.removeMember(member);
+      if (!runtime.isEmpty()) {
+        return;
+      }
+      runtimes.remove(topic, runtime);
+    }
+
+    // Close outside of the lock, as closing waits for the stream threads to stop:
+    runtime.close(cleanUp);
+  }
+}
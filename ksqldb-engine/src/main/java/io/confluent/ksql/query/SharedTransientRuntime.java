@@ -0,0 +1,372 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.streams.transform.KsTransformer;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.properties.PropertiesUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Kafka Streams runtime shared by transient queries that filter and project the same stream.
+ *
+ * <p>The runtime consumes the stream once and passes each record to the pipeline of every started
+ * member, which applies the member's filter and projection and queues the resulting row for its
+ * client. Members join and leave through {@link SharedTransientRuntimes}, which closes the runtime
+ * once its last member leaves.
+ *
+ * <p>The runtime's stream threads are shared by all members, so never wait for a member. Rows a
+ * member's queue has no room for are held in an {@link OverflowBuffer}, and a member that has
+ * fallen behind regardless is failed rather than slowing the other members down. Likewise, a
+ * member whose pipeline throws is failed on its own.
+ */
+public final class SharedTransientRuntime {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedTransientRuntime.class);
+
+  static final String QUERY_ID_PREFIX = "shared_";
+
+  private final String applicationId;
+  private final Topology topology;
+  private final Map<String, Object> streamsProperties;
+  private final KafkaStreams kafkaStreams;
+  private final Duration closeTimeout;
+  private final List<Member> members;
+  private final Time time;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+
+  /**
+   * Create a runtime that passes the records of the supplied {@code source} to its members.
+   *
+   * @param applicationId the application id of the runtime.
+   * @param source the source stream, built on the {@code streamsBuilder}.
+   * @param streamsBuilder the builder of the runtime's topology.
+   * @param streamsProperties the properties of the runtime.
+   * @param kafkaStreamsBuilder the builder of the runtime's {@link KafkaStreams}.
+   * @param closeTimeout how long to wait for the runtime to close.
+   * @return the runtime, which has no members and is not started.
+   */
+  static SharedTransientRuntime create(
+      final String applicationId,
+      final KStream<GenericKey, GenericRow> source,
+      final StreamsBuilder streamsBuilder,
+      final Map<String, Object> streamsProperties,
+      final KafkaStreamsBuilder kafkaStreamsBuilder,
+      final Duration closeTimeout
+  ) {
+    final List<Member> members = new CopyOnWriteArrayList<>();
+
+    source.transformValues(
+        () -> dispatchTransformer(new Dispatcher(members)),
+        Named.as("SHARED-TRANSIENT-DISPATCH")
+    );
+
+    final Topology topology = streamsBuilder.build(PropertiesUtil.asProperties(streamsProperties));
+    return new SharedTransientRuntime(
+        applicationId,
+        topology,
+        streamsProperties,
+        kafkaStreamsBuilder.build(topology, streamsProperties),
+        closeTimeout,
+        members,
+        Time.SYSTEM
+    );
+  }
+
+  private static KsTransformer<GenericKey, Void> dispatchTransformer(final Dispatcher dispatcher) {
+    return new KsTransformer<GenericKey, Void>(dispatcher) {
+      @Override
+      public void init(final ProcessorContext processorContext) {
+        super.init(processorContext);
+        // Drain overflow buffers even while no records arrive:
+        processorContext.schedule(
+            OverflowBuffer.DRAIN_INTERVAL,
+            PunctuationType.WALL_CLOCK_TIME,
+            timestamp -> dispatcher.drainOverflow()
+        );
+      }
+    };
+  }
+
+  @VisibleForTesting
+  SharedTransientRuntime(
+      final String applicationId,
+      final Topology topology,
+      final Map<String, Object> streamsProperties,
+      final KafkaStreams kafkaStreams,
+      final Duration closeTimeout,
+      final List<Member> members,
+      final Time time
+  ) {
+    this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
+    this.topology = Objects.requireNonNull(topology, "topology");
+    this.streamsProperties = Objects.requireNonNull(streamsProperties, "streamsProperties");
+    this.kafkaStreams = Objects.requireNonNull(kafkaStreams, "kafkaStreams");
+    this.closeTimeout = Objects.requireNonNull(closeTimeout, "closeTimeout");
+    this.members = Objects.requireNonNull(members, "members");
+    this.time = Objects.requireNonNull(time, "time");
+    this.kafkaStreams.setUncaughtExceptionHandler(this::uncaughtHandler);
+  }
+
+  public String getApplicationId() {
+    return applicationId;
+  }
+
+  public Topology getTopology() {
+    return topology;
+  }
+
+  public Map<String, Object> getStreamsProperties() {
+    return streamsProperties;
+  }
+
+  public KafkaStreams getKafkaStreams() {
+    return kafkaStreams;
+  }
+
+  /**
+   * @return the number of queries sharing the runtime.
+   */
+  public int size() {
+    return members.size();
+  }
+
+  Member addMember(
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final TransientQueryQueue queue,
+      final Consumer<Member> onLeave
+  ) {
+    final Member member = new Member(pipeline, queue, onLeave);
+    members.add(member);
+    return member;
+  }
+
+  void removeMember(final Member member) {
+    members.remove(member);
+  }
+
+  boolean isEmpty() {
+    return members.isEmpty();
+  }
+
+  void close() {
+    LOG.info("Closing shared transient runtime with application id: {}", applicationId);
+    kafkaStreams.close(closeTimeout);
+    kafkaStreams.cleanUp();
+  }
+
+  private void start() {
+    if (started.compareAndSet(false, true)) {
+      LOG.info("Starting shared transient runtime with application id: {}", applicationId);
+      kafkaStreams.start();
+    }
+  }
+
+  private StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse uncaughtHandler(
+      final Throwable e
+  ) {
+    LOG.error(
+        "Unhandled exception caught in shared transient runtime {}, thread {}",
+        applicationId,
+        Thread.currentThread().getName(),
+        e
+    );
+
+    // Errors of members' pipelines only fail the member, so this is an error of the runtime itself,
+    // and every member's output may be incomplete:
+    members.forEach(member -> member.onUncaughtException(e));
+    return StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse.REPLACE_THREAD;
+  }
+
+  /**
+   * A transient query that shares a runtime.
+   */
+  public final class Member {
+
+    private final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline;
+    private final Consumer<Member> onLeave;
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+    private final OverflowBuffer overflow;
+    private volatile boolean memberStarted;
+    private volatile StreamsUncaughtExceptionHandler uncaughtExceptionHandler;
+
+    private Member(
+        final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+        final TransientQueryQueue queue,
+        final Consumer<Member> onLeave
+    ) {
+      this.pipeline = Objects.requireNonNull(pipeline, "pipeline");
+      this.overflow = new OverflowBuffer(queue, time);
+      this.onLeave = Objects.requireNonNull(onLeave, "onLeave");
+    }
+
+    public SharedTransientRuntime getRuntime() {
+      return SharedTransientRuntime.this;
+    }
+
+    /**
+     * Start receiving rows, starting the runtime if this is its first member to start.
+     */
+    public void start() {
+      memberStarted = true;
+      SharedTransientRuntime.this.start();
+    }
+
+    public void setUncaughtExceptionHandler(final StreamsUncaughtExceptionHandler handler) {
+      this.uncaughtExceptionHandler = handler;
+    }
+
+    /**
+     * Stop receiving rows, closing the runtime if this was its last member.
+     */
+    public void leave() {
+      onLeave.accept(this);
+    }
+
+    boolean isStarted() {
+      return memberStarted;
+    }
+
+    KsqlTransformer<GenericKey, Optional<GenericRow>> newTransformer() {
+      return pipeline.get();
+    }
+
+    boolean offerRow(final GenericRow row) {
+      return overflow.offer(row);
+    }
+
+    boolean drainOverflow() {
+      return overflow.drain();
+    }
+
+    void fail(final Throwable e) {
+      if (!failed.compareAndSet(false, true)) {
+        return;
+      }
+
+      // Stop passing rows to the member, which leaves the runtime once the query is closed:
+      removeMember(this);
+      overflow.clear();
+      onUncaughtException(e);
+    }
+
+    private void onUncaughtException(final Throwable e) {
+      final StreamsUncaughtExceptionHandler handler = uncaughtExceptionHandler;
+      if (handler == null) {
+        return;
+      }
+
+      try {
+        // The runtime keeps running for the other members, whatever the response:
+        handler.handle(e);
+      } catch (final Exception handlerException) {
+        LOG.warn("Error handling exception in shared transient runtime", handlerException);
+      }
+    }
+  }
+
+  /**
+   * Passes each record to the pipeline of every started member.
+   *
+   * <p>Kafka Streams creates a dispatcher for each task, which is only ever called by the stream
+   * thread running the task, so each dispatcher keeps its own instances of the members'
+   * pipelines. A member whose pipeline throws is failed, without affecting the other members.
+   */
+  @VisibleForTesting
+  static final class Dispatcher implements KsqlTransformer<GenericKey, Void> {
+
+    private final List<Member> members;
+    private final Map<Member, KsqlTransformer<GenericKey, Optional<GenericRow>>> pipelines =
+        new HashMap<>();
+
+    Dispatcher(final List<Member> members) {
+      this.members = Objects.requireNonNull(members, "members");
+    }
+
+    @Override
+    public Void transform(
+        final GenericKey readOnlyKey,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      for (final Member member : members) {
+        if (!member.isStarted()) {
+          continue;
+        }
+
+        final Optional<GenericRow> result;
+        try {
+          result = pipelines
+              .computeIfAbsent(member, Member::newTransformer)
+              .transform(readOnlyKey, value, ctx);
+        } catch (final Exception e) {
+          LOG.error("Error processing record for member of shared transient runtime", e);
+          member.fail(e);
+          continue;
+        }
+
+        if (result.isPresent() && !member.offerRow(result.get())) {
+          failBehind(member);
+        }
+      }
+
+      if (pipelines.size() > members.size()) {
+        // Drop the pipelines of members that have left:
+        pipelines.keySet().retainAll(members);
+      }
+      return null;
+    }
+
+    void drainOverflow() {
+      for (final Member member : members) {
+        if (member.isStarted() && !member.drainOverflow()) {
+          failBehind(member);
+        }
+      }
+    }
+
+    private static void failBehind(final Member member) {
+      member.fail(new KsqlException(
+          "Push query fell behind the other queries reading its source, "
+              + "as its client is not reading rows fast enough."));
+    }
+  }
+}
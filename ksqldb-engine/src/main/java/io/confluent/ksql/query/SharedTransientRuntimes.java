@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The {@link SharedTransientRuntime}s of the transient queries of a {@link QueryRegistry}.
+ *
+ * <p>Queries share a runtime if they read the same source with the same property overrides. A
+ * runtime is created by the first query to join it, and closed once its last query leaves.
+ */
+final class SharedTransientRuntimes {
+
+  private final Map<Key, SharedTransientRuntime> runtimes = new HashMap<>();
+
+  /**
+   * Join the runtime of the supplied {@code source} and {@code overrides}, creating it if needed.
+   *
+   * @param source the source the query reads.
+   * @param overrides the property overrides of the query.
+   * @param runtimeFactory creates the runtime if there is none for the source and overrides.
+   * @param pipeline creates the query's filter and projection, once for each stream task.
+   * @param queue the queue of the query's rows.
+   * @return the query's membership of the runtime.
+   */
+  synchronized SharedTransientRuntime.Member join(
+      final StreamSource source,
+      final Map<String, Object> overrides,
+      final Supplier<SharedTransientRuntime> runtimeFactory,
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final TransientQueryQueue queue
+  ) {
+    final Key key = new Key(source, overrides);
+    final SharedTransientRuntime runtime = runtimes.computeIfAbsent(
+        key,
+        k -> runtimeFactory.get()
+    );
+    return runtime.addMember(pipeline, queue, member -> leave(key, member));
+  }
+
+  /**
+   * @return the number of runtimes.
+   */
+  synchronized int size() {
+    return runtimes.size();
+  }
+
+  private void leave(final Key key, final SharedTransientRuntime.Member member) {
+    final SharedTransientRuntime runtime = member.getRuntime();
+    synchronized (this) {
+      runtime.removeMember(member);
+      if (!runtime.isEmpty()) {
+        return;
+      }
+      runtimes.remove(key, runtime);
+    }
+
+    // Close outside of the lock, as closing waits for the stream threads to stop:
+    runtime.close();
+  }
+
+  private static final class Key {
+
+    private final StreamSource source;
+    private final Map<String, Object> overrides;
+
+    private Key(final StreamSource source, final Map<String, Object> overrides) {
+      this.source = Objects.requireNonNull(source, "source");
+      this.overrides = new HashMap<>(Objects.requireNonNull(overrides, "overrides"));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return source.equals(key.source)
+          && overrides.equals(key.overrides);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(source, overrides);
+    }
+  }
+}
@@ -18,14 +18,24 @@ package io.confluent.ksql.query;
 import static io.confluent.ksql.util.KeyValue.keyValue;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.query.RingBufferQueue.WaitStrategy;
 import io.confluent.ksql.util.KeyValue;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.OptionalInt;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
 
 /**
  * A queue of rows for transient queries.
@@ -34,13 +44,42 @@ public class TransientQueryQueue implements BlockingRowQueue {
 
   public static final int BLOCKING_QUEUE_CAPACITY = 500;
 
+  static final String METRIC_GROUP = "ksql-transient-query-queue";
+  static final String QUEUE_DEPTH = "queue-depth";
+  static final String PRODUCER_STALL_TIME = "producer-stall-time-ms-total";
+
+  private static final int OFFER_TIMEOUT_MS = 100;
+
   private final BlockingQueue<KeyValue<List<?>, GenericRow>> rowQueue;
   private final int offerTimeoutMs;
+  private final LongAdder producerStallNs = new LongAdder();
+  private final List<MetricName> metricNames = new ArrayList<>();
+  private Metrics metrics;
   private LimitQueueCallback callback;
   private volatile boolean closed = false;
 
   public TransientQueryQueue(final OptionalInt limit) {
-    this(limit, BLOCKING_QUEUE_CAPACITY, 100);
+    this(limit, BLOCKING_QUEUE_CAPACITY, OFFER_TIMEOUT_MS);
+  }
+
+  /**
+   * Create a queue with the capacity and implementation configured in the supplied
+   * {@code ksqlConfig}.
+   *
+   * @param limit the optional limit on the number of rows to queue.
+   * @param ksqlConfig the config.
+   * @return the queue.
+   */
+  public static TransientQueryQueue create(final OptionalInt limit, final KsqlConfig ksqlConfig) {
+    final int capacity = ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_CONFIG);
+
+    final BlockingQueue<KeyValue<List<?>, GenericRow>> rowQueue =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED)
+            ? new RingBufferQueue<>(capacity, WaitStrategy.valueOf(ksqlConfig
+                .getString(KsqlConfig.KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_CONFIG).toUpperCase()))
+            : new LinkedBlockingQueue<>(capacity);
+
+    return new TransientQueryQueue(limit, rowQueue, OFFER_TIMEOUT_MS);
   }
 
   @VisibleForTesting
@@ -48,14 +87,53 @@ public class TransientQueryQueue implements BlockingRowQueue {
       final OptionalInt limit,
       final int queueSizeLimit,
       final int offerTimeoutMs
+  ) {
+    this(limit, new LinkedBlockingQueue<>(queueSizeLimit), offerTimeoutMs);
+  }
+
+  @VisibleForTesting
+  TransientQueryQueue(
+      final OptionalInt limit,
+      final BlockingQueue<KeyValue<List<?>, GenericRow>> rowQueue,
+      final int offerTimeoutMs
   ) {
     this.callback = limit.isPresent()
         ? new LimitedQueueCallback(limit.getAsInt())
         : new UnlimitedQueueCallback();
-    this.rowQueue = new LinkedBlockingQueue<>(queueSizeLimit);
+    this.rowQueue = Objects.requireNonNull(rowQueue, "rowQueue");
     this.offerTimeoutMs = offerTimeoutMs;
   }
 
+  /**
+   * Register gauges for the depth of the queue and the time producers have spent blocked on a
+   * full queue. The gauges are removed when the queue is closed.
+   *
+   * @param metrics the metrics to register with.
+   * @param queryId the id of the query, used to tag the metrics.
+   */
+  public synchronized void registerMetrics(final Metrics metrics, final QueryId queryId) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    final Map<String, String> tags = ImmutableMap.of("query-id", queryId.toString());
+
+    addMetric(
+        metrics.metricName(QUEUE_DEPTH, METRIC_GROUP,
+            "The number of rows buffered waiting to be sent to the client", tags),
+        (Gauge<Integer>) (config, now) -> rowQueue.size()
+    );
+    addMetric(
+        metrics.metricName(PRODUCER_STALL_TIME, METRIC_GROUP,
+            "The total time, in ms, stream threads spent blocked on a full queue", tags),
+        (Gauge<Long>) (config, now) -> getProducerStallTimeMs()
+    );
+  }
+
+  /**
+   * @return the total time producers have spent blocked waiting for space in the queue.
+   */
+  public long getProducerStallTimeMs() {
+    return TimeUnit.NANOSECONDS.toMillis(producerStallNs.sum());
+  }
+
   @Override
   public void setLimitHandler(final LimitHandler limitHandler) {
     callback.setLimitHandler(limitHandler);
@@ -113,6 +191,7 @@ public class TransientQueryQueue implements BlockingRowQueue {
   @Override
   public void close() {
     closed = true;
+    removeMetrics();
   }
 
   public void acceptRow(final List<?> key, final GenericRow value) {
@@ -123,15 +202,60 @@ public class TransientQueryQueue implements BlockingRowQueue {
 
       final KeyValue<List<?>, GenericRow> row = keyValue(key, value);
 
-      while (!closed) {
-        if (rowQueue.offer(row, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
-          callback.onQueued();
-          break;
+      if (rowQueue.offer(row)) {
+        callback.onQueued();
+        return;
+      }
+
+      final long stallStart = System.nanoTime();
+      try {
+        while (!closed) {
+          if (rowQueue.offer(row, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+            callback.onQueued();
+            break;
+          }
         }
+      } finally {
+        producerStallNs.add(System.nanoTime() - stallStart);
       }
     } catch (final InterruptedException e) {
       // Forced shutdown?
       Thread.currentThread().interrupt();
     }
   }
+
+  /**
+   * Queue the supplied row if there is space for it, without waiting for space to free up.
+   *
+   * @param key the key of the row.
+   * @param value the value of the row.
+   * @return {@code false} if the queue is full, otherwise {@code true}, including if the row was
+   *     not queued as the limit has been reached.
+   */
+  public boolean offerRow(final List<?> key, final GenericRow value) {
+    if (!callback.shouldQueue()) {
+      return true;
+    }
+
+    if (!rowQueue.offer(keyValue(key, value))) {
+      return false;
+    }
+
+    callback.onQueued();
+    return true;
+  }
+
+  private void addMetric(final MetricName name, final Gauge<?> gauge) {
+    // Replace any metric left behind by a previous queue for the same query:
+    metrics.removeMetric(name);
+    metrics.addMetric(name, gauge);
+    metricNames.add(name);
+  }
+
+  private synchronized void removeMetrics() {
+    if (metrics != null) {
+      metricNames.forEach(metrics::removeMetric);
+      metricNames.clear();
+    }
+  }
 }
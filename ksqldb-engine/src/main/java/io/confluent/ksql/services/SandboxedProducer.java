@@ -36,6 +36,7 @@ final class SandboxedProducer<K, V> {
   static <K, V> Producer<K, V> createProxy() {
     return LimitedProxyBuilder.forClass(Producer.class)
         .swallow("send", anyParams(), CompletableFuture.completedFuture(null))
+        .swallow("flush", anyParams())
         .swallow("close", anyParams())
         .build();
   }
@@ -17,6 +17,7 @@ package io.confluent.ksql.statement;
 
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.format.DefaultFormatInjector;
+import io.confluent.ksql.properties.RocksDBProfileInjector;
 import io.confluent.ksql.schema.ksql.inference.DefaultSchemaInjector;
 import io.confluent.ksql.schema.ksql.inference.SchemaRegisterInjector;
 import io.confluent.ksql.schema.ksql.inference.SchemaRegistryTopicSchemaSupplier;
@@ -33,7 +34,8 @@ public enum Injectors implements BiFunction<KsqlExecutionContext, ServiceContext
       new DefaultSchemaInjector(
           new SchemaRegistryTopicSchemaSupplier(sc.getSchemaRegistryClient())),
       new TopicCreateInjector(ec, sc),
-      new SchemaRegisterInjector(ec, sc)
+      new SchemaRegisterInjector(ec, sc),
+      new RocksDBProfileInjector()
   )),
 
   DEFAULT((ec, sc) -> InjectorChain.of(
@@ -31,6 +31,7 @@ import io.confluent.ksql.query.KafkaStreamsBuilder;
 import io.confluent.ksql.query.MaterializationProviderBuilderFactory;
 import io.confluent.ksql.query.QueryErrorClassifier;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.ScalablePushRegistry;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.schema.query.QuerySchemas;
 import java.util.Map;
@@ -38,7 +39,6 @@ import java.util.Optional;
 import java.util.Set;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.Topology;
-import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
 
 /**
  * Metadata of a persistent query, e.g. {@code CREATE STREAM FOO AS SELECT * FROM BAR;}.
@@ -51,8 +51,10 @@ public class PersistentQueryMetadata extends QueryMetadata {
   private final ExecutionStep<?> physicalPlan;
   private final Optional<MaterializationProviderBuilderFactory.MaterializationProviderBuilder>
       materializationProviderBuilder;
+  private final Optional<ScalablePushRegistry> scalablePushRegistry;
+  private final Optional<String> sharedRuntimeId;
 
-  private Optional<MaterializationProvider> materializationProvider;
+  private Optional<MaterializationProvider> materializationProvider = Optional.empty();
   private ProcessingLogger processingLogger;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
@@ -78,6 +80,7 @@ public class PersistentQueryMetadata extends QueryMetadata {
       final ProcessingLogger processingLogger,
       final long retryBackoffInitialMs,
       final long retryBackoffMaxMs,
+      final Optional<ScalablePushRegistry> scalablePushRegistry,
       final Listener listener
   ) {
     // CHECKSTYLE_RULES.ON: ParameterNumberCheck
@@ -106,6 +109,8 @@ public class PersistentQueryMetadata extends QueryMetadata {
     this.materializationProviderBuilder =
         requireNonNull(materializationProviderBuilder, "materializationProviderBuilder");
     this.processingLogger = requireNonNull(processingLogger, "processingLogger");
+    this.scalablePushRegistry = requireNonNull(scalablePushRegistry, "scalablePushRegistry");
+    this.sharedRuntimeId = Optional.empty();
   }
 
   // for creating sandbox instances
@@ -121,6 +126,9 @@ public class PersistentQueryMetadata extends QueryMetadata {
     this.physicalPlan = original.physicalPlan;
     this.materializationProviderBuilder = original.materializationProviderBuilder;
     this.processingLogger = original.processingLogger;
+    // A sandbox must not stop the push queries served from the original query's output:
+    this.scalablePushRegistry = Optional.empty();
+    this.sharedRuntimeId = original.getSharedRuntimeId();
   }
 
   @Override
@@ -134,15 +142,11 @@ public class PersistentQueryMetadata extends QueryMetadata {
   }
 
   @Override
-  protected StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse uncaughtHandler(
-          final Throwable error
-  ) {
-    final StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse response =
-            super.uncaughtHandler(error);
+  protected void reportUncaughtError(final Throwable error) {
+    super.reportUncaughtError(error);
 
     processingLogger.error(KafkaStreamsThreadError.of(
         "Unhandled exception caught in streams thread", Thread.currentThread(), error));
-    return response;
   }
 
   public DataSourceType getDataSourceType() {
@@ -183,6 +187,22 @@ public class PersistentQueryMetadata extends QueryMetadata {
     return processingLogger;
   }
 
+  /**
+   * @return the registry of the push queries served from the query's output, if the query was
+   *     started with scalable push queries enabled.
+   */
+  public Optional<ScalablePushRegistry> getScalablePushRegistry() {
+    return scalablePushRegistry;
+  }
+
+  /**
+   * @return the application id of the runtime the query shares with other persistent queries, or
+   *     empty if the query runs in its own runtime.
+   */
+  public Optional<String> getSharedRuntimeId() {
+    return sharedRuntimeId;
+  }
+
   public Optional<Materialization> getMaterialization(
       final QueryId queryId,
       final QueryContext.Stacker contextStacker
@@ -216,4 +236,13 @@ public class PersistentQueryMetadata extends QueryMetadata {
   public synchronized void stop() {
     doClose(false);
   }
+
+  @Override
+  void doClose(final boolean cleanUp) {
+    super.doClose(cleanUp);
+
+    // Push queries served from the query's output will receive no more rows:
+    scalablePushRegistry.ifPresent(registry -> registry.unsubscribeAll(
+        "Persistent query " + getQueryId() + " has stopped."));
+  }
 }
@@ -172,6 +172,16 @@ public abstract class QueryMetadata {
   protected StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse uncaughtHandler(
       final Throwable e
   ) {
+    reportUncaughtError(e);
+    retryEvent.backOff();
+    return StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse.REPLACE_THREAD;
+  }
+
+  /**
+   * Classify and record an exception that stopped a stream thread of the query, without backing
+   * off before the thread is replaced.
+   */
+  protected void reportUncaughtError(final Throwable e) {
     QueryError.Type errorType = Type.UNKNOWN;
     try {
       errorType = errorClassifier.classify(e);
@@ -198,12 +208,10 @@ public abstract class QueryMetadata {
           e
       );
     }
-    retryEvent.backOff();
-    return StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse.REPLACE_THREAD;
   }
 
   public Set<StreamsTaskMetadata> getTaskMetadata() {
-    return kafkaStreams.localThreadsMetadata()
+    return getKafkaStreams().localThreadsMetadata()
                        .stream()
                        .flatMap(t -> t.activeTasks().stream())
                        .map(StreamsTaskMetadata::fromStreamsTaskMetadata)
@@ -224,7 +232,7 @@ public abstract class QueryMetadata {
   }
 
   public State getState() {
-    return kafkaStreams.state();
+    return getKafkaStreams().state();
   }
 
   public boolean isError() {
@@ -245,7 +253,7 @@ public abstract class QueryMetadata {
 
   public Map<String, Map<Integer, LagInfo>> getAllLocalStorePartitionLags() {
     try {
-      return kafkaStreams.allLocalStorePartitionLags();
+      return getKafkaStreams().allLocalStorePartitionLags();
     } catch (IllegalStateException | StreamsException e) {
       LOG.error(e.getMessage());
       return ImmutableMap.of();
@@ -254,7 +262,7 @@ public abstract class QueryMetadata {
 
   public Collection<StreamsMetadata> getAllMetadata() {
     try {
-      return ImmutableList.copyOf(kafkaStreams.allMetadata());
+      return ImmutableList.copyOf(getKafkaStreams().allMetadata());
     } catch (IllegalStateException e) {
       LOG.error(e.getMessage());
     }
@@ -398,6 +406,14 @@ public abstract class QueryMetadata {
     private long expiryTimeMs;
     private long retryBackoffMaxMs;
 
+    public RetryEvent(
+        final QueryId queryId,
+        final long baseWaitingTimeMs,
+        final long retryBackoffMaxMs
+    ) {
+      this(queryId, baseWaitingTimeMs, retryBackoffMaxMs, CURRENT_TIME_MILLIS_TICKER);
+    }
+
     RetryEvent(
             final QueryId queryId,
             final long baseWaitingTimeMs,
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.KafkaStreamsBuilder;
+import io.confluent.ksql.query.ScalablePushRegistry;
+import io.confluent.ksql.query.TransientQueryQueue;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metadata of a push query served from the output of the persistent query that populates its
+ * source, through the persistent query's {@link ScalablePushRegistry}, rather than by a Kafka
+ * Streams application of its own.
+ *
+ * <p>The query only receives the rows of the partitions the persistent query processes on this
+ * host. Rows from other hosts are forwarded by the caller, through {@link #offerRemoteRow}.
+ */
+public final class ScalablePushQueryMetadata extends TransientQueryMetadata {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ScalablePushQueryMetadata.class);
+
+  private final PersistentQueryMetadata sourceQuery;
+  private final TransientQueryQueue queue;
+  private final ScalablePushRegistry.Subscriber subscriber;
+  private volatile StreamsUncaughtExceptionHandler uncaughtExceptionHandler;
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  public ScalablePushQueryMetadata(
+      final String statementString,
+      final LogicalSchema logicalSchema,
+      final Set<SourceName> sourceNames,
+      final String executionPlan,
+      final TransientQueryQueue rowQueue,
+      final String queryApplicationId,
+      final PersistentQueryMetadata sourceQuery,
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final KafkaStreamsBuilder kafkaStreamsBuilder,
+      final Map<String, Object> overriddenProperties,
+      final long closeTimeout,
+      final int maxQueryErrorsQueueSize,
+      final ResultType resultType,
+      final long retryBackoffInitialMs,
+      final long retryBackoffMaxMs,
+      final Listener listener
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        logicalSchema,
+        sourceNames,
+        executionPlan,
+        rowQueue,
+        queryApplicationId,
+        sourceQuery.getTopology(),
+        kafkaStreamsBuilder,
+        sourceQuery.getStreamsProperties(),
+        overriddenProperties,
+        closeTimeout,
+        maxQueryErrorsQueueSize,
+        resultType,
+        retryBackoffInitialMs,
+        retryBackoffMaxMs,
+        listener
+    );
+    this.sourceQuery = Objects.requireNonNull(sourceQuery, "sourceQuery");
+    this.queue = Objects.requireNonNull(rowQueue, "rowQueue");
+    this.subscriber = sourceQuery.getScalablePushRegistry()
+        .orElseThrow(() -> new IllegalArgumentException(
+            "Query " + sourceQuery.getQueryId() + " does not serve push queries"))
+        .subscribe(pipeline, rowQueue, this::fail);
+  }
+
+  /**
+   * @return the persistent query the query is served from.
+   */
+  public PersistentQueryMetadata getSourceQuery() {
+    return sourceQuery;
+  }
+
+  @Override
+  public void initialize() {
+    // no-op: the query runs in the persistent query's runtime
+  }
+
+  @Override
+  public void start() {
+    getListener().onStateChange(this, getState(), getState());
+    subscriber.start();
+  }
+
+  @Override
+  public KafkaStreams getKafkaStreams() {
+    return sourceQuery.getKafkaStreams();
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final StreamsUncaughtExceptionHandler handler) {
+    this.uncaughtExceptionHandler = handler;
+  }
+
+  /**
+   * Queue a row of the query received from another host, waiting for space if the queue is full.
+   *
+   * <p>Only called by the thread forwarding the query to the host, so waiting slows down the
+   * response of that host alone, rather than any stream thread.
+   *
+   * @param row the row.
+   */
+  public void acceptRemoteRow(final GenericRow row) {
+    queue.acceptRow(null, row);
+  }
+
+  /**
+   * Fail the query, passing the supplied error to the query's uncaught exception handler, as for
+   * an error in a query's own stream threads.
+   *
+   * @param error the error.
+   */
+  public void fail(final Throwable error) {
+    final StreamsUncaughtExceptionHandler handler = uncaughtExceptionHandler;
+    if (handler == null) {
+      LOG.warn("Push query {} failed", getQueryId(), error);
+      return;
+    }
+
+    try {
+      handler.handle(error);
+    } catch (final Exception handlerException) {
+      LOG.warn("Error handling failure of push query {}", getQueryId(), handlerException);
+    }
+  }
+
+  @Override
+  void doClose(final boolean cleanUp) {
+    if (closed) {
+      return;
+    }
+
+    // The persistent query keeps running:
+    closed = true;
+    subscriber.unsubscribe();
+  }
+}
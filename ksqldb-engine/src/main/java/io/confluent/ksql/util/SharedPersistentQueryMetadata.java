@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.KafkaStreamsBuilder;
+import io.confluent.ksql.query.QueryErrorClassifier;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.SharedPersistentRuntime;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.schema.query.QuerySchemas;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
+
+/**
+ * Metadata of a persistent query that runs in a {@link SharedPersistentRuntime} with other
+ * persistent queries, rather than in its own Kafka Streams application.
+ *
+ * <p>Starting the query starts the runtime, if it is not already running, and stopping or closing
+ * the query leaves the runtime, closing it if no other query shares it.
+ *
+ * <p>The runtime replaces failed stream threads itself, after backing off, and reprocesses the
+ * records since its last commit, so a query that fails is retried rather than skipping records.
+ * The query only records its errors, and restarting it only starts it again.
+ */
+public final class SharedPersistentQueryMetadata extends PersistentQueryMetadata {
+
+  private final SharedPersistentRuntime.Member member;
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  public SharedPersistentQueryMetadata(
+      final String statementString,
+      final PhysicalSchema schema,
+      final Set<SourceName> sourceNames,
+      final DataSource sinkDataSource,
+      final String executionPlan,
+      final QueryId id,
+      final String queryApplicationId,
+      final SharedPersistentRuntime.Member member,
+      final KafkaStreamsBuilder kafkaStreamsBuilder,
+      final QuerySchemas schemas,
+      final Map<String, Object> overriddenProperties,
+      final long closeTimeout,
+      final QueryErrorClassifier errorClassifier,
+      final ExecutionStep<?> physicalPlan,
+      final int maxQueryErrorsQueueSize,
+      final ProcessingLogger processingLogger,
+      final long retryBackoffInitialMs,
+      final long retryBackoffMaxMs,
+      final Listener listener
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        schema,
+        sourceNames,
+        sinkDataSource,
+        executionPlan,
+        id,
+        Optional.empty(),
+        queryApplicationId,
+        member.getRuntime().getTopology(),
+        kafkaStreamsBuilder,
+        schemas,
+        member.getRuntime().getStreamsProperties(),
+        overriddenProperties,
+        closeTimeout,
+        errorClassifier,
+        physicalPlan,
+        maxQueryErrorsQueueSize,
+        processingLogger,
+        retryBackoffInitialMs,
+        retryBackoffMaxMs,
+        Optional.empty(),
+        listener
+    );
+    this.member = Objects.requireNonNull(member, "member");
+  }
+
+  @Override
+  public void initialize() {
+    // The runtime is initialized when it is created, so only needs to report to the query:
+    member.setUncaughtExceptionHandler(e -> {
+      reportUncaughtError(e);
+      return StreamThreadExceptionResponse.REPLACE_THREAD;
+    });
+    member.setStateListener((b, a) -> getListener().onStateChange(this, b, a));
+  }
+
+  @Override
+  public void start() {
+    getListener().onStateChange(this, getState(), getState());
+    member.start();
+  }
+
+  @Override
+  public KafkaStreams getKafkaStreams() {
+    return member.getRuntime().getKafkaStreams();
+  }
+
+  @Override
+  public KafkaStreams.State getState() {
+    // The runtime keeps running for the other members if this member fails:
+    return member.hasFailed() ? KafkaStreams.State.ERROR : super.getState();
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final StreamsUncaughtExceptionHandler handler) {
+    member.setUncaughtExceptionHandler(handler);
+  }
+
+  @Override
+  public Optional<String> getSharedRuntimeId() {
+    return Optional.of(member.getRuntime().getApplicationId());
+  }
+
+  @Override
+  public synchronized void restart() {
+    if (isClosed()) {
+      throw new IllegalStateException(String.format(
+          "Query with application id %s is already closed, cannot restart.",
+          getQueryApplicationId()));
+    }
+
+    start();
+  }
+
+  @Override
+  void doClose(final boolean cleanUp) {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    member.leave(cleanUp);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.BlockingRowQueue;
+import io.confluent.ksql.query.KafkaStreamsBuilder;
+import io.confluent.ksql.query.SharedTransientRuntime;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+
+/**
+ * Metadata of a transient query that runs in a {@link SharedTransientRuntime} with other transient
+ * queries, rather than in its own Kafka Streams application.
+ *
+ * <p>Starting the query starts the runtime, if it is not already running, and closing the query
+ * leaves the runtime, closing it if no other query shares it. As the query never starts an
+ * application of its own, it has nothing to clean up once closed.
+ */
+public final class SharedTransientQueryMetadata extends TransientQueryMetadata {
+
+  private final SharedTransientRuntime.Member member;
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  public SharedTransientQueryMetadata(
+      final String statementString,
+      final LogicalSchema logicalSchema,
+      final Set<SourceName> sourceNames,
+      final String executionPlan,
+      final BlockingRowQueue rowQueue,
+      final String queryApplicationId,
+      final SharedTransientRuntime.Member member,
+      final KafkaStreamsBuilder kafkaStreamsBuilder,
+      final Map<String, Object> overriddenProperties,
+      final long closeTimeout,
+      final int maxQueryErrorsQueueSize,
+      final long retryBackoffInitialMs,
+      final long retryBackoffMaxMs,
+      final Listener listener
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        logicalSchema,
+        sourceNames,
+        executionPlan,
+        rowQueue,
+        queryApplicationId,
+        member.getRuntime().getTopology(),
+        kafkaStreamsBuilder,
+        member.getRuntime().getStreamsProperties(),
+        overriddenProperties,
+        closeTimeout,
+        maxQueryErrorsQueueSize,
+        ResultType.STREAM,
+        retryBackoffInitialMs,
+        retryBackoffMaxMs,
+        listener
+    );
+    this.member = Objects.requireNonNull(member, "member");
+  }
+
+  @Override
+  public void initialize() {
+    // no-op: the runtime is initialized when it is created
+  }
+
+  @Override
+  public void start() {
+    getListener().onStateChange(this, getState(), getState());
+    member.start();
+  }
+
+  @Override
+  public KafkaStreams getKafkaStreams() {
+    return member.getRuntime().getKafkaStreams();
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final StreamsUncaughtExceptionHandler handler) {
+    member.setUncaughtExceptionHandler(handler);
+  }
+
+  @Override
+  public Optional<String> getSharedRuntimeId() {
+    return Optional.of(member.getRuntime().getApplicationId());
+  }
+
+  @Override
+  void doClose(final boolean cleanUp) {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    member.leave();
+  }
+}
@@ -25,6 +25,7 @@ import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlConstants.KsqlQueryType;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.kafka.streams.Topology;
@@ -113,6 +114,14 @@ public class TransientQueryMetadata extends QueryMetadata {
     return resultType;
   }
 
+  /**
+   * @return the application id of the runtime the query shares with other transient queries, or
+   *     empty if the query runs in its own runtime.
+   */
+  public Optional<String> getSharedRuntimeId() {
+    return Optional.empty();
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (!(o instanceof TransientQueryMetadata)) {
@@ -22,9 +22,13 @@ import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertThrows;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -72,6 +76,7 @@ import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.SerdeFeatures;
 import io.confluent.ksql.serde.ValueFormat;
 import io.confluent.ksql.serde.ValueSerdeFactory;
+import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
@@ -79,13 +84,16 @@ import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.errors.SerializationException;
@@ -93,9 +101,11 @@ import org.apache.kafka.common.errors.TopicAuthorizationException;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.streams.KafkaClientSupplier;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -153,6 +163,10 @@ public class InsertValuesExecutorTest {
   @Mock
   private KafkaProducer<byte[], byte[]> producer;
   @Mock
+  private KafkaClientSupplier kafkaClientSupplier;
+  @Mock
+  private SessionProperties sessionProperties;
+  @Mock
   private LongSupplier clock;
   @Mock
   private ValueSerdeFactory valueSerdeFactory;
@@ -175,7 +189,6 @@ public class InsertValuesExecutorTest {
 
     doReturn(producerResultFuture).when(producer).send(any());
 
-    final KafkaClientSupplier kafkaClientSupplier = mock(KafkaClientSupplier.class);
     when(kafkaClientSupplier.getProducer(any())).thenReturn(producer);
 
     when(serviceContext.getKafkaClientSupplier()).thenReturn(kafkaClientSupplier);
@@ -195,6 +208,11 @@ public class InsertValuesExecutorTest {
     executor = new InsertValuesExecutor(clock, keySerdeFactory, valueSerdeFactory);
   }
 
+  @After
+  public void tearDown() {
+    executor.close();
+  }
+
   @Test
   public void shouldHandleFullRow() {
     // Given:
@@ -1045,14 +1063,196 @@ public class InsertValuesExecutorTest {
         "Not authorized to write Schema Registry subject: [" + KsqlConstants.getSRSubject(TOPIC_NAME, false)));
   }
 
+  @Test
+  public void shouldReuseSerdesForSameSource() {
+    // Given:
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        )
+    );
+
+    // When:
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+
+    // Then:
+    verify(keySerdeFactory, times(1)).create(any(), any(), any(), any(), any(), any(), any());
+    verify(valueSerdeFactory, times(1)).create(any(), any(), any(), any(), any(), any(), any());
+    verify(producer, times(2)).send(new ProducerRecord<>(TOPIC_NAME, null, 1L, KEY, VALUE));
+  }
+
+  @Test
+  public void shouldCreateNewSerdesWhenSourceChanges() {
+    // Given:
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        )
+    );
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+
+    givenSourceStreamWithSchema(SCHEMA, SerdeFeatures.of(), SerdeFeatures.of());
+
+    // When:
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+
+    // Then:
+    verify(keySerdeFactory, times(2)).create(any(), any(), any(), any(), any(), any(), any());
+    verify(valueSerdeFactory, times(2)).create(any(), any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotReuseSerdesOfValidationForSchemaRegistryFormats() {
+    // Given:
+    givenDataSourceWithSchema(
+        TOPIC_NAME,
+        SCHEMA,
+        SerdeFeatures.of(),
+        SerdeFeatures.of(),
+        FormatInfo.of(FormatFactory.KAFKA.name()),
+        FormatInfo.of(FormatFactory.AVRO.name()),
+        false);
+
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        )
+    );
+
+    final ServiceContext sandbox = SandboxedServiceContext.create(serviceContext);
+    executor.execute(statement, mock(SessionProperties.class), engine, sandbox);
+
+    // When:
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+
+    // Then:
+    verify(valueSerdeFactory, times(2)).create(any(), any(), any(), any(), any(), any(), any());
+    verify(valueSerdeFactory)
+        .create(any(), any(), any(), eq(srClientFactory), any(), any(), any());
+    verify(producer).send(new ProducerRecord<>(TOPIC_NAME, null, 1L, KEY, VALUE));
+  }
+
+  @Test
+  public void shouldReuseProducerForSamePrincipal() {
+    // Given:
+    final Principal principal = () -> "alice";
+    when(sessionProperties.getUserPrincipal()).thenReturn(Optional.of(principal));
+
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        )
+    );
+
+    // When:
+    executor.execute(statement, sessionProperties, engine, serviceContext);
+    executor.execute(statement, sessionProperties, engine, serviceContext);
+
+    // Then:
+    verify(kafkaClientSupplier, times(1)).getProducer(any());
+    verify(producer, times(2)).send(new ProducerRecord<>(TOPIC_NAME, null, 1L, KEY, VALUE));
+    verify(producer, never()).close(any());
+  }
+
+  @Test
+  public void shouldClosePooledProducersOnClose() {
+    // Given:
+    final Principal principal = () -> "alice";
+    when(sessionProperties.getUserPrincipal()).thenReturn(Optional.of(principal));
+
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        )
+    );
+    executor.execute(statement, sessionProperties, engine, serviceContext);
+
+    // When:
+    executor.close();
+
+    // Then:
+    verify(producer).close(any());
+  }
+
+  @Test
+  public void shouldFlushProducerIfWaitingForAck() throws Exception {
+    // Given:
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        )
+    );
+
+    // When:
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+
+    // Then:
+    final InOrder inOrder = inOrder(producer, producerResultFuture);
+    inOrder.verify(producer).send(new ProducerRecord<>(TOPIC_NAME, null, 1L, KEY, VALUE));
+    inOrder.verify(producer).flush();
+    inOrder.verify(producerResultFuture).get();
+  }
+
+  @Test
+  public void shouldNotWaitForAckIfAsyncAckEnabled() throws Exception {
+    // Given:
+    final ConfiguredStatement<InsertValues> statement = givenInsertValues(
+        allColumnNames(SCHEMA),
+        ImmutableList.of(
+            new StringLiteral("key"),
+            new StringLiteral("str"),
+            new LongLiteral(2L)
+        ),
+        ImmutableMap.of(KsqlConfig.KSQL_INSERT_INTO_VALUES_ASYNC_ACK_CONFIG, true)
+    );
+
+    // When:
+    executor.execute(statement, mock(SessionProperties.class), engine, serviceContext);
+
+    // Then:
+    verify(producer).send(
+        eq(new ProducerRecord<>(TOPIC_NAME, null, 1L, KEY, VALUE)),
+        any(Callback.class)
+    );
+    verify(producerResultFuture, never()).get();
+    verify(producer, never()).flush();
+  }
+
   private static ConfiguredStatement<InsertValues> givenInsertValues(
       final List<ColumnName> columns,
       final List<Expression> values
+  ) {
+    return givenInsertValues(columns, values, ImmutableMap.of());
+  }
+
+  private static ConfiguredStatement<InsertValues> givenInsertValues(
+      final List<ColumnName> columns,
+      final List<Expression> values,
+      final Map<String, Object> overrides
   ) {
     return ConfiguredStatement.of(PreparedStatement.of(
             "",
             new InsertValues(SourceName.of("TOPIC"), columns, values)), SessionConfig.of(
-        new KsqlConfig(ImmutableMap.of()), ImmutableMap.of()));
+        new KsqlConfig(ImmutableMap.of()), overrides));
   }
 
   private void givenSourceStreamWithSchema(
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.FakeTicker;
+import io.confluent.ksql.services.ServiceContext;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.apache.kafka.streams.processor.internals.DefaultKafkaClientSupplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InsertValuesProducerPoolTest {
+
+  private static final ProducerRecord<byte[], byte[]> RECORD =
+      new ProducerRecord<>("topic", new byte[]{1});
+  private static final Map<String, Object> PROPS = ImmutableMap.of("linger.ms", 5);
+  private static final Optional<Principal> ALICE = Optional.of(() -> "alice");
+  private static final Optional<Principal> BOB = Optional.of(() -> "bob");
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+  @Mock
+  private ServiceContext serviceContext;
+  @Mock
+  private KafkaClientSupplier clientSupplier;
+  @Mock
+  private Producer<byte[], byte[]> producer;
+  @Mock
+  private Callback callback;
+  @Mock
+  private ScheduledExecutorService cleanUpExecutor;
+  @Captor
+  private ArgumentCaptor<Runnable> cleanUpCaptor;
+
+  private final FakeTicker ticker = new FakeTicker();
+  private InsertValuesProducerPool pool;
+
+  @Before
+  public void setUp() {
+    when(serviceContext.getKafkaClientSupplier()).thenReturn(clientSupplier);
+    when(clientSupplier.getProducer(any())).thenReturn(producer);
+
+    pool = new InsertValuesProducerPool(IDLE_TIMEOUT, ticker, cleanUpExecutor);
+  }
+
+  @Test
+  public void shouldShareProducerForSamePrincipalAndProps() {
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+    pool.send(RECORD, serviceContext, ImmutableMap.copyOf(PROPS), ALICE, callback);
+
+    // Then:
+    verify(clientSupplier, times(1)).getProducer(PROPS);
+    verify(producer, times(2)).send(RECORD, callback);
+    assertThat(pool.size(), is(1L));
+  }
+
+  @Test
+  public void shouldNotShareProducerBetweenPrincipals() {
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+    pool.send(RECORD, serviceContext, PROPS, BOB, callback);
+
+    // Then:
+    verify(clientSupplier, times(2)).getProducer(PROPS);
+    assertThat(pool.size(), is(2L));
+  }
+
+  @Test
+  public void shouldNotShareProducerBetweenProps() {
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+    pool.send(RECORD, serviceContext, ImmutableMap.of("linger.ms", 10), ALICE, callback);
+
+    // Then:
+    verify(clientSupplier, times(2)).getProducer(any());
+    assertThat(pool.size(), is(2L));
+  }
+
+  @Test
+  public void shouldNotShareProducerBetweenSupplierTypes() {
+    // Given:
+    final ServiceContext otherServiceContext = mock(ServiceContext.class);
+    final DefaultKafkaClientSupplier otherSupplier = mock(DefaultKafkaClientSupplier.class);
+    when(otherServiceContext.getKafkaClientSupplier()).thenReturn(otherSupplier);
+    when(otherSupplier.getProducer(any())).thenReturn(producer);
+
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+    pool.send(RECORD, otherServiceContext, PROPS, ALICE, callback);
+
+    // Then:
+    verify(clientSupplier).getProducer(PROPS);
+    verify(otherSupplier).getProducer(PROPS);
+    assertThat(pool.size(), is(2L));
+  }
+
+  @Test
+  public void shouldNotPoolProducerWithoutPrincipalFromOtherSupplier() {
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, Optional.empty(), callback);
+
+    // Then:
+    verify(producer).send(RECORD, callback);
+    verify(producer).close(any());
+    assertThat(pool.size(), is(0L));
+  }
+
+  @Test
+  public void shouldFlushProducerIfSentWithoutCallback() {
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, null);
+
+    // Then:
+    final InOrder inOrder = inOrder(producer);
+    inOrder.verify(producer).send(RECORD);
+    inOrder.verify(producer).flush();
+  }
+
+  @Test
+  public void shouldNotFlushProducerIfSentWithCallback() {
+    // When:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+
+    // Then:
+    verify(producer, never()).flush();
+  }
+
+  @Test
+  public void shouldCloseIdleProducersOnScheduledCleanUp() {
+    // Given:
+    verify(cleanUpExecutor)
+        .scheduleAtFixedRate(cleanUpCaptor.capture(), anyLong(), anyLong(), any());
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+    ticker.advance(IDLE_TIMEOUT.toMillis() + 1, TimeUnit.MILLISECONDS);
+
+    // When:
+    cleanUpCaptor.getValue().run();
+
+    // Then:
+    verify(producer).close(any());
+  }
+
+  @Test
+  public void shouldCloseProducersOnClose() {
+    // Given:
+    pool.send(RECORD, serviceContext, PROPS, ALICE, callback);
+    verify(producer, never()).close(any());
+
+    // When:
+    pool.close();
+
+    // Then:
+    verify(producer).close(any());
+    verify(cleanUpExecutor).shutdownNow();
+    assertThat(pool.size(), is(0L));
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.analyzer.Analysis.AliasedDataSource;
+import io.confluent.ksql.analyzer.ImmutableAnalysis;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.internal.PullQueryExecutorMetrics;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.tree.AliasedRelation;
+import io.confluent.ksql.parser.tree.AllColumns;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.Select;
+import io.confluent.ksql.parser.tree.Table;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullQueryPlanCacheTest {
+
+  private static final SourceName SOURCE_NAME = SourceName.of("T");
+
+  @Mock
+  private ImmutableAnalysis analysis;
+  @Mock
+  private DataSource source;
+  @Mock
+  private MetaStore metaStore;
+  @Mock
+  private PullQueryExecutorMetrics metrics;
+
+  private PullQueryPlanCache planCache;
+  private final AtomicInteger analyses = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    planCache = new PullQueryPlanCache(10);
+  }
+
+  @Test
+  public void shouldReuseAnalysisOfSameStatement() {
+    // Given:
+    givenSourceUnchanged();
+    final Query query = query("K", new IntegerLiteral(1));
+    get(query);
+
+    // When:
+    get(query);
+
+    // Then:
+    assertThat(analyses.get(), is(1));
+  }
+
+  @Test
+  public void shouldReuseAnalysisOfStatementWithDifferentLiterals() {
+    // Given:
+    givenSourceUnchanged();
+    get(query("K", new IntegerLiteral(1)));
+    final Query query = query("K", new IntegerLiteral(2));
+
+    // When:
+    final ImmutableAnalysis result = get(query);
+
+    // Then:
+    assertThat(analyses.get(), is(1));
+    assertThat(result.getWhereExpression(), is(query.getWhere()));
+  }
+
+  @Test
+  public void shouldNotReuseAnalysisOfStatementWithDifferentLiteralTypes() {
+    // Given:
+    get(query("K", new IntegerLiteral(1)));
+
+    // When:
+    get(query("K", new StringLiteral("1")));
+
+    // Then:
+    assertThat(analyses.get(), is(2));
+  }
+
+  @Test
+  public void shouldNotReuseAnalysisOfDifferentStatement() {
+    // Given:
+    get(query("K", new IntegerLiteral(1)));
+
+    // When:
+    get(query("V", new IntegerLiteral(1)));
+
+    // Then:
+    assertThat(analyses.get(), is(2));
+  }
+
+  @Test
+  public void shouldNotCacheAnalysisThatCopiesLiterals() {
+    // Given:
+    final Query query = query("K", new IntegerLiteral(1));
+    final Supplier<ImmutableAnalysis> analyzer = () -> {
+      analyses.incrementAndGet();
+      when(analysis.getWhereExpression())
+          .thenReturn(Optional.of(where("K", new IntegerLiteral(1))));
+      when(analysis.getHavingExpression()).thenReturn(Optional.empty());
+      when(analysis.getSelectItems()).thenReturn(ImmutableList.of());
+      when(analysis.getTableFunctions()).thenReturn(ImmutableList.of());
+      return analysis;
+    };
+    planCache.get(query, metaStore, analyzer, Optional.of(metrics));
+
+    // When:
+    planCache.get(query, metaStore, analyzer, Optional.of(metrics));
+
+    // Then:
+    assertThat(analyses.get(), is(2));
+  }
+
+  @Test
+  public void shouldRecordHitsAndMisses() {
+    // Given:
+    givenSourceUnchanged();
+    final Query query = query("K", new IntegerLiteral(1));
+
+    // When:
+    get(query);
+    get(query);
+
+    // Then:
+    verify(metrics).recordPlanCacheMiss();
+    verify(metrics).recordPlanCacheHit(anyLong());
+  }
+
+  @Test
+  public void shouldReanalyzeIfSourceChanged() {
+    // Given:
+    when(source.getName()).thenReturn(SOURCE_NAME);
+    final Query query = query("K", new IntegerLiteral(1));
+    get(query);
+    final DataSource recreated = mock(DataSource.class);
+    when(metaStore.getSource(SOURCE_NAME)).thenReturn(recreated);
+
+    // When:
+    get(query);
+
+    // Then:
+    assertThat(analyses.get(), is(2));
+  }
+
+  @Test
+  public void shouldEvictOnceFull() {
+    // Given:
+    planCache = new PullQueryPlanCache(1);
+    get(query("K", new IntegerLiteral(1)));
+
+    // When:
+    get(query("V", new IntegerLiteral(1)));
+    get(query("K", new IntegerLiteral(1)));
+
+    // Then:
+    assertThat(analyses.get(), is(3));
+  }
+
+  @Test
+  public void shouldAnalyzeEveryTimeIfDisabled() {
+    // Given:
+    planCache = new PullQueryPlanCache(0);
+    final Query query = query("K", new IntegerLiteral(1));
+    final Supplier<ImmutableAnalysis> analyzer = () -> {
+      analyses.incrementAndGet();
+      return analysis;
+    };
+
+    // When:
+    planCache.get(query, metaStore, analyzer, Optional.of(metrics));
+    planCache.get(query, metaStore, analyzer, Optional.of(metrics));
+
+    // Then:
+    assertThat(analyses.get(), is(2));
+  }
+
+  private void givenSourceUnchanged() {
+    when(source.getName()).thenReturn(SOURCE_NAME);
+    when(metaStore.getSource(SOURCE_NAME)).thenReturn(source);
+  }
+
+  private ImmutableAnalysis get(final Query query) {
+    return planCache.get(query, metaStore, analyzer(query), Optional.of(metrics));
+  }
+
+  private Supplier<ImmutableAnalysis> analyzer(final Query query) {
+    return () -> {
+      analyses.incrementAndGet();
+      when(analysis.getAllDataSources())
+          .thenReturn(ImmutableList.of(new AliasedDataSource(SOURCE_NAME, source)));
+      when(analysis.getWhereExpression()).thenReturn(query.getWhere());
+      when(analysis.getHavingExpression()).thenReturn(Optional.empty());
+      when(analysis.getSelectItems()).thenReturn(ImmutableList.of());
+      when(analysis.getTableFunctions()).thenReturn(ImmutableList.of());
+      return analysis;
+    };
+  }
+
+  private static Query query(final String column, final Literal value) {
+    return new Query(
+        Optional.empty(),
+        new Select(ImmutableList.of(new AllColumns(Optional.empty()))),
+        new AliasedRelation(new Table(SOURCE_NAME), SOURCE_NAME),
+        Optional.empty(),
+        Optional.of(where(column, value)),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        true,
+        OptionalInt.empty()
+    );
+  }
+
+  private static Expression where(final String column, final Literal value) {
+    return new ComparisonExpression(
+        Type.EQUAL,
+        new UnqualifiedColumnReferenceExp(ColumnName.of(column)),
+        value
+    );
+  }
+}
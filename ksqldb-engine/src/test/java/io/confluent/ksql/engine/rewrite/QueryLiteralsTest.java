@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.engine.rewrite;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.tree.AliasedRelation;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.Select;
+import io.confluent.ksql.parser.tree.SingleColumn;
+import io.confluent.ksql.parser.tree.Table;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.junit.Test;
+
+public class QueryLiteralsTest {
+
+  private static final SourceName SOURCE_NAME = SourceName.of("T");
+
+  @Test
+  public void shouldExtractLiteralsInOrder() {
+    // Given:
+    final Literal selected = new StringLiteral("a");
+    final Literal key = new IntegerLiteral(1);
+    final Literal value = new IntegerLiteral(1);
+
+    // When:
+    final QueryLiterals literals = QueryLiterals.of(query(selected, key, value));
+
+    // Then:
+    assertThat(literals.getLiterals(), contains(
+        sameInstance(selected),
+        sameInstance(key),
+        sameInstance(value)
+    ));
+  }
+
+  @Test
+  public void shouldHaveEqualTemplatesIfOnlyLiteralsDiffer() {
+    // When:
+    final QueryLiterals first = QueryLiterals.of(query(
+        new StringLiteral("a"), new IntegerLiteral(1), new IntegerLiteral(2)));
+    final QueryLiterals second = QueryLiterals.of(query(
+        new StringLiteral("b"), new IntegerLiteral(3), new IntegerLiteral(4)));
+
+    // Then:
+    assertThat(first.getTemplate(), is(second.getTemplate()));
+  }
+
+  @Test
+  public void shouldNotReplaceOtherExpressionsInTemplate() {
+    // Given:
+    final Query query = query(
+        new StringLiteral("a"), new IntegerLiteral(1), new IntegerLiteral(2));
+
+    // When:
+    final QueryLiterals literals = QueryLiterals.of(query);
+
+    // Then:
+    assertThat(literals.getTemplate(), is(not(query)));
+    assertThat(literals.getTemplate().getFrom(), is(query.getFrom()));
+    assertThat(literals.getTemplate().isPullQuery(), is(true));
+  }
+
+  private static Query query(final Literal selected, final Literal key, final Literal value) {
+    return new Query(
+        Optional.empty(),
+        new Select(ImmutableList.of(new SingleColumn(selected, Optional.empty()))),
+        new AliasedRelation(new Table(SOURCE_NAME), SOURCE_NAME),
+        Optional.empty(),
+        Optional.of(new LogicalBinaryExpression(
+            LogicalBinaryExpression.Type.AND,
+            new ComparisonExpression(
+                Type.EQUAL,
+                new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+                key
+            ),
+            new ComparisonExpression(
+                Type.GREATER_THAN,
+                new UnqualifiedColumnReferenceExp(ColumnName.of("V")),
+                value
+            )
+        )),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        true,
+        OptionalInt.empty()
+    );
+  }
+}
@@ -117,6 +117,32 @@ public class InternalFunctionRegistryTest {
     assertThat(factory.getFunction(Collections.emptyList()), is(this.func));
   }
 
+  @Test
+  public void shouldChangeVersionWhenFunctionAdded() {
+    // Given:
+    final long initial = functionRegistry.version();
+
+    // When:
+    givenUdfFactoryRegistered();
+    functionRegistry.addFunction(func);
+
+    // Then:
+    assertThat(functionRegistry.version(), is(initial + 2));
+  }
+
+  @Test
+  public void shouldNotChangeVersionWhenEnsuringExistingUdfFactory() {
+    // Given:
+    functionRegistry.ensureFunctionFactory(udfFactory);
+    final long initial = functionRegistry.version();
+
+    // When:
+    functionRegistry.ensureFunctionFactory(udfFactory);
+
+    // Then:
+    assertThat(functionRegistry.version(), is(initial));
+  }
+
   @Test
   public void shouldNotAddFunctionWithSameNameAsExistingFunctionAndOnDifferentClass() {
     // Given:
@@ -17,8 +17,13 @@ package io.confluent.ksql.function.udaf.average;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.function.udaf.TableUdaf;
+import io.confluent.ksql.util.KsqlConfig;
+import org.apache.kafka.common.Configurable;
 import org.apache.kafka.connect.data.Struct;
 import org.junit.Test;
 
@@ -151,4 +156,29 @@ public class AverageUdafTest {
     assertThat(4L, equalTo(agg.getInt64(SUM)));
   }
 
+  @Test
+  public void shouldNotUpdateAggregateInPlaceByDefault() {
+    final TableUdaf<Long, Struct, Double> udaf = AverageUdaf.averageLong();
+    final Struct agg = udaf.initialize();
+
+    final Struct result = udaf.aggregate(1L, agg);
+
+    assertThat(result, not(sameInstance(agg)));
+    assertThat(0L, equalTo(agg.getInt64(COUNT)));
+    assertThat(0L, equalTo(agg.getInt64(SUM)));
+  }
+
+  @Test
+  public void shouldUpdateAggregateInPlaceIfConfigured() {
+    final TableUdaf<Long, Struct, Double> udaf = AverageUdaf.averageLong();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED, true));
+    final Struct agg = udaf.initialize();
+
+    final Struct result = udaf.aggregate(1L, agg);
+
+    assertThat(result, sameInstance(agg));
+    assertThat(1L, equalTo(agg.getInt64(COUNT)));
+    assertThat(1L, equalTo(agg.getInt64(SUM)));
+  }
 }
@@ -16,9 +16,15 @@
 package io.confluent.ksql.function.udaf.count;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
 
+import com.clearspring.analytics.stream.cardinality.HyperLogLog;
 import com.google.common.primitives.Ints;
+import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udaf.Udaf;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -105,4 +111,85 @@ public class CountDistinctKudafTest {
     assertThat(udaf.map(udaf.merge(agg1, agg2)), is(5L));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldEstimateSameCardinalityAsHyperLogLog() {
+    // Given:
+    final Udaf<Long, List<Integer>, Long> udaf = CountDistinct.distinct();
+    final HyperLogLog expected = new HyperLogLog(14);
+    List<Integer> agg = udaf.initialize();
+
+    // When:
+    for (long i = 0; i < 100_000; i++) {
+      agg = udaf.aggregate(i, agg);
+      expected.offer(i);
+    }
+
+    // Then:
+    assertThat(udaf.map(agg), is(expected.cardinality()));
+  }
+
+  @Test
+  public void shouldMergeSameAsHyperLogLog() throws Exception {
+    // Given:
+    final Udaf<Long, List<Integer>, Long> udaf = CountDistinct.distinct();
+    final HyperLogLog expectedOne = new HyperLogLog(14);
+    final HyperLogLog expectedTwo = new HyperLogLog(14);
+    List<Integer> agg1 = udaf.initialize();
+    List<Integer> agg2 = udaf.initialize();
+
+    for (long i = 0; i < 20_000; i++) {
+      agg1 = udaf.aggregate(i, agg1);
+      expectedOne.offer(i);
+      agg2 = udaf.aggregate(i + 10_000, agg2);
+      expectedTwo.offer(i + 10_000);
+    }
+
+    // When:
+    final List<Integer> merged = udaf.merge(agg1, agg2);
+
+    // Then:
+    assertThat(udaf.map(merged), is(expectedOne.merge(expectedTwo).cardinality()));
+  }
+
+  @Test
+  public void shouldUpdateAggregateInPlace() {
+    // Given:
+    final Udaf<String, List<Integer>, Long> udaf = CountDistinct.distinct();
+    final List<Integer> agg = udaf.initialize();
+
+    // When:
+    final List<Integer> result = udaf.aggregate("a", agg);
+
+    // Then:
+    assertThat(result, is(sameInstance(agg)));
+    assertThat(udaf.map(agg), is(1L));
+  }
+
+  @Test
+  public void shouldCountWithPrecision() {
+    // Given:
+    final Udaf<Long, List<Integer>, Long> udaf = CountDistinct.distinct(10);
+    List<Integer> agg = udaf.initialize();
+
+    // When:
+    for (long i = 0; i < 10_000; i++) {
+      agg = udaf.aggregate(i, agg);
+    }
+
+    // Then:
+    assertThat(agg.size(), is(171));
+    assertThat(udaf.map(agg).doubleValue(), is(closeTo(10_000, 1_000)));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidPrecision() {
+    // When:
+    final Exception e = assertThrows(
+        KsqlFunctionException.class,
+        () -> CountDistinct.distinct(17)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("precision must be between 4 and 16"));
+  }
+}
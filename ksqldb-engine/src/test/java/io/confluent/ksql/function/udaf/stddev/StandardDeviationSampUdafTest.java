@@ -15,16 +15,21 @@
 
 package io.confluent.ksql.function.udaf.stddev;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.function.udaf.TableUdaf;
+import io.confluent.ksql.util.KsqlConfig;
 import static io.confluent.ksql.function.udaf.stddev.StandardDeviationSampUdaf.stdDevLong;
 import static io.confluent.ksql.function.udaf.stddev.StandardDeviationSampUdaf.stdDevInt;
 import static io.confluent.ksql.function.udaf.stddev.StandardDeviationSampUdaf.stdDevDouble;
 
+import org.apache.kafka.common.Configurable;
 import org.apache.kafka.connect.data.Struct;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class StandardDeviationSampUdafTest {
 
@@ -217,4 +222,32 @@ public class StandardDeviationSampUdafTest {
     standardDev = udaf.map(agg);
     assertThat(standardDev, equalTo(2.9166666666666665));
   }
+
+  @Test
+  public void shouldNotMergeInPlaceByDefault() {
+    final TableUdaf<Long, Struct, Double> udaf = stdDevLong();
+    final Struct left = udaf.aggregate(1L, udaf.initialize());
+    final Struct right = udaf.aggregate(3L, udaf.initialize());
+
+    final Struct merged = udaf.merge(left, right);
+
+    assertThat(merged, not(sameInstance(left)));
+    assertThat(left.getInt64(COUNT), equalTo(1L));
+    assertThat(merged.getInt64(COUNT), equalTo(2L));
+  }
+
+  @Test
+  public void shouldMergeInPlaceIfConfigured() {
+    final TableUdaf<Long, Struct, Double> udaf = stdDevLong();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED, true));
+    final Struct left = udaf.aggregate(1L, udaf.initialize());
+    final Struct right = udaf.aggregate(3L, udaf.initialize());
+
+    final Struct merged = udaf.merge(left, right);
+
+    assertThat(merged, sameInstance(left));
+    assertThat(merged.getInt64(COUNT), equalTo(2L));
+    assertThat(right.getInt64(COUNT), equalTo(1L));
+  }
 }
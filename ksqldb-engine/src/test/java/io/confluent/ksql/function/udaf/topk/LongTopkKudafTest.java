@@ -25,7 +25,10 @@ import io.confluent.ksql.schema.ksql.SqlArgument;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -95,4 +98,27 @@ public class LongTopkKudafTest {
     assertThat("Invalid results.", topkKudaf.getMerger().apply(null, array1, array2),
         equalTo(ImmutableList.of(60L, 50L)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldAggregateTopKOfManyValues() {
+    // Given:
+    final KsqlAggregateFunction<Long, List<Long>, List<Long>> topkKudaf =
+        topKFactory.createAggregateFunction(argumentType, new AggregateFunctionInitArguments(0, 100));
+    final List<Long> values = new Random(42).longs(10_000, 0, 5_000)
+        .boxed()
+        .collect(Collectors.toList());
+
+    // When:
+    List<Long> window = new ArrayList<>();
+    for (final Long value : values) {
+      window = topkKudaf.aggregate(value, window);
+    }
+
+    // Then:
+    final List<Long> expected = values.stream()
+        .sorted(Comparator.reverseOrder())
+        .limit(100)
+        .collect(Collectors.toList());
+    assertThat("Invalid results.", window, equalTo(expected));
+  }
+}
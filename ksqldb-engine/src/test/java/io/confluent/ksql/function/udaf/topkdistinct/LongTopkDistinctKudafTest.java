@@ -21,7 +21,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 import org.junit.Test;
 
 public class LongTopkDistinctKudafTest {
@@ -84,4 +87,28 @@ public class LongTopkDistinctKudafTest {
     assertThat("Invalid results.", longTopkDistinctKudaf.getMerger().apply(null, array1, array2), equalTo(
         ImmutableList.of(60L)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldAggregateTopKOfManyValues() {
+    // Given:
+    final TopkDistinctKudaf<Long> topkDistinctKudaf =
+        TopKDistinctTestUtils.getTopKDistinctKudaf(100, SqlTypes.BIGINT);
+    final List<Long> values = new Random(42).longs(10_000, 0, 5_000)
+        .boxed()
+        .collect(Collectors.toList());
+
+    // When:
+    List<Long> currentVal = new ArrayList<>();
+    for (final Long value : values) {
+      currentVal = topkDistinctKudaf.aggregate(value, currentVal);
+    }
+
+    // Then:
+    final List<Long> expected = values.stream()
+        .distinct()
+        .sorted(Comparator.reverseOrder())
+        .limit(100)
+        .collect(Collectors.toList());
+    assertThat("Invalid results.", currentVal, equalTo(expected));
+  }
+}
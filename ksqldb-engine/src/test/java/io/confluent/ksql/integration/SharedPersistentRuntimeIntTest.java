@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.integration;
+
+import static io.confluent.ksql.serde.FormatFactory.JSON;
+import static io.confluent.ksql.serde.FormatFactory.KAFKA;
+import static io.confluent.ksql.test.util.AssertEventually.assertThatEventually;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+import io.confluent.common.utils.IntegrationTest;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.test.util.KsqlIdentifierTestUtil;
+import io.confluent.ksql.test.util.TopicTestUtil;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.OrderDataProvider;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import kafka.zookeeper.ZooKeeperClientException;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KeyValue;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.RuleChain;
+
+@Category({IntegrationTest.class})
+public class SharedPersistentRuntimeIntTest {
+
+  private static final OrderDataProvider DATA_PROVIDER = new OrderDataProvider();
+
+  private static final IntegrationTestHarness TEST_HARNESS = IntegrationTestHarness.build();
+
+  @ClassRule
+  public static final RuleChain CLUSTER_WITH_RETRY = RuleChain
+      .outerRule(Retry.of(3, ZooKeeperClientException.class, 3, TimeUnit.SECONDS))
+      .around(TEST_HARNESS);
+
+  @Rule
+  public final TestKsqlContext ksqlContext = TEST_HARNESS.ksqlContextBuilder()
+      .withAdditionalConfig(KsqlConfig.KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED, true)
+      // Only queries reading from the latest offset share a runtime:
+      .withAdditionalConfig(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest")
+      .build();
+
+  private String sourceTopic;
+  private String sharedStream1;
+  private String sharedStream2;
+  private String dedicatedStream;
+
+  @Before
+  public void before() {
+    sourceTopic = TopicTestUtil.uniqueTopicName("orders");
+    sharedStream1 = KsqlIdentifierTestUtil.uniqueIdentifierName("shared1").toUpperCase();
+    sharedStream2 = KsqlIdentifierTestUtil.uniqueIdentifierName("shared2").toUpperCase();
+    dedicatedStream = KsqlIdentifierTestUtil.uniqueIdentifierName("dedicated").toUpperCase();
+
+    TEST_HARNESS.ensureTopics(sourceTopic);
+
+    ksqlContext.sql("CREATE STREAM ORDERS (" + DATA_PROVIDER.ksqlSchemaString(false) + ") WITH "
+        + "(kafka_topic='" + sourceTopic + "', value_format='JSON');");
+  }
+
+  @Test
+  public void shouldWriteSameRowsAsDedicatedRuntime() {
+    // Given:
+    ksqlContext.sql(
+        "CREATE STREAM " + sharedStream1 + " AS SELECT * FROM ORDERS WHERE ORDERUNITS > 40;"
+            + "CREATE STREAM " + sharedStream2 + " AS SELECT * FROM ORDERS WHERE ORDERUNITS > 40;"
+            + "SET '" + KsqlConfig.KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED + "'='false';"
+            + "CREATE STREAM " + dedicatedStream + " AS SELECT * FROM ORDERS WHERE ORDERUNITS > 40;"
+    );
+
+    final List<PersistentQueryMetadata> queries = ksqlContext.getPersistentQueries();
+    assertThat(queries.size(), is(3));
+    final Optional<String> runtimeId = getQuery(queries, sharedStream1).getSharedRuntimeId();
+    assertThat(runtimeId.isPresent(), is(true));
+    assertThat(getQuery(queries, sharedStream2).getSharedRuntimeId(), is(runtimeId));
+    assertThat(getQuery(queries, dedicatedStream).getSharedRuntimeId(), is(Optional.empty()));
+
+    // Records produced before the queries are running would not be read from the latest offset:
+    assertThatEventually(
+        () -> queries.stream().allMatch(query -> query.getState() == State.RUNNING),
+        is(true)
+    );
+
+    // When:
+    TEST_HARNESS.produceRows(sourceTopic, DATA_PROVIDER, KAFKA, JSON);
+
+    // Then:
+    final Multiset<KeyValue<GenericKey, GenericRow>> expected = getRows(dedicatedStream);
+    assertThat(getRows(sharedStream1), is(expected));
+    assertThat(getRows(sharedStream2), is(expected));
+  }
+
+  private static PersistentQueryMetadata getQuery(
+      final List<PersistentQueryMetadata> queries,
+      final String sinkName
+  ) {
+    return queries.stream()
+        .filter(query -> query.getSinkName().text().equals(sinkName))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No query writes " + sinkName));
+  }
+
+  private static Multiset<KeyValue<GenericKey, GenericRow>> getRows(final String topic) {
+    final List<ConsumerRecord<GenericKey, GenericRow>> records = TEST_HARNESS.verifyAvailableRows(
+        topic,
+        4,
+        KAFKA,
+        JSON,
+        DATA_PROVIDER.schema()
+    );
+
+    return records.stream()
+        .map(record -> KeyValue.pair(record.key(), record.value()))
+        .collect(ImmutableMultiset.toImmutableMultiset());
+  }
+}
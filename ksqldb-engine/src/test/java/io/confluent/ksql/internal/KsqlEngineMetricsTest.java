@@ -17,6 +17,7 @@ package io.confluent.ksql.internal;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.number.IsCloseTo.closeTo;
 import static org.junit.Assert.assertTrue;
@@ -46,6 +47,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.MetricConfig;
@@ -109,6 +111,20 @@ public class KsqlEngineMetricsTest {
     engineMetrics.registeredSensors().forEach(sensor -> assertThat(engineMetrics.getMetrics().getSensor(sensor.name()), is(nullValue())));
   }
 
+  @Test
+  public void shouldRemoveSerializationMetricsOnClose() {
+    // Given:
+    final Metrics metrics = engineMetrics.getMetrics();
+    final MetricName recordCount = metrics.metricName("record-count-64b", "ksql-serialization");
+    assertThat(metrics.metric(recordCount), is(notNullValue()));
+
+    // When:
+    engineMetrics.close();
+
+    // Then:
+    assertThat(metrics.metric(recordCount), is(nullValue()));
+  }
+
   @Test
   public void shouldRecordLivenessIndicator() {
     final double value = getMetricValue("liveness-indicator");
@@ -16,12 +16,16 @@
 package io.confluent.ksql.physical.pull;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,6 +42,7 @@ import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
+import io.confluent.ksql.internal.PullQueryExecutorMetrics;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.physical.pull.HARouting.RouteQuery;
 import io.confluent.ksql.query.PullQueryQueue;
@@ -55,6 +60,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -63,9 +69,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
-import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.mockito.stubbing.Answer;
 
 @RunWith(MockitoJUnitRunner.class)
 public class HARoutingTest {
@@ -115,6 +119,8 @@ public class HARoutingTest {
   private KsqlConfig ksqlConfig;
   @Mock
   private SimpleKsqlClient ksqlClient;
+  @Mock
+  private PullQueryExecutorMetrics pullQueryMetrics;
 
   private PullQueryQueue pullQueryQueue = new PullQueryQueue();
 
@@ -139,7 +145,7 @@ public class HARoutingTest {
     when(location2.getPartition()).thenReturn(2);
     when(location3.getPartition()).thenReturn(3);
     when(location4.getPartition()).thenReturn(4);
-    // We require at least two threads, one for the orchestrator, and the other for the partitions.
+    // We require at least two threads, so requests to different hosts can run in parallel.
     when(ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_THREAD_POOL_SIZE_CONFIG)).thenReturn(2);
 
     when(serviceContext.getKsqlClient()).thenReturn(ksqlClient);
@@ -199,30 +205,19 @@ public class HARoutingTest {
       throw new StandbyFallbackException("Error!");
     }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
     when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
-        new Answer() {
-          private int count = 0;
-
-          public Object answer(InvocationOnMock i) {
-            Map<String, ?> requestProperties = i.getArgument(3);
-            Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
-            if (++count == 1) {
-              assertThat(requestProperties.get(
-                  KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS), is ("2,4"));
-              rowConsumer.accept(
-                  ImmutableList.of(
-                      StreamedRow.header(queryId, logicalSchema),
-                      StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
-            } else {
-              assertThat(requestProperties.get(
-                  KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS), is ("1,3"));
-              rowConsumer.accept(
-                  ImmutableList.of(
-                      StreamedRow.header(queryId, logicalSchema),
-                      StreamedRow.pullRow(GenericRow.fromList(ROW1), Optional.empty())));
-            }
-
-            return RestResponse.successful(200, 2);
-          }
+        i -> {
+          Map<String, ?> requestProperties = i.getArgument(3);
+          Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
+          // The fallback request may be made before or after the first request completes:
+          final Object partitions =
+              requestProperties.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS);
+          rowConsumer.accept(
+              ImmutableList.of(
+                  StreamedRow.header(queryId, logicalSchema),
+                  StreamedRow.pullRow(
+                      GenericRow.fromList(partitions.equals("2,4") ? ROW2 : ROW1),
+                      Optional.empty())));
+          return RestResponse.successful(200, 2);
         }
     );
 
@@ -233,11 +228,62 @@ public class HARoutingTest {
 
     // Then:
     verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
-    verify(ksqlClient, times(2)).makeQueryRequest(eq(node2.location()), any(), any(), any(), any());
+    verify(ksqlClient).makeQueryRequest(eq(node2.location()), any(), any(),
+        argThat(props -> "2,4".equals(
+            props.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS))), any());
+    verify(ksqlClient).makeQueryRequest(eq(node2.location()), any(), any(),
+        argThat(props -> "1,3".equals(
+            props.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS))), any());
 
     assertThat(pullQueryQueue.size(), is(2));
-    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW2));
+    assertThat(
+        ImmutableList.of(
+            pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(),
+            pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow()),
+        containsInAnyOrder(ROW1, ROW2));
+  }
+
+  @Test
+  public void shouldFallBackToStandbyWithoutWaitingForOtherHosts() throws Exception {
+    // Given:
+    locate(location1, location2, location3, location4);
+    final CountDownLatch fallbackServed = new CountDownLatch(1);
+    doAnswer(i -> {
+      throw new StandbyFallbackException("Error!");
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+    when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
+        i -> {
+          Map<String, ?> requestProperties = i.getArgument(3);
+          Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
+          if ("2,4".equals(
+              requestProperties.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS))) {
+            // The request to the primary of partitions 2 and 4 is slow, and only completes once
+            // the fallback request for partitions 1 and 3 has been served:
+            assertThat(fallbackServed.await(5, TimeUnit.SECONDS), is(true));
+            rowConsumer.accept(
+                ImmutableList.of(
+                    StreamedRow.header(queryId, logicalSchema),
+                    StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
+          } else {
+            rowConsumer.accept(
+                ImmutableList.of(
+                    StreamedRow.header(queryId, logicalSchema),
+                    StreamedRow.pullRow(GenericRow.fromList(ROW1), Optional.empty())));
+            fallbackServed.countDown();
+          }
+          return RestResponse.successful(200, 2);
+        }
+    );
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(serviceContext, pullPhysicalPlan,
+        statement, routingOptions, logicalSchema, queryId, pullQueryQueue);
+    future.get();
+
+    // Then:
+    assertThat(pullQueryQueue.size(), is(2));
     assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW1));
+    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW2));
   }
 
   @Test
@@ -277,27 +323,19 @@ public class HARoutingTest {
       throw new StandbyFallbackException("Error1!");
     }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
     when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
-        new Answer() {
-          private int count = 0;
-
-          public Object answer(InvocationOnMock i) {
-            Map<String, ?> requestProperties = i.getArgument(3);
-            Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
-            if (++count == 1) {
-              assertThat(requestProperties.get(
-                  KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS), is ("2,4"));
-              rowConsumer.accept(
-                  ImmutableList.of(
-                      StreamedRow.header(queryId, logicalSchema),
-                      StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
-            } else {
-              assertThat(requestProperties.get(
-                  KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS), is ("1,3"));
-              throw new RuntimeException("Error2!");
-            }
-
-            return RestResponse.successful(200, 2);
+        i -> {
+          Map<String, ?> requestProperties = i.getArgument(3);
+          Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
+          if ("1,3".equals(
+              requestProperties.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS))) {
+            throw new RuntimeException("Error2!");
           }
+
+          rowConsumer.accept(
+              ImmutableList.of(
+                  StreamedRow.header(queryId, logicalSchema),
+                  StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
+          return RestResponse.successful(200, 2);
         }
     );
 
@@ -318,6 +356,97 @@ public class HARoutingTest {
     assertThat(e.getCause().getMessage(), containsString("Exhausted standby hosts to try."));
   }
 
+  @Test
+  public void shouldHedgeToStandbyIfHostIsSlow() throws Exception {
+    // Given:
+    givenHedging(10L);
+    locate(location1);
+    final CountDownLatch hedgeServed = new CountDownLatch(1);
+    doAnswer(i -> {
+      final PullQueryQueue queue = i.getArgument(1);
+      assertThat(hedgeServed.await(5, TimeUnit.SECONDS), is(true));
+      queue.acceptRow(PQ_ROW1);
+      return null;
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1)), any(), any());
+    when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
+        i -> {
+          Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
+          rowConsumer.accept(
+              ImmutableList.of(
+                  StreamedRow.header(queryId, logicalSchema),
+                  StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
+          hedgeServed.countDown();
+          return RestResponse.successful(200, 2);
+        }
+    );
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(serviceContext, pullPhysicalPlan,
+        statement, routingOptions, logicalSchema, queryId, pullQueryQueue);
+    future.get();
+
+    // Then:
+    verify(pullPhysicalPlan, timeout(5000)).execute(any(), any(), any());
+    assertThat(pullQueryQueue.size(), is(1));
+    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW2));
+    verify(pullQueryMetrics).recordHedgedRequest();
+    verify(pullQueryMetrics).recordHedgeWon();
+  }
+
+  @Test
+  public void shouldNotHedgeIfHostAnswersInTime() throws Exception {
+    // Given:
+    givenHedging(10_000L);
+    locate(location1);
+    doAnswer(i -> {
+      final PullQueryQueue queue = i.getArgument(1);
+      queue.acceptRow(PQ_ROW1);
+      return null;
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1)), any(), any());
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(serviceContext, pullPhysicalPlan,
+        statement, routingOptions, logicalSchema, queryId, pullQueryQueue);
+    future.get();
+
+    // Then:
+    verify(ksqlClient, never()).makeQueryRequest(any(), any(), any(), any(), any());
+    assertThat(pullQueryQueue.size(), is(1));
+    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW1));
+    verify(pullQueryMetrics, never()).recordHedgedRequest();
+  }
+
+  @Test
+  public void shouldHedgeImmediatelyOnStandbyFallback() throws Exception {
+    // Given:
+    givenHedging(10_000L);
+    locate(location1);
+    doAnswer(i -> {
+      throw new StandbyFallbackException("Error!");
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1)), any(), any());
+    when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
+        i -> {
+          Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
+          rowConsumer.accept(
+              ImmutableList.of(
+                  StreamedRow.header(queryId, logicalSchema),
+                  StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
+          return RestResponse.successful(200, 2);
+        }
+    );
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(serviceContext, pullPhysicalPlan,
+        statement, routingOptions, logicalSchema, queryId, pullQueryQueue);
+    future.get(5, TimeUnit.SECONDS);
+
+    // Then:
+    assertThat(pullQueryQueue.size(), is(1));
+    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW2));
+    verify(pullQueryMetrics, never()).recordHedgedRequest();
+    verify(pullQueryMetrics, never()).recordHedgeWon();
+  }
+
   @Test
   public void shouldCallRouteQuery_allFiltered() {
     // Given:
@@ -459,6 +588,17 @@ public class HARoutingTest {
         containsString("Schemas logicalSchema2 from host node2 differs from schema logicalSchema"));
   }
 
+  private void givenHedging(final long minDelayMs) {
+    haRouting.close();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_ENABLE_STANDBY_READS)).thenReturn(true);
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_HEDGING_ENABLED)).thenReturn(true);
+    when(ksqlConfig.getDouble(KsqlConfig.KSQL_QUERY_PULL_HEDGING_DELAY_PERCENTILE_CONFIG))
+        .thenReturn(95.0);
+    when(ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_HEDGING_MIN_DELAY_MS_CONFIG))
+        .thenReturn(minDelayMs);
+    haRouting = new HARouting(routingFilterFactory, Optional.of(pullQueryMetrics), ksqlConfig);
+  }
+
   private void locate(final KsqlPartitionLocation... locations) {
     List<KsqlPartitionLocation> locationsList = ImmutableList.copyOf(locations);
     when(pullPhysicalPlan.getMaterialization().locator().locate(
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class HedgeDelayTest {
+
+  @Test
+  public void shouldUseMinDelayWithoutSamples() {
+    // Given:
+    final HedgeDelay delay = new HedgeDelay(95.0, 10);
+
+    // Then:
+    assertThat(delay.delayMicros(), is(10_000L));
+  }
+
+  @Test
+  public void shouldUsePercentileOfRecentLatencies() {
+    // Given:
+    final HedgeDelay delay = new HedgeDelay(90.0, 0);
+
+    // When: 10ms, 20ms, ... 100ms
+    IntStream.rangeClosed(1, 10)
+        .forEach(i -> delay.record(TimeUnit.MILLISECONDS.toNanos(i * 10)));
+
+    // Then:
+    assertThat(delay.delayMicros(), is(90_000L));
+  }
+
+  @Test
+  public void shouldNotGoBelowMinDelay() {
+    // Given:
+    final HedgeDelay delay = new HedgeDelay(50.0, 10);
+
+    // When:
+    IntStream.range(0, 100)
+        .forEach(i -> delay.record(TimeUnit.MILLISECONDS.toNanos(1)));
+
+    // Then:
+    assertThat(delay.delayMicros(), is(10_000L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnInvalidPercentile() {
+    new HedgeDelay(101.0, 10);
+  }
+}
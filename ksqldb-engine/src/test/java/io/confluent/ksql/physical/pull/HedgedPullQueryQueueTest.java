@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.query.PullQueryQueue;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HedgedPullQueryQueueTest {
+
+  @Mock
+  private PullQueryQueue delegate;
+  @Mock
+  private PullQueryRow row;
+
+  private final AtomicReference<PullQueryQueue> winner = new AtomicReference<>();
+  private HedgedPullQueryQueue primary;
+  private HedgedPullQueryQueue hedge;
+
+  @Before
+  public void setUp() {
+    primary = new HedgedPullQueryQueue(delegate, winner);
+    hedge = new HedgedPullQueryQueue(delegate, winner);
+  }
+
+  @Test
+  public void shouldWinRaceWithFirstRows() {
+    // Given:
+    final List<PullQueryRow> rows = ImmutableList.of(row);
+    when(delegate.acceptRows(rows)).thenReturn(true);
+
+    // When:
+    final boolean accepted = primary.acceptRows(rows);
+
+    // Then:
+    assertThat(accepted, is(true));
+    assertThat(primary.isWinner(), is(true));
+    assertThat(hedge.isClosed(), is(true));
+  }
+
+  @Test
+  public void shouldNotWinRaceWithEmptyChunk() {
+    // When:
+    final boolean accepted = primary.acceptRows(ImmutableList.of());
+
+    // Then:
+    assertThat(accepted, is(true));
+    assertThat(primary.isWinner(), is(false));
+    assertThat(hedge.claim(), is(true));
+    verify(delegate, never()).acceptRows(any());
+  }
+
+  @Test
+  public void shouldRejectEmptyChunkOnceRaceIsLost() {
+    // Given:
+    hedge.claim();
+
+    // When:
+    final boolean accepted = primary.acceptRows(ImmutableList.of());
+
+    // Then:
+    assertThat(accepted, is(false));
+  }
+
+  @Test
+  public void shouldDropRowsOnceRaceIsLost() {
+    // Given:
+    hedge.claim();
+
+    // When:
+    final boolean accepted = primary.acceptRows(ImmutableList.of(row));
+
+    // Then:
+    assertThat(accepted, is(false));
+    verify(delegate, never()).acceptRows(any());
+  }
+}
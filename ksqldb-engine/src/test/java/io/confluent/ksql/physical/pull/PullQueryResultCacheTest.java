@@ -0,0 +1,249 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static io.confluent.ksql.GenericKey.genericKey;
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKey;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.TaskId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullQueryResultCacheTest {
+
+  private static final QueryId QUERY_ID = new QueryId("CTAS_1");
+  private static final int PARTITION = 1;
+  private static final GenericKey KEY = genericKey(10);
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .keyColumn(ColumnName.of("K"), SqlTypes.INTEGER)
+      .valueColumn(ColumnName.of("V"), SqlTypes.STRING)
+      .build();
+
+  private static final Row ROW_1 = Row.of(SCHEMA, KEY, genericRow("a"), 1L);
+  private static final Row ROW_2 = Row.of(SCHEMA, KEY, genericRow("b"), 2L);
+
+  @Mock
+  private ProcessorContext context;
+
+  private PullQueryResultCache resultCache;
+  private PullQueryResultCache.QueryCache queryCache;
+  private ValueTransformerWithKey<Object, GenericRow, GenericRow> invalidator;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    resultCache = new PullQueryResultCache();
+    resultCache.configure(1024 * 1024);
+    queryCache = resultCache.forQuery(QUERY_ID).get();
+    invalidator = resultCache.invalidator(QUERY_ID).get();
+  }
+
+  @Test
+  public void shouldNotCacheIfPartitionNotActive() {
+    // When:
+    get(ROW_1);
+    get(ROW_1);
+
+    // Then:
+    assertThat(loads.get(), is(2));
+    assertThat(resultCache.missCount(), is(0L));
+  }
+
+  @Test
+  public void shouldServeRepeatedLookupsFromCache() {
+    // Given:
+    activate(invalidator);
+
+    // When:
+    get(ROW_1);
+    final List<Row> result = get(ROW_2);
+
+    // Then:
+    assertThat(result, contains(ROW_1));
+    assertThat(loads.get(), is(1));
+    assertThat(resultCache.hitCount(), is(1L));
+    assertThat(resultCache.missCount(), is(1L));
+    assertThat(resultCache.sizeBytes(), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void shouldInvalidateOnUpdateOfKey() {
+    // Given:
+    activate(invalidator);
+    get(ROW_1);
+
+    // When:
+    invalidator.transform(KEY, genericRow("b"));
+    final List<Row> result = get(ROW_2);
+
+    // Then:
+    assertThat(result, contains(ROW_2));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void shouldNotInvalidateOnUpdateOfOtherKey() {
+    // Given:
+    activate(invalidator);
+    get(ROW_1);
+
+    // When:
+    invalidator.transform(genericKey(11), genericRow("b"));
+    final List<Row> result = get(ROW_2);
+
+    // Then:
+    assertThat(result, contains(ROW_1));
+  }
+
+  @Test
+  public void shouldInvalidateOnUpdateOfWindowedKey() {
+    // Given:
+    activate(invalidator);
+    get(ROW_1);
+
+    // When:
+    invalidator.transform(new Windowed<>(KEY, new TimeWindow(0, 10)), genericRow("b"));
+    final List<Row> result = get(ROW_2);
+
+    // Then:
+    assertThat(result, contains(ROW_2));
+  }
+
+  @Test
+  public void shouldMissOnDifferentBounds() {
+    // Given:
+    activate(invalidator);
+    queryCache.get(PARTITION, KEY, "bounds-1", loader(ROW_1));
+
+    // When:
+    final List<Row> result = queryCache.get(PARTITION, KEY, "bounds-2", loader(ROW_2));
+
+    // Then:
+    assertThat(result, contains(ROW_2));
+  }
+
+  @Test
+  public void shouldNotCacheRowsReadWhileKeyUpdated() {
+    // Given:
+    activate(invalidator);
+
+    // When:
+    queryCache.get(PARTITION, KEY, null, () -> {
+      invalidator.transform(KEY, genericRow("b"));
+      return ImmutableList.of(ROW_1);
+    });
+    final List<Row> result = get(ROW_2);
+
+    // Then:
+    assertThat(result, contains(ROW_2));
+  }
+
+  @Test
+  public void shouldDropPartitionOnClose() {
+    // Given:
+    activate(invalidator);
+    get(ROW_1);
+
+    // When:
+    invalidator.close();
+    get(ROW_2);
+    get(ROW_2);
+
+    // Then:
+    assertThat(loads.get(), is(3));
+  }
+
+  @Test
+  public void shouldDropPartitionOnReassignment() {
+    // Given:
+    activate(invalidator);
+    get(ROW_1);
+
+    // When:
+    activate(resultCache.invalidator(QUERY_ID).get());
+    final List<Row> result = get(ROW_2);
+
+    // Then:
+    assertThat(result, contains(ROW_2));
+  }
+
+  @Test
+  public void shouldEvictOnceFull() {
+    // Given:
+    resultCache.configure(1);
+    queryCache = resultCache.forQuery(QUERY_ID).get();
+    activate(invalidator);
+
+    // When:
+    get(ROW_1);
+    get(ROW_1);
+
+    // Then:
+    assertThat(loads.get(), is(2));
+    assertThat(resultCache.sizeBytes(), is(0L));
+  }
+
+  @Test
+  public void shouldBeDisabledWithZeroMaxBytes() {
+    // When:
+    resultCache.configure(0);
+
+    // Then:
+    assertThat(resultCache.isEnabled(), is(false));
+    assertThat(resultCache.forQuery(QUERY_ID).isPresent(), is(false));
+  }
+
+  private void activate(final ValueTransformerWithKey<Object, GenericRow, GenericRow> processor) {
+    when(context.taskId()).thenReturn(new TaskId(0, PARTITION));
+    processor.init(context);
+  }
+
+  private List<Row> get(final Row row) {
+    return queryCache.get(PARTITION, KEY, null, loader(row));
+  }
+
+  private Supplier<List<Row>> loader(final Row row) {
+    return () -> {
+      loads.incrementAndGet();
+      return ImmutableList.of(row);
+    };
+  }
+}
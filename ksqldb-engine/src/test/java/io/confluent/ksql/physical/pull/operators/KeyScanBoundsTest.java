@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull.operators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.FormatInfo;
+import java.util.Optional;
+import org.junit.Test;
+
+public class KeyScanBoundsTest {
+
+  private static final FormatInfo KAFKA = FormatInfo.of("KAFKA");
+  private static final FormatInfo JSON = FormatInfo.of("JSON");
+
+  @Test
+  public void shouldBoundStringKeys() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closedOpen("a", "c"), KAFKA, SqlTypes.STRING);
+
+    // Then:
+    assertThat(bounds.getFrom(), is(Optional.of(GenericKey.genericKey("a"))));
+    assertThat(bounds.getTo(), is(Optional.of(GenericKey.genericKey("c"))));
+  }
+
+  @Test
+  public void shouldNotBoundStringKeysWithSurrogates() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>atLeast("😀"), KAFKA, SqlTypes.STRING);
+
+    // Then:
+    assertThat(bounds.isBounded(), is(false));
+  }
+
+  @Test
+  public void shouldBoundNonNegativeIntegerKeys() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closed(0, 10), KAFKA, SqlTypes.INTEGER);
+
+    // Then:
+    assertThat(bounds.getFrom(), is(Optional.of(GenericKey.genericKey(0))));
+    assertThat(bounds.getTo(), is(Optional.of(GenericKey.genericKey(10))));
+  }
+
+  @Test
+  public void shouldScanToEndForNonNegativeLowerBoundWithoutUpperBound() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>greaterThan(5L), KAFKA, SqlTypes.BIGINT);
+
+    // Then:
+    assertThat(bounds.getFrom(), is(Optional.of(GenericKey.genericKey(5L))));
+    assertThat(bounds.getTo(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldBoundNegativeIntegerKeys() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closed(-10, -5), KAFKA, SqlTypes.INTEGER);
+
+    // Then:
+    assertThat(bounds.getFrom(), is(Optional.of(GenericKey.genericKey(-10))));
+    assertThat(bounds.getTo(), is(Optional.of(GenericKey.genericKey(-5))));
+  }
+
+  @Test
+  public void shouldNotBoundIntegerKeysSpanningZero() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closed(-10, 10), KAFKA, SqlTypes.INTEGER);
+
+    // Then:
+    assertThat(bounds.isBounded(), is(false));
+  }
+
+  @Test
+  public void shouldNotBoundKeysOfOtherFormats() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closed(0, 10), JSON, SqlTypes.INTEGER);
+
+    // Then:
+    assertThat(bounds.isBounded(), is(false));
+  }
+
+  @Test
+  public void shouldNotBoundKeysOfOtherTypes() {
+    // When:
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closed(1.0, 2.0), KAFKA, SqlTypes.DOUBLE);
+
+    // Then:
+    assertThat(bounds.isBounded(), is(false));
+  }
+}
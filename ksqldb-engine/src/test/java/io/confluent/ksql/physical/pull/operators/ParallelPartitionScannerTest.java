@@ -0,0 +1,243 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull.operators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.util.CloseableIterator;
+import io.confluent.ksql.util.IteratorUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class ParallelPartitionScannerTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Rule
+  public final Timeout timeout = Timeout.seconds(30);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final AtomicInteger opened = new AtomicInteger();
+  private final AtomicInteger closed = new AtomicInteger();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldReturnRowsOfAllPartitions() {
+    // Given:
+    final Map<Integer, List<String>> rows = ImmutableMap.of(
+        0, ImmutableList.of("a", "b"),
+        1, ImmutableList.of(),
+        2, ImmutableList.of("c"),
+        3, ImmutableList.of("d", "e", "f"));
+    final ParallelPartitionScanner<String> scanner = new ParallelPartitionScanner<>(
+        ImmutableList.of(0, 1, 2, 3),
+        partition -> closeable(rows.get(partition).iterator()),
+        2, executor, 2, TIMEOUT);
+
+    // When:
+    scanner.start();
+    final List<String> result = drain(scanner);
+
+    // Then:
+    assertThat(result, containsInAnyOrder("a", "b", "c", "d", "e", "f"));
+    assertThat(scanner.next(), is(nullValue()));
+    assertThat(closed.get(), is(4));
+  }
+
+  @Test
+  public void shouldNotReadAheadMoreThanBufferSize() throws Exception {
+    // Given:
+    final AtomicInteger produced = new AtomicInteger();
+    final ParallelPartitionScanner<Integer> scanner = new ParallelPartitionScanner<>(
+        ImmutableList.of(0), partition -> closeable(counting(produced, 100)), 1, executor, 5,
+        TIMEOUT);
+
+    // When:
+    scanner.start();
+    scanner.next();
+    TimeUnit.MILLISECONDS.sleep(200);
+
+    // Then: one row returned, five buffered and one held by the parked worker:
+    assertThat(produced.get(), is(lessThanOrEqualTo(7)));
+    scanner.close();
+  }
+
+  @Test
+  public void shouldThrowIfPartitionScanFails() {
+    // Given:
+    final ParallelPartitionScanner<String> scanner = new ParallelPartitionScanner<>(
+        ImmutableList.of(0, 1),
+        partition -> {
+          if (partition == 1) {
+            throw new IllegalStateException("boom");
+          }
+          return closeable(ImmutableList.<String>of().iterator());
+        },
+        2, executor, 10, TIMEOUT);
+
+    // When:
+    scanner.start();
+    final Exception e = assertThrows(IllegalStateException.class, () -> drain(scanner));
+
+    // Then:
+    assertThat(e.getMessage(), is("boom"));
+  }
+
+  @Test
+  public void shouldStopScanningOnClose() throws Exception {
+    // Given:
+    final AtomicInteger produced = new AtomicInteger();
+    final ParallelPartitionScanner<Integer> scanner = new ParallelPartitionScanner<>(
+        ImmutableList.of(0, 1),
+        partition -> closeable(counting(produced, Integer.MAX_VALUE)),
+        2, executor, 1, TIMEOUT);
+    scanner.start();
+    scanner.next();
+
+    // When:
+    scanner.close();
+    executor.shutdown();
+
+    // Then:
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+    assertThat(closed.get(), is(opened.get()));
+  }
+
+  @Test
+  public void shouldCloseIteratorOfPartitionIfReadingItFails() throws Exception {
+    // Given:
+    final ParallelPartitionScanner<Integer> scanner = new ParallelPartitionScanner<>(
+        ImmutableList.of(0),
+        partition -> closeable(IntStream.range(0, 10)
+            .peek(i -> {
+              if (i == 1) {
+                throw new IllegalStateException("boom");
+              }
+            })
+            .iterator()),
+        1, executor, 10, TIMEOUT);
+
+    // When:
+    scanner.start();
+    assertThrows(IllegalStateException.class, () -> drain(scanner));
+    executor.shutdown();
+
+    // Then:
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+    assertThat(closed.get(), is(1));
+  }
+
+  @Test
+  public void shouldNotHoldExecutorThreadWhileConsumerIsSlow() {
+    // Given:
+    final ExecutorService singleThread = Executors.newSingleThreadExecutor();
+    try {
+      final ParallelPartitionScanner<Integer> slow = new ParallelPartitionScanner<>(
+          ImmutableList.of(0), partition -> closeable(counting(new AtomicInteger(), 100)),
+          1, singleThread, 5, TIMEOUT);
+      final ParallelPartitionScanner<Integer> other = new ParallelPartitionScanner<>(
+          ImmutableList.of(0), partition -> closeable(counting(new AtomicInteger(), 100)),
+          1, singleThread, 5, TIMEOUT);
+      slow.start();
+      slow.next();
+
+      // When:
+      other.start();
+      final List<Integer> result = drain(other);
+
+      // Then:
+      assertThat(result.size(), is(100));
+      assertThat(drain(slow).size(), is(99));
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldTimeOutIfNoRowsArrive() {
+    // Given:
+    final ExecutorService idle = Executors.newSingleThreadExecutor();
+    try {
+      idle.submit(() -> {
+        TimeUnit.SECONDS.sleep(10);
+        return null;
+      });
+      final ParallelPartitionScanner<String> scanner = new ParallelPartitionScanner<>(
+          ImmutableList.of(0), partition -> closeable(ImmutableList.of("a").iterator()),
+          1, idle, 5, Duration.ofMillis(200));
+      scanner.start();
+
+      // When:
+      final Exception e = assertThrows(KsqlException.class, scanner::next);
+
+      // Then:
+      assertThat(e.getMessage(), is("Timed out after 200ms waiting for rows from partition "
+          + "scans."));
+    } finally {
+      idle.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnInvalidParallelism() {
+    new ParallelPartitionScanner<>(
+        ImmutableList.of(0), partition -> IteratorUtil.of(), 0, executor, 1, TIMEOUT);
+  }
+
+  private static <T> List<T> drain(final ParallelPartitionScanner<T> scanner) {
+    final List<T> result = new ArrayList<>();
+    T row;
+    while ((row = scanner.next()) != null) {
+      result.add(row);
+    }
+    return result;
+  }
+
+  private <T> CloseableIterator<T> closeable(final Iterator<T> rows) {
+    opened.incrementAndGet();
+    return IteratorUtil.onClose(rows, closed::incrementAndGet);
+  }
+
+  private static Iterator<Integer> counting(final AtomicInteger produced, final int count) {
+    return IntStream.range(0, count)
+        .peek(i -> produced.incrementAndGet())
+        .iterator();
+  }
+}
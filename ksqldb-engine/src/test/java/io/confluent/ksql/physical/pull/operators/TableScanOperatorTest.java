@@ -1,11 +1,16 @@
 package io.confluent.ksql.physical.pull.operators;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.confluent.ksql.GenericKey;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
@@ -13,6 +18,9 @@ import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.Row;
 import io.confluent.ksql.execution.streams.materialization.ks.KsLocator;
 import io.confluent.ksql.planner.plan.DataSourceNode;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.FormatInfo;
+import io.confluent.ksql.util.CloseableIterator;
 import io.confluent.ksql.util.IteratorUtil;
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +52,8 @@ public class TableScanOperatorTest {
   private Row ROW3_1;
   @Mock
   private Row ROW3_2;
+  @Mock
+  private CloseableIterator<Row> rows;
 
   @Test
   public void shouldLookupRowsForTableScan() {
@@ -78,4 +88,84 @@ public class TableScanOperatorTest {
     assertThat(lookupOperator.next(), is(nullValue()));
     assertThat(lookupOperator.getReturnedRowCount(), is(4L));
   }
+
+  @Test
+  public void shouldLookupRowsForParallelTableScan() {
+    //Given:
+    final List<KsqlPartitionLocation> partitionLocations = ImmutableList.of(
+        new KsLocator.PartitionLocation(Optional.empty(), 1, ImmutableList.of(node1)),
+        new KsLocator.PartitionLocation(Optional.empty(), 2, ImmutableList.of(node2)),
+        new KsLocator.PartitionLocation(Optional.empty(), 3, ImmutableList.of(node3)));
+
+    final TableScanOperator lookupOperator
+        = new TableScanOperator(materialization, logicalNode, 2, KeyScanBounds.all());
+    when(materialization.nonWindowed()).thenReturn(nonWindowedTable);
+
+    when(nonWindowedTable.get(1)).thenReturn(IteratorUtil.of(ROW1_1, ROW1_2));
+    when(nonWindowedTable.get(2)).thenReturn(IteratorUtil.of());
+    when(nonWindowedTable.get(3)).thenReturn(IteratorUtil.of(ROW3_1, ROW3_2));
+
+    lookupOperator.setPartitionLocations(partitionLocations);
+    lookupOperator.open();
+
+    //When:
+    final List<Object> rows = new ArrayList<>();
+    Object row;
+    while ((row = lookupOperator.next()) != null) {
+      rows.add(row);
+    }
+    lookupOperator.close();
+
+    //Then:
+    assertThat(rows, containsInAnyOrder(ROW1_1, ROW1_2, ROW3_1, ROW3_2));
+    assertThat(lookupOperator.next(), is(nullValue()));
+    assertThat(lookupOperator.getReturnedRowCount(), is(4L));
+  }
+
+  @Test
+  public void shouldScanOnlyKeysWithinBounds() {
+    //Given:
+    final List<KsqlPartitionLocation> partitionLocations = ImmutableList.of(
+        new KsLocator.PartitionLocation(Optional.empty(), 1, ImmutableList.of(node1)));
+    final KeyScanBounds bounds = KeyScanBounds.of(
+        Range.<Comparable<?>>closed(5, 10), FormatInfo.of("KAFKA"), SqlTypes.INTEGER);
+
+    final TableScanOperator lookupOperator
+        = new TableScanOperator(materialization, logicalNode, 1, bounds);
+    when(materialization.nonWindowed()).thenReturn(nonWindowedTable);
+    when(nonWindowedTable.get(1, GenericKey.genericKey(5), GenericKey.genericKey(10)))
+        .thenReturn(IteratorUtil.of(ROW1_1));
+
+    lookupOperator.setPartitionLocations(partitionLocations);
+    lookupOperator.open();
+
+    //Then:
+    assertThat(lookupOperator.next(), is(ROW1_1));
+    assertThat(lookupOperator.next(), is(nullValue()));
+    verify(nonWindowedTable, never()).get(1);
+  }
+
+  @Test
+  public void shouldCloseIteratorOfPartitionIfClosedBeforeExhausted() {
+    //Given:
+    final List<KsqlPartitionLocation> partitionLocations = ImmutableList.of(
+        new KsLocator.PartitionLocation(Optional.empty(), 1, ImmutableList.of(node1)));
+
+    final TableScanOperator lookupOperator
+        = new TableScanOperator(materialization, logicalNode);
+    when(materialization.nonWindowed()).thenReturn(nonWindowedTable);
+    when(nonWindowedTable.get(1)).thenReturn(rows);
+    when(rows.hasNext()).thenReturn(true);
+    when(rows.next()).thenReturn(ROW1_1);
+
+    lookupOperator.setPartitionLocations(partitionLocations);
+    lookupOperator.open();
+    lookupOperator.next();
+
+    //When:
+    lookupOperator.close();
+
+    //Then:
+    verify(rows).close();
+  }
 }
@@ -1,6 +1,7 @@
 package io.confluent.ksql.physical.pull.operators;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.when;
@@ -81,4 +82,38 @@ public class WindowedTableScanOperatorTest {
     assertThat(lookupOperator.next(), is(nullValue()));
     assertThat(lookupOperator.getReturnedRowCount(), is(5L));
   }
+
+  @Test
+  public void shouldLookupRowsForParallelTableScan() {
+    //Given:
+    final List<KsqlPartitionLocation> partitionLocations = ImmutableList.of(
+        new KsLocator.PartitionLocation(Optional.empty(), 1, ImmutableList.of(node1)),
+        new KsLocator.PartitionLocation(Optional.empty(), 2, ImmutableList.of(node2)),
+        new KsLocator.PartitionLocation(Optional.empty(), 3, ImmutableList.of(node3)));
+
+    final WindowedTableScanOperator lookupOperator =
+        new WindowedTableScanOperator(materialization, logicalNode, 3, KeyScanBounds.all());
+    when(materialization.windowed()).thenReturn(windowedTable);
+    when(windowedTable.get(1, Range.all(), Range.all()))
+        .thenReturn(IteratorUtil.of(WINDOWED_ROW1, WINDOWED_ROW2));
+    when(windowedTable.get(2, Range.all(), Range.all()))
+        .thenReturn(IteratorUtil.of());
+    when(windowedTable.get(3, Range.all(), Range.all()))
+        .thenReturn(IteratorUtil.of(WINDOWED_ROW3, WINDOWED_ROW4));
+    lookupOperator.setPartitionLocations(partitionLocations);
+    lookupOperator.open();
+
+    //When:
+    final List<Object> rows = new ArrayList<>();
+    Object row;
+    while ((row = lookupOperator.next()) != null) {
+      rows.add(row);
+    }
+    lookupOperator.close();
+
+    //Then:
+    assertThat(rows,
+        containsInAnyOrder(WINDOWED_ROW1, WINDOWED_ROW2, WINDOWED_ROW3, WINDOWED_ROW4));
+    assertThat(lookupOperator.getReturnedRowCount(), is(4L));
+  }
 }
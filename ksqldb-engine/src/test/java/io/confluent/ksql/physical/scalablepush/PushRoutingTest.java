@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.scalablepush;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.services.ServiceContext;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
+import java.util.concurrent.ExecutorService;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.StreamsMetadata;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PushRoutingTest {
+
+  @Mock
+  private ExecutorService executorService;
+  @Mock
+  private ServiceContext serviceContext;
+  @Mock
+  private ScalablePushQueryMetadata query;
+  @Mock
+  private PersistentQueryMetadata sourceQuery;
+  @Mock
+  private ConfiguredStatement<Query> statement;
+  @Captor
+  private ArgumentCaptor<Runnable> requestCaptor;
+  @Captor
+  private ArgumentCaptor<Throwable> errorCaptor;
+
+  @Before
+  public void setUp() {
+    when(query.getSourceQuery()).thenReturn(sourceQuery);
+    when(sourceQuery.getStreamsProperties()).thenReturn(ImmutableMap.of(
+        StreamsConfig.APPLICATION_SERVER_CONFIG, "http://local:8088"));
+    when(sourceQuery.getAllMetadata()).thenReturn(ImmutableList.of(
+        metadata("local", 0),
+        metadata("remote1", 1),
+        metadata("remote2", 2)
+    ));
+  }
+
+  @Test
+  public void shouldForwardToEachRemoteHost() {
+    // Given:
+    final PushRouting routing = new PushRouting(executorService, 2);
+
+    // When:
+    routing.handlePushQuery(serviceContext, query, statement);
+
+    // Then:
+    verify(executorService, times(2)).execute(any());
+    verify(query, never()).fail(any());
+  }
+
+  @Test
+  public void shouldFailQueryThatWouldExceedMaxForwardedRequests() {
+    // Given:
+    final PushRouting routing = new PushRouting(executorService, 3);
+    routing.handlePushQuery(serviceContext, query, statement);
+
+    // When:
+    routing.handlePushQuery(serviceContext, query, statement);
+
+    // Then:
+    verify(executorService, times(2)).execute(any());
+    verify(query).fail(errorCaptor.capture());
+    assertThat(errorCaptor.getValue().getMessage(), containsString(
+        "as this host is already forwarding the maximum of 3 requests"));
+  }
+
+  @Test
+  public void shouldAdmitQueryOnceForwardedRequestsEnd() {
+    // Given:
+    final PushRouting routing = new PushRouting(executorService, 2);
+    routing.handlePushQuery(serviceContext, query, statement);
+    verify(executorService, times(2)).execute(requestCaptor.capture());
+
+    // When:
+    // The requests end as soon as they start, as the service context has no client:
+    requestCaptor.getAllValues().forEach(Runnable::run);
+    routing.handlePushQuery(serviceContext, query, statement);
+
+    // Then:
+    verify(executorService, times(4)).execute(any());
+    verify(query, never()).fail(any());
+  }
+
+  private static StreamsMetadata metadata(final String host, final int partition) {
+    return new StreamsMetadata(
+        new HostInfo(host, 8088),
+        ImmutableSet.of(),
+        ImmutableSet.of(new TopicPartition("topic", partition)),
+        ImmutableSet.of(),
+        ImmutableSet.of()
+    );
+  }
+}
@@ -36,9 +36,12 @@ import io.confluent.ksql.execution.expression.tree.InListExpression;
 import io.confluent.ksql.execution.expression.tree.InPredicate;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.NotExpression;
 import io.confluent.ksql.execution.expression.tree.NullLiteral;
+import io.confluent.ksql.execution.expression.tree.SearchedCaseExpression;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.expression.tree.WhenClause;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.name.ColumnName;
@@ -1534,6 +1537,178 @@ public class PullFilterNodeTest {
     assertThat(e.getMessage(), containsString("Cannot use WINDOWSTART/WINDOWEND on non-windowed source."));
   }
 
+  @Test
+  public void shouldExtractKeyRangeConstraint_tableScan() {
+    // Given:
+    when(plannerOptions.getTableScansEnabled()).thenReturn(true);
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_RANGE_SCAN_ENABLED)).thenReturn(true);
+    final Expression expression = new LogicalBinaryExpression(
+        LogicalBinaryExpression.Type.AND,
+        new ComparisonExpression(
+            Type.GREATER_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(1)
+        ),
+        new ComparisonExpression(
+            Type.GREATER_THAN_OR_EQUAL,
+            new IntegerLiteral(10),
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K"))
+        )
+    );
+
+    // When:
+    final List<LookupConstraint> keys = extractConstraints(expression);
+
+    // Then:
+    assertThat(keys, is(ImmutableList.of(
+        new KeyRangeConstraint(Range.<Comparable<?>>openClosed(1, 10)))));
+  }
+
+  @Test
+  public void shouldIgnoreNonKeyColumnsWhenExtractingKeyRange_tableScan() {
+    // Given:
+    when(plannerOptions.getTableScansEnabled()).thenReturn(true);
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_RANGE_SCAN_ENABLED)).thenReturn(true);
+    final Expression expression = new LogicalBinaryExpression(
+        LogicalBinaryExpression.Type.AND,
+        new ComparisonExpression(
+            Type.LESS_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(5)
+        ),
+        new ComparisonExpression(
+            Type.EQUAL,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("COL0")),
+            new StringLiteral("abc")
+        )
+    );
+
+    // When:
+    final List<LookupConstraint> keys = extractConstraints(expression);
+
+    // Then:
+    assertThat(keys, is(ImmutableList.of(
+        new KeyRangeConstraint(Range.<Comparable<?>>lessThan(5)))));
+  }
+
+  @Test
+  public void shouldExtractEmptyKeyRangeForDisjointBounds_tableScan() {
+    // Given:
+    when(plannerOptions.getTableScansEnabled()).thenReturn(true);
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_RANGE_SCAN_ENABLED)).thenReturn(true);
+    final Expression expression = new LogicalBinaryExpression(
+        LogicalBinaryExpression.Type.AND,
+        new ComparisonExpression(
+            Type.LESS_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(5)
+        ),
+        new ComparisonExpression(
+            Type.GREATER_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(10)
+        )
+    );
+
+    // When:
+    final List<LookupConstraint> keys = extractConstraints(expression);
+
+    // Then:
+    assertThat(keys.size(), is(1));
+    assertThat(((KeyRangeConstraint) keys.get(0)).getRange().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldThrowOnNegatedComparisonEvenIfTableScansEnabled() {
+    // Given:
+    when(plannerOptions.getTableScansEnabled()).thenReturn(true);
+    final Expression expression = new LogicalBinaryExpression(
+        LogicalBinaryExpression.Type.AND,
+        new ComparisonExpression(
+            Type.LESS_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(10)
+        ),
+        new NotExpression(new ComparisonExpression(
+            Type.GREATER_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(5)
+        ))
+    );
+
+    // When:
+    final KsqlException e = assertThrows(
+        KsqlException.class,
+        () -> extractConstraints(expression)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString(
+        "Unsupported expression in WHERE clause: (NOT (K > 5))"));
+  }
+
+  @Test
+  public void shouldThrowOnComparisonWithinCaseEvenIfTableScansEnabled() {
+    // Given:
+    when(plannerOptions.getTableScansEnabled()).thenReturn(true);
+    final Expression expression = new LogicalBinaryExpression(
+        LogicalBinaryExpression.Type.AND,
+        new ComparisonExpression(
+            Type.LESS_THAN,
+            new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+            new IntegerLiteral(10)
+        ),
+        new SearchedCaseExpression(
+            ImmutableList.of(new WhenClause(
+                new ComparisonExpression(
+                    Type.GREATER_THAN,
+                    new UnqualifiedColumnReferenceExp(ColumnName.of("K")),
+                    new IntegerLiteral(5)
+                ),
+                new BooleanLiteral(false)
+            )),
+            Optional.of(new BooleanLiteral(true))
+        )
+    );
+
+    // When:
+    final KsqlException e = assertThrows(
+        KsqlException.class,
+        () -> extractConstraints(expression)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Unsupported expression in WHERE clause"));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldNotExtractKeyRangeIfKeyUnbounded_tableScan() {
+    // Given:
+    when(plannerOptions.getTableScansEnabled()).thenReturn(true);
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_RANGE_SCAN_ENABLED)).thenReturn(true);
+    final Expression expression = new ComparisonExpression(
+        Type.GREATER_THAN,
+        new UnqualifiedColumnReferenceExp(ColumnName.of("COL0")),
+        new StringLiteral("abc")
+    );
+
+    // Then:
+    expectTableScan(expression, false);
+  }
+
+  private List<LookupConstraint> extractConstraints(final Expression expression) {
+    return new PullFilterNode(
+        NODE_ID,
+        source,
+        expression,
+        metaStore,
+        ksqlConfig,
+        false,
+        plannerOptions
+    ).getLookupConstraints();
+  }
+
   @SuppressWarnings("unchecked")
   private void expectTableScan(final Expression expression, final boolean windowed) {
     // Given:
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.config.SessionConfig;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.properties.with.CreateSourceAsProperties;
+import io.confluent.ksql.parser.tree.CreateTableAsSelect;
+import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.properties.with.CreateAsConfigs;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RocksDBProfileInjectorTest {
+
+  private static final ImmutableMap<String, Object> OVERRIDES = ImmutableMap.of(
+      KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG, true
+  );
+
+  @Mock
+  private CreateTableAsSelect ctas;
+  @Mock
+  private Statement statement;
+
+  private RocksDBProfileInjector injector;
+
+  @Before
+  public void setUp() {
+    injector = new RocksDBProfileInjector();
+  }
+
+  @Test
+  public void shouldMoveProfileIntoOverrides() {
+    // Given:
+    when(ctas.getProperties()).thenReturn(CreateSourceAsProperties.from(ImmutableMap.of(
+        CreateAsConfigs.ROCKSDB_PROFILE_PROPERTY, new StringLiteral("point_lookup"))));
+
+    // When:
+    final ConfiguredStatement<CreateTableAsSelect> result = injector.inject(configured(ctas));
+
+    // Then:
+    assertThat(result.getSessionConfig().getOverrides(), is(ImmutableMap.of(
+        KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG, true,
+        KsqlConfig.KSQL_ROCKSDB_STORE_PROFILE_CONFIG, "POINT_LOOKUP"
+    )));
+  }
+
+  @Test
+  public void shouldNotChangeStatementWithoutProfile() {
+    // Given:
+    when(ctas.getProperties()).thenReturn(CreateSourceAsProperties.none());
+    final ConfiguredStatement<CreateTableAsSelect> configured = configured(ctas);
+
+    // When:
+    final ConfiguredStatement<CreateTableAsSelect> result = injector.inject(configured);
+
+    // Then:
+    assertThat(result, is(sameInstance(configured)));
+  }
+
+  @Test
+  public void shouldNotChangeOtherStatements() {
+    // Given:
+    final ConfiguredStatement<Statement> configured = configured(statement);
+
+    // When:
+    final ConfiguredStatement<Statement> result = injector.inject(configured);
+
+    // Then:
+    assertThat(result, is(sameInstance(configured)));
+  }
+
+  private static <T extends Statement> ConfiguredStatement<T> configured(final T statement) {
+    return ConfiguredStatement.of(
+        PreparedStatement.of("sql", statement),
+        SessionConfig.of(new KsqlConfig(ImmutableMap.of()), OVERRIDES)
+    );
+  }
+}
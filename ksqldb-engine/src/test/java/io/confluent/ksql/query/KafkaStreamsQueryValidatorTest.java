@@ -15,6 +15,7 @@
 package io.confluent.ksql.query;
 
 import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -25,9 +26,11 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalLong;
 import org.apache.kafka.streams.StreamsConfig;
 import org.junit.Before;
@@ -111,6 +114,41 @@ public class KafkaStreamsQueryValidatorTest {
     );
   }
 
+  @Test
+  public void shouldCountBufferCacheOfSharedRuntimeOnce() {
+    // Given:
+    when(transientQueryMetadata1.getSharedRuntimeId()).thenReturn(Optional.of("shared"));
+    when(transientQueryMetadata2.getSharedRuntimeId()).thenReturn(Optional.of("shared"));
+    final SessionConfig config = configWithLimitsTransient(5, OptionalLong.of(20));
+
+    // When/Then (no throw)
+    queryValidator.validateTransientQuery(config, plan, queries);
+  }
+
+  @Test
+  public void shouldCountBufferCacheOfSharedPersistentRuntimeOnce() {
+    // Given:
+    when(persistentQueryMetadata1.getSharedRuntimeId()).thenReturn(Optional.of("shared"));
+    when(persistentQueryMetadata2.getSharedRuntimeId()).thenReturn(Optional.of("shared"));
+    final SessionConfig config = configWithLimits(5, OptionalLong.of(20));
+
+    // When/Then (no throw)
+    queryValidator.validateQuery(config, plan, queries);
+  }
+
+  @Test
+  public void shouldNotCountBufferCacheOfScalablePushQueries() {
+    // Given:
+    final Collection<QueryMetadata> withPushQuery = ImmutableList.<QueryMetadata>builder()
+        .addAll(queries)
+        .add(mock(ScalablePushQueryMetadata.class))
+        .build();
+    final SessionConfig config = configWithLimitsTransient(5, OptionalLong.of(40));
+
+    // When/Then (no throw)
+    queryValidator.validateTransientQuery(config, plan, withPushQuery);
+  }
+
   @Test
   public void shouldIgnoreBufferCacheLimitIfNotSetForTransientQueries() {
     // Given:
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import org.apache.kafka.common.utils.MockTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OverflowBufferTest {
+
+  private static final GenericRow ROW1 = genericRow(1);
+  private static final GenericRow ROW2 = genericRow(2);
+  private static final long MAX_LAG_MS = OverflowBuffer.MAX_LAG.toMillis();
+
+  @Mock
+  private TransientQueryQueue queue;
+
+  private final MockTime time = new MockTime();
+  private OverflowBuffer buffer;
+
+  @Before
+  public void setUp() {
+    buffer = new OverflowBuffer(queue, time);
+  }
+
+  @Test
+  public void shouldQueueRowIfThereIsRoom() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(true);
+
+    // When:
+    final boolean result = buffer.offer(ROW1);
+
+    // Then:
+    assertThat(result, is(true));
+    verify(queue).offerRow(null, ROW1);
+  }
+
+  @Test
+  public void shouldBufferRowIfQueueIsFull() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false);
+
+    // When:
+    final boolean result = buffer.offer(ROW1);
+
+    // Then:
+    assertThat(result, is(true));
+  }
+
+  @Test
+  public void shouldQueueBufferedRowsFirst() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false, true);
+    when(queue.offerRow(null, ROW2)).thenReturn(true);
+    buffer.offer(ROW1);
+
+    // When:
+    buffer.offer(ROW2);
+
+    // Then:
+    final InOrder inOrder = inOrder(queue);
+    inOrder.verify(queue).offerRow(null, ROW1);
+    inOrder.verify(queue).offerRow(null, ROW1);
+    inOrder.verify(queue).offerRow(null, ROW2);
+  }
+
+  @Test
+  public void shouldDrainBufferedRows() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false, true);
+    buffer.offer(ROW1);
+
+    // When:
+    final boolean result = buffer.drain();
+
+    // Then:
+    assertThat(result, is(true));
+    assertThat(buffer.drain(), is(true));
+  }
+
+  @Test
+  public void shouldFallBehindIfNoProgressForMaxLag() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false);
+    buffer.offer(ROW1);
+    time.sleep(MAX_LAG_MS - 1);
+    assertThat(buffer.drain(), is(true));
+
+    // When:
+    time.sleep(1);
+
+    // Then:
+    assertThat(buffer.drain(), is(false));
+  }
+
+  @Test
+  public void shouldRestartLagOnProgress() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false, false, true, false);
+    buffer.offer(ROW1);
+    buffer.offer(ROW1);
+    time.sleep(MAX_LAG_MS - 1);
+    buffer.drain();
+
+    // When:
+    time.sleep(MAX_LAG_MS - 1);
+
+    // Then:
+    assertThat(buffer.drain(), is(true));
+  }
+
+  @Test
+  public void shouldFallBehindOnceOverflowIsFull() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false);
+    for (int i = 0; i < OverflowBuffer.MAX_OVERFLOW_ROWS; i++) {
+      assertThat(buffer.offer(ROW1), is(true));
+    }
+
+    // When:
+    final boolean result = buffer.offer(ROW1);
+
+    // Then:
+    assertThat(result, is(false));
+  }
+
+  @Test
+  public void shouldDropBufferedRowsOnClear() {
+    // Given:
+    when(queue.offerRow(null, ROW1)).thenReturn(false);
+    buffer.offer(ROW1);
+
+    // When:
+    buffer.clear();
+    buffer.drain();
+
+    // Then:
+    verify(queue).offerRow(null, ROW1);
+  }
+}
@@ -1,20 +1,26 @@
 package io.confluent.ksql.query;
 
+import static io.confluent.ksql.GenericKey.genericKey;
+import static io.confluent.ksql.GenericRow.genericRow;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericKey;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.config.SessionConfig;
 import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
@@ -22,14 +28,27 @@ import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.execution.plan.ExecutionStepPropertiesV1;
+import io.confluent.ksql.execution.plan.Formats;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamSelect;
+import io.confluent.ksql.execution.plan.StreamSink;
+import io.confluent.ksql.execution.plan.StreamSource;
 import io.confluent.ksql.execution.streams.materialization.KsqlMaterializationFactory;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterialization;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterializationFactory;
+import io.confluent.ksql.execution.timestamp.TimestampColumn;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
@@ -40,6 +59,8 @@ import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.ProducerCollector;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
+import io.confluent.ksql.rocksdb.RocksDBStoreProfile;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.schema.ksql.SystemColumns;
@@ -54,6 +75,9 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
+import io.confluent.ksql.util.SharedPersistentQueryMetadata;
+import io.confluent.ksql.util.SharedTransientQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import java.util.Collections;
 import java.util.List;
@@ -62,6 +86,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -76,6 +101,10 @@ import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.TopologyDescription;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKeySupplier;
+import org.apache.kafka.streams.processor.internals.DefaultKafkaClientSupplier;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -119,6 +148,42 @@ public class QueryExecutorTest {
       SerdeFeatures.of(),
       SerdeFeatures.of()
   );
+  private static final String SINK_TOPIC = "sink-topic";
+  private static final String RUNTIME_ID = "runtime-id";
+
+  private static final Formats STEP_FORMATS = Formats.of(
+      FormatInfo.of(FormatFactory.KAFKA.name()),
+      FormatInfo.of(FormatFactory.JSON.name()),
+      SerdeFeatures.of(),
+      SerdeFeatures.of()
+  );
+
+  private static final StreamSource SOURCE_STEP = new StreamSource(
+      new ExecutionStepPropertiesV1(new Stacker().push("source").getQueryContext()),
+      "source-topic",
+      STEP_FORMATS,
+      Optional.empty(),
+      SINK_SCHEMA
+  );
+
+  private static final StreamSelect<GenericKey> SELECT_STEP = new StreamSelect<>(
+      new ExecutionStepPropertiesV1(new Stacker().push("select").getQueryContext()),
+      new StreamFilter<>(
+          new ExecutionStepPropertiesV1(new Stacker().push("filter").getQueryContext()),
+          SOURCE_STEP,
+          new ComparisonExpression(
+              ComparisonExpression.Type.GREATER_THAN,
+              new UnqualifiedColumnReferenceExp(ColumnName.of("col0")),
+              new LongLiteral(5)
+          )
+      ),
+      ImmutableList.of(SystemColumns.ROWKEY_NAME),
+      ImmutableList.of(SelectExpression.of(
+          ColumnName.of("col1"),
+          new UnqualifiedColumnReferenceExp(ColumnName.of("col1"))
+      ))
+  );
+
   private static final OptionalInt LIMIT = OptionalInt.of(123);
   private static final String SERVICE_ID = "service-";
   private static final String PERSISTENT_PREFIX = "persistent-";
@@ -174,16 +239,44 @@ public class QueryExecutorTest {
   @Mock
   private KTableHolder<Struct> tableHolder;
   @Mock
+  private KTable<Struct, GenericRow> ktable;
+  @Mock
   private KStreamHolder<Struct> streamHolder;
   @Mock
   private SessionConfig config;
   @Mock
   private QueryMetadata.Listener queryListener;
+  @Mock
+  private StreamSink<GenericKey> sinkStep;
+  @Mock
+  private KStreamHolder<GenericKey> sinkStreamHolder;
+  @Mock
+  private SharedPersistentRuntimes sharedPersistentRuntimes;
+  @Mock
+  private SharedPersistentRuntime.Member persistentMember;
+  @Mock
+  private SharedPersistentRuntime persistentRuntime;
+  @Mock
+  private KsqlProcessingContext processingContext;
+  @Mock
+  private StreamSelect<Struct> selectStep;
+  @Mock
+  private SharedTransientRuntimes sharedTransientRuntimes;
+  @Mock
+  private SharedTransientRuntime.Member transientMember;
+  @Mock
+  private SharedTransientRuntime transientRuntime;
+  @Mock
+  private PersistentQueryMetadata sourceQuery;
   @Captor
   private ArgumentCaptor<Map<String, Object>> propertyCaptor;
+  @Captor
+  private ArgumentCaptor<Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>>> pipeline;
 
   private QueryExecutor queryBuilder;
   private final Stacker stacker = new Stacker();
+  private final ScalablePushRegistry scalablePushRegistry =
+      new ScalablePushRegistry(QUERY_ID_2, SINK_SCHEMA);
 
   @Before
   public void setup() {
@@ -229,6 +322,11 @@ public class QueryExecutorTest {
         ));
   }
 
+  @After
+  public void tearDown() {
+    PullQueryResultCache.instance().configure(new KsqlConfig(ImmutableMap.of()));
+  }
+
   @Test
   public void shouldBuildTransientQueryCorrectly() {
     // Given:
@@ -245,7 +343,9 @@ public class QueryExecutorTest {
         LIMIT,
         Optional.empty(),
         false,
-        queryListener
+        queryListener,
+        new SharedTransientRuntimes(),
+        Optional.empty()
     );
     queryMetadata.initialize();
 
@@ -259,6 +359,120 @@ public class QueryExecutorTest {
     assertThat(queryMetadata.getStreamsProperties(), equalTo(propertyCaptor.getValue()));
   }
 
+  @Test
+  public void shouldBuildShareableTransientQueryInSharedRuntime() {
+    // Given:
+    givenShareableTransientQuery();
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(SELECT_STEP, Optional.empty());
+
+    // Then:
+    assertThat(queryMetadata, is(instanceOf(SharedTransientQueryMetadata.class)));
+    assertThat(queryMetadata.getSharedRuntimeId(), is(Optional.of(RUNTIME_ID)));
+    verify(sharedTransientRuntimes).join(same(SOURCE_STEP), eq(OVERRIDES), any(), any(), any());
+  }
+
+  @Test
+  public void shouldBuildDedicatedTransientQueryIfSharedRuntimeDisabled() {
+    // Given:
+    givenShareableTransientQuery();
+    givenTransientQuery();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED))
+        .thenReturn(false);
+    when(selectStep.build(any())).thenReturn(streamHolder);
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(selectStep, Optional.empty());
+
+    // Then:
+    assertThat(queryMetadata, is(not(instanceOf(SharedTransientQueryMetadata.class))));
+    verify(sharedTransientRuntimes, never()).join(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldBuildDedicatedTransientQueryIfReadingFromEarliest() {
+    // Given:
+    givenShareableTransientQuery();
+    givenTransientQuery();
+    when(ksqlConfig.getKsqlStreamConfigProps(anyString()))
+        .thenReturn(ImmutableMap.of(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"));
+    when(selectStep.build(any())).thenReturn(streamHolder);
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(selectStep, Optional.empty());
+
+    // Then:
+    assertThat(queryMetadata, is(not(instanceOf(SharedTransientQueryMetadata.class))));
+    verify(sharedTransientRuntimes, never()).join(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldServeTransientQueryFromOutputOfPersistentQuery() {
+    // Given:
+    givenServableFromPersistentQuery();
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(SELECT_STEP, Optional.of(sourceQuery));
+
+    // Then:
+    assertThat(queryMetadata, is(instanceOf(ScalablePushQueryMetadata.class)));
+    assertThat(((ScalablePushQueryMetadata) queryMetadata).getSourceQuery(), is(sourceQuery));
+    assertThat(scalablePushRegistry.size(), is(1));
+    verify(sharedTransientRuntimes, never()).join(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotServeTransientQueryFromPersistentQueryIfScalablePushDisabled() {
+    // Given:
+    givenServableFromPersistentQuery();
+    givenShareableTransientQuery();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)).thenReturn(false);
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(SELECT_STEP, Optional.of(sourceQuery));
+
+    // Then:
+    assertThat(queryMetadata, is(instanceOf(SharedTransientQueryMetadata.class)));
+    assertThat(scalablePushRegistry.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotServeTransientQueryFromPersistentQueryIfSourceChanged() {
+    // Given:
+    givenServableFromPersistentQuery();
+    givenShareableTransientQuery();
+    when(sink.getSchema()).thenReturn(TRANSIENT_SINK_SCHEMA);
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(SELECT_STEP, Optional.of(sourceQuery));
+
+    // Then:
+    assertThat(queryMetadata, is(instanceOf(SharedTransientQueryMetadata.class)));
+    assertThat(scalablePushRegistry.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotServeTransientQueryFromPersistentQueryWithoutRegistry() {
+    // Given:
+    givenServableFromPersistentQuery();
+    givenShareableTransientQuery();
+    when(sourceQuery.getScalablePushRegistry()).thenReturn(Optional.empty());
+
+    // When:
+    final TransientQueryMetadata queryMetadata =
+        buildShareableTransientQuery(SELECT_STEP, Optional.of(sourceQuery));
+
+    // Then:
+    assertThat(queryMetadata, is(instanceOf(SharedTransientQueryMetadata.class)));
+  }
+
   @Test
   public void shouldBuildPersistentQueryCorrectly() {
     // Given:
@@ -276,7 +490,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     );
     queryMetadata.initialize();
 
@@ -305,7 +520,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     );
     queryMetadata.initialize();
     queryMetadata.start();
@@ -324,7 +540,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     );
     queryMetadata.initialize();
     queryMetadata.start();
@@ -346,7 +563,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -374,7 +592,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     );
     queryMetadata.initialize();
     queryMetadata.start();
@@ -391,6 +610,147 @@ public class QueryExecutorTest {
     );
   }
 
+  @Test
+  public void shouldInvalidatePullQueryResultCacheIfRecordCacheDisabled() {
+    // Given:
+    givenPullQueryResultCacheEnabled();
+    when(ksqlConfig.getKsqlStreamConfigProps(anyString()))
+        .thenReturn(ImmutableMap.of(StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG, 0L));
+    when(tableHolder.getTable()).thenReturn(ktable);
+    when(ktable.toStream()).thenReturn(kstream);
+
+    // When:
+    queryBuilder.buildPersistentQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY,
+        queryListener,
+        new SharedPersistentRuntimes()
+    );
+
+    // Then:
+    verify(kstream).transformValues(any(ValueTransformerWithKeySupplier.class));
+  }
+
+  @Test
+  public void shouldNotInvalidatePullQueryResultCacheIfRecordCacheEnabled() {
+    // Given:
+    givenPullQueryResultCacheEnabled();
+    when(ksqlConfig.getKsqlStreamConfigProps(anyString()))
+        .thenReturn(ImmutableMap.of(StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG, 1024L));
+
+    // When:
+    queryBuilder.buildPersistentQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY,
+        queryListener,
+        new SharedPersistentRuntimes()
+    );
+
+    // Then:
+    verify(tableHolder, never()).getTable();
+  }
+
+  @Test
+  public void shouldBuildShareablePersistentQueryInSharedRuntime() {
+    // Given:
+    givenShareablePersistentQuery();
+
+    // When:
+    final PersistentQueryMetadata queryMetadata = buildShareablePersistentQuery();
+
+    // Then:
+    assertThat(queryMetadata, is(instanceOf(SharedPersistentQueryMetadata.class)));
+    assertThat(queryMetadata.getSharedRuntimeId(), is(Optional.of(RUNTIME_ID)));
+    assertThat(queryMetadata.getQueryId(), is(QUERY_ID));
+    verify(sharedPersistentRuntimes).join(
+        same(SOURCE_STEP), any(), eq(QUERY_ID), any(), eq(SINK_TOPIC), any(), any());
+    verify(sinkStep, never()).build(any());
+  }
+
+  @Test
+  public void shouldBuildPipelineOfSharedPersistentQueryFromFilterAndSelect() {
+    // Given:
+    givenShareablePersistentQuery();
+    buildShareablePersistentQuery();
+    verify(sharedPersistentRuntimes)
+        .join(any(), any(), any(), pipeline.capture(), any(), any(), any());
+    final KsqlTransformer<GenericKey, Optional<GenericRow>> transformer = pipeline.getValue().get();
+
+    // When:
+    final Optional<GenericRow> selected = transformer
+        .transform(genericKey("k"), genericRow(10L, "a", 1234L, "k"), processingContext);
+    final Optional<GenericRow> filtered = transformer
+        .transform(genericKey("k"), genericRow(1L, "b", 1234L, "k"), processingContext);
+
+    // Then:
+    assertThat(selected, is(Optional.of(genericRow("a"))));
+    assertThat(filtered, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldBuildDedicatedPersistentQueryIfSharedRuntimeDisabled() {
+    // Given:
+    givenShareablePersistentQuery();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED))
+        .thenReturn(false);
+
+    // When:
+    final PersistentQueryMetadata queryMetadata = buildShareablePersistentQuery();
+
+    // Then:
+    assertDedicatedPersistentQuery(queryMetadata);
+  }
+
+  @Test
+  public void shouldBuildDedicatedPersistentQueryIfPropertiesOverridden() {
+    // Given:
+    givenShareablePersistentQuery();
+    when(config.getOverrides()).thenReturn(ImmutableMap.of(
+        StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG, 0L));
+
+    // When:
+    final PersistentQueryMetadata queryMetadata = buildShareablePersistentQuery();
+
+    // Then:
+    assertDedicatedPersistentQuery(queryMetadata);
+  }
+
+  @Test
+  public void shouldBuildDedicatedPersistentQueryIfReadingFromEarliest() {
+    // Given:
+    givenShareablePersistentQuery();
+    when(ksqlConfig.getKsqlStreamConfigProps(anyString()))
+        .thenReturn(ImmutableMap.of(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"));
+
+    // When:
+    final PersistentQueryMetadata queryMetadata = buildShareablePersistentQuery();
+
+    // Then:
+    assertDedicatedPersistentQuery(queryMetadata);
+  }
+
+  @Test
+  public void shouldBuildDedicatedPersistentQueryIfSinkTimestampFromColumn() {
+    // Given:
+    givenShareablePersistentQuery();
+    when(sinkStep.getTimestampColumn()).thenReturn(
+        Optional.of(new TimestampColumn(ColumnName.of("col0"), Optional.empty())));
+
+    // When:
+    final PersistentQueryMetadata queryMetadata = buildShareablePersistentQuery();
+
+    // Then:
+    assertDedicatedPersistentQuery(queryMetadata);
+  }
+
   @Test
   public void shouldNotIncludeMaterializationProviderIfNoMaterialization() {
     // Given:
@@ -403,7 +763,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     );
     queryMetadata.initialize();
 
@@ -424,7 +785,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -434,6 +796,54 @@ public class QueryExecutorTest {
     );
   }
 
+  @Test
+  public void shouldMarkMaterializedStoreAsLookupStore() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_PULL_QUERIES_ENABLE_CONFIG)).thenReturn(true);
+
+    // When:
+    queryBuilder.buildPersistentQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY,
+        queryListener,
+        new SharedPersistentRuntimes()
+    ).initialize();
+
+    // Then:
+    assertThat(
+        capturedStreamsProperties().get(RocksDBStoreProfile.LOOKUP_STORES_CONFIG),
+        equalTo(STORE_NAME)
+    );
+  }
+
+  @Test
+  public void shouldPassStoreProfileOverrideToStreamsConfig() {
+    // Given:
+    when(ksqlConfig.getString(KsqlConfig.KSQL_ROCKSDB_STORE_PROFILE_CONFIG)).thenReturn("SCAN");
+
+    // When:
+    queryBuilder.buildPersistentQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY,
+        queryListener,
+        new SharedPersistentRuntimes()
+    ).initialize();
+
+    // Then:
+    assertThat(
+        capturedStreamsProperties().get(RocksDBStoreProfile.PROFILE_CONFIG),
+        equalTo("SCAN")
+    );
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void shouldAddMetricsInterceptorsToStreamsConfig() {
@@ -445,7 +855,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -475,7 +886,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     );
     queryMetadata.initialize();
     queryMetadata.start();
@@ -536,7 +948,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -561,7 +974,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -587,7 +1001,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -617,7 +1032,8 @@ public class QueryExecutorTest {
         SOURCES,
         physicalPlan,
         SUMMARY,
-        queryListener
+        queryListener,
+        new SharedPersistentRuntimes()
     ).initialize();
 
     // Then:
@@ -680,8 +1096,107 @@ public class QueryExecutorTest {
     return propertyCaptor.getValue();
   }
 
+  private static void givenPullQueryResultCacheEnabled() {
+    PullQueryResultCache.instance().configure(new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_MAX_BYTES_CONFIG, 1024L)));
+  }
+
+  private void givenQueriesMayShareRuntime() {
+    when(ksqlConfig.getKsqlStreamConfigProps(anyString()))
+        .thenReturn(ImmutableMap.of(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"));
+    when(serviceContext.getKafkaClientSupplier()).thenReturn(new DefaultKafkaClientSupplier());
+  }
+
+  private void givenShareableTransientQuery() {
+    givenQueriesMayShareRuntime();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_TRANSIENT_SHARED_RUNTIME_ENABLED))
+        .thenReturn(true);
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_CONFIG))
+        .thenReturn(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_DEFAULT);
+    when(sharedTransientRuntimes.join(any(), any(), any(), any(), any()))
+        .thenReturn(transientMember);
+    when(transientMember.getRuntime()).thenReturn(transientRuntime);
+    when(transientRuntime.getApplicationId()).thenReturn(RUNTIME_ID);
+    when(transientRuntime.getTopology()).thenReturn(topology);
+    when(transientRuntime.getStreamsProperties()).thenReturn(ImmutableMap.of());
+  }
+
+  private void givenServableFromPersistentQuery() {
+    givenQueriesMayShareRuntime();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)).thenReturn(true);
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_CONFIG))
+        .thenReturn(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_DEFAULT);
+    when(sourceQuery.getScalablePushRegistry()).thenReturn(Optional.of(scalablePushRegistry));
+    when(sourceQuery.getSink()).thenReturn(sink);
+    when(sourceQuery.getTopology()).thenReturn(topology);
+    when(sourceQuery.getStreamsProperties()).thenReturn(ImmutableMap.of());
+    when(sourceQuery.getQueryId()).thenReturn(QUERY_ID_2);
+  }
+
+  private TransientQueryMetadata buildShareableTransientQuery(
+      final ExecutionStep<?> plan,
+      final Optional<PersistentQueryMetadata> scalablePushSource
+  ) {
+    return queryBuilder.buildTransientQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        SOURCES,
+        plan,
+        SUMMARY,
+        TRANSIENT_SINK_SCHEMA,
+        LIMIT,
+        Optional.empty(),
+        false,
+        queryListener,
+        sharedTransientRuntimes,
+        scalablePushSource
+    );
+  }
+
+  private void givenShareablePersistentQuery() {
+    givenQueriesMayShareRuntime();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_PERSISTENT_SHARED_RUNTIME_ENABLED))
+        .thenReturn(true);
+    when(sinkStep.getTimestampColumn()).thenReturn(Optional.empty());
+    when(sinkStep.getSource()).thenReturn(SELECT_STEP);
+    when(sinkStep.getProperties()).thenReturn(
+        new ExecutionStepPropertiesV1(new Stacker().push("sink").getQueryContext()));
+    when(sinkStep.getFormats()).thenReturn(STEP_FORMATS);
+    when(sinkStep.getTopicName()).thenReturn(SINK_TOPIC);
+    when(sinkStep.build(any())).thenReturn(sinkStreamHolder);
+    when(sharedPersistentRuntimes.join(any(), any(), any(), any(), any(), any(), any()))
+        .thenReturn(Optional.of(persistentMember));
+    when(persistentMember.getRuntime()).thenReturn(persistentRuntime);
+    when(persistentRuntime.getApplicationId()).thenReturn(RUNTIME_ID);
+    when(persistentRuntime.getTopology()).thenReturn(topology);
+    when(persistentRuntime.getStreamsProperties()).thenReturn(ImmutableMap.of());
+  }
+
+  private PersistentQueryMetadata buildShareablePersistentQuery() {
+    return queryBuilder.buildPersistentQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        sinkStep,
+        SUMMARY,
+        queryListener,
+        sharedPersistentRuntimes
+    );
+  }
+
+  private void assertDedicatedPersistentQuery(final PersistentQueryMetadata queryMetadata) {
+    assertThat(queryMetadata, is(not(instanceOf(SharedPersistentQueryMetadata.class))));
+    assertThat(queryMetadata.getSharedRuntimeId(), is(Optional.empty()));
+    verify(sharedPersistentRuntimes, never())
+        .join(any(), any(), any(), any(), any(), any(), any());
+    verify(sinkStep).build(any());
+  }
+
   private void givenTransientQuery() {
     when(physicalPlan.build(any())).thenReturn(streamHolder);
     when(streamHolder.getStream()).thenReturn(kstream);
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_CONFIG))
+        .thenReturn(KsqlConfig.KSQL_TRANSIENT_QUEUE_CAPACITY_DEFAULT);
   }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.confluent.ksql.query.RingBufferQueue.WaitStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class RingBufferQueueTest {
+
+  @Rule
+  public final Timeout timeout = Timeout.seconds(30);
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private RingBufferQueue<Integer> queue = new RingBufferQueue<>(3, WaitStrategy.PARK);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldPollInOrder() {
+    // Given:
+    queue.offer(1);
+    queue.offer(2);
+
+    // Then:
+    assertThat(queue.poll(), is(1));
+    assertThat(queue.poll(), is(2));
+    assertThat(queue.poll(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRejectOfferOnceFull() {
+    // Given:
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+
+    // When:
+    final boolean result = queue.offer(4);
+
+    // Then: capacity is not rounded up to the power of two backing the buffer:
+    assertThat(result, is(false));
+    assertThat(queue.size(), is(3));
+    assertThat(queue.remainingCapacity(), is(0));
+  }
+
+  @Test
+  public void shouldWrapAround() {
+    IntStream.range(0, 10).forEach(i -> {
+      // When:
+      queue.offer(i);
+
+      // Then:
+      assertThat(queue.peek(), is(i));
+      assertThat(queue.poll(), is(i));
+      assertThat(queue.isEmpty(), is(true));
+    });
+  }
+
+  @Test
+  public void shouldDrainAll() {
+    // Given:
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+    final List<Integer> drained = new ArrayList<>();
+
+    // When:
+    final int result = queue.drainTo(drained);
+
+    // Then:
+    assertThat(result, is(3));
+    assertThat(drained, contains(1, 2, 3));
+    assertThat(queue.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldDrainUpToMax() {
+    // Given:
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+    final List<Integer> drained = new ArrayList<>();
+
+    // When:
+    final int result = queue.drainTo(drained, 2);
+
+    // Then:
+    assertThat(result, is(2));
+    assertThat(drained, contains(1, 2));
+    assertThat(queue.poll(), is(3));
+  }
+
+  @Test
+  public void shouldTimeOutPollingEmptyQueue() throws Exception {
+    assertThat(queue.poll(10, TimeUnit.MILLISECONDS), is(nullValue()));
+  }
+
+  @Test
+  public void shouldTimeOutOfferingToFullQueue() throws Exception {
+    // Given:
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+
+    // Then:
+    assertThat(queue.offer(4, 10, TimeUnit.MILLISECONDS), is(false));
+  }
+
+  @Test
+  public void shouldWakeConsumerWhenElementOffered() throws Exception {
+    // Given:
+    final Future<Integer> polled = executor.submit(() -> queue.poll(10, TimeUnit.SECONDS));
+
+    // When:
+    queue.offer(1);
+
+    // Then:
+    assertThat(polled.get(), is(1));
+  }
+
+  @Test
+  public void shouldWakeProducerWhenSpaceFreed() throws Exception {
+    // Given:
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+    final Future<Boolean> offered = executor.submit(() -> queue.offer(4, 10, TimeUnit.SECONDS));
+
+    // When:
+    queue.poll();
+
+    // Then:
+    assertThat(offered.get(), is(true));
+    assertThat(queue.drainTo(new ArrayList<>()), is(3));
+  }
+
+  @Test
+  public void shouldTransferAllElementsInOrderWithSpinStrategy() throws Exception {
+    shouldTransferAllElementsInOrder(WaitStrategy.SPIN);
+  }
+
+  @Test
+  public void shouldTransferAllElementsInOrderWithYieldStrategy() throws Exception {
+    shouldTransferAllElementsInOrder(WaitStrategy.YIELD);
+  }
+
+  @Test
+  public void shouldTransferAllElementsInOrderWithParkStrategy() throws Exception {
+    shouldTransferAllElementsInOrder(WaitStrategy.PARK);
+  }
+
+  private void shouldTransferAllElementsInOrder(final WaitStrategy waitStrategy)
+      throws Exception {
+    // Given:
+    queue = new RingBufferQueue<>(16, waitStrategy);
+    final int count = 100_000;
+
+    // When:
+    final Future<?> producer = executor.submit(() -> {
+      for (int i = 0; i < count; i++) {
+        queue.put(i);
+      }
+      return null;
+    });
+
+    final List<Integer> received = new ArrayList<>(count);
+    while (received.size() < count) {
+      final Integer e = queue.poll(10, TimeUnit.SECONDS);
+      if (e != null) {
+        received.add(e);
+      }
+      queue.drainTo(received);
+    }
+
+    // Then:
+    producer.get();
+    assertThat(received, is(IntStream.range(0, count).boxed().collect(Collectors.toList())));
+  }
+}
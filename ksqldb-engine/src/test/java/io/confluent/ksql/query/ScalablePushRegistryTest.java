@@ -0,0 +1,263 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static io.confluent.ksql.GenericKey.genericKey;
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.query.ScalablePushRegistry.Subscriber;
+import io.confluent.ksql.query.ScalablePushRegistry.Tap;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.kafka.common.utils.MockTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScalablePushRegistryTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .keyColumn(ColumnName.of("K"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("V"), SqlTypes.INTEGER)
+      .build();
+
+  private static final GenericKey KEY = genericKey("k");
+  private static final GenericRow VALUE = genericRow(1);
+  private static final long ROW_TIME = 1234L;
+  private static final GenericRow ROW = genericRow(1, ROW_TIME, "k");
+  private static final GenericRow RESULT = genericRow("result");
+
+  @Mock
+  private Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipelineSupplier;
+  @Mock
+  private KsqlTransformer<GenericKey, Optional<GenericRow>> pipeline;
+  @Mock
+  private TransientQueryQueue queue;
+  @Mock
+  private Consumer<Throwable> onError;
+  @Mock
+  private KsqlProcessingContext ctx;
+
+  private final MockTime time = new MockTime();
+  private ScalablePushRegistry registry;
+  private Subscriber subscriber;
+  private Tap tap;
+
+  @Before
+  public void setUp() {
+    registry = new ScalablePushRegistry(new QueryId("CSAS_1"), SCHEMA, time);
+    subscriber = registry.subscribe(pipelineSupplier, queue, onError);
+    tap = registry.newTap();
+  }
+
+  @Test
+  public void shouldPassRowWithRowTimeAndKeyToStartedSubscriber() {
+    // Given:
+    givenStarted();
+    when(pipeline.transform(KEY, ROW, ctx)).thenReturn(Optional.of(RESULT));
+    when(queue.offerRow(null, RESULT)).thenReturn(true);
+
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+
+    // Then:
+    verify(queue).offerRow(null, RESULT);
+    verify(onError, never()).accept(any());
+  }
+
+  @Test
+  public void shouldPassNullKeyColumnsForNullKey() {
+    // Given:
+    givenStarted();
+    when(pipeline.transform(null, genericRow(1, ROW_TIME, null), ctx))
+        .thenReturn(Optional.of(RESULT));
+    when(queue.offerRow(null, RESULT)).thenReturn(true);
+
+    // When:
+    tap.transform(null, VALUE, ctx);
+
+    // Then:
+    verify(queue).offerRow(null, RESULT);
+  }
+
+  @Test
+  public void shouldNotPassRowsToSubscriberThatHasNotStarted() {
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+
+    // Then:
+    verify(pipelineSupplier, never()).get();
+    verify(queue, never()).offerRow(any(), any());
+  }
+
+  @Test
+  public void shouldNotPassTombstones() {
+    // Given:
+    subscriber.start();
+
+    // When:
+    tap.transform(KEY, null, ctx);
+
+    // Then:
+    verify(pipelineSupplier, never()).get();
+    verify(queue, never()).offerRow(any(), any());
+  }
+
+  @Test
+  public void shouldNotQueueRowsFilteredOutByPipeline() {
+    // Given:
+    givenStarted();
+    when(pipeline.transform(KEY, ROW, ctx)).thenReturn(Optional.empty());
+
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+
+    // Then:
+    verify(queue, never()).offerRow(any(), any());
+  }
+
+  @Test
+  public void shouldCreatePipelineOncePerTap() {
+    // Given:
+    givenStarted();
+    when(pipeline.transform(KEY, ROW, ctx)).thenReturn(Optional.empty());
+
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+    tap.transform(KEY, VALUE, ctx);
+    registry.newTap().transform(KEY, VALUE, ctx);
+
+    // Then:
+    verify(pipelineSupplier, times(2)).get();
+  }
+
+  @Test
+  public void shouldBufferRowsOfSubscriberWithFullQueue() {
+    // Given:
+    givenStarted();
+    when(pipeline.transform(KEY, ROW, ctx)).thenReturn(Optional.of(RESULT));
+    when(queue.offerRow(null, RESULT)).thenReturn(false, false, true);
+
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+    tap.drainOverflow();
+    tap.drainOverflow();
+
+    // Then:
+    verify(queue, times(3)).offerRow(null, RESULT);
+    verify(onError, never()).accept(any());
+    assertThat(registry.size(), is(1));
+  }
+
+  @Test
+  public void shouldFailSubscriberThatFallsBehind() {
+    // Given:
+    givenStarted();
+    when(pipeline.transform(KEY, ROW, ctx)).thenReturn(Optional.of(RESULT));
+    when(queue.offerRow(null, RESULT)).thenReturn(false);
+    tap.transform(KEY, VALUE, ctx);
+
+    // When:
+    time.sleep(OverflowBuffer.MAX_LAG.toMillis());
+    tap.drainOverflow();
+
+    // Then:
+    final ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+    verify(onError).accept(error.capture());
+    assertThat(error.getValue(), is(instanceOf(KsqlException.class)));
+    assertThat(error.getValue().getMessage(), containsString("Push query fell behind"));
+    assertThat(registry.size(), is(0));
+  }
+
+  @Test
+  public void shouldFailOnlySubscriberWhosePipelineThrows() {
+    // Given:
+    final RuntimeException e = new RuntimeException("boom");
+    givenStarted();
+    when(pipeline.transform(KEY, ROW, ctx)).thenThrow(e);
+    final Subscriber other = registry.subscribe(
+        () -> (key, value, context) -> Optional.of(RESULT), queue, onError);
+    other.start();
+    when(queue.offerRow(null, RESULT)).thenReturn(true);
+
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+    tap.transform(KEY, VALUE, ctx);
+
+    // Then:
+    verify(onError).accept(e);
+    verify(queue, times(2)).offerRow(null, RESULT);
+    assertThat(registry.size(), is(1));
+  }
+
+  @Test
+  public void shouldNotPassRowsToSubscriberOnceUnsubscribed() {
+    // Given:
+    subscriber.start();
+    subscriber.unsubscribe();
+
+    // When:
+    tap.transform(KEY, VALUE, ctx);
+
+    // Then:
+    assertThat(registry.size(), is(0));
+    verify(queue, never()).offerRow(any(), any());
+    verify(onError, never()).accept(any());
+  }
+
+  @Test
+  public void shouldFailAndRemoveAllSubscribers() {
+    // Given:
+    registry.subscribe(pipelineSupplier, queue, onError);
+
+    // When:
+    registry.unsubscribeAll("Persistent query CSAS_1 has stopped.");
+
+    // Then:
+    final ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+    verify(onError, times(2)).accept(error.capture());
+    assertThat(error.getValue().getMessage(), is("Persistent query CSAS_1 has stopped."));
+    assertThat(registry.size(), is(0));
+  }
+
+  private void givenStarted() {
+    when(pipelineSupplier.get()).thenReturn(pipeline);
+    when(ctx.getRowTime()).thenReturn(ROW_TIME);
+    subscriber.start();
+  }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.query.SharedPersistentRuntime.Dispatcher;
+import io.confluent.ksql.query.SharedPersistentRuntime.Member;
+import io.confluent.ksql.query.SharedPersistentRuntime.SinkValue;
+import io.confluent.ksql.util.QueryMetadata.RetryEvent;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedPersistentRuntimeTest {
+
+  private static final GenericKey KEY = GenericKey.genericKey("k");
+  private static final GenericRow ROW = genericRow("a", 1);
+  private static final byte[] KEY_BYTES = new byte[]{1};
+  private static final byte[] VALUE_BYTES = new byte[]{2};
+  private static final Serializer<GenericKey> KEY_SERIALIZER = (topic, key) -> KEY_BYTES;
+  private static final Serializer<GenericRow> VALUE_SERIALIZER = (topic, row) -> VALUE_BYTES;
+  private static final QueryId QUERY_1 = new QueryId("CSAS_1");
+  private static final QueryId QUERY_2 = new QueryId("CSAS_2");
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private Topology topology;
+  @Mock
+  private StreamSource source;
+  @Mock
+  private Runnable cleanUp;
+  @Mock
+  private KsqlProcessingContext ctx;
+  @Mock
+  private BiConsumer<Member, Boolean> onLeave;
+  @Mock
+  private StreamsUncaughtExceptionHandler handler;
+  @Mock
+  private StateListener stateListener;
+  @Mock
+  private StreamsUncaughtExceptionHandler otherHandler;
+  @Mock
+  private RetryEvent retryEvent;
+  @Captor
+  private ArgumentCaptor<StreamsUncaughtExceptionHandler> handlerCaptor;
+  @Captor
+  private ArgumentCaptor<StateListener> stateListenerCaptor;
+
+  private final List<Member> members = new CopyOnWriteArrayList<>();
+  private final AtomicInteger pipelinesCreated = new AtomicInteger();
+  private SharedPersistentRuntime runtime;
+  private Dispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    runtime = new SharedPersistentRuntime(
+        "app-id",
+        source,
+        topology,
+        ImmutableMap.of(),
+        kafkaStreams,
+        CLOSE_TIMEOUT,
+        cleanUp,
+        members,
+        retryEvent
+    );
+    dispatcher = new Dispatcher(members);
+  }
+
+  @Test
+  public void shouldWriteRowsOfMembersThatHaveNotStarted() {
+    // Given:
+    addMember(QUERY_1, passAll(), "sink1");
+
+    // When:
+    final List<KeyValue<byte[], SinkValue>> output = dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(output.size(), is(1));
+  }
+
+  @Test
+  public void shouldWriteRowsThroughPipelineOfEachMemberToItsSink() {
+    // Given:
+    addMember(QUERY_1, passAll(), "sink1");
+    addMember(QUERY_2, () -> (key, value, context) -> Optional.empty(), "sink2");
+
+    // When:
+    final List<KeyValue<byte[], SinkValue>> output = dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(output.size(), is(1));
+    assertThat(output.get(0).key, is(KEY_BYTES));
+    assertThat(output.get(0).value.getTopic(), is("sink1"));
+    assertThat(output.get(0).value.getBytes(), is(VALUE_BYTES));
+  }
+
+  @Test
+  public void shouldCreatePipelineOncePerDispatcher() {
+    // Given:
+    addMember(QUERY_1, passAll(), "sink1");
+    final Dispatcher otherTask = new Dispatcher(members);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+    dispatcher.transform(KEY, ROW, ctx);
+    otherTask.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(pipelinesCreated.get(), is(2));
+  }
+
+  @Test
+  public void shouldReplaceMemberWithSameQueryId() {
+    // Given:
+    addMember(QUERY_1, passAll(), "sink1");
+
+    // When:
+    addMember(QUERY_1, passAll(), "sink2");
+    final List<KeyValue<byte[], SinkValue>> output = dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(runtime.size(), is(1));
+    assertThat(output.size(), is(1));
+    assertThat(output.get(0).value.getTopic(), is("sink2"));
+  }
+
+  @Test
+  public void shouldNotWriteRowsOfMembersThatHaveLeft() {
+    // Given:
+    final Member member = addMember(QUERY_1, passAll(), "sink1");
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    runtime.removeMember(member);
+    final List<KeyValue<byte[], SinkValue>> output = dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(output.isEmpty(), is(true));
+    assertThat(runtime.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldFailOnlyMemberThatFailsToProcessRecord() {
+    // Given:
+    final RuntimeException e = new RuntimeException("boom");
+    final Member member = addMember(QUERY_1, failAll(e), "sink1");
+    member.setUncaughtExceptionHandler(handler);
+    member.setStateListener(stateListener);
+    addMember(QUERY_2, passAll(), "sink2").setUncaughtExceptionHandler(otherHandler);
+
+    // When:
+    final List<KeyValue<byte[], SinkValue>> output = dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(output.size(), is(1));
+    assertThat(output.get(0).value.getTopic(), is("sink2"));
+    assertThat(member.hasFailed(), is(true));
+    assertThat(runtime.size(), is(1));
+    verify(handler).handle(e);
+    verify(otherHandler, never()).handle(any());
+    verify(stateListener).onChange(eq(State.ERROR), any());
+    verify(retryEvent, never()).backOff();
+  }
+
+  @Test
+  public void shouldNotPassRecordsToFailedMember() {
+    // Given:
+    final AtomicInteger calls = new AtomicInteger();
+    addMember(QUERY_1, () -> (key, value, context) -> {
+      calls.incrementAndGet();
+      throw new RuntimeException("boom");
+    }, "sink1");
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(calls.get(), is(1));
+  }
+
+  @Test
+  public void shouldPassRecordsToFailedMemberAgainOnceStarted() {
+    // Given:
+    final Member member = addMember(QUERY_1, failAll(new RuntimeException("boom")), "sink1");
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    member.start();
+
+    // Then:
+    assertThat(member.hasFailed(), is(false));
+    assertThat(runtime.size(), is(1));
+  }
+
+  @Test
+  public void shouldStartKafkaStreamsOnce() {
+    // Given:
+    addMember(QUERY_1, passAll(), "sink1").start();
+
+    // When:
+    addMember(QUERY_2, passAll(), "sink2").start();
+
+    // Then:
+    verify(kafkaStreams).start();
+  }
+
+  @Test
+  public void shouldLeaveThroughCallback() {
+    // Given:
+    final Member member = addMember(QUERY_1, passAll(), "sink1");
+
+    // When:
+    member.leave(true);
+
+    // Then:
+    verify(onLeave).accept(member, true);
+  }
+
+  @Test
+  public void shouldPassUncaughtExceptionsToMembersAndReplaceThread() {
+    // Given:
+    final Exception e = new RuntimeException("boom");
+    addMember(QUERY_1, passAll(), "sink1").setUncaughtExceptionHandler(handler);
+    addMember(QUERY_2, passAll(), "sink2");
+    verify(kafkaStreams).setUncaughtExceptionHandler(handlerCaptor.capture());
+
+    // When:
+    final StreamThreadExceptionResponse response = handlerCaptor.getValue().handle(e);
+
+    // Then:
+    verify(handler).handle(e);
+    verify(retryEvent).backOff();
+    assertThat(response, is(StreamThreadExceptionResponse.REPLACE_THREAD));
+  }
+
+  @Test
+  public void shouldPassStateChangesToMembers() {
+    // Given:
+    addMember(QUERY_1, passAll(), "sink1").setStateListener(stateListener);
+    addMember(QUERY_2, passAll(), "sink2");
+    verify(kafkaStreams).setStateListener(stateListenerCaptor.capture());
+
+    // When:
+    stateListenerCaptor.getValue().onChange(State.RUNNING, State.REBALANCING);
+
+    // Then:
+    verify(stateListener).onChange(State.RUNNING, State.REBALANCING);
+  }
+
+  @Test
+  public void shouldCloseWithoutCleaningUpIfStopped() {
+    // When:
+    runtime.close(false);
+
+    // Then:
+    verify(kafkaStreams).close(CLOSE_TIMEOUT);
+    verify(kafkaStreams, never()).cleanUp();
+    verify(cleanUp, never()).run();
+  }
+
+  @Test
+  public void shouldCloseAndCleanUpIfClosed() {
+    // When:
+    runtime.close(true);
+
+    // Then:
+    final InOrder inOrder = inOrder(kafkaStreams, cleanUp);
+    inOrder.verify(kafkaStreams).close(CLOSE_TIMEOUT);
+    inOrder.verify(kafkaStreams).cleanUp();
+    inOrder.verify(cleanUp).run();
+  }
+
+  @Test
+  public void shouldCloseEvenIfCleanUpFails() {
+    // Given:
+    doThrow(new IllegalStateException()).when(cleanUp).run();
+
+    // When:
+    runtime.close(true);
+
+    // Then (no throw):
+    verify(kafkaStreams).close(CLOSE_TIMEOUT);
+  }
+
+  private Member addMember(
+      final QueryId queryId,
+      final Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> pipeline,
+      final String sinkTopic
+  ) {
+    return runtime.addMember(
+        queryId,
+        pipeline,
+        sinkTopic,
+        KEY_SERIALIZER,
+        VALUE_SERIALIZER,
+        onLeave
+    );
+  }
+
+  private static Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> failAll(
+      final RuntimeException e
+  ) {
+    return () -> (key, value, context) -> {
+      throw e;
+    };
+  }
+
+  private Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> passAll() {
+    return () -> {
+      pipelinesCreated.incrementAndGet();
+      return (key, value, context) -> Optional.of(value);
+    };
+  }
+}
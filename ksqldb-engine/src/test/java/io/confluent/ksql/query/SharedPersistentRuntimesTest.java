@@ -0,0 +1,207 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.query.SharedPersistentRuntime.Member;
+import io.confluent.ksql.util.QueryMetadata.RetryEvent;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedPersistentRuntimesTest {
+
+  @Mock
+  private StreamSource source;
+  @Mock
+  private StreamSource otherSource;
+  @Mock
+  private KsqlTransformer<GenericKey, Optional<GenericRow>> transformer;
+  @Mock
+  private Serializer<GenericKey> keySerializer;
+  @Mock
+  private Serializer<GenericRow> valueSerializer;
+  @Mock
+  private Runnable cleanUp;
+  @Mock
+  private RetryEvent retryEvent;
+
+  private final SharedPersistentRuntimes runtimes = new SharedPersistentRuntimes();
+  private final AtomicInteger runtimesCreated = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    when(source.getTopicName()).thenReturn("topic");
+  }
+
+  @Test
+  public void shouldShareRuntimeForSameSource() {
+    // When:
+    final Member member1 = join(source, "CSAS_1").get();
+    final Member member2 = join(source, "CSAS_2").get();
+
+    // Then:
+    assertThat(member1.getRuntime(), is(sameInstance(member2.getRuntime())));
+    assertThat(member1.getRuntime().size(), is(2));
+    assertThat(runtimesCreated.get(), is(1));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeBetweenTopics() {
+    // Given:
+    when(otherSource.getTopicName()).thenReturn("other");
+
+    // When:
+    final Member member1 = join(source, "CSAS_1").get();
+    final Member member2 = join(otherSource, "CSAS_2").get();
+
+    // Then:
+    assertThat(member1.getRuntime(), is(not(sameInstance(member2.getRuntime()))));
+    assertThat(runtimes.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotJoinRuntimeOfTopicReadAsOtherSource() {
+    // Given:
+    when(otherSource.getTopicName()).thenReturn("topic");
+    join(source, "CSAS_1");
+
+    // When:
+    final Optional<Member> member = join(otherSource, "CSAS_2");
+
+    // Then:
+    assertThat(member, is(Optional.empty()));
+    assertThat(runtimes.size(), is(1));
+  }
+
+  @Test
+  public void shouldCloseRuntimeOnceLastMemberLeaves() {
+    // Given:
+    final Member member1 = join(source, "CSAS_1").get();
+    final Member member2 = join(source, "CSAS_2").get();
+    final KafkaStreams kafkaStreams = member1.getRuntime().getKafkaStreams();
+
+    // When:
+    member1.leave(true);
+
+    // Then:
+    verify(kafkaStreams, never()).close(any(Duration.class));
+    assertThat(runtimes.size(), is(1));
+
+    // When:
+    member2.leave(true);
+
+    // Then:
+    verify(kafkaStreams).close(any(Duration.class));
+    verify(cleanUp).run();
+    assertThat(runtimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotCleanUpRuntimeIfLastMemberStops() {
+    // Given:
+    final Member member = join(source, "CSAS_1").get();
+    final KafkaStreams kafkaStreams = member.getRuntime().getKafkaStreams();
+
+    // When:
+    member.leave(false);
+
+    // Then:
+    verify(kafkaStreams).close(any(Duration.class));
+    verify(cleanUp, never()).run();
+    assertThat(runtimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotCloseRuntimeIfReplacedMemberLeaves() {
+    // Given:
+    final Member original = join(source, "CSAS_1").get();
+    final Member replacement = join(source, "CSAS_1").get();
+    final KafkaStreams kafkaStreams = original.getRuntime().getKafkaStreams();
+
+    // When:
+    original.leave(false);
+
+    // Then:
+    verify(kafkaStreams, never()).close(any(Duration.class));
+    assertThat(replacement.getRuntime().size(), is(1));
+  }
+
+  @Test
+  public void shouldCreateNewRuntimeAfterLastMemberLeaves() {
+    // Given:
+    final Member member1 = join(source, "CSAS_1").get();
+    member1.leave(false);
+
+    // When:
+    final Member member2 = join(source, "CSAS_2").get();
+
+    // Then:
+    assertThat(member1.getRuntime(), is(not(sameInstance(member2.getRuntime()))));
+    assertThat(runtimesCreated.get(), is(2));
+  }
+
+  private Optional<Member> join(final StreamSource step, final String queryId) {
+    final Supplier<SharedPersistentRuntime> runtimeFactory = () -> {
+      runtimesCreated.incrementAndGet();
+      return new SharedPersistentRuntime(
+          "app-id",
+          step,
+          mock(Topology.class),
+          ImmutableMap.of(),
+          mock(KafkaStreams.class),
+          Duration.ofSeconds(1),
+          cleanUp,
+          new CopyOnWriteArrayList<>(),
+          retryEvent
+      );
+    };
+    return runtimes.join(
+        step,
+        runtimeFactory,
+        new QueryId(queryId),
+        () -> transformer,
+        "sink",
+        keySerializer,
+        valueSerializer
+    );
+  }
+}
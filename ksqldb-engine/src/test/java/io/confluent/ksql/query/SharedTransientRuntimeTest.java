@@ -0,0 +1,373 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.query.SharedTransientRuntime.Dispatcher;
+import io.confluent.ksql.query.SharedTransientRuntime.Member;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.kafka.common.utils.MockTime;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedTransientRuntimeTest {
+
+  private static final GenericKey KEY = GenericKey.genericKey("k");
+  private static final GenericRow ROW = genericRow("a", 1);
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private Topology topology;
+  @Mock
+  private TransientQueryQueue queue1;
+  @Mock
+  private TransientQueryQueue queue2;
+  @Mock
+  private KsqlProcessingContext ctx;
+  @Mock
+  private Consumer<Member> onLeave;
+  @Mock
+  private StreamsUncaughtExceptionHandler handler;
+  @Captor
+  private ArgumentCaptor<StreamsUncaughtExceptionHandler> handlerCaptor;
+  @Captor
+  private ArgumentCaptor<Throwable> errorCaptor;
+
+  private final List<Member> members = new CopyOnWriteArrayList<>();
+  private final AtomicInteger pipelinesCreated = new AtomicInteger();
+  private final MockTime time = new MockTime();
+  private SharedTransientRuntime runtime;
+  private Dispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    runtime = new SharedTransientRuntime(
+        "app-id",
+        topology,
+        ImmutableMap.of(),
+        kafkaStreams,
+        CLOSE_TIMEOUT,
+        members,
+        time
+    );
+    dispatcher = new Dispatcher(members);
+  }
+
+  @Test
+  public void shouldNotPassRowsToMembersThatHaveNotStarted() {
+    // Given:
+    runtime.addMember(passAll(), queue1, onLeave);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    verify(queue1, never()).offerRow(any(), any());
+  }
+
+  @Test
+  public void shouldPassRowsThroughPipelineOfEachStartedMember() {
+    // Given:
+    runtime.addMember(passAll(), queue1, onLeave).start();
+    runtime.addMember(() -> (key, value, context) -> Optional.empty(), queue2, onLeave).start();
+    when(queue1.offerRow(null, ROW)).thenReturn(true);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    verify(queue1).offerRow(null, ROW);
+    verify(queue2, never()).offerRow(any(), any());
+  }
+
+  @Test
+  public void shouldBufferRowsOfMemberWithFullQueue() {
+    // Given:
+    final Member member = runtime.addMember(passAll(), queue1, onLeave);
+    member.setUncaughtExceptionHandler(handler);
+    member.start();
+    when(queue1.offerRow(null, ROW)).thenReturn(false);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    verify(handler, never()).handle(any());
+    assertThat(runtime.size(), is(1));
+  }
+
+  @Test
+  public void shouldQueueBufferedRowsOnceClientCatchesUp() {
+    // Given:
+    final GenericRow other = genericRow("b", 2);
+    runtime.addMember(passAll(), queue1, onLeave).start();
+    when(queue1.offerRow(null, ROW)).thenReturn(false, true);
+    when(queue1.offerRow(null, other)).thenReturn(true);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    dispatcher.transform(KEY, other, ctx);
+
+    // Then:
+    final InOrder inOrder = inOrder(queue1);
+    inOrder.verify(queue1, times(2)).offerRow(null, ROW);
+    inOrder.verify(queue1).offerRow(null, other);
+  }
+
+  @Test
+  public void shouldQueueBufferedRowsWhileNoRecordsArrive() {
+    // Given:
+    runtime.addMember(passAll(), queue1, onLeave).start();
+    when(queue1.offerRow(null, ROW)).thenReturn(false, true);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    dispatcher.drainOverflow();
+
+    // Then:
+    verify(queue1, times(2)).offerRow(null, ROW);
+  }
+
+  @Test
+  public void shouldFailMemberThatHasFallenBehind() {
+    // Given:
+    final Member member = runtime.addMember(passAll(), queue1, onLeave);
+    member.setUncaughtExceptionHandler(handler);
+    member.start();
+    runtime.addMember(passAll(), queue2, onLeave).start();
+    when(queue1.offerRow(null, ROW)).thenReturn(false);
+    when(queue2.offerRow(null, ROW)).thenReturn(true);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    time.sleep(OverflowBuffer.MAX_LAG.toMillis());
+    dispatcher.drainOverflow();
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    verify(handler).handle(errorCaptor.capture());
+    assertThat(errorCaptor.getValue(), is(instanceOf(KsqlException.class)));
+    verify(queue2, times(2)).offerRow(null, ROW);
+    assertThat(runtime.size(), is(1));
+  }
+
+  @Test
+  public void shouldNotFailMemberThatIsSlowlyCatchingUp() {
+    // Given:
+    final Member member = runtime.addMember(passAll(), queue1, onLeave);
+    member.setUncaughtExceptionHandler(handler);
+    member.start();
+    when(queue1.offerRow(null, ROW)).thenReturn(false, false, true, false);
+    dispatcher.transform(KEY, ROW, ctx);
+    dispatcher.transform(KEY, ROW, ctx);
+    time.sleep(OverflowBuffer.MAX_LAG.toMillis() - 1);
+
+    // When:
+    dispatcher.drainOverflow();
+    time.sleep(OverflowBuffer.MAX_LAG.toMillis() - 1);
+    dispatcher.drainOverflow();
+
+    // Then:
+    verify(handler, never()).handle(any());
+  }
+
+  @Test
+  public void shouldFailMemberWhoseOverflowBufferIsFull() {
+    // Given:
+    final Member member = runtime.addMember(passAll(), queue1, onLeave);
+    member.setUncaughtExceptionHandler(handler);
+    member.start();
+    when(queue1.offerRow(null, ROW)).thenReturn(false);
+
+    // When:
+    for (int i = 0; i <= OverflowBuffer.MAX_OVERFLOW_ROWS; i++) {
+      dispatcher.transform(KEY, ROW, ctx);
+    }
+
+    // Then:
+    verify(handler).handle(any(KsqlException.class));
+    assertThat(runtime.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldFailOnlyMemberWhosePipelineThrows() {
+    // Given:
+    final RuntimeException e = new RuntimeException("boom");
+    final Member member = runtime.addMember(
+        () -> (key, value, context) -> {
+          throw e;
+        },
+        queue1,
+        onLeave
+    );
+    member.setUncaughtExceptionHandler(handler);
+    member.start();
+    runtime.addMember(passAll(), queue2, onLeave).start();
+    when(queue2.offerRow(null, ROW)).thenReturn(true);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    verify(handler).handle(e);
+    verify(queue2, times(2)).offerRow(null, ROW);
+    assertThat(runtime.size(), is(1));
+  }
+
+  @Test
+  public void shouldCreatePipelineOncePerDispatcher() {
+    // Given:
+    runtime.addMember(passAll(), queue1, onLeave).start();
+    when(queue1.offerRow(null, ROW)).thenReturn(true);
+    final Dispatcher otherTask = new Dispatcher(members);
+
+    // When:
+    dispatcher.transform(KEY, ROW, ctx);
+    dispatcher.transform(KEY, ROW, ctx);
+    otherTask.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(pipelinesCreated.get(), is(2));
+  }
+
+  @Test
+  public void shouldNotPassRowsToMembersThatHaveLeft() {
+    // Given:
+    final Member member = runtime.addMember(passAll(), queue1, onLeave);
+    member.start();
+    when(queue1.offerRow(null, ROW)).thenReturn(true);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // When:
+    runtime.removeMember(member);
+    dispatcher.transform(KEY, ROW, ctx);
+
+    // Then:
+    verify(queue1).offerRow(null, ROW);
+    assertThat(runtime.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldStartKafkaStreamsOnce() {
+    // Given:
+    runtime.addMember(passAll(), queue1, onLeave).start();
+
+    // When:
+    runtime.addMember(passAll(), queue2, onLeave).start();
+
+    // Then:
+    verify(kafkaStreams).start();
+  }
+
+  @Test
+  public void shouldLeaveThroughCallback() {
+    // Given:
+    final Member member = runtime.addMember(passAll(), queue1, onLeave);
+
+    // When:
+    member.leave();
+
+    // Then:
+    verify(onLeave).accept(member);
+  }
+
+  @Test
+  public void shouldPassUncaughtExceptionsToMembersAndReplaceThread() {
+    // Given:
+    final Exception e = new RuntimeException("boom");
+    runtime.addMember(passAll(), queue1, onLeave).setUncaughtExceptionHandler(handler);
+    runtime.addMember(passAll(), queue2, onLeave);
+    verify(kafkaStreams).setUncaughtExceptionHandler(handlerCaptor.capture());
+
+    // When:
+    final StreamThreadExceptionResponse response = handlerCaptor.getValue().handle(e);
+
+    // Then:
+    verify(handler).handle(e);
+    assertThat(response, is(StreamThreadExceptionResponse.REPLACE_THREAD));
+  }
+
+  @Test
+  public void shouldReplaceThreadEvenIfMemberHandlerThrows() {
+    // Given:
+    final Exception e = new RuntimeException("boom");
+    doThrow(new IllegalStateException()).when(handler).handle(e);
+    runtime.addMember(passAll(), queue1, onLeave).setUncaughtExceptionHandler(handler);
+    verify(kafkaStreams).setUncaughtExceptionHandler(handlerCaptor.capture());
+
+    // When:
+    final StreamThreadExceptionResponse response = handlerCaptor.getValue().handle(e);
+
+    // Then:
+    assertThat(response, is(StreamThreadExceptionResponse.REPLACE_THREAD));
+  }
+
+  @Test
+  public void shouldCloseAndCleanUpKafkaStreams() {
+    // When:
+    runtime.close();
+
+    // Then:
+    final InOrder inOrder = inOrder(kafkaStreams);
+    inOrder.verify(kafkaStreams).close(CLOSE_TIMEOUT);
+    inOrder.verify(kafkaStreams).cleanUp();
+  }
+
+  private Supplier<KsqlTransformer<GenericKey, Optional<GenericRow>>> passAll() {
+    return () -> {
+      pipelinesCreated.incrementAndGet();
+      return (key, value, context) -> Optional.of(value);
+    };
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import io.confluent.ksql.query.SharedTransientRuntime.Member;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedTransientRuntimesTest {
+
+  private static final Map<String, Object> OVERRIDES = ImmutableMap.of("a", "b");
+
+  @Mock
+  private StreamSource source;
+  @Mock
+  private StreamSource otherSource;
+  @Mock
+  private TransientQueryQueue queue;
+  @Mock
+  private KsqlTransformer<GenericKey, Optional<GenericRow>> transformer;
+
+  private final SharedTransientRuntimes runtimes = new SharedTransientRuntimes();
+  private final AtomicInteger runtimesCreated = new AtomicInteger();
+
+  @Test
+  public void shouldShareRuntimeForSameSourceAndOverrides() {
+    // When:
+    final Member member1 = join(source, OVERRIDES);
+    final Member member2 = join(source, ImmutableMap.copyOf(OVERRIDES));
+
+    // Then:
+    assertThat(member1.getRuntime(), is(sameInstance(member2.getRuntime())));
+    assertThat(member1.getRuntime().size(), is(2));
+    assertThat(runtimesCreated.get(), is(1));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeBetweenSources() {
+    // When:
+    final Member member1 = join(source, OVERRIDES);
+    final Member member2 = join(otherSource, OVERRIDES);
+
+    // Then:
+    assertThat(member1.getRuntime(), is(not(sameInstance(member2.getRuntime()))));
+    assertThat(runtimes.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeBetweenOverrides() {
+    // When:
+    final Member member1 = join(source, OVERRIDES);
+    final Member member2 = join(source, ImmutableMap.of());
+
+    // Then:
+    assertThat(member1.getRuntime(), is(not(sameInstance(member2.getRuntime()))));
+    assertThat(runtimes.size(), is(2));
+  }
+
+  @Test
+  public void shouldCloseRuntimeOnceLastMemberLeaves() {
+    // Given:
+    final Member member1 = join(source, OVERRIDES);
+    final Member member2 = join(source, OVERRIDES);
+    final KafkaStreams kafkaStreams = member1.getRuntime().getKafkaStreams();
+
+    // When:
+    member1.leave();
+
+    // Then:
+    verify(kafkaStreams, never()).close(any(Duration.class));
+    assertThat(runtimes.size(), is(1));
+
+    // When:
+    member2.leave();
+
+    // Then:
+    verify(kafkaStreams).close(any(Duration.class));
+    verify(kafkaStreams).cleanUp();
+    assertThat(runtimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldCreateNewRuntimeAfterLastMemberLeaves() {
+    // Given:
+    final Member member1 = join(source, OVERRIDES);
+    member1.leave();
+
+    // When:
+    final Member member2 = join(source, OVERRIDES);
+
+    // Then:
+    assertThat(member1.getRuntime(), is(not(sameInstance(member2.getRuntime()))));
+    assertThat(runtimesCreated.get(), is(2));
+  }
+
+  private Member join(final StreamSource step, final Map<String, Object> overrides) {
+    final Supplier<SharedTransientRuntime> runtimeFactory = () -> {
+      runtimesCreated.incrementAndGet();
+      return new SharedTransientRuntime(
+          "app-id",
+          mock(Topology.class),
+          ImmutableMap.of(),
+          mock(KafkaStreams.class),
+          Duration.ofSeconds(1),
+          new CopyOnWriteArrayList<>()
+      );
+    };
+    return runtimes.join(step, overrides, runtimeFactory, () -> transformer, queue);
+  }
+}
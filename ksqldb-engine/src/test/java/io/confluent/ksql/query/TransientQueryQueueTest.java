@@ -18,15 +18,20 @@ package io.confluent.ksql.query;
 import static io.confluent.ksql.util.KeyValue.keyValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.query.RingBufferQueue.WaitStrategy;
 import io.confluent.ksql.util.KeyValue;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalInt;
@@ -34,6 +39,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -178,6 +185,116 @@ public class TransientQueryQueueTest {
     assertThat(queue.size(), is(MAX_LIMIT));
   }
 
+  @Test
+  public void shouldQueueInRingBuffer() {
+    // Given:
+    queue = new TransientQueryQueue(
+        OptionalInt.empty(), new RingBufferQueue<>(MAX_LIMIT, WaitStrategy.PARK), 1);
+
+    // When:
+    queue.acceptRow(KEY_ONE, VAL_ONE);
+    queue.acceptRow(KEY_TWO, VAL_TWO);
+
+    // Then:
+    assertThat(drainValues(), contains(keyValue(KEY_ONE, VAL_ONE), keyValue(KEY_TWO, VAL_TWO)));
+  }
+
+  @Test
+  public void shouldRecordProducerStallTime() {
+    // Given:
+    givenQueue(OptionalInt.empty());
+
+    IntStream.range(0, MAX_LIMIT)
+        .forEach(idx -> queue.acceptRow(KEY_ONE, VAL_ONE));
+
+    givenWillCloseQueueAsync();
+
+    // When:
+    queue.acceptRow(KEY_TWO, VAL_TWO);
+
+    // Then:
+    assertThat(queue.getProducerStallTimeMs(), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void shouldRegisterMetricsAndRemoveOnClose() {
+    // Given:
+    final Metrics metrics = new Metrics();
+    final MetricName depth = metrics.metricName(
+        TransientQueryQueue.QUEUE_DEPTH,
+        TransientQueryQueue.METRIC_GROUP,
+        ImmutableMap.of("query-id", "q1")
+    );
+
+    queue.registerMetrics(metrics, new QueryId("q1"));
+    queue.acceptRow(KEY_ONE, VAL_ONE);
+
+    // Then:
+    assertThat(metrics.metric(depth).metricValue(), is(1));
+
+    // When:
+    queue.close();
+
+    // Then:
+    assertThat(metrics.metric(depth), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCreateRingBufferQueueFromConfig() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_TRANSIENT_QUEUE_RING_BUFFER_ENABLED, true,
+        KsqlConfig.KSQL_TRANSIENT_QUEUE_WAIT_STRATEGY_CONFIG, "yield"
+    ));
+
+    // When:
+    queue = TransientQueryQueue.create(OptionalInt.empty(), ksqlConfig);
+    queue.acceptRow(KEY_ONE, VAL_ONE);
+
+    // Then:
+    assertThat(queue.poll(), is(notNullValue()));
+  }
+
+  @Test
+  public void shouldOfferRow() {
+    // When:
+    final boolean queued = queue.offerRow(KEY_ONE, VAL_ONE);
+
+    // Then:
+    assertThat(queued, is(true));
+    assertThat(drainValues(), contains(keyValue(KEY_ONE, VAL_ONE)));
+  }
+
+  @Test
+  public void shouldNotWaitToOfferRowToFullQueue() {
+    // Given:
+    givenQueue(OptionalInt.empty());
+    IntStream.range(0, MAX_LIMIT)
+        .forEach(idx -> queue.acceptRow(KEY_ONE, VAL_ONE));
+
+    // When:
+    final boolean queued = queue.offerRow(KEY_TWO, VAL_TWO);
+
+    // Then:
+    assertThat(queued, is(false));
+    assertThat(queue.size(), is(MAX_LIMIT));
+  }
+
+  @Test
+  public void shouldNotOfferRowOnceLimitReached() {
+    // Given:
+    IntStream.range(0, SOME_LIMIT)
+        .forEach(idx -> queue.offerRow(KEY_ONE, VAL_ONE));
+
+    // When:
+    final boolean queued = queue.offerRow(KEY_TWO, VAL_TWO);
+
+    // Then:
+    assertThat(queued, is(true));
+    assertThat(queue.size(), is(SOME_LIMIT));
+    verify(limitHandler, times(1)).limitReached();
+  }
+
   private void givenWillCloseQueueAsync() {
     executorService = Executors.newSingleThreadScheduledExecutor();
     executorService.schedule(queue::close, 200, TimeUnit.MILLISECONDS);
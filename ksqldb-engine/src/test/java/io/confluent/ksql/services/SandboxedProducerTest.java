@@ -44,6 +44,7 @@ public final class SandboxedProducerTest {
       return TestMethods.builder(Producer.class)
           .ignore("send", ProducerRecord.class)
           .ignore("send", ProducerRecord.class, Callback.class)
+          .ignore("flush")
           .ignore("close")
           .ignoreUnchecked("close", long.class, TimeUnit.class)
           .ignore("close", Duration.class)
@@ -77,6 +78,11 @@ public final class SandboxedProducerTest {
       sandboxedProducer = SandboxedProducer.createProxy();
     }
 
+    @Test
+    public void shouldDoNothingOnFlush() {
+      sandboxedProducer.flush();
+    }
+
     @Test
     public void shouldDoNothingOnCloseWithNoArgs() {
       sandboxedProducer.close();
@@ -126,6 +126,7 @@ public class PersistentQueryMetadataTest {
         processingLogger,
         0L,
         0L,
+        Optional.empty(),
         listener
     );
 
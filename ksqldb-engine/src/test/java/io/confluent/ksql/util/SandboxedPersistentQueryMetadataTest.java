@@ -118,6 +118,7 @@ public class SandboxedPersistentQueryMetadataTest {
         processingLogger,
         0L,
         0L,
+        Optional.empty(),
         listener
     );
 
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.query.KafkaStreamsBuilder;
+import io.confluent.ksql.query.QueryError;
+import io.confluent.ksql.query.QueryErrorClassifier;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.SharedPersistentRuntime;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.schema.query.QuerySchemas;
+import io.confluent.ksql.util.QueryMetadata.Listener;
+import java.util.Collections;
+import java.util.Optional;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedPersistentQueryMetadataTest {
+
+  private static final String APPLICATION_ID = "applicationId";
+  private static final String RUNTIME_ID = "runtimeId";
+
+  @Mock
+  private SharedPersistentRuntime.Member member;
+  @Mock
+  private SharedPersistentRuntime runtime;
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private KafkaStreamsBuilder kafkaStreamsBuilder;
+  @Mock
+  private PhysicalSchema physicalSchema;
+  @Mock
+  private DataSource sinkDataSource;
+  @Mock
+  private Topology topology;
+  @Mock
+  private QuerySchemas schemas;
+  @Mock
+  private QueryErrorClassifier queryErrorClassifier;
+  @Mock
+  private ExecutionStep<?> physicalPlan;
+  @Mock
+  private ProcessingLogger processingLogger;
+  @Mock
+  private StreamsUncaughtExceptionHandler handler;
+  @Mock
+  private Listener listener;
+
+  private SharedPersistentQueryMetadata query;
+
+  @Before
+  public void setUp() {
+    when(member.getRuntime()).thenReturn(runtime);
+    when(runtime.getTopology()).thenReturn(topology);
+    when(runtime.getStreamsProperties()).thenReturn(ImmutableMap.of());
+    when(physicalSchema.logicalSchema()).thenReturn(mock(LogicalSchema.class));
+
+    query = new SharedPersistentQueryMetadata(
+        "sql",
+        physicalSchema,
+        Collections.emptySet(),
+        sinkDataSource,
+        "execution plan",
+        new QueryId("queryId"),
+        APPLICATION_ID,
+        member,
+        kafkaStreamsBuilder,
+        schemas,
+        ImmutableMap.of(),
+        10L,
+        queryErrorClassifier,
+        physicalPlan,
+        10,
+        processingLogger,
+        0L,
+        0L,
+        listener
+    );
+    query.initialize();
+  }
+
+  @Test
+  public void shouldNotBuildOwnKafkaStreams() {
+    // Given:
+    when(runtime.getKafkaStreams()).thenReturn(kafkaStreams);
+
+    // Then:
+    verify(kafkaStreamsBuilder, never()).build(any(), any());
+    assertThat(query.getKafkaStreams(), is(kafkaStreams));
+  }
+
+  @Test
+  public void shouldReportErrorStateIfMemberFailed() {
+    // Given:
+    when(member.hasFailed()).thenReturn(true);
+
+    // Then:
+    assertThat(query.getState(), is(State.ERROR));
+    assertThat(query.isError(), is(true));
+  }
+
+  @Test
+  public void shouldReportToQueryOnInitialize() {
+    // Then:
+    verify(member).setUncaughtExceptionHandler(any());
+    verify(member).setStateListener(any());
+  }
+
+  @Test
+  public void shouldRecordErrorsPassedByRuntimeWithoutBackingOff() {
+    // Given:
+    final ArgumentCaptor<StreamsUncaughtExceptionHandler> captor =
+        ArgumentCaptor.forClass(StreamsUncaughtExceptionHandler.class);
+    verify(member).setUncaughtExceptionHandler(captor.capture());
+    final RuntimeException e = new RuntimeException("boom");
+    when(queryErrorClassifier.classify(e)).thenReturn(QueryError.Type.USER);
+
+    // When:
+    final StreamThreadExceptionResponse response = captor.getValue().handle(e);
+
+    // Then:
+    assertThat(response, is(StreamThreadExceptionResponse.REPLACE_THREAD));
+    assertThat(query.getQueryErrors().size(), is(1));
+    verify(listener).onError(any(), any());
+    verify(processingLogger).error(any());
+  }
+
+  @Test
+  public void shouldStartMember() {
+    // Given:
+    when(runtime.getKafkaStreams()).thenReturn(kafkaStreams);
+    when(kafkaStreams.state()).thenReturn(State.RUNNING);
+
+    // When:
+    query.start();
+
+    // Then:
+    verify(member).start();
+    verify(listener).onStateChange(query, State.RUNNING, State.RUNNING);
+    assertThat(query.hasEverBeenStarted(), is(false));
+  }
+
+  @Test
+  public void shouldLeaveRuntimeWithoutCleanUpOnStop() {
+    // When:
+    query.stop();
+
+    // Then:
+    verify(member).leave(false);
+    verify(listener, never()).onClose(any());
+  }
+
+  @Test
+  public void shouldLeaveRuntimeWithCleanUpOnClose() {
+    // When:
+    query.close();
+
+    // Then:
+    final InOrder inOrder = inOrder(member, listener);
+    inOrder.verify(member).leave(true);
+    inOrder.verify(listener).onClose(query);
+  }
+
+  @Test
+  public void shouldLeaveRuntimeOnlyOnce() {
+    // Given:
+    query.stop();
+
+    // When:
+    query.close();
+
+    // Then:
+    verify(member).leave(false);
+    verify(member, never()).leave(true);
+  }
+
+  @Test
+  public void shouldStartMemberOnRestart() {
+    // Given:
+    when(runtime.getKafkaStreams()).thenReturn(kafkaStreams);
+    when(kafkaStreams.state()).thenReturn(State.RUNNING);
+
+    // When:
+    query.restart();
+
+    // Then:
+    verify(member).start();
+  }
+
+  @Test
+  public void shouldThrowOnRestartIfClosed() {
+    // Given:
+    query.close();
+
+    // When/Then:
+    assertThrows(IllegalStateException.class, () -> query.restart());
+  }
+
+  @Test
+  public void shouldSetUncaughtExceptionHandlerOnMember() {
+    // When:
+    query.setUncaughtExceptionHandler(handler);
+
+    // Then:
+    verify(member).setUncaughtExceptionHandler(handler);
+  }
+
+  @Test
+  public void shouldReportSharedRuntime() {
+    // Given:
+    when(runtime.getApplicationId()).thenReturn(RUNTIME_ID);
+
+    // Then:
+    assertThat(query.getSharedRuntimeId(), is(Optional.of(RUNTIME_ID)));
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.BlockingRowQueue;
+import io.confluent.ksql.query.KafkaStreamsBuilder;
+import io.confluent.ksql.query.SharedTransientRuntime;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.QueryMetadata.Listener;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedTransientQueryMetadataTest {
+
+  private static final String QUERY_ID = "queryId";
+  private static final String RUNTIME_ID = "runtimeId";
+
+  @Mock
+  private SharedTransientRuntime.Member member;
+  @Mock
+  private SharedTransientRuntime runtime;
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private KafkaStreamsBuilder kafkaStreamsBuilder;
+  @Mock
+  private LogicalSchema logicalSchema;
+  @Mock
+  private Set<SourceName> sourceNames;
+  @Mock
+  private BlockingRowQueue rowQueue;
+  @Mock
+  private Topology topology;
+  @Mock
+  private StreamsUncaughtExceptionHandler handler;
+  @Mock
+  private Listener listener;
+
+  private SharedTransientQueryMetadata query;
+
+  @Before
+  public void setUp() {
+    when(member.getRuntime()).thenReturn(runtime);
+    when(runtime.getTopology()).thenReturn(topology);
+    when(runtime.getStreamsProperties()).thenReturn(ImmutableMap.of());
+
+    query = new SharedTransientQueryMetadata(
+        "sql",
+        logicalSchema,
+        sourceNames,
+        "execution plan",
+        rowQueue,
+        QUERY_ID,
+        member,
+        kafkaStreamsBuilder,
+        ImmutableMap.of(),
+        10L,
+        10,
+        0L,
+        0L,
+        listener
+    );
+    query.initialize();
+  }
+
+  @Test
+  public void shouldNotBuildOwnKafkaStreams() {
+    // Given:
+    when(runtime.getKafkaStreams()).thenReturn(kafkaStreams);
+
+    // Then:
+    verify(kafkaStreamsBuilder, never()).build(any(), any());
+    assertThat(query.getKafkaStreams(), is(kafkaStreams));
+  }
+
+  @Test
+  public void shouldStartMember() {
+    // Given:
+    when(runtime.getKafkaStreams()).thenReturn(kafkaStreams);
+    when(kafkaStreams.state()).thenReturn(State.RUNNING);
+
+    // When:
+    query.start();
+
+    // Then:
+    verify(member).start();
+    verify(listener).onStateChange(query, State.RUNNING, State.RUNNING);
+    assertThat(query.hasEverBeenStarted(), is(false));
+  }
+
+  @Test
+  public void shouldCloseQueueBeforeLeavingRuntime() {
+    // When:
+    query.close();
+
+    // Then:
+    final InOrder inOrder = inOrder(rowQueue, member, listener);
+    inOrder.verify(rowQueue).close();
+    inOrder.verify(member).leave();
+    inOrder.verify(listener).onClose(query);
+    assertThat(query.isRunning(), is(false));
+  }
+
+  @Test
+  public void shouldLeaveRuntimeOnlyOnce() {
+    // Given:
+    query.close();
+
+    // When:
+    query.close();
+
+    // Then:
+    verify(member).leave();
+  }
+
+  @Test
+  public void shouldSetUncaughtExceptionHandlerOnMember() {
+    // When:
+    query.setUncaughtExceptionHandler(handler);
+
+    // Then:
+    verify(member).setUncaughtExceptionHandler(handler);
+  }
+
+  @Test
+  public void shouldReportSharedRuntime() {
+    // Given:
+    when(runtime.getApplicationId()).thenReturn(RUNTIME_ID);
+
+    // Then:
+    assertThat(query.getSharedRuntimeId(), is(Optional.of(RUNTIME_ID)));
+  }
+}
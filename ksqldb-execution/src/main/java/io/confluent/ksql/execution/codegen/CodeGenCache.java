@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * JVM-wide, bounded cache of compiled expressions.
+ *
+ * <p>Compiling an expression is expensive. Many queries, e.g. those restarted when the command
+ * topic is replayed, compile identical expressions against identical schemas. Entries are keyed
+ * on the expression, the schema it is compiled against, the function registry and its version, and
+ * the config, as these are the inputs to code generation.
+ *
+ * <p>The cache is shared by every query in the JVM, so it is sized once, from the server config,
+ * by {@link #configure}: {@link KsqlConfig#KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG} set on an
+ * individual query has no effect. Until configured, the default size is used. Least recently used
+ * entries are evicted once the cache is full.
+ *
+ * <p>Only the generated class is shared: an expression served from the cache is bound to new
+ * instances of the functions it calls, so UDFs are never shared between queries.
+ */
+public final class CodeGenCache {
+
+  static final String METRIC_GROUP = "ksql-codegen-cache";
+  static final String HIT_COUNT = "hit-count";
+  static final String MISS_COUNT = "miss-count";
+  static final String EVICTION_COUNT = "eviction-count";
+  static final String SIZE = "size";
+
+  private static final CodeGenCache INSTANCE = new CodeGenCache(MetricCollectors.getMetrics());
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicBoolean configured = new AtomicBoolean();
+  private volatile Optional<Cache<Key, CompiledExpression>> cache;
+
+  public static CodeGenCache instance() {
+    return INSTANCE;
+  }
+
+  @VisibleForTesting
+  CodeGenCache(final Metrics metrics) {
+    this.cache = buildCache(KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_DEFAULT);
+
+    metrics.addMetric(
+        metrics.metricName(HIT_COUNT, METRIC_GROUP,
+            "The number of expressions served from the code generation cache"),
+        (Gauge<Long>) (config, now) -> hits.sum()
+    );
+    metrics.addMetric(
+        metrics.metricName(MISS_COUNT, METRIC_GROUP,
+            "The number of expressions compiled because they were not in the cache"),
+        (Gauge<Long>) (config, now) -> misses.sum()
+    );
+    metrics.addMetric(
+        metrics.metricName(EVICTION_COUNT, METRIC_GROUP,
+            "The number of compiled expressions evicted from the cache"),
+        (Gauge<Long>) (config, now) -> evictions.sum()
+    );
+    metrics.addMetric(
+        metrics.metricName(SIZE, METRIC_GROUP,
+            "The number of compiled expressions currently in the cache"),
+        (Gauge<Long>) (config, now) -> cache.map(Cache::size).orElse(0L)
+    );
+  }
+
+  /**
+   * Size the cache from the server config.
+   *
+   * <p>Only the first call has any effect: the cache is not resized once configured.
+   *
+   * @param serverConfig the config of the server.
+   */
+  public void configure(final KsqlConfig serverConfig) {
+    if (configured.compareAndSet(false, true)) {
+      cache = buildCache(serverConfig.getInt(KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG));
+    }
+  }
+
+  /**
+   * Get the compiled form of the supplied {@code expression}, compiling it if necessary.
+   *
+   * @param expression the expression.
+   * @param schema the schema the expression is compiled against.
+   * @param ksqlConfig the config the expression is compiled with.
+   * @param functionRegistry the registry of functions the expression may call.
+   * @param compiler called to compile the expression if it is not in the cache.
+   * @param rebind called to bind an expression from the cache to new instances of the functions
+   *     it calls.
+   * @return the compiled expression.
+   */
+  public CompiledExpression get(
+      final Expression expression,
+      final LogicalSchema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final Supplier<CompiledExpression> compiler,
+      final UnaryOperator<CompiledExpression> rebind
+  ) {
+    final Optional<Cache<Key, CompiledExpression>> maybeCache = this.cache;
+    if (!maybeCache.isPresent()) {
+      misses.increment();
+      return compiler.get();
+    }
+
+    final Cache<Key, CompiledExpression> cache = maybeCache.get();
+
+    final Key key = new Key(expression, schema, ksqlConfig, functionRegistry);
+    final CompiledExpression cached = cache.getIfPresent(key);
+    if (cached != null) {
+      hits.increment();
+      return rebind.apply(cached);
+    }
+
+    try {
+      // Concurrent requests for the same key wait for a single compilation:
+      final AtomicBoolean compiledHere = new AtomicBoolean();
+      final CompiledExpression compiled = cache.get(key, () -> {
+        misses.increment();
+        compiledHere.set(true);
+        return compiler.get();
+      });
+      return compiledHere.get() ? compiled : rebind.apply(compiled);
+    } catch (final ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private Optional<Cache<Key, CompiledExpression>> buildCache(final int maxEntries) {
+    if (maxEntries <= 0) {
+      return Optional.empty();
+    }
+
+    return Optional.of(CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .<Key, CompiledExpression>removalListener(notification -> {
+          if (notification.wasEvicted()) {
+            evictions.increment();
+          }
+        })
+        .build());
+  }
+
+  private static final class Key {
+
+    private final Expression expression;
+    private final LogicalSchema schema;
+    private final KsqlConfig ksqlConfig;
+    private final FunctionRegistry functionRegistry;
+    private final long functionRegistryVersion;
+
+    Key(
+        final Expression expression,
+        final LogicalSchema schema,
+        final KsqlConfig ksqlConfig,
+        final FunctionRegistry functionRegistry
+    ) {
+      this.expression = requireNonNull(expression, "expression");
+      this.schema = requireNonNull(schema, "schema");
+      this.ksqlConfig = requireNonNull(ksqlConfig, "ksqlConfig");
+      this.functionRegistry = requireNonNull(functionRegistry, "functionRegistry");
+      this.functionRegistryVersion = functionRegistry.version();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return functionRegistry == that.functionRegistry
+          && functionRegistryVersion == that.functionRegistryVersion
+          && Objects.equals(expression, that.expression)
+          && Objects.equals(schema, that.schema)
+          && Objects.equals(ksqlConfig, that.ksqlConfig);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          expression,
+          schema,
+          ksqlConfig,
+          System.identityHashCode(functionRegistry),
+          functionRegistryVersion
+      );
+    }
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.execution.codegen;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
@@ -52,6 +53,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.ArrayUtils;
@@ -59,9 +61,14 @@ import org.apache.kafka.connect.data.Schema;
 import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.commons.compiler.CompilerFactoryFactory;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.codehaus.commons.compiler.IScriptEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CodeGenRunner {
 
+  private static final Logger LOG = LoggerFactory.getLogger(CodeGenRunner.class);
+
   private static final SqlToJavaTypeConverter SQL_TO_JAVA_TYPE_CONVERTER =
       SchemaConverters.sqlToJavaConverter();
 
@@ -139,9 +146,96 @@ public class CodeGenRunner {
     return visitor.spec.build();
   }
 
+  public CodeGenSpec getCodeGenSpec(final List<Expression> expressions) {
+    final Visitor visitor = new Visitor();
+    expressions.forEach(expression -> visitor.process(expression, new Context()));
+    return visitor.spec.build();
+  }
+
+  /**
+   * Compile all the supplied {@code expressions} into a single generated class.
+   *
+   * <p>The returned projection evaluates all the expressions in one pass, resolving each
+   * referenced column from the row only once.
+   *
+   * @param expressions the expressions to compile.
+   * @param type the type of the expressions, used in error messages.
+   * @return the compiled projection, or empty if the generated class fails to compile, e.g. as the
+   *     projection is too large for a single method, in which case the caller should compile each
+   *     expression separately.
+   */
+  public Optional<CompiledProjection> buildProjectionCodeGen(
+      final List<Expression> expressions,
+      final String type
+  ) {
+    try {
+      final CodeGenSpec spec = getCodeGenSpec(expressions);
+      final SqlToJavaVisitor sqlToJavaVisitor = SqlToJavaVisitor.of(
+          schema,
+          functionRegistry,
+          spec,
+          ksqlConfig
+      );
+
+      final ImmutableList.Builder<String> javaCode = ImmutableList.builder();
+      final ImmutableList.Builder<SqlType> returnTypes = ImmutableList.builder();
+      for (final Expression expression : expressions) {
+        final SqlType returnType = expressionTypeManager.getExpressionSqlType(
+            expression, new HashMap<>());
+        if (returnType == null) {
+          // expressionType can be null if expression is NULL.
+          throw new KsqlException("NULL expression not supported. expression:" + expression);
+        }
+
+        javaCode.add(sqlToJavaVisitor.process(expression));
+        returnTypes.add(returnType);
+      }
+
+      final List<SqlType> sqlTypes = returnTypes.build();
+      final List<Class<?>> javaTypes = sqlTypes.stream()
+          .map(SQL_TO_JAVA_TYPE_CONVERTER::toJavaType)
+          .collect(Collectors.toList());
+
+      final IScriptEvaluator se;
+      try {
+        se = cookProjection(
+            CompiledProjection.generateCode(javaCode.build(), javaTypes),
+            spec.argumentNames(),
+            spec.argumentTypes()
+        );
+      } catch (final CompileException e) {
+        LOG.warn("Failed to compile {} into a single class, so compiling each expression "
+            + "separately. expressions:{}", type, expressions, e);
+        return Optional.empty();
+      }
+
+      return Optional.of(new CompiledProjection(se, spec, sqlTypes, expressions));
+    } catch (KsqlException | CompileException e) {
+      throw new KsqlException("Invalid " + type + ": " + e.getMessage()
+          + ". expressions:" + expressions + ", schema:" + schema, e);
+    } catch (final Exception e) {
+      throw new RuntimeException("Unexpected error generating code for " + type
+          + ". expressions:" + expressions, e);
+    }
+  }
+
   public CompiledExpression buildCodeGenFromParseTree(
       final Expression expression,
       final String type
+  ) {
+    return CodeGenCache.instance().get(
+        expression,
+        schema,
+        ksqlConfig,
+        functionRegistry,
+        () -> compile(expression, type),
+        cached -> cached.withSpec(getCodeGenSpec(expression))
+    );
+  }
+
+  private CompiledExpression compile(
+      final Expression expression,
+      final String type
   ) {
     try {
       final CodeGenSpec spec = getCodeGenSpec(expression);
@@ -194,6 +288,25 @@ public class CodeGenRunner {
     return ee;
   }
 
+  @VisibleForTesting
+  public static IScriptEvaluator cookProjection(
+      final String javaCode,
+      final String[] argNames,
+      final Class<?>[] argTypes
+  ) throws Exception {
+    final IScriptEvaluator se = CompilerFactoryFactory.getDefaultCompilerFactory()
+        .newScriptEvaluator();
+
+    se.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
+    se.setParameters(
+        ArrayUtils.addAll(argNames, CompiledProjection.TRAILING_PARAM_NAMES),
+        ArrayUtils.addAll(argTypes, CompiledProjection.TRAILING_PARAM_TYPES)
+    );
+    se.setReturnType(Object.class);
+    se.cook(javaCode);
+    return se;
+  }
+
   private final class Visitor extends TraversalExpressionVisitor<Context> {
 
     private final CodeGenSpec.Builder spec;
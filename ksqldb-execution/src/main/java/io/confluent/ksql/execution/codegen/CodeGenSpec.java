@@ -111,6 +111,10 @@ public final class CodeGenSpec {
         final Class<?> type,
         final int colIndex
     ) {
+      if (columnRefToName.containsKey(columnName)) {
+        // Each referenced column is resolved from the row once, however often it is used:
+        return;
+      }
       final String codeName = CodeGenUtil.paramName(argumentCount++);
       columnRefToName.put(columnName, codeName);
       argumentBuilder.add(new ValueArgumentSpec(codeName, type, colIndex));
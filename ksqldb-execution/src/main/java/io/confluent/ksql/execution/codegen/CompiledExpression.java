@@ -28,7 +28,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
-import org.apache.commons.lang3.ArrayUtils;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 @Immutable
@@ -38,6 +37,7 @@ public class CompiledExpression implements ExpressionEvaluator {
   private final IExpressionEvaluator expressionEvaluator;
   private final SqlType expressionType;
   private final ThreadLocal<Object[]> threadLocalParameters;
+  private final int defaultValueIdx;
   private final Expression expression;
   private final CodeGenSpec spec;
 
@@ -51,7 +51,21 @@ public class CompiledExpression implements ExpressionEvaluator {
     this.expressionType = Objects.requireNonNull(expressionType, "expressionType");
     this.expression = Objects.requireNonNull(expression, "expression");
     this.spec = Objects.requireNonNull(spec, "spec");
-    this.threadLocalParameters = ThreadLocal.withInitial(() -> new Object[spec.arguments().size()]);
+    // The frame holds the spec's arguments followed by the trailing 'defaultValue', 'logger'
+    // and 'row' parameters added in CodeGenRunner.cook, so evaluation does not allocate:
+    this.defaultValueIdx = spec.arguments().size();
+    this.threadLocalParameters = ThreadLocal.withInitial(() -> new Object[defaultValueIdx + 3]);
+  }
+
+  /**
+   * Get a copy of this expression that takes its arguments, including the instances of the
+   * functions it calls, from the supplied {@code spec}, rather than compiling it again.
+   *
+   * @param spec the spec, generated from the same expression and schema as this expression's.
+   * @return the copy.
+   */
+  public CompiledExpression withSpec(final CodeGenSpec spec) {
+    return new CompiledExpression(expressionEvaluator, spec, expressionType, expression);
   }
 
   public List<ArgumentSpec> arguments() {
@@ -85,8 +99,7 @@ public class CompiledExpression implements ExpressionEvaluator {
       final Supplier<String> errorMsg
   ) {
     try {
-      return expressionEvaluator.evaluate(
-          ArrayUtils.addAll(getParameters(row), defaultValue, logger, row));
+      return expressionEvaluator.evaluate(getParameters(row, defaultValue, logger));
     } catch (final Exception e) {
       final Throwable cause = e instanceof InvocationTargetException
           ? e.getCause()
@@ -97,9 +110,16 @@ public class CompiledExpression implements ExpressionEvaluator {
     }
   }
 
-  private Object[] getParameters(final GenericRow row) {
+  private Object[] getParameters(
+      final GenericRow row,
+      final Object defaultValue,
+      final ProcessingLogger logger
+  ) {
     final Object[] parameters = threadLocalParameters.get();
     spec.resolve(row, parameters);
+    parameters[defaultValueIdx] = defaultValue;
+    parameters[defaultValueIdx + 1] = logger;
+    parameters[defaultValueIdx + 2] = row;
     return parameters;
   }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.transform.ExpressionEvaluator;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.RecordProcessingError;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.testing.EffectivelyImmutable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.codehaus.commons.compiler.IScriptEvaluator;
+
+/**
+ * A list of expressions compiled into a single generated class.
+ *
+ * <p>The generated code evaluates every expression against the row in one pass, producing the
+ * output row directly. Columns referenced by more than one expression are resolved from the
+ * source row only once. Common subexpressions are not shared: whether a UDF is deterministic is
+ * not known, and hoisting a subexpression out of a {@code CASE} or {@code AND} would evaluate it
+ * for rows the query itself would not.
+ *
+ * <p>Each expression is emitted once, into the single method building the output row, so a
+ * projection too large for one method fails to compile. {@link CodeGenRunner#buildProjectionCodeGen}
+ * then returns nothing, and the caller compiles each expression separately instead.
+ */
+@Immutable
+public class CompiledProjection {
+
+  private static final String ERRORS_PARAM = "ksqlErrors";
+
+  static final String[] TRAILING_PARAM_NAMES = {
+      "defaultValue", "logger", "row", ERRORS_PARAM
+  };
+
+  static final Class<?>[] TRAILING_PARAM_TYPES = {
+      Object.class, ProcessingLogger.class, GenericRow.class, ColumnErrorHandler.class
+  };
+
+  @EffectivelyImmutable
+  private final IScriptEvaluator scriptEvaluator;
+  private final CodeGenSpec spec;
+  private final ImmutableList<SqlType> expressionTypes;
+  private final ImmutableList<Expression> expressions;
+  private final ThreadLocal<Object[]> threadLocalParameters;
+  private final int defaultValueIdx;
+
+  /**
+   * Called by the generated code when evaluating a single column of the projection fails.
+   */
+  public interface ColumnErrorHandler {
+
+    void onError(int column, Throwable cause, GenericRow row);
+  }
+
+  public CompiledProjection(
+      final IScriptEvaluator scriptEvaluator,
+      final CodeGenSpec spec,
+      final List<SqlType> expressionTypes,
+      final List<Expression> expressions
+  ) {
+    this.scriptEvaluator = Objects.requireNonNull(scriptEvaluator, "scriptEvaluator");
+    this.spec = Objects.requireNonNull(spec, "spec");
+    this.expressionTypes = ImmutableList.copyOf(
+        Objects.requireNonNull(expressionTypes, "expressionTypes"));
+    this.expressions = ImmutableList.copyOf(Objects.requireNonNull(expressions, "expressions"));
+    this.defaultValueIdx = spec.arguments().size();
+    this.threadLocalParameters = ThreadLocal.withInitial(
+        () -> new Object[defaultValueIdx + TRAILING_PARAM_NAMES.length]);
+
+    if (this.expressionTypes.size() != this.expressions.size()) {
+      throw new IllegalArgumentException("type count mismatch. "
+          + "expressions: " + expressions + ", types: " + expressionTypes);
+    }
+  }
+
+  public int size() {
+    return expressions.size();
+  }
+
+  public List<Expression> getExpressions() {
+    return expressions;
+  }
+
+  public List<SqlType> getExpressionTypes() {
+    return expressionTypes;
+  }
+
+  /**
+   * Evaluate all the expressions against the supplied {@code row}.
+   *
+   * <p>If evaluating an expression fails, the {@code errorHandler} is called with the details of
+   * the error and the corresponding column of the result is set to {@code null}.
+   *
+   * @param row the row of data to evaluate the expressions against.
+   * @param logger the logger passed to the generated code.
+   * @param errorHandler called for each column that fails to evaluate.
+   * @return the row containing the result of each expression, in order.
+   */
+  public GenericRow evaluate(
+      final GenericRow row,
+      final ProcessingLogger logger,
+      final ColumnErrorHandler errorHandler
+  ) {
+    try {
+      return (GenericRow) scriptEvaluator.evaluate(
+          getParameters(row, logger, errorHandler));
+    } catch (final Exception e) {
+      final Throwable cause = e instanceof InvocationTargetException
+          ? e.getCause()
+          : e;
+
+      final GenericRow result = new GenericRow(expressions.size());
+      for (int i = 0; i < expressions.size(); i++) {
+        errorHandler.onError(i, cause, row);
+        result.append(null);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Get an evaluator for a single expression of the projection.
+   *
+   * <p>The evaluator evaluates the whole projection, so is only intended for callers that need
+   * the expression and its type, or that evaluate a single column rarely.
+   *
+   * @param index the index of the expression.
+   * @return the evaluator.
+   */
+  public ExpressionEvaluator getEvaluator(final int index) {
+    return new ColumnEvaluator(index);
+  }
+
+  @VisibleForTesting
+  static String generateCode(final List<String> javaCode, final List<Class<?>> javaTypes) {
+    final StringBuilder code = new StringBuilder()
+        .append("final io.confluent.ksql.GenericRow ksqlResult = ")
+        .append("new io.confluent.ksql.GenericRow(").append(javaCode.size()).append(");\n");
+
+    for (int i = 0; i < javaCode.size(); i++) {
+      code.append("try {\n")
+          .append("  final ").append(javaTypes.get(i).getCanonicalName())
+          .append(" ksqlValue = (").append(javaCode.get(i)).append(");\n")
+          .append("  ksqlResult.append(ksqlValue);\n")
+          .append("} catch (Exception ksqlException) {\n")
+          .append("  ksqlResult.append(null);\n")
+          .append("  ").append(ERRORS_PARAM)
+          .append(".onError(").append(i).append(", ksqlException, row);\n")
+          .append("}\n");
+    }
+
+    return code.append("return ksqlResult;\n").toString();
+  }
+
+  private Object[] getParameters(
+      final GenericRow row,
+      final ProcessingLogger logger,
+      final ColumnErrorHandler errorHandler
+  ) {
+    final Object[] parameters = threadLocalParameters.get();
+    spec.resolve(row, parameters);
+    parameters[defaultValueIdx] = null;
+    parameters[defaultValueIdx + 1] = logger;
+    parameters[defaultValueIdx + 2] = row;
+    parameters[defaultValueIdx + 3] = errorHandler;
+    return parameters;
+  }
+
+  private final class ColumnEvaluator implements ExpressionEvaluator {
+
+    private final int index;
+
+    private ColumnEvaluator(final int index) {
+      if (index < 0 || index >= expressions.size()) {
+        throw new IndexOutOfBoundsException("index: " + index + ", size: " + expressions.size());
+      }
+      this.index = index;
+    }
+
+    @Override
+    public Object evaluate(
+        final GenericRow row,
+        final Object defaultValue,
+        final ProcessingLogger logger,
+        final Supplier<String> errorMsg
+    ) {
+      final Throwable[] error = new Throwable[1];
+      final GenericRow result = CompiledProjection.this.evaluate(
+          row,
+          logger,
+          (column, cause, r) -> {
+            if (column == index) {
+              error[0] = cause;
+            }
+          }
+      );
+
+      if (error[0] != null) {
+        logger.error(RecordProcessingError.recordProcessingError(errorMsg.get(), error[0], row));
+        return defaultValue;
+      }
+      return result.get(index);
+    }
+
+    @Override
+    public Expression getExpression() {
+      return expressions.get(index);
+    }
+
+    @Override
+    public SqlType getExpressionType() {
+      return expressionTypes.get(index);
+    }
+  }
+}
@@ -100,6 +100,11 @@ public final class UdafUtil {
     final Map<String, Object> functionConfig = config
         .getKsqlFunctionsConfigProps(functionCall.getName().text());
 
+    // Lets functions with mutable aggregates update them in place only when the aggregator does:
+    functionConfig.put(
+        KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED,
+        config.getBoolean(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED));
+
     return new AggregateFunctionInitArguments(udafIndex, functionConfig, initArgs);
   }
 }
@@ -32,14 +32,35 @@ public class KudafAggregator<K> implements UdafAggregator<K> {
   private final int nonAggColumnCount;
   private final List<KsqlAggregateFunction<?, ?, ?>> aggregateFunctions;
   private final int columnCount;
+  private final boolean inPlace;
 
   public KudafAggregator(
       final int nonAggColumnCount,
       final List<KsqlAggregateFunction<?, ?, ?>> functions
+  ) {
+    this(nonAggColumnCount, functions, false);
+  }
+
+  /**
+   * @param nonAggColumnCount the number of non-aggregate columns.
+   * @param functions the aggregate functions.
+   * @param inPlace whether to update the aggregate row passed to {@link #apply} and the first row
+   *                passed to the merger in place, rather than copying them. This is only safe if
+   *                each row is exclusively owned by the call, e.g. freshly deserialized from the
+   *                state store, and the previous aggregate is not used once updated. Only
+   *                the row is copied otherwise, not the aggregates in it, so AVG and
+   *                STDDEV_SAMP only update their structs in place when
+   *                {@code ksql.query.aggregate.in.place.enabled} is set.
+   */
+  public KudafAggregator(
+      final int nonAggColumnCount,
+      final List<KsqlAggregateFunction<?, ?, ?>> functions,
+      final boolean inPlace
   ) {
     this.nonAggColumnCount = nonAggColumnCount;
     this.aggregateFunctions = ImmutableList.copyOf(requireNonNull(functions, "functions"));
     this.columnCount = nonAggColumnCount + aggregateFunctions.size();
+    this.inPlace = inPlace;
 
     if (aggregateFunctions.isEmpty()) {
       throw new IllegalArgumentException("Aggregator needs aggregate functions");
@@ -52,7 +73,7 @@ public class KudafAggregator<K> implements UdafAggregator<K> {
 
   @Override
   public GenericRow apply(final K k, final GenericRow rowValue, final GenericRow aggRowValue) {
-    final GenericRow result = GenericRow.fromList(aggRowValue.values());
+    final GenericRow result = inPlace ? aggRowValue : GenericRow.fromList(aggRowValue.values());
 
     // copy over group-by and aggregate parameter columns into the output row
     for (int idx = 0; idx < nonAggColumnCount; idx++) {
@@ -80,6 +101,10 @@ public class KudafAggregator<K> implements UdafAggregator<K> {
   @Override
   public Merger<GenericKey, GenericRow> getMerger() {
 
+    if (inPlace) {
+      return this::mergeInPlace;
+    }
+
     return (key, aggRowOne, aggRowTwo) -> {
 
       final GenericRow output = new GenericRow(columnCount);
@@ -104,6 +129,27 @@ public class KudafAggregator<K> implements UdafAggregator<K> {
     };
   }
 
+  private GenericRow mergeInPlace(
+      final GenericKey key,
+      final GenericRow aggRowOne,
+      final GenericRow aggRowTwo
+  ) {
+    for (int idx = 0; idx < nonAggColumnCount; idx++) {
+      if (aggRowOne.get(idx) == null) {
+        aggRowOne.set(idx, aggRowTwo.get(idx));
+      }
+    }
+
+    for (int idx = nonAggColumnCount; idx < columnCount; idx++) {
+      final KsqlAggregateFunction<Object, Object, Object> func = aggregateFunctionForColumn(idx);
+      final Object aggOne = aggRowOne.get(idx);
+      final Object aggTwo = aggRowTwo.get(idx);
+      aggRowOne.set(idx, func.getMerger().apply(key, aggOne, aggTwo));
+    }
+
+    return aggRowOne;
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes"}) // Types have already been checked
   private KsqlAggregateFunction<Object, Object, Object> aggregateFunctionForColumn(
       final int columnIndex
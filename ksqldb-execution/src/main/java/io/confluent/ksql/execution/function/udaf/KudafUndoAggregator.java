@@ -29,15 +29,31 @@ public class KudafUndoAggregator implements Aggregator<GenericKey, GenericRow, G
   private final int nonAggColumnCount;
   private final List<TableAggregationFunction<?, ?, ?>> aggregateFunctions;
   private final int columnCount;
+  private final boolean inPlace;
 
   public KudafUndoAggregator(
       final int nonAggColumnCount,
       final List<TableAggregationFunction<?, ?, ?>> aggregateFunctions
+  ) {
+    this(nonAggColumnCount, aggregateFunctions, false);
+  }
+
+  /**
+   * @param nonAggColumnCount the number of non-aggregate columns.
+   * @param aggregateFunctions the aggregate functions.
+   * @param inPlace whether to update the aggregate row passed to {@link #apply} in place, rather
+   *                than copying it. See {@link KudafAggregator}.
+   */
+  public KudafUndoAggregator(
+      final int nonAggColumnCount,
+      final List<TableAggregationFunction<?, ?, ?>> aggregateFunctions,
+      final boolean inPlace
   ) {
     this.nonAggColumnCount = nonAggColumnCount;
     this.aggregateFunctions = ImmutableList
         .copyOf(requireNonNull(aggregateFunctions, "aggregateFunctions"));
     this.columnCount = nonAggColumnCount + aggregateFunctions.size();
+    this.inPlace = inPlace;
 
     if (aggregateFunctions.isEmpty()) {
       throw new IllegalArgumentException("Aggregator needs aggregate functions");
@@ -55,7 +71,7 @@ public class KudafUndoAggregator implements Aggregator<GenericKey, GenericRow, G
       final GenericRow rowValue,
       final GenericRow aggRowValue
   ) {
-    final GenericRow result = GenericRow.fromList(aggRowValue.values());
+    final GenericRow result = inPlace ? aggRowValue : GenericRow.fromList(aggRowValue.values());
 
     for (int idx = 0; idx < nonAggColumnCount; idx++) {
       result.set(idx, rowValue.get(idx));
@@ -15,9 +15,14 @@
 
 package io.confluent.ksql.execution.plan;
 
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.name.ColumnName;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Information about an execution step plan to be passed to a {@link PlanBuilder}
@@ -31,6 +36,11 @@ import java.util.Optional;
  * repartition topic rather than the source topic.
  * See https://github.com/confluentinc/ksql/issues/6650 and the use of
  * {@code PlanInfo} in {@code SourceBuilder} for more.
+ *
+ * <p>It also tracks the value columns of each source that are read by the steps between
+ * the source and its first projection. Any other step before the projection is assumed to
+ * read all columns. The {@code SourceBuilder} uses this to avoid deserializing value columns
+ * that are never read.
  */
 public class PlanInfo {
 
@@ -66,17 +76,79 @@ public class PlanInfo {
     return this;
   }
 
+  /**
+   * Get the value columns of the supplied source that are read by the query.
+   *
+   * @param sourceStep the source step.
+   * @return the names of the value columns read, or empty if all columns may be read.
+   */
+  public Optional<Set<ColumnName>> getRequiredColumns(final ExecutionStep<?> sourceStep) {
+    final SourceInfo sourceInfo = allSources.get(sourceStep);
+    if (sourceInfo == null) {
+      throw new IllegalStateException("Source not found");
+    }
+    return sourceInfo.projected
+        ? Optional.of(ImmutableSet.copyOf(sourceInfo.requiredColumns))
+        : Optional.empty();
+  }
+
+  /**
+   * Record columns read by a step that passes through all the columns it reads, e.g. a filter.
+   */
+  public PlanInfo addRequiredColumns(final Collection<ColumnName> columns) {
+    activeSource
+        .filter(SourceInfo::isOpen)
+        .ifPresent(sourceInfo -> sourceInfo.requiredColumns.addAll(columns));
+    return this;
+  }
+
+  /**
+   * Record columns read by a projection. Steps after the projection do not read source columns.
+   */
+  public PlanInfo setProjectedColumns(final Collection<ColumnName> columns) {
+    activeSource
+        .filter(SourceInfo::isOpen)
+        .ifPresent(sourceInfo -> {
+          sourceInfo.requiredColumns.addAll(columns);
+          sourceInfo.projected = true;
+        });
+    return this;
+  }
+
+  /**
+   * Record that a step may read any of the columns of the source.
+   */
+  public PlanInfo setAllColumnsRequired() {
+    activeSource.ifPresent(SourceInfo::setAllColumnsRequired);
+    return this;
+  }
+
   public PlanInfo merge(final PlanInfo other) {
+    setAllColumnsRequired();
+    other.setAllColumnsRequired();
     return new PlanInfo(allSources.merge(other.allSources));
   }
 
   private static class SourceInfo {
     final ExecutionStep<?> sourceStep;
     boolean isRepartitionedInPlan;
+    final Set<ColumnName> requiredColumns = new HashSet<>();
+    boolean projected;
+    boolean allColumnsRequired;
 
     SourceInfo(final ExecutionStep<?> sourceStep) {
       this.sourceStep = Objects.requireNonNull(sourceStep);
     }
+
+    boolean isOpen() {
+      return !projected && !allColumnsRequired;
+    }
+
+    void setAllColumnsRequired() {
+      if (isOpen()) {
+        allColumnsRequired = true;
+      }
+    }
   }
 
   /**
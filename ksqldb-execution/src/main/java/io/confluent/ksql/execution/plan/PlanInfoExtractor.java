@@ -15,6 +15,14 @@
 
 package io.confluent.ksql.execution.plan;
 
+import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.util.ColumnExtractor;
+import io.confluent.ksql.name.ColumnName;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Visitor for extracting {@link PlanInfo} from an execution step plan,
  * to be passed to a {@link PlanBuilder} for use when translating the
@@ -25,7 +33,7 @@ package io.confluent.ksql.execution.plan;
 public class PlanInfoExtractor {
   
   public <K> PlanInfo visitStreamFilter(final StreamFilter<K> streamFilter) {
-    return visitSingleSourceStep(streamFilter);
+    return visitFilterStep(streamFilter, streamFilter.getFilterExpression());
   }
 
   public <K> PlanInfo visitStreamGroupBy(final StreamGroupByV1<K> streamGroupBy) {
@@ -45,7 +53,7 @@ public class PlanInfoExtractor {
   }
 
   public <K> PlanInfo visitStreamSelect(final StreamSelect<K> streamSelect) {
-    return visitSingleSourceStep(streamSelect);
+    return visitSelectStep(streamSelect, streamSelect.getSelectExpressions());
   }
 
   public <K> PlanInfo visitFlatMap(final StreamFlatMap<K> streamFlatMap) {
@@ -99,7 +107,7 @@ public class PlanInfoExtractor {
   }
 
   public <K> PlanInfo visitTableFilter(final TableFilter<K> tableFilter) {
-    return visitSingleSourceStep(tableFilter);
+    return visitFilterStep(tableFilter, tableFilter.getFilterExpression());
   }
 
   public <K> PlanInfo visitTableGroupBy(final TableGroupByV1<K> tableGroupBy) {
@@ -111,7 +119,7 @@ public class PlanInfoExtractor {
   }
 
   public <K> PlanInfo visitTableSelect(final TableSelect<K> tableSelect) {
-    return visitSingleSourceStep(tableSelect);
+    return visitSelectStep(tableSelect, tableSelect.getSelectExpressions());
   }
 
   public <K> PlanInfo visitTableSelectKey(final TableSelectKey<K> tableSelectKey) {
@@ -136,7 +144,7 @@ public class PlanInfoExtractor {
 
   private PlanInfo visitRepartitionStep(final ExecutionStep<?> step) {
     final PlanInfo sourceInfo = step.getSources().get(0).extractPlanInfo(this);
-    return sourceInfo.setIsRepartitionedInPlan();
+    return sourceInfo.setIsRepartitionedInPlan().setAllColumnsRequired();
   }
 
   private PlanInfo visitJoinStep(final ExecutionStep<?> step) {
@@ -145,7 +153,32 @@ public class PlanInfoExtractor {
     return leftInfo.merge(rightInfo);
   }
 
+  private PlanInfo visitFilterStep(final ExecutionStep<?> step, final Expression filter) {
+    return step.getSources().get(0).extractPlanInfo(this)
+        .addRequiredColumns(columnNames(filter));
+  }
+
+  private PlanInfo visitSelectStep(
+      final ExecutionStep<?> step,
+      final List<SelectExpression> selectExpressions
+  ) {
+    final Set<ColumnName> columns = selectExpressions.stream()
+        .map(SelectExpression::getExpression)
+        .flatMap(expression -> columnNames(expression).stream())
+        .collect(Collectors.toSet());
+
+    return step.getSources().get(0).extractPlanInfo(this)
+        .setProjectedColumns(columns);
+  }
+
   private PlanInfo visitSingleSourceStep(final ExecutionStep<?> step) {
-    return step.getSources().get(0).extractPlanInfo(this);
+    return step.getSources().get(0).extractPlanInfo(this)
+        .setAllColumnsRequired();
+  }
+
+  private static Set<ColumnName> columnNames(final Expression expression) {
+    return ColumnExtractor.extractColumns(expression).stream()
+        .map(ColumnReferenceExp::getColumnName)
+        .collect(Collectors.toSet());
   }
 }
@@ -25,6 +25,7 @@ import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.schema.query.QuerySchemas;
@@ -40,6 +41,7 @@ import io.confluent.ksql.serde.tracked.TrackedCallback;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.Windowed;
@@ -215,6 +217,36 @@ public final class RuntimeBuildContext {
     );
   }
 
+  /**
+   * Build a value serde whose deserializer need only deserialize the {@code requiredColumns}.
+   * Other columns may be deserialized as {@code null}.
+   */
+  public Serde<GenericRow> buildValueSerde(
+      final FormatInfo format,
+      final PhysicalSchema schema,
+      final QueryContext queryContext,
+      final Set<ColumnName> requiredColumns
+  ) {
+    final String loggerNamePrefix = QueryLoggerUtil.queryLoggerName(queryId, queryContext);
+
+    schemas.trackValueSerdeCreation(
+        loggerNamePrefix,
+        schema.logicalSchema(),
+        ValueFormat.of(format, schema.valueSchema().features())
+    );
+
+    return valueSerdeFactory.create(
+        format,
+        schema.valueSchema(),
+        ksqlConfig,
+        serviceContext.getSchemaRegistryClientFactory(),
+        loggerNamePrefix,
+        processingLogContext,
+        getSerdeTracker(loggerNamePrefix),
+        requiredColumns
+    );
+  }
+
   private Optional<TrackedCallback> getSerdeTracker(final String loggerNamePrefix) {
     if (System.getProperty(KSQL_TEST_TRACK_SERDE_TOPICS) == null) {
       return Optional.empty();
@@ -19,34 +19,60 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CompiledProjection;
+import io.confluent.ksql.execution.codegen.CompiledProjection.ColumnErrorHandler;
 import io.confluent.ksql.execution.transform.ExpressionEvaluator;
 import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.RecordProcessingError;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.utils.FormatOptions;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 
 public class SelectValueMapper<K> {
 
   private final ImmutableList<SelectInfo> selects;
+  private final Optional<CompiledProjection> projection;
 
   SelectValueMapper(final List<SelectInfo> selects) {
+    this(selects, Optional.empty());
+  }
+
+  SelectValueMapper(
+      final List<SelectInfo> selects,
+      final Optional<CompiledProjection> projection
+  ) {
     this.selects = ImmutableList.copyOf(requireNonNull(selects, "selects"));
+    this.projection = requireNonNull(projection, "projection");
   }
 
   List<SelectInfo> getSelects() {
     return selects;
   }
 
+  Optional<CompiledProjection> getProjection() {
+    return projection;
+  }
+
   public KsqlTransformer<K, GenericRow> getTransformer(
       final ProcessingLogger processingLogger
   ) {
+    if (projection.isPresent()) {
+      return new ProjectionMapper<>(projection.get(), selects, processingLogger);
+    }
     return new SelectMapper<>(selects, processingLogger);
   }
 
+  private static String errorMessage(final SelectInfo select, final int column) {
+    return "Error computing expression " + select.evaluator.getExpression()
+        + " for column " + select.fieldName.toString(FormatOptions.noEscape())
+        + " with index " + column;
+  }
+
   public static final class SelectInfo {
 
     final ColumnName fieldName;
@@ -123,12 +149,46 @@ public class SelectValueMapper<K> {
     private Object processColumn(final int column, final GenericRow row) {
       final SelectInfo select = selects.get(column);
 
-      final Supplier<String> errorMsgSupplier = () ->
-          "Error computing expression " + select.evaluator.getExpression()
-              + " for column " + select.fieldName.toString(FormatOptions.noEscape())
-              + " with index " + column;
+      final Supplier<String> errorMsgSupplier = () -> errorMessage(select, column);
 
       return select.evaluator.evaluate(row, null, processingLogger, errorMsgSupplier);
     }
   }
+
+  private static final class ProjectionMapper<K>
+      implements KsqlTransformer<K, GenericRow>, ColumnErrorHandler {
+
+    private final CompiledProjection projection;
+    private final ImmutableList<SelectInfo> selects;
+    private final ProcessingLogger processingLogger;
+
+    private ProjectionMapper(
+        final CompiledProjection projection,
+        final ImmutableList<SelectInfo> selects,
+        final ProcessingLogger processingLogger
+    ) {
+      this.projection = requireNonNull(projection, "projection");
+      this.selects = requireNonNull(selects, "selects");
+      this.processingLogger = requireNonNull(processingLogger, "processingLogger");
+    }
+
+    @Override
+    public GenericRow transform(
+        final K readOnlyKey,
+        final GenericRow value,
+        final KsqlProcessingContext ctx
+    ) {
+      if (value == null) {
+        return null;
+      }
+
+      return projection.evaluate(value, processingLogger, this);
+    }
+
+    @Override
+    public void onError(final int column, final Throwable cause, final GenericRow row) {
+      processingLogger.error(RecordProcessingError.recordProcessingError(
+          errorMessage(selects.get(column), column), cause, row));
+    }
+  }
 }
@@ -21,6 +21,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
 import io.confluent.ksql.execution.codegen.CompiledExpression;
+import io.confluent.ksql.execution.codegen.CompiledProjection;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.transform.ExpressionEvaluator;
 import io.confluent.ksql.execution.transform.select.SelectValueMapper.SelectInfo;
@@ -28,6 +29,7 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -65,8 +67,11 @@ public final class SelectValueMapperFactory {
       final FunctionRegistry functionRegistry
   ) {
     final CodeGenRunner codeGen = new CodeGenRunner(sourceSchema, ksqlConfig, functionRegistry);
+    final SelectValueMapperFactory factory = new SelectValueMapperFactory(codeGen);
 
-    return new SelectValueMapperFactory(codeGen).create(selectExpressions);
+    return ksqlConfig.getBoolean(KsqlConfig.KSQL_PROJECTION_CODEGEN_ENABLED)
+        ? factory.createProjection(selectExpressions)
+        : factory.create(selectExpressions);
   }
 
   @VisibleForTesting
@@ -76,6 +81,32 @@ public final class SelectValueMapperFactory {
     return new SelectValueMapper<>(buildSelects(selectExpressions));
   }
 
+  @VisibleForTesting
+  <K> SelectValueMapper<K> createProjection(
+      final List<SelectExpression> selectExpressions
+  ) {
+    final Optional<CompiledProjection> compiled = codeGenerator.buildProjectionCodeGen(
+        selectExpressions.stream()
+            .map(SelectExpression::getExpression)
+            .collect(Collectors.toList()),
+        EXP_TYPE
+    );
+
+    if (!compiled.isPresent()) {
+      return create(selectExpressions);
+    }
+
+    final CompiledProjection projection = compiled.get();
+
+    final ImmutableList.Builder<SelectInfo> selects = ImmutableList.builder();
+    for (int i = 0; i < selectExpressions.size(); i++) {
+      selects.add(SelectInfo.of(
+          selectExpressions.get(i).getAlias(), projection.getEvaluator(i)));
+    }
+
+    return new SelectValueMapper<>(selects.build(), Optional.of(projection));
+  }
+
   private SelectInfo buildSelect(final SelectExpression selectExpression) {
     final CompiledExpression evaluator = codeGenerator
         .buildCodeGenFromParseTree(selectExpression.getExpression(), EXP_TYPE);
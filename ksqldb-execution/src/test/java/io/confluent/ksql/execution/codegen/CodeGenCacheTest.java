@@ -0,0 +1,273 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CodeGenCacheTest {
+
+  private static final ColumnName COL0 = ColumnName.of("COL0");
+  private static final ColumnName COL1 = ColumnName.of("COL1");
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(COL0, SqlTypes.BIGINT)
+      .valueColumn(COL1, SqlTypes.STRING)
+      .build();
+
+  private static final Expression EXPRESSION = new UnqualifiedColumnReferenceExp(COL0);
+
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(ImmutableMap.of(
+      KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 10
+  ));
+
+  @Mock
+  private FunctionRegistry functionRegistry;
+  @Mock
+  private Supplier<CompiledExpression> compiler;
+  @Mock
+  private CompiledExpression compiled;
+  @Mock
+  private UnaryOperator<CompiledExpression> rebind;
+  @Mock
+  private CompiledExpression rebound;
+
+  private Metrics metrics;
+  private CodeGenCache cache;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    cache = new CodeGenCache(metrics);
+    cache.configure(KSQL_CONFIG);
+
+    when(compiler.get()).thenReturn(compiled);
+  }
+
+  @Test
+  public void shouldReuseCompiledExpression() {
+    // Given:
+    when(rebind.apply(compiled)).thenReturn(rebound);
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+    final CompiledExpression result = cache
+        .get(new UnqualifiedColumnReferenceExp(COL0), SCHEMA, KSQL_CONFIG, functionRegistry,
+            compiler, rebind);
+
+    // Then:
+    assertThat(result, is(sameInstance(rebound)));
+    verify(compiler, times(1)).get();
+    assertThat(metricValue(CodeGenCache.HIT_COUNT), is(1L));
+    assertThat(metricValue(CodeGenCache.MISS_COUNT), is(1L));
+    assertThat(metricValue(CodeGenCache.SIZE), is(1L));
+  }
+
+  @Test
+  public void shouldNotRebindExpressionItCompiled() {
+    // When:
+    final CompiledExpression result =
+        cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+
+    // Then:
+    assertThat(result, is(sameInstance(compiled)));
+    verify(rebind, never()).apply(any());
+  }
+
+  @Test
+  public void shouldNotReuseForDifferentSchema() {
+    // Given:
+    final LogicalSchema otherSchema = LogicalSchema.builder()
+        .valueColumn(COL0, SqlTypes.INTEGER)
+        .build();
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+    cache.get(EXPRESSION, otherSchema, KSQL_CONFIG, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(2)).get();
+  }
+
+  @Test
+  public void shouldNotReuseForDifferentConfig() {
+    // Given:
+    final KsqlConfig otherConfig = KSQL_CONFIG.cloneWithPropertyOverrides(ImmutableMap.of(
+        KsqlConfig.KSQL_NESTED_ERROR_HANDLING_CONFIG, true
+    ));
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+    cache.get(EXPRESSION, SCHEMA, otherConfig, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(2)).get();
+  }
+
+  @Test
+  public void shouldNotReuseOnceFunctionRegistryVersionChanges() {
+    // Given:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+    when(functionRegistry.version()).thenReturn(1L);
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(2)).get();
+  }
+
+  @Test
+  public void shouldNotReuseForDifferentFunctionRegistry() {
+    // When:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, mock(FunctionRegistry.class), compiler, rebind);
+
+    // Then:
+    verify(compiler, times(2)).get();
+  }
+
+  @Test
+  public void shouldNotCacheIfDisabled() {
+    // Given:
+    final KsqlConfig disabled = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 0
+    ));
+    cache = new CodeGenCache(new Metrics());
+    cache.configure(disabled);
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, disabled, functionRegistry, compiler, rebind);
+    cache.get(EXPRESSION, SCHEMA, disabled, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(2)).get();
+  }
+
+  @Test
+  public void shouldCacheBeforeConfigured() {
+    // Given:
+    cache = new CodeGenCache(new Metrics());
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(1)).get();
+  }
+
+  @Test
+  public void shouldNotResizeOnceConfigured() {
+    // Given:
+    final KsqlConfig disabled = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 0
+    ));
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+
+    // When:
+    cache.configure(disabled);
+    cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(1)).get();
+    assertThat(metricValue(CodeGenCache.SIZE), is(1L));
+  }
+
+  @Test
+  public void shouldIgnoreMaxEntriesOfQueryConfig() {
+    // Given:
+    final KsqlConfig queryConfig = KSQL_CONFIG.cloneWithPropertyOverrides(ImmutableMap.of(
+        KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 0
+    ));
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, queryConfig, functionRegistry, compiler, rebind);
+    cache.get(EXPRESSION, SCHEMA, queryConfig, functionRegistry, compiler, rebind);
+
+    // Then:
+    verify(compiler, times(1)).get();
+    assertThat(metricValue(CodeGenCache.SIZE), is(1L));
+  }
+
+  @Test
+  public void shouldEvictOnceFull() {
+    // Given:
+    final KsqlConfig single = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 1
+    ));
+    metrics = new Metrics();
+    cache = new CodeGenCache(metrics);
+    cache.configure(single);
+
+    // When:
+    cache.get(EXPRESSION, SCHEMA, single, functionRegistry, compiler, rebind);
+    cache.get(new UnqualifiedColumnReferenceExp(COL1), SCHEMA, single, functionRegistry,
+        compiler, rebind);
+
+    // Then:
+    assertThat(metricValue(CodeGenCache.EVICTION_COUNT), is(1L));
+    assertThat(metricValue(CodeGenCache.SIZE), is(1L));
+  }
+
+  @Test
+  public void shouldRethrowCompilationErrors() {
+    // Given:
+    final KsqlException e = new KsqlException("Boom");
+    when(compiler.get()).thenThrow(e);
+
+    // When:
+    final KsqlException thrown = assertThrows(
+        KsqlException.class,
+        () -> cache.get(EXPRESSION, SCHEMA, KSQL_CONFIG, functionRegistry, compiler, rebind)
+    );
+
+    // Then:
+    assertThat(thrown, is(sameInstance(e)));
+    assertThat(metricValue(CodeGenCache.SIZE), is(0L));
+  }
+
+  private Object metricValue(final String name) {
+    return metrics.metric(metrics.metricName(name, CodeGenCache.METRIC_GROUP)).metricValue();
+  }
+}
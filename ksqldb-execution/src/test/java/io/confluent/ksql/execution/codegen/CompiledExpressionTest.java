@@ -4,6 +4,7 @@ import static io.confluent.ksql.GenericRow.genericRow;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,6 +27,7 @@ import org.codehaus.commons.compiler.IExpressionEvaluator;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -41,6 +43,8 @@ public class CompiledExpressionTest {
   @Mock
   private Kudf udf;
   @Mock
+  private Kudf otherUdf;
+  @Mock
   private Expression expression;
   @Mock
   private ProcessingLogger processingLogger;
@@ -118,6 +122,59 @@ public class CompiledExpressionTest {
     verify(expressionEvaluator).evaluate(new Object[]{udf, 123, DEFAULT_VAL, processingLogger, genericRow(123)});
   }
 
+  @Test
+  public void shouldEvaluateWithFunctionsOfNewSpec() throws Exception {
+    // Given:
+    spec.addFunction(FunctionName.of("foo"), udf);
+    compiledExpression = new CompiledExpression(
+        expressionEvaluator,
+        spec.build(),
+        EXPRESSION_TYPE,
+        expression
+    );
+
+    final CodeGenSpec.Builder otherSpec = new CodeGenSpec.Builder();
+    otherSpec.addFunction(FunctionName.of("foo"), otherUdf);
+
+    // When:
+    compiledExpression
+        .withSpec(otherSpec.build())
+        .evaluate(genericRow(123), DEFAULT_VAL, processingLogger, errorMsgSupplier);
+
+    // Then:
+    verify(expressionEvaluator)
+        .evaluate(new Object[]{otherUdf, DEFAULT_VAL, processingLogger, genericRow(123)});
+  }
+
+  @Test
+  public void shouldReuseParameterFrameAcrossEvaluations() throws Exception {
+    // Given:
+    spec.addParameter(
+        ColumnName.of("foo1"),
+        Integer.class,
+        0
+    );
+    compiledExpression = new CompiledExpression(
+        expressionEvaluator,
+        spec.build(),
+        EXPRESSION_TYPE,
+        expression
+    );
+
+    // When:
+    compiledExpression
+        .evaluate(genericRow(123), DEFAULT_VAL, processingLogger, errorMsgSupplier);
+    compiledExpression
+        .evaluate(genericRow(456), DEFAULT_VAL, processingLogger, errorMsgSupplier);
+
+    // Then:
+    final ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+    verify(expressionEvaluator, times(2)).evaluate(captor.capture());
+    assertThat(captor.getAllValues().get(0), is(sameInstance(captor.getAllValues().get(1))));
+    assertThat(captor.getValue(),
+        equalTo(new Object[]{456, DEFAULT_VAL, processingLogger, genericRow(456)}));
+  }
+
   @Test
   public void shouldPerformThreadSafeParameterEvaluation() throws Exception {
     // Given:
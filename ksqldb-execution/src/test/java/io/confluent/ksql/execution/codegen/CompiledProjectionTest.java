@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CompiledProjection.ColumnErrorHandler;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompiledProjectionTest {
+
+  private static final Object DEFAULT_VAL = new Object();
+
+  @Mock
+  private Expression expression0;
+  @Mock
+  private Expression expression1;
+  @Mock
+  private ProcessingLogger processingLogger;
+  @Mock
+  private ColumnErrorHandler errorHandler;
+  @Mock
+  private Supplier<String> errorMsgSupplier;
+
+  private CompiledProjection projection;
+
+  @Before
+  public void setUp() throws Exception {
+    final CodeGenSpec.Builder builder = new CodeGenSpec.Builder();
+    builder.addParameter(ColumnName.of("foo"), Long.class, 0);
+    builder.addParameter(ColumnName.of("bar"), String.class, 1);
+    // Referencing the same column again should not add a parameter:
+    builder.addParameter(ColumnName.of("foo"), Long.class, 0);
+    final CodeGenSpec spec = builder.build();
+
+    final String code = CompiledProjection.generateCode(
+        ImmutableList.of(
+            spec.getCodeName(ColumnName.of("foo")) + " + 1",
+            spec.getCodeName(ColumnName.of("bar")) + ".toUpperCase()"
+        ),
+        ImmutableList.of(Long.class, String.class)
+    );
+
+    projection = new CompiledProjection(
+        CodeGenRunner.cookProjection(code, spec.argumentNames(), spec.argumentTypes()),
+        spec,
+        ImmutableList.of(SqlTypes.BIGINT, SqlTypes.STRING),
+        ImmutableList.of(expression0, expression1)
+    );
+  }
+
+  @Test
+  public void shouldEvaluateAllColumnsInOnePass() {
+    // When:
+    final GenericRow result = projection
+        .evaluate(genericRow(10L, "hello"), processingLogger, errorHandler);
+
+    // Then:
+    assertThat(result, is(genericRow(11L, "HELLO")));
+    verify(errorHandler, never()).onError(anyInt(), any(), any());
+  }
+
+  @Test
+  public void shouldSetOnlyFailingColumnToNull() {
+    // Given:
+    final GenericRow row = genericRow(10L, null);
+
+    // When:
+    final GenericRow result = projection.evaluate(row, processingLogger, errorHandler);
+
+    // Then:
+    assertThat(result, is(genericRow(11L, null)));
+    final ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+    verify(errorHandler).onError(eq(1), captor.capture(), eq(row));
+    assertThat(captor.getValue(), instanceOf(NullPointerException.class));
+  }
+
+  @Test
+  public void shouldSetAllColumnsToNullIfResolvingParametersFails() {
+    // When:
+    final GenericRow result = projection.evaluate(genericRow(), processingLogger, errorHandler);
+
+    // Then:
+    assertThat(result, is(genericRow(null, null)));
+    verify(errorHandler).onError(eq(0), any(), eq(genericRow()));
+    verify(errorHandler).onError(eq(1), any(), eq(genericRow()));
+  }
+
+  @Test
+  public void shouldEvaluateSingleColumn() {
+    // When:
+    final Object result = projection.getEvaluator(1)
+        .evaluate(genericRow(10L, "hello"), DEFAULT_VAL, processingLogger, errorMsgSupplier);
+
+    // Then:
+    assertThat(result, is("HELLO"));
+  }
+
+  @Test
+  public void shouldReturnDefaultAndLogIfSingleColumnThrows() {
+    // Given:
+    when(errorMsgSupplier.get()).thenReturn("It went wrong!");
+
+    // When:
+    final Object result = projection.getEvaluator(1)
+        .evaluate(genericRow(10L, null), DEFAULT_VAL, processingLogger, errorMsgSupplier);
+
+    // Then:
+    assertThat(result, is(DEFAULT_VAL));
+    verify(processingLogger).error(any());
+  }
+
+  @Test
+  public void shouldExposeExpressionAndTypeOfSingleColumn() {
+    assertThat(projection.getEvaluator(0).getExpression(), is(expression0));
+    assertThat(projection.getEvaluator(0).getExpressionType(), is(SqlTypes.BIGINT));
+  }
+
+  @Test
+  public void shouldGenerateCodeOfEachExpressionOnce() {
+    // When:
+    final String code = CompiledProjection.generateCode(
+        ImmutableList.of("ksqlExpression0", "ksqlExpression1"),
+        ImmutableList.of(Long.class, String.class)
+    );
+
+    // Then:
+    assertThat(code.split("ksqlExpression0", -1).length - 1, is(1));
+    assertThat(code.split("ksqlExpression1", -1).length - 1, is(1));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldThrowOnUnknownColumn() {
+    projection.getEvaluator(2);
+  }
+}
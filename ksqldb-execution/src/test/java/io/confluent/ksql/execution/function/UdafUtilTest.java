@@ -24,6 +24,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.expression.tree.LongLiteral;
@@ -162,4 +163,20 @@ public class UdafUtilTest {
     assertThat(e.getMessage(), is("Parameter 4 passed to function AGG must be a literal constant, "
         + "but was expression: 'Not good!'"));
   }
+
+  @Test
+  public void shouldPassInPlaceAggregationConfigToFunction() {
+    // Given:
+    final KsqlConfig config = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED, false
+    ));
+
+    // When:
+    final AggregateFunctionInitArguments initArgs =
+        UdafUtil.createAggregateFunctionInitArgs(0, FUNCTION_CALL, config);
+
+    // Then:
+    final Object inPlace = initArgs.config().get(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED);
+    assertThat(inPlace, is(false));
+  }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package io.confluent.ksql.execution.function.udaf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -104,4 +105,36 @@ public class KudafAggregatorTest {
     assertThat(agg, is(GenericRow.genericRow(1, 2L, 4)));
     assertThat("invalid test", result, is(not(GenericRow.genericRow(1, 2L, 4))));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldUpdateAggregateInPlaceOnApply() {
+    // Given:
+    aggregator = new KudafAggregator<>(2, ImmutableList.of(func1), true);
+    final GenericRow value = GenericRow.genericRow(1, 2L);
+    final GenericRow agg = GenericRow.genericRow(0, 0L, 3);
+
+    // When:
+    final GenericRow result = aggregator.apply("key", value, agg);
+
+    // Then:
+    assertThat(result, is(sameInstance(agg)));
+    assertThat(agg, is(GenericRow.genericRow(1, 2L, "func1-result")));
+    assertThat(value, is(GenericRow.genericRow(1, 2L)));
+  }
+
+  @Test
+  public void shouldMergeIntoFirstAggregateInPlace() {
+    // Given:
+    aggregator = new KudafAggregator<>(2, ImmutableList.of(func1), true);
+    final GenericRow aggOne = GenericRow.genericRow(null, 2L, 4);
+    final GenericRow aggTwo = GenericRow.genericRow(1, 5L, 3);
+
+    // When:
+    final GenericRow result = aggregator.getMerger().apply(key, aggOne, aggTwo);
+
+    // Then:
+    assertThat(result, is(sameInstance(aggOne)));
+    assertThat(aggOne, is(GenericRow.genericRow(1, 2L, "func1-merged")));
+    assertThat(aggTwo, is(GenericRow.genericRow(1, 5L, 3)));
+  }
+}
@@ -17,16 +17,20 @@ package io.confluent.ksql.execution.transform.select;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
 import io.confluent.ksql.execution.codegen.CompiledExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.transform.select.SelectValueMapper.SelectInfo;
 import io.confluent.ksql.name.ColumnName;
+import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,6 +48,12 @@ public class SelectValueMapperFactoryTest {
   private CompiledExpression md_0;
   @Mock
   private CompiledExpression md_1;
+  @Mock
+  private Expression expression_0;
+  @Mock
+  private Expression expression_1;
+  @Mock
+  private CodeGenRunner codeGenRunner;
 
   @Before
   public void setUp() {
@@ -64,4 +74,26 @@ public class SelectValueMapperFactoryTest {
        SelectInfo.of(ColumnName.of("field_1"), md_1)
     ));
   }
+
+  @Test
+  public void shouldCompileExpressionsSeparatelyIfProjectionFailsToCompile() {
+    // Given:
+    when(select_0.getExpression()).thenReturn(expression_0);
+    when(select_1.getExpression()).thenReturn(expression_1);
+    when(codeGenRunner.buildProjectionCodeGen(
+        ImmutableList.of(expression_0, expression_1), "Select")).thenReturn(Optional.empty());
+    when(codeGenRunner.buildCodeGenFromParseTree(expression_0, "Select")).thenReturn(md_0);
+    when(codeGenRunner.buildCodeGenFromParseTree(expression_1, "Select")).thenReturn(md_1);
+
+    // When:
+    final SelectValueMapper<?> mapper = new SelectValueMapperFactory(codeGenRunner)
+        .createProjection(ImmutableList.of(select_0, select_1));
+
+    // Then:
+    assertThat(mapper.getProjection(), is(Optional.empty()));
+    assertThat(mapper.getSelects(), contains(
+        SelectInfo.of(ColumnName.of("field_0"), md_0),
+        SelectInfo.of(ColumnName.of("field_1"), md_1)
+    ));
+  }
 }
\ No newline at end of file
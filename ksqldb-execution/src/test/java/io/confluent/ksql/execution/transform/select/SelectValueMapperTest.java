@@ -30,12 +30,16 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.codegen.CompiledExpression;
+import io.confluent.ksql.execution.codegen.CompiledProjection;
+import io.confluent.ksql.execution.codegen.CompiledProjection.ColumnErrorHandler;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.RecordProcessingError;
 import io.confluent.ksql.name.ColumnName;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.junit.Before;
@@ -64,6 +68,8 @@ public class SelectValueMapperTest {
   private ProcessingLogger processingLogger;
   @Mock
   private KsqlProcessingContext ctx;
+  @Mock
+  private CompiledProjection projection;
 
   private KsqlTransformer<Object, GenericRow> transformer;
 
@@ -129,4 +135,60 @@ public class SelectValueMapperTest {
     // Then:
     assertThat(result, is(nullValue()));
   }
+
+  @Test
+  public void shouldEvaluateThroughProjectionIfPresent() {
+    // Given:
+    final KsqlTransformer<Object, GenericRow> projectionTransformer = projectionMapper()
+        .getTransformer(processingLogger);
+    when(projection.evaluate(eq(VALUE), eq(processingLogger), any()))
+        .thenReturn(genericRow(100, 200, 300));
+
+    // When:
+    final GenericRow result = projectionTransformer.transform(KEY, VALUE, ctx);
+
+    // Then:
+    assertThat(result, equalTo(genericRow(100, 200, 300)));
+  }
+
+  @Test
+  public void shouldLogProjectionColumnErrors() {
+    // Given:
+    final KsqlTransformer<Object, GenericRow> projectionTransformer = projectionMapper()
+        .getTransformer(processingLogger);
+    final RuntimeException e = new RuntimeException("Boom");
+    when(projection.evaluate(eq(VALUE), eq(processingLogger), any())).thenAnswer(inv -> {
+      inv.<ColumnErrorHandler>getArgument(2).onError(1, e, VALUE);
+      return genericRow(100, null, 300);
+    });
+
+    // When:
+    projectionTransformer.transform(KEY, VALUE, ctx);
+
+    // Then:
+    verify(processingLogger).error(RecordProcessingError.recordProcessingError(
+        "Error computing expression c for column cherry with index 1", e, VALUE));
+  }
+
+  @Test
+  public void shouldHandleNullRowsWithProjection() {
+    // When:
+    final GenericRow result = projectionMapper()
+        .getTransformer(processingLogger)
+        .transform(KEY, null, ctx);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  private SelectValueMapper<Object> projectionMapper() {
+    return new SelectValueMapper<>(
+        ImmutableList.of(
+            SelectValueMapper.SelectInfo.of(NAME0, col0),
+            SelectValueMapper.SelectInfo.of(NAME1, col1),
+            SelectValueMapper.SelectInfo.of(NAME2, col2)
+        ),
+        Optional.of(projection)
+    );
+  }
 }
@@ -19,6 +19,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.test.tools.stubs.StubKafkaService;
+import java.util.concurrent.CompletableFuture;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
 public final class StubInsertValuesExecutor {
@@ -31,7 +32,10 @@ public final class StubInsertValuesExecutor {
 
     return new InsertValuesExecutor(
         false,
-        (record, ignored1, ignored2) -> stubProducer.sendRecord(record)
+        (record, ignored1, ignored2, ignored3, ignored4) -> {
+          stubProducer.sendRecord(record);
+          return CompletableFuture.completedFuture(null);
+        }
     );
   }
 
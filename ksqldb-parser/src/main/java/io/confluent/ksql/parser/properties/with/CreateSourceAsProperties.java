@@ -89,6 +89,10 @@ public final class CreateSourceAsProperties {
     return Optional.ofNullable(props.getString(CommonCreateConfigs.TIMESTAMP_FORMAT_PROPERTY));
   }
 
+  public Optional<String> getRocksDbProfile() {
+    return Optional.ofNullable(props.getString(CreateAsConfigs.ROCKSDB_PROFILE_PROPERTY));
+  }
+
   public SerdeFeatures getValueSerdeFeatures() {
     final ImmutableSet.Builder<SerdeFeature> builder = ImmutableSet.builder();
 
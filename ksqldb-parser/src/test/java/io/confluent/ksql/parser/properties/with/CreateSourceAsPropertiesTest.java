@@ -35,6 +35,7 @@ import io.confluent.ksql.execution.expression.tree.Literal;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.properties.with.CommonCreateConfigs;
+import io.confluent.ksql.properties.with.CreateAsConfigs;
 import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.SerdeFeatures;
 import io.confluent.ksql.serde.avro.AvroFormat;
@@ -66,6 +67,7 @@ public class CreateSourceAsPropertiesTest {
     assertThat(properties.getReplicas(), is(Optional.empty()));
     assertThat(properties.getPartitions(), is(Optional.empty()));
     assertThat(properties.getValueSerdeFeatures(), is(SerdeFeatures.of()));
+    assertThat(properties.getRocksDbProfile(), is(Optional.empty()));
   }
 
   @Test
@@ -115,6 +117,29 @@ public class CreateSourceAsPropertiesTest {
     assertThat(e.getMessage(), containsString("Invalid datetime format for config:TIMESTAMP_FORMAT, reason:Unknown pattern letter: i"));
   }
 
+  @Test
+  public void shouldSetValidRocksDbProfile() {
+    // When:
+    final CreateSourceAsProperties properties = CreateSourceAsProperties.from(
+        ImmutableMap.of(CreateAsConfigs.ROCKSDB_PROFILE_PROPERTY, new StringLiteral("scan")));
+
+    // Then:
+    assertThat(properties.getRocksDbProfile(), is(Optional.of("scan")));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidRocksDbProfile() {
+    // When:
+    final Exception e = assertThrows(
+        KsqlException.class,
+        () -> from(
+            of(CreateAsConfigs.ROCKSDB_PROFILE_PROPERTY, new StringLiteral("fast")))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Invalid value fast for property ROCKSDB_PROFILE"));
+  }
+
   @Test
   public void shouldAutomaticallySetAvroSchemaNameForKey() {
     // Given:
@@ -34,6 +34,7 @@ import io.confluent.ksql.util.VertxUtils;
 import io.vertx.core.Context;
 import io.vertx.core.WorkerExecutor;
 import io.vertx.core.json.JsonObject;
+import java.util.Objects;
 import org.reactivestreams.Subscriber;
 
 public class InsertsStreamEndpoint {
@@ -41,12 +42,14 @@ public class InsertsStreamEndpoint {
   private final KsqlEngine ksqlEngine;
   private final KsqlConfig ksqlConfig;
   private final ReservedInternalTopics reservedInternalTopics;
+  private final InsertsStreamMetrics metrics;
 
   public InsertsStreamEndpoint(final KsqlEngine ksqlEngine, final KsqlConfig ksqlConfig,
-      final ReservedInternalTopics reservedInternalTopics) {
+      final ReservedInternalTopics reservedInternalTopics, final InsertsStreamMetrics metrics) {
     this.ksqlEngine = ksqlEngine;
     this.ksqlConfig = ksqlConfig;
     this.reservedInternalTopics = reservedInternalTopics;
+    this.metrics = Objects.requireNonNull(metrics);
   }
 
   public InsertsStreamSubscriber createInsertsSubscriber(final String caseInsensitiveTarget,
@@ -77,7 +80,7 @@ public class InsertsStreamEndpoint {
       throw new KsqlApiException("Cannot insert into a table", ERROR_CODE_BAD_STATEMENT);
     }
     return InsertsSubscriber.createInsertsSubscriber(serviceContext, properties, dataSource,
-        ksqlConfig, context, acksSubscriber, workerExecutor);
+        ksqlConfig, context, acksSubscriber, workerExecutor, metrics);
   }
 
   private DataSource getDataSource(
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.impl;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.metrics.MeasurableStat;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Metrics of the rows inserted through the inserts-stream endpoint, alongside the HTTP metrics
+ * of the endpoint from {@link MonitoredEndpoints}.
+ */
+public class InsertsStreamMetrics implements Closeable {
+
+  private static final String INSERTS_STREAM_METRIC_GROUP = "inserts-stream";
+  private static final String ROWS = "inserts-stream-rows";
+  private static final String ACK_LATENCY = "inserts-stream-ack-latency";
+
+  private final Metrics metrics;
+  private final String groupName;
+  private final Map<String, String> customMetricsTags;
+  private final Time time;
+  private final Sensor rowsSensor;
+  private final Sensor ackLatencySensor;
+
+  public InsertsStreamMetrics(
+      final String ksqlServiceId,
+      final Map<String, String> customMetricsTags,
+      final Time time
+  ) {
+    final Map<String, String> metricsTags = new HashMap<>(customMetricsTags);
+    metricsTags.put(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    this.customMetricsTags = ImmutableMap.copyOf(metricsTags);
+
+    this.groupName = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX
+        + INSERTS_STREAM_METRIC_GROUP;
+    this.time = Objects.requireNonNull(time, "time");
+    this.metrics = MetricCollectors.getMetrics();
+    this.rowsSensor = configureRowsSensor();
+    this.ackLatencySensor = configureAckLatencySensor();
+  }
+
+  @Override
+  public void close() {
+    metrics.removeSensor(rowsSensor.name());
+    metrics.removeSensor(ackLatencySensor.name());
+  }
+
+  public void recordRow() {
+    rowsSensor.record(1);
+  }
+
+  /**
+   * @param startTimeNanos the time the row was received, from {@link #nanoseconds()}.
+   */
+  public void recordAckLatency(final long startTimeNanos) {
+    // Record latency at microsecond scale
+    final double latency = TimeUnit.NANOSECONDS.toMicros(time.nanoseconds() - startTimeNanos);
+    ackLatencySensor.record(latency);
+  }
+
+  public long nanoseconds() {
+    return time.nanoseconds();
+  }
+
+  private Sensor configureRowsSensor() {
+    final Sensor sensor = metrics.sensor(INSERTS_STREAM_METRIC_GROUP + "-" + ROWS);
+    addSensor(sensor, ROWS + "-rate",
+        "Rate of rows received by the inserts-stream endpoint, per second", new Rate());
+    addSensor(sensor, ROWS + "-total",
+        "Total number of rows received by the inserts-stream endpoint", new CumulativeCount());
+    return sensor;
+  }
+
+  private Sensor configureAckLatencySensor() {
+    final Sensor sensor = metrics.sensor(INSERTS_STREAM_METRIC_GROUP + "-" + ACK_LATENCY);
+    addSensor(sensor, ACK_LATENCY + "-avg",
+        "Average time for a row of the inserts-stream endpoint to be acknowledged by Kafka, "
+            + "in microseconds", new Avg());
+    addSensor(sensor, ACK_LATENCY + "-max",
+        "Max time for a row of the inserts-stream endpoint to be acknowledged by Kafka, "
+            + "in microseconds", new Max());
+    return sensor;
+  }
+
+  private void addSensor(
+      final Sensor sensor,
+      final String metricName,
+      final String description,
+      final MeasurableStat measurableStat
+  ) {
+    sensor.add(
+        metrics.metricName(metricName, groupName, description, customMetricsTags),
+        measurableStat
+    );
+  }
+}
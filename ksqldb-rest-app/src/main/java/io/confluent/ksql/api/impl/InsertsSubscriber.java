@@ -38,6 +38,8 @@ import io.confluent.ksql.util.VertxUtils;
 import io.vertx.core.Context;
 import io.vertx.core.WorkerExecutor;
 import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.kafka.clients.producer.Callback;
@@ -64,6 +66,9 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
   private final Serializer<GenericRow> valueSerializer;
   private final BufferedPublisher<InsertResult> acksPublisher;
   private final WorkerExecutor workerExecutor;
+  private final InsertsStreamMetrics metrics;
+  private final int batchSize;
+  private List<PendingRow> batch;
   private int outstandingTokens;
   private boolean drainHandlerSet;
   private long sequence;
@@ -75,7 +80,8 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
       final KsqlConfig ksqlConfig,
       final Context context,
       final Subscriber<InsertResult> acksSubscriber,
-      final WorkerExecutor workerExecutor
+      final WorkerExecutor workerExecutor,
+      final InsertsStreamMetrics metrics
   ) {
     final KsqlConfig configCopy = ksqlConfig.cloneWithPropertyOverwrite(properties.getMap());
     final Producer<byte[], byte[]> producer = serviceContext
@@ -113,7 +119,8 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
     final BufferedPublisher<InsertResult> acksPublisher = new BufferedPublisher<>(context);
     acksPublisher.subscribe(acksSubscriber);
     return new InsertsSubscriber(context, producer, dataSource, keySerde.serializer(),
-        valueSerde.serializer(), acksPublisher, workerExecutor);
+        valueSerde.serializer(), acksPublisher, workerExecutor, metrics,
+        configCopy.getInt(KsqlConfig.KSQL_INSERTS_STREAM_BATCH_SIZE_CONFIG));
   }
 
   private InsertsSubscriber(
@@ -123,7 +130,9 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
       final Serializer<GenericKey> keySerializer,
       final Serializer<GenericRow> valueSerializer,
       final BufferedPublisher<InsertResult> acksPublisher,
-      final WorkerExecutor workerExecutor
+      final WorkerExecutor workerExecutor,
+      final InsertsStreamMetrics metrics,
+      final int batchSize
   ) {
     super(context);
     this.producer = Objects.requireNonNull(producer);
@@ -132,11 +141,13 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
     this.valueSerializer = Objects.requireNonNull(valueSerializer);
     this.acksPublisher = Objects.requireNonNull(acksPublisher);
     this.workerExecutor = Objects.requireNonNull(workerExecutor);
+    this.metrics = Objects.requireNonNull(metrics);
+    this.batchSize = batchSize;
   }
 
   @Override
   public void close() {
-    // Run async as it can block
+    // Run async as it can block. Ordered, so that any batches still being sent are sent first
     executeOnWorker(producer::close);
   }
 
@@ -147,27 +158,21 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
 
   @Override
   protected void handleValue(final JsonObject jsonObjectWithCaseInsensitiveFields) {
+    metrics.recordRow();
+    final long startTimeNanos = metrics.nanoseconds();
 
-    try {
-      final JsonObject jsonObject = convertColumnNameCase(jsonObjectWithCaseInsensitiveFields);
-
-      final GenericKey key = extractKey(jsonObject);
-      final GenericRow values = extractValues(jsonObject);
-
-      final String topicName = dataSource.getKafkaTopicName();
-      final byte[] keyBytes = keySerializer.serialize(topicName, key);
-      final byte[] valueBytes = valueSerializer.serialize(topicName, values);
+    if (batchSize > 0) {
+      outstandingTokens--;
+      addToBatch(new PendingRow(sequence++, startTimeNanos, jsonObjectWithCaseInsensitiveFields));
+      return;
+    }
 
-      final ProducerRecord<byte[], byte[]> record = new ProducerRecord<>(
-          topicName,
-          null,
-          System.currentTimeMillis(),
-          keyBytes,
-          valueBytes
-      );
+    try {
+      final ProducerRecord<byte[], byte[]> record =
+          createRecord(jsonObjectWithCaseInsensitiveFields);
 
       outstandingTokens--;
-      producer.send(record, new SendCallback(sequence));
+      producer.send(record, new SendCallback(sequence, startTimeNanos));
     } catch (Exception e) {
       // We send the error to the acks publisher
       acksPublisher.accept(InsertResult.failedInsert(sequence, e));
@@ -175,6 +180,67 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
     sequence++;
   }
 
+  private ProducerRecord<byte[], byte[]> createRecord(
+      final JsonObject jsonObjectWithCaseInsensitiveFields
+  ) {
+    final JsonObject jsonObject = convertColumnNameCase(jsonObjectWithCaseInsensitiveFields);
+
+    final GenericKey key = extractKey(jsonObject);
+    final GenericRow values = extractValues(jsonObject);
+
+    final String topicName = dataSource.getKafkaTopicName();
+    final byte[] keyBytes = keySerializer.serialize(topicName, key);
+    final byte[] valueBytes = valueSerializer.serialize(topicName, values);
+
+    return new ProducerRecord<>(
+        topicName,
+        null,
+        System.currentTimeMillis(),
+        keyBytes,
+        valueBytes
+    );
+  }
+
+  private void addToBatch(final PendingRow row) {
+    if (batch == null) {
+      batch = new ArrayList<>(batchSize);
+      // Send the rows that arrive together, e.g. from the same buffer of the request, as one batch
+      context.runOnContext(v -> sendBatch());
+    }
+    batch.add(row);
+    if (batch.size() >= batchSize) {
+      sendBatch();
+    }
+  }
+
+  private void sendBatch() {
+    if (batch == null) {
+      return;
+    }
+    final List<PendingRow> rows = batch;
+    batch = null;
+    workerExecutor.executeBlocking(p -> {
+      sendRows(rows);
+      p.complete();
+    }, true, ar -> {
+      if (ar.failed()) {
+        log.error("Failed to send inserts", ar.cause());
+      }
+    });
+  }
+
+  private void sendRows(final List<PendingRow> rows) {
+    // Called on a worker, one batch at a time
+    for (final PendingRow row : rows) {
+      try {
+        producer.send(createRecord(row.jsonObject), new SendCallback(row.seq, row.startTimeNanos));
+      } catch (Exception e) {
+        final InsertResult result = InsertResult.failedInsert(row.seq, e);
+        context.runOnContext(v -> handleResult(result));
+      }
+    }
+  }
+
   private void handleResult(final InsertResult result) {
     VertxUtils.checkContext(context);
     final boolean full = acksPublisher.accept(result);
@@ -210,7 +276,7 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
   }
 
   private void executeOnWorker(final Runnable runnable) {
-    workerExecutor.executeBlocking(p -> runnable.run(), false, ar -> {
+    workerExecutor.executeBlocking(p -> runnable.run(), true, ar -> {
       if (ar.failed()) {
         log.error("Failed to close producer", ar.cause());
       }
@@ -220,17 +286,35 @@ public final class InsertsSubscriber extends BaseSubscriber<JsonObject> implemen
   private class SendCallback implements Callback {
 
     private final long seq;
+    private final long startTimeNanos;
 
-    SendCallback(final long seq) {
+    SendCallback(final long seq, final long startTimeNanos) {
       this.seq = seq;
+      this.startTimeNanos = startTimeNanos;
     }
 
     @Override
     public void onCompletion(final RecordMetadata metadata, final Exception exception) {
+      if (exception == null) {
+        metrics.recordAckLatency(startTimeNanos);
+      }
       final InsertResult result = exception != null ? InsertResult.failedInsert(seq, exception) :
           InsertResult.succeededInsert(seq);
       context.runOnContext(v -> handleResult(result));
     }
   }
 
+  private static final class PendingRow {
+
+    private final long seq;
+    private final long startTimeNanos;
+    private final JsonObject jsonObject;
+
+    PendingRow(final long seq, final long startTimeNanos, final JsonObject jsonObject) {
+      this.seq = seq;
+      this.startTimeNanos = startTimeNanos;
+      this.jsonObject = jsonObject;
+    }
+  }
+
 }
@@ -36,6 +36,7 @@ import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullSourceType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.RoutingNodeType;
 import io.confluent.ksql.physical.pull.PullQueryResult;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.query.BlockingRowQueue;
 import io.confluent.ksql.rest.server.KsqlRestConfig;
 import io.confluent.ksql.rest.server.LocalCommands;
@@ -50,6 +51,7 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import io.confluent.ksql.util.VertxUtils;
 import io.vertx.core.Context;
@@ -63,6 +65,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse;
 
 public class QueryEndpoint {
 
@@ -74,6 +77,7 @@ public class QueryEndpoint {
   private final RateLimiter rateLimiter;
   private final ConcurrencyLimiter pullConcurrencyLimiter;
   private final HARouting routing;
+  private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
 
   public QueryEndpoint(
@@ -85,6 +89,7 @@ public class QueryEndpoint {
       final RateLimiter rateLimiter,
       final ConcurrencyLimiter pullConcurrencyLimiter,
       final HARouting routing,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
     this.ksqlEngine = ksqlEngine;
@@ -95,6 +100,7 @@ public class QueryEndpoint {
     this.rateLimiter = rateLimiter;
     this.pullConcurrencyLimiter = pullConcurrencyLimiter;
     this.routing = routing;
+    this.pushRouting = pushRouting;
     this.localCommands = localCommands;
   }
 
@@ -142,7 +148,8 @@ public class QueryEndpoint {
 
     localCommands.ifPresent(lc -> lc.write(queryMetadata));
 
-    publisher.setQueryHandle(new KsqlQueryHandle(queryMetadata), false);
+    publisher.setQueryHandle(
+        new KsqlQueryHandle(queryMetadata, serviceContext, statement, pushRouting), false);
 
     return publisher;
   }
@@ -261,9 +268,20 @@ public class QueryEndpoint {
   private static class KsqlQueryHandle implements QueryHandle {
 
     private final TransientQueryMetadata queryMetadata;
-
-    KsqlQueryHandle(final TransientQueryMetadata queryMetadata) {
+    private final ServiceContext serviceContext;
+    private final ConfiguredStatement<Query> statement;
+    private final PushRouting pushRouting;
+
+    KsqlQueryHandle(
+        final TransientQueryMetadata queryMetadata,
+        final ServiceContext serviceContext,
+        final ConfiguredStatement<Query> statement,
+        final PushRouting pushRouting
+    ) {
       this.queryMetadata = Objects.requireNonNull(queryMetadata, "queryMetadata");
+      this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
+      this.statement = Objects.requireNonNull(statement, "statement");
+      this.pushRouting = Objects.requireNonNull(pushRouting, "pushRouting");
     }
 
     @Override
@@ -279,6 +297,11 @@ public class QueryEndpoint {
     @Override
     public void start() {
       queryMetadata.start();
+
+      if (queryMetadata instanceof ScalablePushQueryMetadata) {
+        pushRouting.handlePushQuery(
+            serviceContext, (ScalablePushQueryMetadata) queryMetadata, statement);
+      }
     }
 
     @Override
@@ -294,7 +317,14 @@ public class QueryEndpoint {
     @Override
     public void onException(final Consumer<Throwable> onException) {
       // We don't try to do anything on exception for push queries, but rely on the
-      // existing exception handling
+      // existing exception handling, except for those served from a persistent query,
+      // which have no stream threads of their own to fail:
+      if (queryMetadata instanceof ScalablePushQueryMetadata) {
+        queryMetadata.setUncaughtExceptionHandler(e -> {
+          onException.accept(e);
+          return StreamThreadExceptionResponse.SHUTDOWN_CLIENT;
+        });
+      }
     }
   }
 
@@ -23,6 +23,8 @@ import io.confluent.ksql.rest.entity.InsertError;
 import io.vertx.core.Context;
 import io.vertx.core.http.HttpServerResponse;
 import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +32,9 @@ import org.slf4j.LoggerFactory;
 /**
  * A reactive streams subscriber that subscribes to publishers of acks. As it receive acks it writes
  * them to the HTTP response.
+ *
+ * <p>If acks are coalesced, the acks received together are written as a single ack of the highest
+ * sequence number up to which all inserts have been acked, rather than an ack per insert.
  */
 public class AcksSubscriber extends BaseSubscriber<InsertResult> {
 
@@ -38,6 +43,11 @@ public class AcksSubscriber extends BaseSubscriber<InsertResult> {
 
   private final HttpServerResponse response;
   private final InsertsStreamResponseWriter insertsStreamResponseWriter;
+  private final boolean coalesceAcks;
+  private final SortedSet<Long> ackedOutOfOrder = new TreeSet<>();
+  private long nextSeqToAck;
+  private long lastSeqWritten = -1;
+  private boolean writeScheduled;
   private Long insertsSent;
   private long acksSent;
   private boolean drainHandlerSet;
@@ -45,9 +55,15 @@ public class AcksSubscriber extends BaseSubscriber<InsertResult> {
 
   public AcksSubscriber(final Context context, final HttpServerResponse response,
       final InsertsStreamResponseWriter insertsStreamResponseWriter) {
+    this(context, response, insertsStreamResponseWriter, false);
+  }
+
+  public AcksSubscriber(final Context context, final HttpServerResponse response,
+      final InsertsStreamResponseWriter insertsStreamResponseWriter, final boolean coalesceAcks) {
     super(context);
     this.response = Objects.requireNonNull(response);
     this.insertsStreamResponseWriter = Objects.requireNonNull(insertsStreamResponseWriter);
+    this.coalesceAcks = coalesceAcks;
   }
 
   @Override
@@ -79,7 +95,11 @@ public class AcksSubscriber extends BaseSubscriber<InsertResult> {
   }
 
   private void handleSuccessfulInsert(final InsertResult result) {
-    insertsStreamResponseWriter.writeInsertResponse(new InsertAck(result.sequenceNumber()));
+    if (coalesceAcks) {
+      coalesceAck(result.sequenceNumber());
+    } else {
+      insertsStreamResponseWriter.writeInsertResponse(new InsertAck(result.sequenceNumber()));
+    }
     acksSent++;
     if (insertsSent != null && insertsSent == acksSent) {
       close();
@@ -96,8 +116,38 @@ public class AcksSubscriber extends BaseSubscriber<InsertResult> {
     }
   }
 
+  private void coalesceAck(final long seq) {
+    // Inserts to different partitions can be acked out of order
+    if (seq == nextSeqToAck) {
+      nextSeqToAck++;
+      while (!ackedOutOfOrder.isEmpty() && ackedOutOfOrder.first() == nextSeqToAck) {
+        ackedOutOfOrder.remove(nextSeqToAck);
+        nextSeqToAck++;
+      }
+    } else {
+      ackedOutOfOrder.add(seq);
+    }
+
+    if (!writeScheduled) {
+      writeScheduled = true;
+      context.runOnContext(v -> writeCoalescedAck());
+    }
+  }
+
+  private void writeCoalescedAck() {
+    writeScheduled = false;
+    if (responseEnded || nextSeqToAck - 1 == lastSeqWritten) {
+      return;
+    }
+    lastSeqWritten = nextSeqToAck - 1;
+    insertsStreamResponseWriter.writeInsertResponse(new InsertAck(lastSeqWritten));
+  }
+
   private void handleFailedInsert(final InsertResult result) {
     log.error("Error in processing inserts", result.exception());
+    if (coalesceAcks) {
+      writeCoalescedAck();
+    }
     final InsertError insertError;
     final Exception exception = result.exception();
     if (exception instanceof KsqlApiException) {
@@ -119,6 +169,10 @@ public class AcksSubscriber extends BaseSubscriber<InsertResult> {
   }
 
   private void close() {
+    if (coalesceAcks) {
+      writeCoalescedAck();
+    }
+    responseEnded = true;
     insertsStreamResponseWriter.end();
     complete();
   }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.rest.BinaryQueryStreamFormat;
+import io.confluent.ksql.rest.entity.KsqlErrorMessage;
+import io.confluent.ksql.rest.entity.QueryResponseMetadata;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes the query response stream in binary format.
+ *
+ * <p>Rows are written in batches, each in a single frame, rather than one write per row. A batch
+ * is written once it reaches the max batch size, or once the linger time has passed since its
+ * first row was added, whichever comes first. Any pending batch is written before an error, and
+ * before the response is ended.
+ *
+ * <p>Please consult {@link BinaryQueryStreamFormat} and the API documentation for a full
+ * description of the format.
+ */
+public class BinaryQueryStreamResponseWriter implements QueryStreamResponseWriter {
+
+  private static final int NO_TIMER = -1;
+  private static final int ROW_COUNT_OFFSET = BinaryQueryStreamFormat.FRAME_HEADER_SIZE;
+  private static final int BATCH_HEADER_SIZE = ROW_COUNT_OFFSET + 8;
+
+  private final HttpServerResponse response;
+  private final Vertx vertx;
+  private final int maxBatchBytes;
+  private final long lingerMs;
+  private Buffer batch;
+  private int rowCount;
+  private long timerId = NO_TIMER;
+
+  public BinaryQueryStreamResponseWriter(
+      final HttpServerResponse response,
+      final Vertx vertx,
+      final int maxBatchBytes,
+      final long lingerMs
+  ) {
+    this.response = Objects.requireNonNull(response);
+    this.vertx = Objects.requireNonNull(vertx);
+    this.maxBatchBytes = maxBatchBytes;
+    this.lingerMs = lingerMs;
+  }
+
+  @Override
+  public QueryStreamResponseWriter writeMetadata(final QueryResponseMetadata metaData) {
+    writeFrame(BinaryQueryStreamFormat.METADATA_FRAME, ServerUtils.serializeObject(metaData));
+    return this;
+  }
+
+  @Override
+  public QueryStreamResponseWriter writeRow(final GenericRow row) {
+    final List<Object> values = row.values();
+    if (rowCount == 0) {
+      batch = Buffer.buffer(Math.min(maxBatchBytes, 4096) + BATCH_HEADER_SIZE)
+          .appendByte(BinaryQueryStreamFormat.ROWS_FRAME)
+          .appendInt(0)
+          .appendInt(0)
+          .appendInt(values.size());
+    }
+
+    for (final Object value : values) {
+      appendValue(batch, value);
+    }
+    rowCount++;
+
+    if (batch.length() - BATCH_HEADER_SIZE >= maxBatchBytes || lingerMs == 0) {
+      flush();
+    } else if (timerId == NO_TIMER) {
+      timerId = vertx.setTimer(lingerMs, id -> {
+        timerId = NO_TIMER;
+        if (!response.closed()) {
+          flush();
+        }
+      });
+    }
+    return this;
+  }
+
+  @Override
+  public QueryStreamResponseWriter writeError(final KsqlErrorMessage error) {
+    flush();
+    writeFrame(BinaryQueryStreamFormat.ERROR_FRAME, ServerUtils.serializeObject(error));
+    return this;
+  }
+
+  @Override
+  public void end() {
+    flush();
+    response.end();
+  }
+
+  private void flush() {
+    if (timerId != NO_TIMER) {
+      vertx.cancelTimer(timerId);
+      timerId = NO_TIMER;
+    }
+
+    if (rowCount == 0) {
+      return;
+    }
+
+    batch.setInt(1, batch.length() - BinaryQueryStreamFormat.FRAME_HEADER_SIZE);
+    batch.setInt(ROW_COUNT_OFFSET, rowCount);
+    response.write(batch);
+    batch = null;
+    rowCount = 0;
+  }
+
+  private void writeFrame(final byte frameType, final Buffer payload) {
+    response.write(Buffer.buffer(BinaryQueryStreamFormat.FRAME_HEADER_SIZE + payload.length())
+        .appendByte(frameType)
+        .appendInt(payload.length())
+        .appendBuffer(payload));
+  }
+
+  private static void appendValue(final Buffer buffer, final Object value) {
+    if (value == null) {
+      buffer.appendByte(BinaryQueryStreamFormat.NULL);
+    } else if (value instanceof Boolean) {
+      buffer.appendByte((Boolean) value
+          ? BinaryQueryStreamFormat.TRUE
+          : BinaryQueryStreamFormat.FALSE);
+    } else if (value instanceof Integer) {
+      buffer.appendByte(BinaryQueryStreamFormat.INT).appendInt((Integer) value);
+    } else if (value instanceof Long) {
+      final long longValue = (Long) value;
+      if (longValue == (int) longValue) {
+        // As when read from JSON, values that fit are read back as ints:
+        buffer.appendByte(BinaryQueryStreamFormat.INT).appendInt((int) longValue);
+      } else {
+        buffer.appendByte(BinaryQueryStreamFormat.BIGINT).appendLong(longValue);
+      }
+    } else if (value instanceof Double) {
+      buffer.appendByte(BinaryQueryStreamFormat.DOUBLE).appendDouble((Double) value);
+    } else if (value instanceof String) {
+      final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+      buffer.appendByte(BinaryQueryStreamFormat.STRING).appendInt(bytes.length).appendBytes(bytes);
+    } else {
+      // Decimals, arrays, maps, structs and any other types are written as they would be in the
+      // other formats, so that the client reads the same values whichever format is used:
+      final Buffer json = ServerUtils.serializeObject(Collections.singletonList(value));
+      buffer.appendByte(BinaryQueryStreamFormat.JSON).appendInt(json.length()).appendBuffer(json);
+    }
+  }
+}
@@ -131,7 +131,7 @@ public class InsertsStreamHandler implements Handler<RoutingContext> {
       routingContext.response().endHandler(v -> handleResponseEnd());
 
       acksSubscriber = new AcksSubscriber(ctx, routingContext.response(),
-          insertsStreamResponseWriter);
+          insertsStreamResponseWriter, insertsStreamArgs.get().coalesceAcks);
 
       recordParser.pause();
 
@@ -19,8 +19,10 @@ import static io.confluent.ksql.api.server.ServerUtils.checkHttp2;
 
 import io.confluent.ksql.api.auth.DefaultApiSecurityContext;
 import io.confluent.ksql.api.spi.Endpoints;
+import io.confluent.ksql.rest.BinaryQueryStreamFormat;
 import io.confluent.ksql.rest.entity.QueryResponseMetadata;
 import io.confluent.ksql.rest.entity.QueryStreamArgs;
+import io.confluent.ksql.rest.server.KsqlRestConfig;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.ext.web.RoutingContext;
@@ -67,6 +69,12 @@ public class QueryStreamHandler implements Handler<RoutingContext> {
       // Default
       queryStreamResponseWriter =
           new DelimitedQueryStreamResponseWriter(routingContext.response());
+    } else if (BinaryQueryStreamFormat.CONTENT_TYPE.equals(contentType)) {
+      queryStreamResponseWriter = new BinaryQueryStreamResponseWriter(
+          routingContext.response(),
+          context.owner(),
+          server.getConfig().getInt(KsqlRestConfig.QUERY_STREAM_BATCH_MAX_BYTES),
+          server.getConfig().getLong(KsqlRestConfig.QUERY_STREAM_BATCH_LINGER_MS));
     } else {
       queryStreamResponseWriter = new JsonQueryStreamResponseWriter(routingContext.response());
     }
@@ -29,12 +29,14 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.ServiceInfo;
 import io.confluent.ksql.api.auth.AuthenticationPlugin;
 import io.confluent.ksql.api.impl.DefaultKsqlSecurityContextProvider;
+import io.confluent.ksql.api.impl.InsertsStreamMetrics;
 import io.confluent.ksql.api.impl.KsqlSecurityContextProvider;
 import io.confluent.ksql.api.impl.MonitoredEndpoints;
 import io.confluent.ksql.api.server.Server;
 import io.confluent.ksql.api.spi.Endpoints;
 import io.confluent.ksql.config.SessionConfig;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.execution.codegen.CodeGenCache;
 import io.confluent.ksql.execution.streams.RoutingFilter;
 import io.confluent.ksql.execution.streams.RoutingFilter.RoutingFilterFactory;
 import io.confluent.ksql.execution.streams.RoutingFilters;
@@ -50,6 +52,7 @@ import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.physical.pull.HARouting;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.properties.DenyListPropertyValidator;
 import io.confluent.ksql.properties.PropertiesUtil;
 import io.confluent.ksql.query.id.SpecificQueryIdGenerator;
@@ -191,7 +194,9 @@ public final class KsqlRestApplication implements Executable {
   private final RateLimiter pullQueryRateLimiter;
   private final ConcurrencyLimiter pullConcurrencyLimiter;
   private final HARouting pullQueryRouting;
+  private final PushRouting pushQueryRouting;
   private final Optional<LocalCommands> localCommands;
+  private final InsertsStreamMetrics insertsStreamMetrics;
 
   // The startup thread that can be interrupted if necessary during shutdown.  This should only
   // happen if startup hangs.
@@ -232,6 +237,7 @@ public final class KsqlRestApplication implements Executable {
       final RateLimiter pullQueryRateLimiter,
       final ConcurrencyLimiter pullConcurrencyLimiter,
       final HARouting pullQueryRouting,
+      final PushRouting pushQueryRouting,
       final Optional<LocalCommands> localCommands
   ) {
     log.debug("Creating instance of ksqlDB API server");
@@ -283,12 +289,18 @@ public final class KsqlRestApplication implements Executable {
         this.ksqlConfigNoPort,
         this.commandRunner);
     MetricCollectors.addConfigurableReporter(ksqlConfigNoPort);
+    CodeGenCache.instance().configure(ksqlConfigNoPort);
     this.pullQueryMetrics = requireNonNull(pullQueryMetrics, "pullQueryMetrics");
+    this.insertsStreamMetrics = new InsertsStreamMetrics(
+        ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG),
+        ksqlConfig.getStringAsMap(KsqlConfig.KSQL_CUSTOM_METRICS_TAGS),
+        Time.SYSTEM);
     log.debug("ksqlDB API server instance created");
     this.routingFilterFactory = requireNonNull(routingFilterFactory, "routingFilterFactory");
     this.pullQueryRateLimiter = requireNonNull(pullQueryRateLimiter, "pullQueryRateLimiter");
     this.pullConcurrencyLimiter = requireNonNull(pullConcurrencyLimiter, "pullConcurrencyLimiter");
     this.pullQueryRouting = requireNonNull(pullQueryRouting, "pullQueryRouting");
+    this.pushQueryRouting = requireNonNull(pushQueryRouting, "pushQueryRouting");
     this.localCommands = requireNonNull(localCommands, "localCommands");
   }
 
@@ -333,6 +345,7 @@ public final class KsqlRestApplication implements Executable {
         pullQueryRateLimiter,
         pullConcurrencyLimiter,
         pullQueryRouting,
+        pushQueryRouting,
         localCommands
     );
 
@@ -358,7 +371,9 @@ public final class KsqlRestApplication implements Executable {
           pullQueryRateLimiter,
           pullConcurrencyLimiter,
           pullQueryRouting,
-          localCommands
+          pushQueryRouting,
+          localCommands,
+          insertsStreamMetrics
       );
       apiServer = new Server(vertx, ksqlRestConfig, endpoints, securityExtension,
           authenticationPlugin, serverState, pullQueryMetrics);
@@ -503,6 +518,12 @@ public final class KsqlRestApplication implements Executable {
       log.error("Exception while waiting for pull query metrics to close", e);
     }
 
+    try {
+      insertsStreamMetrics.close();
+    } catch (final Exception e) {
+      log.error("Exception while waiting for inserts stream metrics to close", e);
+    }
+
     localCommands.ifPresent(lc -> {
       try {
         lc.close();
@@ -517,6 +538,18 @@ public final class KsqlRestApplication implements Executable {
       log.error("Exception while waiting for Ksql Engine to close", e);
     }
 
+    try {
+      pushQueryRouting.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing push query routing", e);
+    }
+
+    try {
+      ksqlResource.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing ksql resource", e);
+    }
+
     try {
       commandRunner.close();
     } catch (final Exception e) {
@@ -754,6 +787,8 @@ public final class KsqlRestApplication implements Executable {
 
     final HARouting pullQueryRouting = new HARouting(
         routingFilterFactory, pullQueryMetrics, ksqlConfig);
+    final PushRouting pushQueryRouting = new PushRouting(
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_MAX_FORWARDED_REQUESTS_CONFIG));
 
     final Optional<LocalCommands> localCommands = createLocalCommands(restConfig, ksqlEngine);
 
@@ -773,6 +808,7 @@ public final class KsqlRestApplication implements Executable {
         pullQueryRateLimiter,
         pullQueryConcurrencyLimiter,
         pullQueryRouting,
+        pushQueryRouting,
         localCommands
     );
 
@@ -850,6 +886,7 @@ public final class KsqlRestApplication implements Executable {
         pullQueryRateLimiter,
         pullQueryConcurrencyLimiter,
         pullQueryRouting,
+        pushQueryRouting,
         localCommands
     );
   }
@@ -308,6 +308,22 @@ public class KsqlRestConfig extends AbstractConfig {
   public static final String MAX_PUSH_QUERIES_DOC =
       "The maximum number of push queries allowed on the server at any one time";
 
+  public static final String QUERY_STREAM_BATCH_MAX_BYTES =
+      KSQL_CONFIG_PREFIX + "query.stream.batch.max.bytes";
+  public static final int DEFAULT_QUERY_STREAM_BATCH_MAX_BYTES = 64 * 1024;
+  public static final String QUERY_STREAM_BATCH_MAX_BYTES_DOC =
+      "The maximum size, in bytes, of a batch of rows written to a /query-stream response in the "
+          + "binary format. A batch is written once it reaches this size, or once "
+          + "ksql.query.stream.batch.linger.ms has passed since its first row was added.";
+
+  public static final String QUERY_STREAM_BATCH_LINGER_MS =
+      KSQL_CONFIG_PREFIX + "query.stream.batch.linger.ms";
+  public static final long DEFAULT_QUERY_STREAM_BATCH_LINGER_MS = 10L;
+  public static final String QUERY_STREAM_BATCH_LINGER_MS_DOC =
+      "The maximum time, in milliseconds, a row waits in a batch before the batch is written to "
+          + "a /query-stream response in the binary format. A value of 0 writes each row as soon "
+          + "as it is available.";
+
   public static final String KSQL_AUTHENTICATION_PLUGIN_CLASS =
       KSQL_CONFIG_PREFIX + "authentication.plugin.class";
   public static final String KSQL_AUTHENTICATION_PLUGIN_DEFAULT = null;
@@ -645,6 +661,20 @@ public class KsqlRestConfig extends AbstractConfig {
             zeroOrPositive(),
             Importance.MEDIUM,
             MAX_PUSH_QUERIES_DOC
+        ).define(
+            QUERY_STREAM_BATCH_MAX_BYTES,
+            Type.INT,
+            DEFAULT_QUERY_STREAM_BATCH_MAX_BYTES,
+            oneOrMore(),
+            Importance.LOW,
+            QUERY_STREAM_BATCH_MAX_BYTES_DOC
+        ).define(
+            QUERY_STREAM_BATCH_LINGER_MS,
+            Type.LONG,
+            DEFAULT_QUERY_STREAM_BATCH_LINGER_MS,
+            zeroOrPositive(),
+            Importance.LOW,
+            QUERY_STREAM_BATCH_LINGER_MS_DOC
         ).define(
             KSQL_AUTHENTICATION_PLUGIN_CLASS,
             Type.CLASS,
@@ -20,6 +20,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import com.google.common.util.concurrent.RateLimiter;
 import io.confluent.ksql.api.auth.ApiSecurityContext;
 import io.confluent.ksql.api.impl.InsertsStreamEndpoint;
+import io.confluent.ksql.api.impl.InsertsStreamMetrics;
 import io.confluent.ksql.api.impl.KsqlSecurityContextProvider;
 import io.confluent.ksql.api.impl.QueryEndpoint;
 import io.confluent.ksql.api.server.InsertResult;
@@ -31,6 +32,7 @@ import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.execution.streams.RoutingFilter.RoutingFilterFactory;
 import io.confluent.ksql.internal.PullQueryExecutorMetrics;
 import io.confluent.ksql.physical.pull.HARouting;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.rest.EndpointResponse;
 import io.confluent.ksql.rest.entity.ClusterTerminateRequest;
 import io.confluent.ksql.rest.entity.HeartbeatMessage;
@@ -88,7 +90,9 @@ public class KsqlServerEndpoints implements Endpoints {
   private final RateLimiter rateLimiter;
   private final ConcurrencyLimiter pullConcurrencyLimiter;
   private final HARouting routing;
+  private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
+  private final InsertsStreamMetrics insertsStreamMetrics;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumber
   public KsqlServerEndpoints(
@@ -111,7 +115,9 @@ public class KsqlServerEndpoints implements Endpoints {
       final RateLimiter rateLimiter,
       final ConcurrencyLimiter pullConcurrencyLimiter,
       final HARouting routing,
-      final Optional<LocalCommands> localCommands
+      final PushRouting pushRouting,
+      final Optional<LocalCommands> localCommands,
+      final InsertsStreamMetrics insertsStreamMetrics
   ) {
 
     // CHECKSTYLE_RULES.ON: ParameterNumber
@@ -135,7 +141,9 @@ public class KsqlServerEndpoints implements Endpoints {
     this.rateLimiter = Objects.requireNonNull(rateLimiter);
     this.pullConcurrencyLimiter = pullConcurrencyLimiter;
     this.routing = Objects.requireNonNull(routing);
+    this.pushRouting = Objects.requireNonNull(pushRouting);
     this.localCommands = Objects.requireNonNull(localCommands);
+    this.insertsStreamMetrics = Objects.requireNonNull(insertsStreamMetrics);
   }
 
   @Override
@@ -152,7 +160,7 @@ public class KsqlServerEndpoints implements Endpoints {
       try {
         return new QueryEndpoint(
             ksqlEngine, ksqlConfig, ksqlRestConfig, routingFilterFactory, pullQueryMetrics,
-            rateLimiter, pullConcurrencyLimiter, routing, localCommands)
+            rateLimiter, pullConcurrencyLimiter, routing, pushRouting, localCommands)
             .createQueryPublisher(
                 sql,
                 properties,
@@ -175,7 +183,8 @@ public class KsqlServerEndpoints implements Endpoints {
       final WorkerExecutor workerExecutor,
       final ApiSecurityContext apiSecurityContext) {
     return executeOnWorker(
-        () -> new InsertsStreamEndpoint(ksqlEngine, ksqlConfig, reservedInternalTopics)
+        () -> new InsertsStreamEndpoint(
+            ksqlEngine, ksqlConfig, reservedInternalTopics, insertsStreamMetrics)
             .createInsertsSubscriber(target, properties, acksSubscriber, context, workerExecutor,
                 ksqlSecurityContextProvider.provide(apiSecurityContext).getServiceContext()),
         workerExecutor);
@@ -81,7 +81,6 @@ public enum CustomExecutors {
   UNSET_PROPERTY(UnsetProperty.class, PropertyExecutor::unset),
   DEFINE_VARIABLE(DefineVariable.class, VariableExecutor::set),
   UNDEFINE_VARIABLE(UndefineVariable.class, VariableExecutor::unset),
-  INSERT_VALUES(InsertValues.class, insertValuesExecutor()),
   CREATE_CONNECTOR(CreateConnector.class, ConnectExecutor::execute),
   DROP_CONNECTOR(DropConnector.class, DropConnectorExecutor::execute),
   DESCRIBE_CONNECTOR(DescribeConnector.class, new DescribeConnectorExecutor()::execute)
@@ -99,6 +98,22 @@ public enum CustomExecutors {
   private final Class<? extends Statement> statementClass;
   private final StatementExecutor executor;
 
+  /**
+   * Get the executors of all statements that do not need to be distributed, including INSERT
+   * VALUES statements, whose executor pools producers so is owned by the caller.
+   *
+   * @param insertValuesExecutor the executor of INSERT VALUES statements.
+   * @return the executors, by the class of statement they execute.
+   */
+  public static Map<Class<? extends Statement>, StatementExecutor<?>> executorMap(
+      final InsertValuesExecutor insertValuesExecutor
+  ) {
+    return ImmutableMap.<Class<? extends Statement>, StatementExecutor<?>>builder()
+        .putAll(EXECUTOR_MAP)
+        .put(InsertValues.class, insertValues(insertValuesExecutor))
+        .build();
+  }
+
   <T extends Statement> CustomExecutors(
       final Class<T> statementClass,
       final StatementExecutor<? super T> executor
@@ -124,9 +139,9 @@ public enum CustomExecutors {
     return executor.execute(statement, sessionProperties, executionCtx, serviceCtx);
   }
 
-  private static StatementExecutor insertValuesExecutor() {
-    final InsertValuesExecutor executor = new InsertValuesExecutor();
-
+  private static StatementExecutor<InsertValues> insertValues(
+      final InsertValuesExecutor executor
+  ) {
     return (statement, sessionProperties, executionContext, serviceContext) -> {
       executor.execute(statement, sessionProperties, executionContext, serviceContext);
       return Optional.empty();
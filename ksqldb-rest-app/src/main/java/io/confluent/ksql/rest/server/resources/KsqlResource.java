@@ -19,10 +19,12 @@ import static java.util.regex.Pattern.compile;
 
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.engine.InsertValuesExecutor;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.DefaultKsqlParser;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.tree.DescribeFunction;
+import io.confluent.ksql.parser.tree.InsertValues;
 import io.confluent.ksql.parser.tree.ListFunctions;
 import io.confluent.ksql.parser.tree.ListProperties;
 import io.confluent.ksql.parser.tree.ListTopics;
@@ -79,7 +81,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
-public class KsqlResource implements KsqlConfigurable {
+public class KsqlResource implements KsqlConfigurable, AutoCloseable {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
   private static final Logger LOG = LoggerFactory.getLogger(KsqlResource.class);
@@ -105,6 +107,9 @@ public class KsqlResource implements KsqlConfigurable {
   private final Optional<KsqlAuthorizationValidator> authorizationValidator;
   private final DenyListPropertyValidator denyListPropertyValidator;
   private final Supplier<String> commandRunnerWarning;
+  private final InsertValuesExecutor insertValuesExecutor = new InsertValuesExecutor();
+  // Validation has its own executor, so that nothing it caches is used by real inserts:
+  private final InsertValuesExecutor insertValuesValidator = new InsertValuesExecutor();
   private RequestValidator validator;
   private RequestHandler handler;
   private final Errors errorHandler;
@@ -179,7 +184,7 @@ public class KsqlResource implements KsqlConfigurable {
     }
 
     this.validator = new RequestValidator(
-        CustomValidators.VALIDATOR_MAP,
+        CustomValidators.validatorMap(insertValuesValidator),
         injectorFactory,
         ksqlEngine::createSandbox,
         config,
@@ -187,7 +192,7 @@ public class KsqlResource implements KsqlConfigurable {
     );
 
     this.handler = new RequestHandler(
-        CustomExecutors.EXECUTOR_MAP,
+        CustomExecutors.executorMap(insertValuesExecutor),
         new DistributingExecutor(
             config,
             commandRunner.getCommandQueue(),
@@ -208,6 +213,12 @@ public class KsqlResource implements KsqlConfigurable {
     );
   }
 
+  @Override
+  public void close() {
+    insertValuesExecutor.close();
+    insertValuesValidator.close();
+  }
+
   public EndpointResponse terminateCluster(
       final KsqlSecurityContext securityContext,
       final ClusterTerminateRequest request
@@ -285,7 +296,8 @@ public class KsqlResource implements KsqlConfigurable {
               localHost,
               localUrl,
               requestConfig.getBoolean(KsqlRequestConfig.KSQL_REQUEST_INTERNAL_REQUEST),
-              request.getSessionVariables()
+              request.getSessionVariables(),
+              securityContext.getUserPrincipal()
           ),
           request.getKsql()
       );
@@ -298,7 +310,8 @@ public class KsqlResource implements KsqlConfigurable {
               localHost,
               localUrl,
               requestConfig.getBoolean(KsqlRequestConfig.KSQL_REQUEST_INTERNAL_REQUEST),
-              request.getSessionVariables()
+              request.getSessionVariables(),
+              securityContext.getUserPrincipal()
           )
       );
 
@@ -332,7 +345,8 @@ public class KsqlResource implements KsqlConfigurable {
   private static boolean shouldSynchronize(final Class<? extends Statement> statementClass) {
     return !SYNC_BLACKLIST.contains(statementClass)
         // we never need to synchronize distributed statements
-        && CustomExecutors.EXECUTOR_MAP.containsKey(statementClass);
+        && (CustomExecutors.EXECUTOR_MAP.containsKey(statementClass)
+            || statementClass == InsertValues.class);
   }
 
   private static void ensureValidPatterns(final List<String> deleteTopicList) {
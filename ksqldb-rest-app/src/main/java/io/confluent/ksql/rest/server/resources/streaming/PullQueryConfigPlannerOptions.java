@@ -45,4 +45,13 @@ public class PullQueryConfigPlannerOptions implements PullPlannerOptions {
     }
     return ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_INTERPRETER_ENABLED);
   }
+
+  @Override
+  public int getTableScanParallelism() {
+    if (configOverrides.containsKey(KsqlConfig.KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_CONFIG)) {
+      return (Integer) configOverrides.get(
+          KsqlConfig.KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_CONFIG);
+    }
+    return ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_TABLE_SCAN_PARALLELISM_CONFIG);
+  }
 }
@@ -22,6 +22,7 @@ import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.server.LocalCommands;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
@@ -30,6 +31,7 @@ import io.confluent.ksql.schema.ksql.LogicalSchema.Builder;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KeyValue;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import java.util.Collection;
 import java.util.List;
@@ -48,6 +50,7 @@ class PushQueryPublisher implements Flow.Publisher<Collection<StreamedRow>> {
   private final KsqlEngine ksqlEngine;
   private final ServiceContext serviceContext;
   private final ConfiguredStatement<Query> query;
+  private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
   private final ListeningScheduledExecutorService exec;
 
@@ -56,12 +59,14 @@ class PushQueryPublisher implements Flow.Publisher<Collection<StreamedRow>> {
       final ServiceContext serviceContext,
       final ListeningScheduledExecutorService exec,
       final ConfiguredStatement<Query> query,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
     this.ksqlEngine = requireNonNull(ksqlEngine, "ksqlEngine");
     this.serviceContext = requireNonNull(serviceContext, "serviceContext");
     this.exec = requireNonNull(exec, "exec");
     this.query = requireNonNull(query, "query");
+    this.pushRouting = requireNonNull(pushRouting, "pushRouting");
     this.localCommands = requireNonNull(localCommands, "localCommands");
   }
 
@@ -77,6 +82,11 @@ class PushQueryPublisher implements Flow.Publisher<Collection<StreamedRow>> {
     log.info("Running query {}", queryMetadata.getQueryApplicationId());
     queryMetadata.start();
 
+    if (queryMetadata instanceof ScalablePushQueryMetadata) {
+      pushRouting.handlePushQuery(
+          serviceContext, (ScalablePushQueryMetadata) queryMetadata, query);
+    }
+
     subscriber.onSubscribe(subscription);
   }
 
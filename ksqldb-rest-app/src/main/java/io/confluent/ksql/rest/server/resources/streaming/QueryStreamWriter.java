@@ -83,6 +83,8 @@ class QueryStreamWriter implements StreamingOutput {
         );
         if (row != null) {
           write(out, buildRow(row));
+          // Write any other buffered rows as a batch, rather than polling for each in turn:
+          drain(out);
         } else {
           // If no new rows have been written, the user may have terminated the connection without
           // us knowing. Check by trying to write a single newline.
@@ -36,6 +36,7 @@ import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullSourceType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.RoutingNodeType;
 import io.confluent.ksql.physical.pull.PullQueryResult;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.properties.DenyListPropertyValidator;
 import io.confluent.ksql.rest.ApiJsonMapper;
 import io.confluent.ksql.rest.EndpointResponse;
@@ -58,7 +59,9 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.KsqlRequestConfig;
 import io.confluent.ksql.util.KsqlStatementException;
+import io.confluent.ksql.util.ScalablePushQueryMetadata;
 import io.confluent.ksql.util.TransientQueryMetadata;
 import io.confluent.ksql.version.metrics.ActivenessRegistrar;
 import java.time.Clock;
@@ -97,6 +100,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
   private final RateLimiter rateLimiter;
   private final ConcurrencyLimiter concurrencyLimiter;
   private final HARouting routing;
+  private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
 
   private KsqlConfig ksqlConfig;
@@ -118,6 +122,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final RateLimiter rateLimiter,
       final ConcurrencyLimiter concurrencyLimiter,
       final HARouting routing,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
     this(
@@ -136,6 +141,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
         rateLimiter,
         concurrencyLimiter,
         routing,
+        pushRouting,
         localCommands
     );
   }
@@ -159,6 +165,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final RateLimiter rateLimiter,
       final ConcurrencyLimiter concurrencyLimiter,
       final HARouting routing,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
@@ -181,6 +188,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
     this.rateLimiter = Objects.requireNonNull(rateLimiter, "rateLimiter");
     this.concurrencyLimiter = Objects.requireNonNull(concurrencyLimiter, "concurrencyLimiter");
     this.routing = Objects.requireNonNull(routing, "routing");
+    this.pushRouting = Objects.requireNonNull(pushRouting, "pushRouting");
     this.localCommands = Objects.requireNonNull(localCommands, "localCommands");
   }
 
@@ -271,6 +279,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
             securityContext.getServiceContext(),
             queryStmt,
             configProperties,
+            request.getRequestProperties(),
+            isInternalRequest,
             connectionClosedFuture,
             mediaType
         );
@@ -404,6 +414,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final ServiceContext serviceContext,
       final PreparedStatement<Query> statement,
       final Map<String, Object> streamsProperties,
+      final Map<String, Object> requestProperties,
+      final Optional<Boolean> isInternalRequest,
       final CompletableFuture<Void> connectionClosedFuture,
       final KsqlMediaType mediaType
   ) {
@@ -421,6 +433,17 @@ public class StreamedQueryResource implements KsqlConfigurable {
     final TransientQueryMetadata query = ksqlEngine
         .executeQuery(serviceContext, configured, false);
 
+    // A forwarded query is only served from this host's part of the persistent query's output:
+    final boolean isAlreadyForwarded = Boolean.TRUE.equals(
+        requestProperties.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PUSH_SKIP_FORWARDING))
+        // Trust the forward request option if isInternalRequest isn't available.
+        && isInternalRequest.orElse(true);
+    if (isAlreadyForwarded && !(query instanceof ScalablePushQueryMetadata)) {
+      query.close();
+      throw new KsqlException("Forwarded push query can not be served from the output of a "
+          + "persistent query on this host.");
+    }
+
     localCommands.ifPresent(lc -> lc.write(query));
 
     final QueryStreamWriter queryStreamWriter = new QueryStreamWriter(
@@ -430,6 +453,11 @@ public class StreamedQueryResource implements KsqlConfigurable {
         connectionClosedFuture
     );
 
+    if (query instanceof ScalablePushQueryMetadata && !isAlreadyForwarded) {
+      pushRouting.handlePushQuery(
+          serviceContext, (ScalablePushQueryMetadata) query, configured);
+    }
+
     log.info("Streaming query '{}'", statement.getStatementText());
     return EndpointResponse.ok(queryStreamWriter);
   }
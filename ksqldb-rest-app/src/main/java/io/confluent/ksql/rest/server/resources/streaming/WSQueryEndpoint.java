@@ -30,6 +30,7 @@ import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.physical.pull.HARouting;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.properties.DenyListPropertyValidator;
 import io.confluent.ksql.rest.ApiJsonMapper;
 import io.confluent.ksql.rest.Errors;
@@ -81,6 +82,7 @@ public class WSQueryEndpoint {
   private final RateLimiter rateLimiter;
   private final ConcurrencyLimiter pullConcurrencyLimiter;
   private final HARouting routing;
+  private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
@@ -101,6 +103,7 @@ public class WSQueryEndpoint {
       final RateLimiter rateLimiter,
       final ConcurrencyLimiter pullConcurrencyLimiter,
       final HARouting routing,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
     this(
@@ -122,6 +125,7 @@ public class WSQueryEndpoint {
         rateLimiter,
         pullConcurrencyLimiter,
         routing,
+        pushRouting,
         localCommands
     );
   }
@@ -147,6 +151,7 @@ public class WSQueryEndpoint {
       final RateLimiter rateLimiter,
       final ConcurrencyLimiter pullConcurrencyLimiter,
       final HARouting routing,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
@@ -174,6 +179,7 @@ public class WSQueryEndpoint {
     this.pullConcurrencyLimiter =
         Objects.requireNonNull(pullConcurrencyLimiter, "pullConcurrencyLimiter");
     this.routing = Objects.requireNonNull(routing, "routing");
+    this.pushRouting = Objects.requireNonNull(pushRouting, "pushRouting");
     this.localCommands = Objects.requireNonNull(localCommands, "localCommands");
   }
 
@@ -327,6 +333,7 @@ public class WSQueryEndpoint {
           exec,
           configured,
           streamSubscriber,
+          pushRouting,
           localCommands
       );
     }
@@ -360,9 +367,10 @@ public class WSQueryEndpoint {
       final ListeningScheduledExecutorService exec,
       final ConfiguredStatement<Query> query,
       final WebSocketSubscriber<StreamedRow> streamSubscriber,
+      final PushRouting pushRouting,
       final Optional<LocalCommands> localCommands
   ) {
-    new PushQueryPublisher(ksqlEngine, serviceContext, exec, query, localCommands)
+    new PushQueryPublisher(ksqlEngine, serviceContext, exec, query, pushRouting, localCommands)
         .subscribe(streamSubscriber);
   }
 
@@ -414,6 +422,7 @@ public class WSQueryEndpoint {
         ListeningScheduledExecutorService exec,
         ConfiguredStatement<Query> query,
         WebSocketSubscriber<StreamedRow> subscriber,
+        PushRouting pushRouting,
         Optional<LocalCommands> localCommands);
 
   }
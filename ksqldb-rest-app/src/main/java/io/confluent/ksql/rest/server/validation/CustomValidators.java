@@ -90,7 +90,6 @@ public enum CustomValidators {
   DROP_CONNECTOR(DropConnector.class, StatementValidator.NO_VALIDATION),
   LIST_VARIABLES(ListVariables.class, ListVariablesExecutor::execute),
 
-  INSERT_VALUES(InsertValues.class, new InsertValuesExecutor()::execute),
   SHOW_COLUMNS(ShowColumns.class, ListSourceExecutor::columns),
   EXPLAIN(Explain.class, ExplainExecutor::execute),
   DESCRIBE_FUNCTION(DescribeFunction.class, DescribeFunctionExecutor::execute),
@@ -112,6 +111,25 @@ public enum CustomValidators {
   private final Class<? extends Statement> statementClass;
   private final StatementValidator validator;
 
+  /**
+   * Get the validators of all statements that are not validated by executing them against a
+   * sandbox engine, including INSERT VALUES statements, whose executor pools producers so is
+   * owned by the caller.
+   *
+   * @param insertValuesExecutor the executor that validates INSERT VALUES statements.
+   * @return the validators, by the class of statement they validate.
+   */
+  public static Map<Class<? extends Statement>, StatementValidator<?>> validatorMap(
+      final InsertValuesExecutor insertValuesExecutor
+  ) {
+    final StatementValidator<InsertValues> insertValues = insertValuesExecutor::execute;
+
+    return ImmutableMap.<Class<? extends Statement>, StatementValidator<?>>builder()
+        .putAll(VALIDATOR_MAP)
+        .put(InsertValues.class, insertValues)
+        .build();
+  }
+
   <T extends Statement> CustomValidators(
       final Class<T> statementClass,
       final StatementValidator<? super T> validator
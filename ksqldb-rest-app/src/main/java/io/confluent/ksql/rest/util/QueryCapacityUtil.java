@@ -19,6 +19,9 @@ import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.rest.server.KsqlRestConfig;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.List;
+import java.util.Optional;
 
 public final class QueryCapacityUtil {
   private QueryCapacityUtil() {
@@ -28,7 +31,7 @@ public final class QueryCapacityUtil {
       final KsqlExecutionContext executionContext,
       final KsqlConfig ksqlConfig
   ) {
-    return executionContext.getPersistentQueries().size() > getQueryLimit(ksqlConfig);
+    return getPersistentQueryCount(executionContext) > getQueryLimit(ksqlConfig);
   }
 
   public static void throwTooManyActivePersistentQueriesException(
@@ -45,12 +48,29 @@ public final class QueryCapacityUtil {
                 + "Current persistent query count: %d. Configured limit: %d.",
             statementStr,
             KsqlConfig.KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG,
-            executionContext.getPersistentQueries().size(),
+            getPersistentQueryCount(executionContext),
             getQueryLimit(ksqlConfig)
         )
     );
   }
 
+  /**
+   * Count the persistent queries towards the limit. Queries that share a runtime cost little more
+   * than a single query, so count as one.
+   */
+  private static int getPersistentQueryCount(final KsqlExecutionContext executionContext) {
+    final List<PersistentQueryMetadata> queries = executionContext.getPersistentQueries();
+    final long dedicated = queries.stream()
+        .filter(query -> !query.getSharedRuntimeId().isPresent())
+        .count();
+    final long sharedRuntimes = queries.stream()
+        .map(PersistentQueryMetadata::getSharedRuntimeId)
+        .filter(Optional::isPresent)
+        .distinct()
+        .count();
+    return Math.toIntExact(dedicated + sharedRuntimes);
+  }
+
   private static int getQueryLimit(final KsqlConfig ksqlConfig) {
     return ksqlConfig.getInt(KsqlConfig.KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG);
   }
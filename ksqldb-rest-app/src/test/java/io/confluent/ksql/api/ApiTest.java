@@ -24,6 +24,7 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
@@ -480,6 +481,30 @@ public class ApiTest extends BaseApiTest {
     assertThat(testEndpoints.getInsertsSubscriber().isClosed(), is(true));
   }
 
+  @Test
+  public void shouldInsertWithCoalescedAcks() throws Exception {
+
+    // Given
+    JsonObject params = new JsonObject().put("target", "test-stream").put("coalesceAcks", true);
+    Buffer requestBody = Buffer.buffer();
+    final List<JsonObject> rows = DEFAULT_INSERT_ROWS;
+    requestBody.appendBuffer(params.toBuffer()).appendString("\n");
+    for (JsonObject row : rows) {
+      requestBody.appendBuffer(row.toBuffer()).appendString("\n");
+    }
+
+    // When
+    HttpResponse<Buffer> response = sendPostRequest("/inserts-stream", requestBody);
+
+    // Then
+    assertThat(response.statusCode(), is(200));
+    InsertsResponse insertsResponse = new InsertsResponse(response.bodyAsString());
+    assertThat(insertsResponse.acks.size(), lessThanOrEqualTo(rows.size()));
+    final JsonObject lastAck = insertsResponse.acks.get(insertsResponse.acks.size() - 1);
+    assertThat(lastAck.getLong("seq"), is((long) rows.size() - 1));
+    assertThatEventually(() -> testEndpoints.getInsertsSubscriber().getRowsInserted(), is(rows));
+  }
+
   @Test
   @CoreApiTest
   public void shouldStreamInserts() throws Exception {
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InsertsStreamMetricsTest {
+
+  private static final String KSQL_SERVICE_ID = "test-ksql-service-id";
+  private static final Map<String, String> CUSTOM_TAGS = ImmutableMap.of("tag1", "value1");
+  private static final Map<String, String> CUSTOM_TAGS_WITH_SERVICE_ID = ImmutableMap.of(
+      "tag1", "value1",
+      KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, KSQL_SERVICE_ID);
+  private static final String GROUP =
+      ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "inserts-stream";
+
+  @Mock
+  private Time time;
+
+  private InsertsStreamMetrics insertsStreamMetrics;
+
+  @Before
+  public void setUp() {
+    MetricCollectors.initialize();
+    insertsStreamMetrics = new InsertsStreamMetrics(KSQL_SERVICE_ID, CUSTOM_TAGS, time);
+  }
+
+  @After
+  public void tearDown() {
+    insertsStreamMetrics.close();
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldRecordRows() {
+    // When:
+    insertsStreamMetrics.recordRow();
+    insertsStreamMetrics.recordRow();
+
+    // Then:
+    assertThat(getMetricValue("inserts-stream-rows-total"), is(2.0));
+  }
+
+  @Test
+  public void shouldRecordAckLatencyInMicros() {
+    // Given:
+    when(time.nanoseconds()).thenReturn(TimeUnit.MILLISECONDS.toNanos(3));
+
+    // When:
+    insertsStreamMetrics.recordAckLatency(TimeUnit.MILLISECONDS.toNanos(1));
+
+    // Then:
+    assertThat(getMetricValue("inserts-stream-ack-latency-max"), is(2000.0));
+  }
+
+  @Test
+  public void shouldRemoveSensorsOnClose() {
+    // When:
+    insertsStreamMetrics.close();
+
+    // Then:
+    assertThat(metric("inserts-stream-rows-total"), is(nullValue()));
+  }
+
+  private static double getMetricValue(final String metricName) {
+    return (Double) metric(metricName).metricValue();
+  }
+
+  private static Metric metric(final String metricName) {
+    final Metrics metrics = MetricCollectors.getMetrics();
+    return metrics.metric(
+        new MetricName(metricName, GROUP, "", CUSTOM_TAGS_WITH_SERVICE_ID));
+  }
+}
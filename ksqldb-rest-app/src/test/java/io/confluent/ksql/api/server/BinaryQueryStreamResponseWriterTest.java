@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.rest.BinaryQueryStreamFormat;
+import io.confluent.ksql.rest.entity.KsqlErrorMessage;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BinaryQueryStreamResponseWriterTest {
+
+  private static final long LINGER_MS = 10L;
+
+  @Mock
+  private HttpServerResponse response;
+  @Mock
+  private Vertx vertx;
+  @Captor
+  private ArgumentCaptor<Buffer> bufferCaptor;
+  @Captor
+  private ArgumentCaptor<Handler<Long>> timerCaptor;
+
+  private BinaryQueryStreamResponseWriter writer;
+
+  @Before
+  public void setUp() {
+    writer = new BinaryQueryStreamResponseWriter(response, vertx, 1024, LINGER_MS);
+  }
+
+  @Test
+  public void shouldBatchRowsUntilEnd() {
+    // When:
+    writer.writeRow(genericRow("a"));
+    writer.writeRow(genericRow("b"));
+
+    // Then:
+    verify(response, never()).write(any(Buffer.class));
+    verify(vertx).setTimer(eq(LINGER_MS), any());
+
+    // When:
+    writer.end();
+
+    // Then:
+    final InOrder inOrder = inOrder(response);
+    inOrder.verify(response).write(bufferCaptor.capture());
+    inOrder.verify(response).end();
+    verify(vertx).cancelTimer(anyLong());
+    assertThat(rowCount(bufferCaptor.getValue()), is(2));
+  }
+
+  @Test
+  public void shouldWriteBatchWhenFull() {
+    // Given:
+    writer = new BinaryQueryStreamResponseWriter(response, vertx, 6, LINGER_MS);
+
+    // When:
+    writer.writeRow(genericRow("a"));
+    writer.writeRow(genericRow("b"));
+
+    // Then:
+    verify(response, times(2)).write(bufferCaptor.capture());
+    assertThat(rowCount(bufferCaptor.getAllValues().get(0)), is(1));
+    assertThat(rowCount(bufferCaptor.getAllValues().get(1)), is(1));
+  }
+
+  @Test
+  public void shouldWriteBatchWhenLingerTimeHasPassed() {
+    // Given:
+    writer.writeRow(genericRow("a"));
+    verify(vertx).setTimer(eq(LINGER_MS), timerCaptor.capture());
+
+    // When:
+    timerCaptor.getValue().handle(0L);
+
+    // Then:
+    verify(response).write(bufferCaptor.capture());
+    assertThat(rowCount(bufferCaptor.getValue()), is(1));
+  }
+
+  @Test
+  public void shouldNotWriteBatchAfterResponseClosed() {
+    // Given:
+    writer.writeRow(genericRow("a"));
+    verify(vertx).setTimer(eq(LINGER_MS), timerCaptor.capture());
+    when(response.closed()).thenReturn(true);
+
+    // When:
+    timerCaptor.getValue().handle(0L);
+
+    // Then:
+    verify(response, never()).write(any(Buffer.class));
+  }
+
+  @Test
+  public void shouldWriteEachRowWithZeroLinger() {
+    // Given:
+    writer = new BinaryQueryStreamResponseWriter(response, vertx, 1024, 0);
+
+    // When:
+    writer.writeRow(genericRow("a"));
+
+    // Then:
+    verify(response).write(any(Buffer.class));
+    verify(vertx, never()).setTimer(anyLong(), any());
+  }
+
+  @Test
+  public void shouldWritePendingBatchBeforeError() {
+    // Given:
+    writer.writeRow(genericRow("a"));
+
+    // When:
+    writer.writeError(new KsqlErrorMessage(50000, "boom"));
+
+    // Then:
+    verify(response, times(2)).write(bufferCaptor.capture());
+    final List<Buffer> frames = bufferCaptor.getAllValues();
+    assertThat(frames.get(0).getByte(0), is(BinaryQueryStreamFormat.ROWS_FRAME));
+    assertThat(frames.get(1).getByte(0), is(BinaryQueryStreamFormat.ERROR_FRAME));
+  }
+
+  @Test
+  public void shouldEncodeValues() {
+    // When:
+    writer.writeRow(genericRow("\u00e9", 5, 6L, 1L << 40, 1.5, true, null));
+    writer.end();
+
+    // Then:
+    verify(response).write(bufferCaptor.capture());
+    final byte[] str = "\u00e9".getBytes(StandardCharsets.UTF_8);
+    final Buffer values = Buffer.buffer()
+        .appendByte(BinaryQueryStreamFormat.STRING).appendInt(str.length).appendBytes(str)
+        .appendByte(BinaryQueryStreamFormat.INT).appendInt(5)
+        .appendByte(BinaryQueryStreamFormat.INT).appendInt(6)
+        .appendByte(BinaryQueryStreamFormat.BIGINT).appendLong(1L << 40)
+        .appendByte(BinaryQueryStreamFormat.DOUBLE).appendDouble(1.5)
+        .appendByte(BinaryQueryStreamFormat.TRUE)
+        .appendByte(BinaryQueryStreamFormat.NULL);
+    final Buffer expected = Buffer.buffer()
+        .appendByte(BinaryQueryStreamFormat.ROWS_FRAME)
+        .appendInt(8 + values.length())
+        .appendInt(1)
+        .appendInt(7)
+        .appendBuffer(values);
+    assertThat(bufferCaptor.getValue(), is(expected));
+  }
+
+  @Test
+  public void shouldEncodeOtherValuesAsJson() {
+    // When:
+    writer.writeRow(genericRow(new BigDecimal("1.10")));
+    writer.end();
+
+    // Then:
+    verify(response).write(bufferCaptor.capture());
+    final Buffer frame = bufferCaptor.getValue();
+    final int offset = BinaryQueryStreamFormat.FRAME_HEADER_SIZE + 8;
+    assertThat(frame.getByte(offset), is(BinaryQueryStreamFormat.JSON));
+    assertThat(
+        frame.getString(offset + 5, offset + 5 + frame.getInt(offset + 1)),
+        is("[1.10]")
+    );
+  }
+
+  private static int rowCount(final Buffer frame) {
+    assertThat(frame.getByte(0), is(BinaryQueryStreamFormat.ROWS_FRAME));
+    assertThat(frame.getInt(1), is(frame.length() - BinaryQueryStreamFormat.FRAME_HEADER_SIZE));
+    return frame.getInt(BinaryQueryStreamFormat.FRAME_HEADER_SIZE);
+  }
+}
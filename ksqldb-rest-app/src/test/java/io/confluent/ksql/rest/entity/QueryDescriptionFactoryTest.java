@@ -169,6 +169,7 @@ public class QueryDescriptionFactoryTest {
         processingLogger,
         0L,
         0L,
+        Optional.empty(),
         listener
     );
     persistentQuery.initialize();
@@ -43,6 +43,7 @@ import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.physical.pull.HARouting;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.properties.DenyListPropertyValidator;
 import io.confluent.ksql.rest.EndpointResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
@@ -146,6 +147,8 @@ public class KsqlRestApplicationTest {
   private ConcurrencyLimiter concurrencyLimiter;
   @Mock
   private HARouting haRouting;
+  @Mock
+  private PushRouting pushRouting;
 
   @Mock
   private Vertx vertx;
@@ -219,6 +222,15 @@ public class KsqlRestApplicationTest {
     verify(serviceContext).close();
   }
 
+  @Test
+  public void shouldCloseKsqlResourceOnClose() {
+    // When:
+    app.shutdown();
+
+    // Then:
+    verify(ksqlResource).close();
+  }
+
   @Test
   public void shouldCloseSecurityExtensionOnClose() {
     // When:
@@ -490,6 +502,7 @@ public class KsqlRestApplicationTest {
         rateLimiter,
         concurrencyLimiter,
         haRouting,
+        pushRouting,
         Optional.empty()
     );
   }
@@ -19,6 +19,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
@@ -33,6 +34,8 @@ import io.confluent.ksql.physical.pull.PullPhysicalPlan.RoutingNodeType;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.ReservedInternalTopics;
 import java.util.Map;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.utils.Time;
 import org.junit.After;
@@ -83,6 +86,41 @@ public class PullQueryMetricsTest {
         sensor -> assertThat(pullMetrics.getMetrics().getSensor(sensor.name()), is(nullValue())));
   }
 
+  @Test
+  public void shouldRegisterAndRemoveResultCacheMetrics() {
+    // Given:
+    final Metrics metrics = pullMetrics.getMetrics();
+    final MetricName hitRatio = metrics.metricName(
+        "pull-query-result-cache-hit-ratio",
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query",
+        CUSTOM_TAGS_WITH_SERVICE_ID);
+    assertThat(metrics.metric(hitRatio), is(notNullValue()));
+
+    // When:
+    pullMetrics.close();
+
+    // Then:
+    assertThat(metrics.metric(hitRatio), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRecordPlanCacheHitsAndPlanningTimeSaved() {
+    // Given:
+    pullMetrics.recordPlanCacheHit(5);
+    pullMetrics.recordPlanCacheHit(7);
+    pullMetrics.recordPlanCacheMiss();
+
+    // When:
+    final double hits = getPlanCacheMetricValue("-hit-count");
+    final double misses = getPlanCacheMetricValue("-miss-count");
+    final double timeSaved = getPlanCacheMetricValue("-planning-time-saved-ms");
+
+    // Then:
+    assertThat(hits, equalTo(2.0));
+    assertThat(misses, equalTo(1.0));
+    assertThat(timeSaved, equalTo(12.0));
+  }
+
   @Test
   public void shouldRecordNumberOfLocalRequests() {
     // Given:
@@ -215,6 +253,65 @@ public class PullQueryMetricsTest {
     assertThat(detailedTotal, is(1.0));
   }
 
+  @Test
+  public void shouldRecordHostLatency() {
+    // Given:
+    pullMetrics.recordHostLatency("node1:8088", 3000);
+    pullMetrics.recordHostLatency("node1:8088", 5000);
+    pullMetrics.recordHostLatency("node2:8088", 4000);
+
+    // When:
+    final Map<String, String> tags = ImmutableMap.<String, String>builder()
+        .putAll(CUSTOM_TAGS_WITH_SERVICE_ID)
+        .put("host", "node1:8088")
+        .build();
+    final double avg = getMetricValue("-host-latency-avg", tags);
+    final double max = getMetricValue("-host-latency-max", tags);
+    final double total = getMetricValue("-host-total", tags);
+
+    // Then:
+    assertThat(avg, is(2.0));
+    assertThat(max, is(3.0));
+    assertThat(total, is(2.0));
+  }
+
+  @Test
+  public void shouldTimeHostLatencyWithInjectedTime() {
+    // When:
+    final long nanos = pullMetrics.nanoseconds();
+
+    // Then:
+    assertThat(nanos, is(6000L));
+  }
+
+  @Test
+  public void shouldRemoveHostLatencySensorsOnClose() {
+    // Given:
+    pullMetrics.recordHostLatency("node1:8088", 3000);
+    final Metrics metrics = pullMetrics.getMetrics();
+
+    // When:
+    pullMetrics.close();
+
+    // Then:
+    assertThat(
+        metrics.getSensor("pull-query-pull-query-requests-host-latency-node1:8088"),
+        is(nullValue()));
+    assertThat(hostMetric("-host-latency-avg", "node1:8088"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotRecreateHostLatencySensorsAfterClose() {
+    // Given:
+    pullMetrics.close();
+
+    // When:
+    pullMetrics.recordHostLatency("node1:8088", 3000);
+
+    // Then:
+    assertThat(hostMetric("-host-latency-avg", "node1:8088"), is(nullValue()));
+  }
+
   @Test
   public void shouldRecordStatus() {
     // Given:
@@ -299,6 +396,42 @@ public class PullQueryMetricsTest {
     );
   }
 
+  private double getMetricValue(final String metricName, final Map<String, String> tags) {
+    final Metrics metrics = pullMetrics.getMetrics();
+    return Double.parseDouble(
+        metrics.metric(
+            metrics.metricName(
+                "pull-query-requests" + metricName,
+                ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query",
+                tags)
+        ).metricValue().toString()
+    );
+  }
+
+  private KafkaMetric hostMetric(final String metricName, final String host) {
+    final Metrics metrics = pullMetrics.getMetrics();
+    return metrics.metric(
+        metrics.metricName(
+            "pull-query-requests" + metricName,
+            ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query",
+            ImmutableMap.<String, String>builder()
+                .putAll(CUSTOM_TAGS_WITH_SERVICE_ID)
+                .put("host", host)
+                .build()));
+  }
+
+  private double getPlanCacheMetricValue(final String metricName) {
+    final Metrics metrics = pullMetrics.getMetrics();
+    return Double.parseDouble(
+        metrics.metric(
+            metrics.metricName(
+                "pull-query-plan-cache" + metricName,
+                ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query",
+                CUSTOM_TAGS_WITH_SERVICE_ID)
+        ).metricValue().toString()
+    );
+  }
+
   private double getMetricValueLegacy(final String metricName) {
     final Metrics metrics = pullMetrics.getMetrics();
     return Double.parseDouble(
@@ -393,6 +393,7 @@ public class KsqlResourceTest {
 
   @After
   public void tearDown() {
+    ksqlResource.close();
     realEngine.close();
     serviceContext.close();
   }
@@ -26,6 +26,7 @@ import com.google.common.util.concurrent.RateLimiter;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.execution.streams.RoutingFilter.RoutingFilterFactory;
 import io.confluent.ksql.physical.pull.HARouting;
+import io.confluent.ksql.physical.scalablepush.PushRouting;
 import io.confluent.ksql.properties.DenyListPropertyValidator;
 import io.confluent.ksql.rest.ApiJsonMapper;
 import io.confluent.ksql.rest.Errors;
@@ -83,6 +84,7 @@ public class WSQueryEndpointTest {
         mock(RateLimiter.class),
         mock(ConcurrencyLimiter.class),
         mock(HARouting.class),
+        mock(PushRouting.class),
         Optional.empty()
     );
   }
@@ -15,13 +15,16 @@
 
 package io.confluent.ksql.rest.util;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.rest.server.KsqlRestConfig;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -65,6 +68,24 @@ public class QueryCapacityUtilTest {
         equalTo(false));
   }
 
+  @Test
+  public void shouldCountQueriesSharingRuntimeOnce() {
+    // Given:
+    final PersistentQueryMetadata shared = mock(PersistentQueryMetadata.class);
+    when(shared.getSharedRuntimeId()).thenReturn(Optional.of("runtime"));
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(
+        shared,
+        shared,
+        shared,
+        mock(PersistentQueryMetadata.class)
+    ));
+    givenQueryLimit(2);
+
+    // Then:
+    assertThat(QueryCapacityUtil.exceedsPersistentQueryCapacity(ksqlEngine, ksqlConfig),
+        equalTo(false));
+  }
+
   @Test
   public void shouldThrowWhenAsked() {
     // Given:
@@ -137,10 +158,9 @@ public class QueryCapacityUtilTest {
                     + "Current push query count: 6. Configured limit: 3."));
   }
 
-  @SuppressWarnings("unchecked")
   private void givenActivePersistentQueries(final int numQueries) {
-    final List<PersistentQueryMetadata> queries = mock(List.class);
-    when(queries.size()).thenReturn(numQueries);
+    final List<PersistentQueryMetadata> queries =
+        Collections.nCopies(numQueries, mock(PersistentQueryMetadata.class));
     when(ksqlEngine.getPersistentQueries())
         .thenReturn(queries);
   }
@@ -298,6 +298,8 @@ public final class KsqlTarget {
           } catch (Throwable t) {
             log.error("Error while handling chunk", t);
             vcf.completeExceptionally(t);
+            // Stop the rest of a streamed response, which may otherwise never end:
+            resp.request().reset();
           }
         });
         resp.endHandler(v -> {
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest;
+
+/**
+ * Constants of the binary format of the query-stream endpoint, shared by the server and the
+ * client.
+ *
+ * <p>The response comprises a sequence of frames. Each frame starts with a header of
+ * {@link #FRAME_HEADER_SIZE} bytes: the type of the frame as a single byte, followed by the
+ * size of the payload of the frame as a big-endian int. All ints, longs and doubles in the
+ * format are big-endian.
+ *
+ * <ul>
+ *   <li>The payload of a {@link #METADATA_FRAME} is the query metadata as a JSON object, as
+ *   written in the other formats. It is always the first frame.</li>
+ *   <li>The payload of a {@link #ROWS_FRAME} is a batch of rows: the number of rows as an int,
+ *   the number of columns as an int, then the values of each row in column order.</li>
+ *   <li>The payload of an {@link #ERROR_FRAME} is the error as a JSON object, as written in the
+ *   other formats. It is always the last frame.</li>
+ * </ul>
+ *
+ * <p>Each value starts with a single byte tag giving its type. Tags {@link #NULL},
+ * {@link #FALSE} and {@link #TRUE} have no further bytes. {@link #INT}, {@link #BIGINT} and
+ * {@link #DOUBLE} are followed by the value in 4, 8 and 8 bytes respectively. {@link #STRING} is
+ * followed by the size of the UTF-8 encoded value as an int, and then the encoded value. Any
+ * other value is tagged {@link #JSON} and followed by the size as an int, and then the UTF-8
+ * encoded JSON array holding the value as its only element.
+ *
+ * <p>Integral values that fit in an int are always tagged {@link #INT}, so that they are read
+ * back as the same types as when read from JSON.
+ */
+public final class BinaryQueryStreamFormat {
+
+  public static final String CONTENT_TYPE = "application/vnd.ksqlapi.binary.v1";
+
+  public static final int FRAME_HEADER_SIZE = 5;
+
+  public static final byte METADATA_FRAME = 'M';
+  public static final byte ROWS_FRAME = 'R';
+  public static final byte ERROR_FRAME = 'E';
+
+  public static final byte NULL = 0;
+  public static final byte FALSE = 1;
+  public static final byte TRUE = 2;
+  public static final byte INT = 3;
+  public static final byte BIGINT = 4;
+  public static final byte DOUBLE = 5;
+  public static final byte STRING = 6;
+  public static final byte JSON = 7;
+
+  private BinaryQueryStreamFormat() {
+  }
+}
@@ -17,10 +17,12 @@ package io.confluent.ksql.rest;
 
 import io.confluent.ksql.util.KsqlHostInfo;
 import java.net.URL;
+import java.security.Principal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -36,6 +38,7 @@ public class SessionProperties {
   private final URL localUrl;
   private final boolean internalRequest;
   private final Map<String, String> sessionVariables;
+  private final Optional<Principal> userPrincipal;
 
   /**
    * @param mutableScopedProperties   The streamsProperties of the incoming request
@@ -43,13 +46,15 @@ public class SessionProperties {
    * @param localUrl                  The url of the server that handles the request
    * @param internalRequest           Flag indicating if request is from within the KSQL cluster
    * @param sessionVariables          Initial session variables
+   * @param userPrincipal             The principal that made the request, if authenticated
    */
   public SessionProperties(
       final Map<String, Object> mutableScopedProperties,
       final KsqlHostInfo ksqlHostInfo,
       final URL localUrl,
       final boolean internalRequest,
-      final Map<String, Object> sessionVariables
+      final Map<String, Object> sessionVariables,
+      final Optional<Principal> userPrincipal
   ) {
     this.mutableScopedProperties =
         new HashMap<>(Objects.requireNonNull(mutableScopedProperties, "mutableScopedProperties"));
@@ -62,6 +67,25 @@ public class SessionProperties {
             .entrySet()
             .stream()
             .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().toString())));
+    this.userPrincipal = Objects.requireNonNull(userPrincipal, "userPrincipal");
+  }
+
+  /**
+   * @param mutableScopedProperties   The streamsProperties of the incoming request
+   * @param ksqlHostInfo              The ksqlHostInfo of the server that handles the request
+   * @param localUrl                  The url of the server that handles the request
+   * @param internalRequest           Flag indicating if request is from within the KSQL cluster
+   * @param sessionVariables          Initial session variables
+   */
+  public SessionProperties(
+      final Map<String, Object> mutableScopedProperties,
+      final KsqlHostInfo ksqlHostInfo,
+      final URL localUrl,
+      final boolean internalRequest,
+      final Map<String, Object> sessionVariables
+  ) {
+    this(mutableScopedProperties, ksqlHostInfo, localUrl, internalRequest, sessionVariables,
+        Optional.empty());
   }
 
   /**
@@ -95,6 +119,10 @@ public class SessionProperties {
     return internalRequest;
   }
 
+  public Optional<Principal> getUserPrincipal() {
+    return userPrincipal;
+  }
+
   public Map<String, String> getSessionVariables() {
     return Collections.unmodifiableMap(sessionVariables);
   }
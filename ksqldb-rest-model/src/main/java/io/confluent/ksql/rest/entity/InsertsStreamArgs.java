@@ -29,12 +29,15 @@ public class InsertsStreamArgs {
 
   public final String target;
   public final JsonObject properties;
+  public final boolean coalesceAcks;
 
   public InsertsStreamArgs(final @JsonProperty(value = "target", required = true) String target,
       final @JsonProperty(value = "properties")
-          Map<String, Object> properties) {
+          Map<String, Object> properties,
+      final @JsonProperty(value = "coalesceAcks") Boolean coalesceAcks) {
     this.target = Objects.requireNonNull(target);
     this.properties = properties == null ? new JsonObject() : new JsonObject(properties);
+    this.coalesceAcks = coalesceAcks != null && coalesceAcks;
   }
 
   @Override
@@ -42,6 +45,7 @@ public class InsertsStreamArgs {
     return "InsertsStreamArgs{"
         + "target='" + target + '\''
         + ", properties=" + properties
+        + ", coalesceAcks=" + coalesceAcks
         + '}';
   }
 }
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rocksdb;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.rocksdb.KsqlBoundedMemoryRocksDBConfigSetter.LruCacheFactory;
+import io.confluent.ksql.rocksdb.KsqlBoundedMemoryRocksDBConfigSetter.WriteBufferManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.rocksdb.Cache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+/**
+ * Splits the bounded RocksDB memory between a default and a priority pool of state stores, and
+ * rebalances the split as stores are opened and closed.
+ *
+ * <p>The block cache is split by the weight of each pool: the number of its open stores, times
+ * the priority weight for the priority pool, times one plus its block cache miss ratio, so that
+ * pools whose reads miss the cache more get more of it. Pools with no observed hit ratio count a
+ * miss ratio of one half. The write buffer memory is split by the number of open stores. Each
+ * pool with open stores gets at least the configured minimum share of each.
+ *
+ * <p>RocksDB caches and write buffer managers can not be resized once created. Instead, when the
+ * target memory of a pool moves by more than the resize threshold from the size of its current
+ * caches, the pool's next store gets new caches of the target size. Stores opened earlier keep
+ * their caches, which are closed once their last store closes. To bound the memory held by such
+ * draining caches, a pool does not resize again until its previous caches have drained.
+ *
+ * <p>The budget is a hard limit on the sum of the capacities of all live caches, draining or
+ * not. The minimum share of each pool is reserved up front, whether or not the pool has stores,
+ * so a pool can always open its first store. New caches are sized to the target memory of their
+ * pool, but no larger than fits beside the memory the other pools hold, or reserve, and beside
+ * the pool's own current caches, which drain. A resize that would not move the pool closer to its
+ * target waits until enough memory is freed.
+ */
+public final class AdaptiveRocksDBMemoryManager {
+
+  public enum Pool {
+    DEFAULT,
+    PRIORITY
+  }
+
+  private static final double UNKNOWN_MISS_RATIO = 0.5;
+
+  private final long blockCacheBudget;
+  private final long writeBufferBudget;
+  private final boolean strictCacheLimit;
+  private final boolean accountWriteBufferAgainstCache;
+  private final double indexFilterBlockRatio;
+  private final List<String> priorityQueries;
+  private final double priorityWeight;
+  private final double minPoolRatio;
+  private final double resizeThreshold;
+  private final LruCacheFactory cacheFactory;
+  private final WriteBufferManagerFactory bufferManagerFactory;
+  private final Map<Pool, PoolState> pools = new EnumMap<>(Pool.class);
+  private final Map<Options, Generation> assignments = new IdentityHashMap<>();
+  private volatile Supplier<Map<Pool, Double>> hitRatioSource = Collections::emptyMap;
+  private long resizeCount;
+
+  AdaptiveRocksDBMemoryManager(
+      final KsqlBoundedMemoryRocksDBConfig config,
+      final long blockCacheBudget,
+      final long writeBufferBudget,
+      final LruCacheFactory cacheFactory,
+      final WriteBufferManagerFactory bufferManagerFactory
+  ) {
+    this.blockCacheBudget = blockCacheBudget;
+    this.writeBufferBudget = writeBufferBudget;
+    this.strictCacheLimit =
+        config.getBoolean(KsqlBoundedMemoryRocksDBConfig.STRICT_CACHE_LIMIT);
+    this.accountWriteBufferAgainstCache =
+        config.getBoolean(KsqlBoundedMemoryRocksDBConfig.ACCOUNT_WRITE_BUFFER_AGAINST_CACHE);
+    this.indexFilterBlockRatio =
+        config.getDouble(KsqlBoundedMemoryRocksDBConfig.INDEX_FILTER_BLOCK_RATIO_CONFIG);
+    this.priorityQueries = ImmutableList.copyOf(
+        config.getList(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_PRIORITY_QUERIES_CONFIG));
+    this.priorityWeight =
+        config.getDouble(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_PRIORITY_WEIGHT_CONFIG);
+    this.minPoolRatio =
+        config.getDouble(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_MIN_POOL_RATIO_CONFIG);
+    this.resizeThreshold =
+        config.getDouble(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_RESIZE_THRESHOLD_CONFIG);
+    this.cacheFactory = Objects.requireNonNull(cacheFactory, "cacheFactory");
+    this.bufferManagerFactory =
+        Objects.requireNonNull(bufferManagerFactory, "bufferManagerFactory");
+
+    for (final Pool pool : Pool.values()) {
+      pools.put(pool, new PoolState());
+    }
+  }
+
+  /**
+   * Set the source of the observed block cache hit ratios of the pools.
+   *
+   * @param source supplies the hit ratio of each pool, in the range 0 to 1, if known.
+   */
+  public void setHitRatioSource(final Supplier<Map<Pool, Double>> source) {
+    this.hitRatioSource = Objects.requireNonNull(source, "source");
+  }
+
+  /**
+   * Get the pool of the stores of an application.
+   *
+   * @param applicationId the application ID, or any ID that contains it, e.g. a thread ID.
+   * @return the pool.
+   */
+  public Pool poolFor(final String applicationId) {
+    if (applicationId != null) {
+      for (final String query : priorityQueries) {
+        if (applicationId.contains(query)) {
+          return Pool.PRIORITY;
+        }
+      }
+    }
+    return Pool.DEFAULT;
+  }
+
+  public synchronized long blockCacheCapacity(final Pool pool) {
+    final Generation current = pools.get(pool).current;
+    return current == null ? 0 : current.cacheCapacity;
+  }
+
+  public synchronized long targetBlockCacheCapacity(final Pool pool) {
+    return pools.get(pool).targetCache;
+  }
+
+  public synchronized long targetWriteBufferCapacity(final Pool pool) {
+    return pools.get(pool).targetWriteBuffer;
+  }
+
+  public synchronized long writeBufferCapacity(final Pool pool) {
+    final Generation current = pools.get(pool).current;
+    return current == null ? 0 : current.writeBufferCapacity;
+  }
+
+  public synchronized int storeCount(final Pool pool) {
+    return pools.get(pool).stores;
+  }
+
+  public synchronized double hitRatio(final Pool pool) {
+    return pools.get(pool).hitRatio;
+  }
+
+  public synchronized long resizeCount() {
+    return resizeCount;
+  }
+
+  /**
+   * @return the sum of the capacities of all live block caches, draining or not.
+   */
+  synchronized long liveBlockCacheCapacity() {
+    return pools.values().stream().mapToLong(state -> live(state, g -> g.cacheCapacity)).sum();
+  }
+
+  /**
+   * @return the sum of the capacities of all live write buffer managers, draining or not.
+   */
+  synchronized long liveWriteBufferCapacity() {
+    return pools.values().stream()
+        .mapToLong(state -> live(state, g -> g.writeBufferCapacity))
+        .sum();
+  }
+
+  synchronized Generation assign(final String applicationId, final Options options) {
+    final Pool pool = poolFor(applicationId);
+    final PoolState state = pools.get(pool);
+    state.stores++;
+    rebalance();
+
+    final long availableCache = available(pool, blockCacheBudget, g -> g.cacheCapacity);
+    final long availableWriteBuffer =
+        available(pool, writeBufferBudget, g -> g.writeBufferCapacity);
+
+    Generation generation = state.current;
+    if (generation == null) {
+      generation = createGeneration(
+          Math.min(state.targetCache, availableCache),
+          Math.min(state.targetWriteBuffer, availableWriteBuffer)
+      );
+      state.current = generation;
+    } else if (state.draining == null) {
+      // The current caches have open stores, so drain, and the new caches must fit beside them:
+      final long cacheCapacity =
+          Math.min(state.targetCache, availableCache - generation.cacheCapacity);
+      final long writeBufferCapacity = Math.min(
+          state.targetWriteBuffer,
+          availableWriteBuffer - generation.writeBufferCapacity
+      );
+
+      if (shouldResize(state, generation, cacheCapacity, writeBufferCapacity)) {
+        state.draining = generation;
+        resizeCount++;
+
+        generation = createGeneration(cacheCapacity, writeBufferCapacity);
+        state.current = generation;
+      }
+    }
+
+    generation.stores++;
+    assignments.put(options, generation);
+    return generation;
+  }
+
+  synchronized void release(final Options options) {
+    final Generation generation = assignments.remove(options);
+    if (generation == null) {
+      return;
+    }
+
+    generation.stores--;
+
+    for (final PoolState state : pools.values()) {
+      if (state.current == generation || state.draining == generation) {
+        state.stores--;
+      }
+      if (generation.stores != 0) {
+        continue;
+      }
+      if (state.draining == generation) {
+        generation.close();
+        state.draining = null;
+      }
+      if (state.current == generation) {
+        // Any draining caches still have open stores, so serve the pool's next stores:
+        generation.close();
+        state.current = state.draining;
+        state.draining = null;
+      }
+    }
+
+    rebalance();
+  }
+
+  private void rebalance() {
+    final Map<Pool, Double> observed = hitRatioSource.get();
+
+    final Map<Pool, Double> cacheWeights = new EnumMap<>(Pool.class);
+    final Map<Pool, Double> writeBufferWeights = new EnumMap<>(Pool.class);
+    for (final Map.Entry<Pool, PoolState> e : pools.entrySet()) {
+      final Pool pool = e.getKey();
+      final PoolState state = e.getValue();
+
+      final Double hitRatio = observed.get(pool);
+      state.hitRatio = hitRatio == null || hitRatio.isNaN() ? Double.NaN : hitRatio;
+
+      final double missRatio = Double.isNaN(state.hitRatio)
+          ? UNKNOWN_MISS_RATIO
+          : 1 - Math.max(0, Math.min(1, state.hitRatio));
+
+      cacheWeights.put(pool, state.stores
+          * (pool == Pool.PRIORITY ? priorityWeight : 1)
+          * (1 + missRatio));
+      writeBufferWeights.put(pool, (double) state.stores);
+    }
+
+    final Map<Pool, Double> cacheShares = shares(cacheWeights, minPoolRatio);
+    final Map<Pool, Double> writeBufferShares = shares(writeBufferWeights, minPoolRatio);
+    for (final Map.Entry<Pool, PoolState> e : pools.entrySet()) {
+      final PoolState state = e.getValue();
+      state.targetCache =
+          Math.round(blockCacheBudget * cacheShares.getOrDefault(e.getKey(), 0.0));
+      state.targetWriteBuffer =
+          Math.round(writeBufferBudget * writeBufferShares.getOrDefault(e.getKey(), 0.0));
+    }
+  }
+
+  private boolean shouldResize(
+      final PoolState state,
+      final Generation current,
+      final long cacheCapacity,
+      final long writeBufferCapacity
+  ) {
+    if (cacheCapacity <= 0 || writeBufferCapacity <= 0) {
+      // A write buffer manager with no capacity does not limit memory at all:
+      return false;
+    }
+
+    return isNoFurtherFromTarget(state.targetCache, cacheCapacity, current.cacheCapacity)
+        && isNoFurtherFromTarget(
+            state.targetWriteBuffer, writeBufferCapacity, current.writeBufferCapacity)
+        && (movedBeyondThreshold(cacheCapacity, current.cacheCapacity)
+            || movedBeyondThreshold(writeBufferCapacity, current.writeBufferCapacity));
+  }
+
+  private static boolean isNoFurtherFromTarget(
+      final long target,
+      final long capacity,
+      final long current
+  ) {
+    return Math.abs(target - capacity) <= Math.abs(target - current);
+  }
+
+  /**
+   * @return the budget less the memory held, or reserved, by the other pools.
+   */
+  private long available(
+      final Pool pool,
+      final long budget,
+      final ToLongFunction<Generation> capacity
+  ) {
+    final long reserved = (long) (budget * Math.min(minPoolRatio, 1.0 / pools.size()));
+
+    long available = budget;
+    for (final Map.Entry<Pool, PoolState> e : pools.entrySet()) {
+      if (e.getKey() != pool) {
+        available -= Math.max(reserved, live(e.getValue(), capacity));
+      }
+    }
+    return available;
+  }
+
+  private static long live(final PoolState state, final ToLongFunction<Generation> capacity) {
+    return (state.current == null ? 0 : capacity.applyAsLong(state.current))
+        + (state.draining == null ? 0 : capacity.applyAsLong(state.draining));
+  }
+
+  private boolean movedBeyondThreshold(final long target, final long current) {
+    return Math.abs(target - current) > resizeThreshold * current;
+  }
+
+  private Generation createGeneration(final long cacheCapacity, final long writeBufferCapacity) {
+    final Cache cache = cacheFactory.create(
+        cacheCapacity,
+        -1,
+        strictCacheLimit,
+        indexFilterBlockRatio
+    );
+
+    final Cache writeBufferCache = accountWriteBufferAgainstCache
+        ? null
+        : cacheFactory.create(writeBufferCapacity, -1, false, 0);
+
+    final WriteBufferManager writeBufferManager = bufferManagerFactory.create(
+        writeBufferCapacity,
+        writeBufferCache == null ? cache : writeBufferCache
+    );
+
+    return new Generation(
+        cache,
+        writeBufferCache,
+        writeBufferManager,
+        cacheCapacity,
+        writeBufferCapacity
+    );
+  }
+
+  /**
+   * Split one between the pools with a positive weight, in proportion to their weights, but
+   * giving each at least {@code minShare}.
+   */
+  @VisibleForTesting
+  static Map<Pool, Double> shares(final Map<Pool, Double> weights, final double minShare) {
+    final Map<Pool, Double> shares = new EnumMap<>(Pool.class);
+
+    final List<Pool> remaining = new ArrayList<>();
+    weights.forEach((pool, weight) -> {
+      if (weight > 0) {
+        remaining.add(pool);
+      }
+    });
+
+    if (remaining.isEmpty()) {
+      return shares;
+    }
+
+    final double floor = Math.min(minShare, 1.0 / remaining.size());
+    double available = 1.0;
+
+    while (true) {
+      final double total = remaining.stream().mapToDouble(weights::get).sum();
+
+      final List<Pool> belowFloor = new ArrayList<>();
+      for (final Pool pool : remaining) {
+        if (weights.get(pool) / total * available < floor) {
+          belowFloor.add(pool);
+        }
+      }
+
+      if (belowFloor.isEmpty()) {
+        for (final Pool pool : remaining) {
+          shares.put(pool, weights.get(pool) / total * available);
+        }
+        return shares;
+      }
+
+      for (final Pool pool : belowFloor) {
+        shares.put(pool, floor);
+        available -= floor;
+      }
+      remaining.removeAll(belowFloor);
+    }
+  }
+
+  private static final class PoolState {
+
+    private int stores;
+    private long targetCache;
+    private long targetWriteBuffer;
+    private double hitRatio = Double.NaN;
+    private Generation current;
+    private Generation draining;
+  }
+
+  /**
+   * The caches and write buffer manager created for a pool at one size.
+   */
+  static final class Generation {
+
+    private final Cache cache;
+    private final Cache writeBufferCache;
+    private final WriteBufferManager writeBufferManager;
+    private final long cacheCapacity;
+    private final long writeBufferCapacity;
+    private int stores;
+
+    private Generation(
+        final Cache cache,
+        final Cache writeBufferCache,
+        final WriteBufferManager writeBufferManager,
+        final long cacheCapacity,
+        final long writeBufferCapacity
+    ) {
+      this.cache = Objects.requireNonNull(cache, "cache");
+      this.writeBufferCache = writeBufferCache;
+      this.writeBufferManager = Objects.requireNonNull(writeBufferManager, "writeBufferManager");
+      this.cacheCapacity = cacheCapacity;
+      this.writeBufferCapacity = writeBufferCapacity;
+    }
+
+    Cache cache() {
+      return cache;
+    }
+
+    WriteBufferManager writeBufferManager() {
+      return writeBufferManager;
+    }
+
+    private void close() {
+      writeBufferManager.close();
+      if (writeBufferCache != null) {
+        writeBufferCache.close();
+      }
+      cache.close();
+    }
+  }
+}
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.rocksdb;
 
+import java.util.Collections;
 import java.util.Map;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigDef;
@@ -56,6 +57,48 @@ public class KsqlBoundedMemoryRocksDBConfig extends AbstractConfig {
       "Percentage of the RocksDB block cache to set aside for high-priority entries, i.e., "
       + "index and filter blocks.";
 
+  public static final String ADAPTIVE_ENABLED_CONFIG = CONFIG_PREFIX + "adaptive.enabled";
+  private static final String ADAPTIVE_ENABLED_DOC =
+      "Split the block cache and write buffer memory between a default and a priority pool, "
+      + "and rebalance the split as stores are opened and closed, based on the number of "
+      + "stores in each pool and their observed block cache hit ratios. RocksDB caches can not "
+      + "be resized in place, so stores opened after a rebalance use new caches of the new "
+      + "size, while the previous caches are released once their stores close.";
+
+  public static final String ADAPTIVE_PRIORITY_QUERIES_CONFIG =
+      CONFIG_PREFIX + "adaptive.priority.queries";
+  private static final String ADAPTIVE_PRIORITY_QUERIES_DOC =
+      "Query IDs, e.g. CTAS_USERS_3, whose state stores are placed in the priority pool. "
+      + "A store is in the priority pool if its application ID contains any of them.";
+
+  public static final String ADAPTIVE_PRIORITY_WEIGHT_CONFIG =
+      CONFIG_PREFIX + "adaptive.priority.weight";
+  private static final double ADAPTIVE_PRIORITY_WEIGHT_DEFAULT = 2.0;
+  private static final String ADAPTIVE_PRIORITY_WEIGHT_DOC =
+      "The weight of each store in the priority pool, relative to a store in the default pool, "
+      + "when splitting the block cache.";
+
+  public static final String ADAPTIVE_MIN_POOL_RATIO_CONFIG =
+      CONFIG_PREFIX + "adaptive.min.pool.ratio";
+  private static final double ADAPTIVE_MIN_POOL_RATIO_DEFAULT = 0.1;
+  private static final String ADAPTIVE_MIN_POOL_RATIO_DOC =
+      "The minimum share of the memory given to a pool that has open stores. This share is "
+      + "reserved for each pool whether or not it has open stores.";
+
+  public static final String ADAPTIVE_RESIZE_THRESHOLD_CONFIG =
+      CONFIG_PREFIX + "adaptive.resize.threshold";
+  private static final double ADAPTIVE_RESIZE_THRESHOLD_DEFAULT = 0.1;
+  private static final String ADAPTIVE_RESIZE_THRESHOLD_DOC =
+      "The relative change in the memory of a pool required before new caches of the new size "
+      + "are created for it.";
+
+  public static final String PROFILES_ENABLED_CONFIG = CONFIG_PREFIX + "profiles.enabled";
+  private static final String PROFILES_ENABLED_DOC =
+      "Tune the options of each store for how it is accessed: stores read by key, e.g. tables "
+      + "serving pull queries, get options for point lookups, and the segments of windowed "
+      + "stores get options for their write-heavy workload. The profile of all stores of a "
+      + "query can be overridden by the ROCKSDB_PROFILE property of its statement.";
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(
           BLOCK_CACHE_SIZE,
@@ -92,7 +135,46 @@ public class KsqlBoundedMemoryRocksDBConfig extends AbstractConfig {
           Type.DOUBLE,
           INDEX_FILTER_BLOCK_RATIO_DEFAULT,
           Importance.LOW,
-          INDEX_FILTER_BLOCK_RATIO_DOC
+          INDEX_FILTER_BLOCK_RATIO_DOC)
+      .define(
+          ADAPTIVE_ENABLED_CONFIG,
+          Type.BOOLEAN,
+          false,
+          Importance.LOW,
+          ADAPTIVE_ENABLED_DOC)
+      .define(
+          ADAPTIVE_PRIORITY_QUERIES_CONFIG,
+          Type.LIST,
+          Collections.emptyList(),
+          Importance.LOW,
+          ADAPTIVE_PRIORITY_QUERIES_DOC)
+      .define(
+          ADAPTIVE_PRIORITY_WEIGHT_CONFIG,
+          Type.DOUBLE,
+          ADAPTIVE_PRIORITY_WEIGHT_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          ADAPTIVE_PRIORITY_WEIGHT_DOC)
+      .define(
+          ADAPTIVE_MIN_POOL_RATIO_CONFIG,
+          Type.DOUBLE,
+          ADAPTIVE_MIN_POOL_RATIO_DEFAULT,
+          ConfigDef.Range.between(0.01, 0.5),
+          Importance.LOW,
+          ADAPTIVE_MIN_POOL_RATIO_DOC)
+      .define(
+          ADAPTIVE_RESIZE_THRESHOLD_CONFIG,
+          Type.DOUBLE,
+          ADAPTIVE_RESIZE_THRESHOLD_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          ADAPTIVE_RESIZE_THRESHOLD_DOC)
+      .define(
+          PROFILES_ENABLED_CONFIG,
+          Type.BOOLEAN,
+          false,
+          Importance.LOW,
+          PROFILES_ENABLED_DOC
       );
 
   public KsqlBoundedMemoryRocksDBConfig(final Map<?, ?> properties) {
@@ -17,8 +17,10 @@ package io.confluent.ksql.rocksdb;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.kafka.common.Configurable;
+import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.state.RocksDBConfigSetter;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.Cache;
@@ -30,12 +32,20 @@ import org.rocksdb.Options;
  * "ksql.plugins.rocksdb.total.memory", and also configures
  * the shared RocksDB thread pool to use "ksql.plugins.rocksdb.num.background.threads" threads.
  * </p>
+ * If "ksql.plugins.rocksdb.adaptive.enabled" is set, the memory is instead split between pools
+ * of stores by an {@link AdaptiveRocksDBMemoryManager}.
+ * </p>
+ * If "ksql.plugins.rocksdb.profiles.enabled" is set, each store is also tuned for how it is
+ * accessed, by the {@link RocksDBStoreProfile} the configs of its query select.
+ * </p>
  * See https://docs.confluent.io/5.3.0/streams/developer-guide/memory-mgmt.html#rocksdb.
  */
 public class KsqlBoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter, Configurable {
 
   private static org.rocksdb.Cache cache;
   private static org.rocksdb.WriteBufferManager writeBufferManager;
+  private static volatile AdaptiveRocksDBMemoryManager memoryManager;
+  private static volatile RocksDBStoreProfiles storeProfiles;
   private static final AtomicBoolean configured = new AtomicBoolean(false);
 
   @Override
@@ -64,6 +74,9 @@ public class KsqlBoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter
           new KsqlBoundedMemoryRocksDBConfig(config);
 
       limitTotalMemory(pluginConfig, cacheFactory, bufferManagerFactory);
+      if (pluginConfig.getBoolean(KsqlBoundedMemoryRocksDBConfig.PROFILES_ENABLED_CONFIG)) {
+        storeProfiles = new RocksDBStoreProfiles();
+      }
       configureNumThreads(pluginConfig, options);
     } catch (final IllegalArgumentException e) {
       reset();
@@ -74,6 +87,22 @@ public class KsqlBoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter
   @VisibleForTesting
   static void reset() {
     configured.set(false);
+    memoryManager = null;
+    storeProfiles = null;
+  }
+
+  /**
+   * @return the manager of the memory, if adaptive memory management is enabled.
+   */
+  public static Optional<AdaptiveRocksDBMemoryManager> adaptiveMemoryManager() {
+    return Optional.ofNullable(memoryManager);
+  }
+
+  /**
+   * @return the profiles of the open stores, if store profiles are enabled.
+   */
+  public static Optional<RocksDBStoreProfiles> storeProfiles() {
+    return Optional.ofNullable(storeProfiles);
   }
 
   private static void limitTotalMemory(
@@ -95,6 +124,17 @@ public class KsqlBoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter
     final double indexFilterBlockRatio =
         config.getDouble(KsqlBoundedMemoryRocksDBConfig.INDEX_FILTER_BLOCK_RATIO_CONFIG);
 
+    if (config.getBoolean(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_ENABLED_CONFIG)) {
+      memoryManager = new AdaptiveRocksDBMemoryManager(
+          config,
+          blockCacheSize,
+          totalMemtableMemory,
+          cacheFactory,
+          bufferManagerFactory
+      );
+      return;
+    }
+
     cache = cacheFactory.create(
         blockCacheSize,
         -1,
@@ -132,20 +172,52 @@ public class KsqlBoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter
 
     final BlockBasedTableConfig tableConfig = (BlockBasedTableConfig)options.tableFormatConfig();
 
-    tableConfig.setBlockCache(cache);
+    final AdaptiveRocksDBMemoryManager manager = memoryManager;
+    if (manager != null) {
+      final AdaptiveRocksDBMemoryManager.Generation generation = manager.assign(
+          (String) configs.get(StreamsConfig.APPLICATION_ID_CONFIG),
+          options
+      );
+      tableConfig.setBlockCache(generation.cache());
+      options.setWriteBufferManager(generation.writeBufferManager());
+    } else {
+      tableConfig.setBlockCache(cache);
+      options.setWriteBufferManager(writeBufferManager);
+    }
+
     tableConfig.setCacheIndexAndFilterBlocks(true);
-    options.setWriteBufferManager(writeBufferManager);
 
     tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
     tableConfig.setPinTopLevelIndexAndFilter(true);
 
     options.setStatsDumpPeriodSec(0);
 
+    final RocksDBStoreProfiles profiles = storeProfiles;
+    if (profiles != null) {
+      final RocksDBStoreProfile profile = RocksDBStoreProfile.select(storeName, configs);
+      profile.apply(options, tableConfig);
+      profiles.register(
+          (String) configs.get(StreamsConfig.APPLICATION_ID_CONFIG),
+          storeName,
+          profile,
+          options
+      );
+    }
+
     options.setTableFormatConfig(tableConfig);
   }
 
   @Override
   public void close(final String storeName, final Options options) {
+    final AdaptiveRocksDBMemoryManager manager = memoryManager;
+    if (manager != null) {
+      manager.release(options);
+    }
+
+    final RocksDBStoreProfiles profiles = storeProfiles;
+    if (profiles != null) {
+      profiles.unregister(options);
+    }
   }
 
   interface LruCacheFactory {
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rocksdb;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.DataBlockIndexType;
+import org.rocksdb.Options;
+
+/**
+ * RocksDB tuning for a state store, chosen by how the store is accessed.
+ *
+ * <p>The profile of a store is chosen from the configs of the query that owns it, which the
+ * engine populates: the profile in {@link #PROFILE_CONFIG}, if set, applies to all stores of the
+ * query. Otherwise, the segments of windowed and session stores get {@link #WINDOWED}, stores
+ * listed in {@link #LOOKUP_STORES_CONFIG} get {@link #POINT_LOOKUP}, and all others get
+ * {@link #DEFAULT}.
+ */
+public enum RocksDBStoreProfile {
+
+  /**
+   * The options Kafka Streams sets, unchanged.
+   */
+  DEFAULT {
+    @Override
+    void apply(final Options options, final BlockBasedTableConfig tableConfig) {
+    }
+  },
+
+  /**
+   * For stores mostly read by key, e.g. tables serving pull queries.
+   *
+   * <p>Adds a hash index to each data block, so a lookup finds its key in the block without a
+   * binary search, and keeps the index and filter blocks of level 0 in the cache, as every
+   * lookup reads them. Kafka Streams already sets a whole-key Bloom filter, which is kept.
+   */
+  POINT_LOOKUP {
+    @Override
+    void apply(final Options options, final BlockBasedTableConfig tableConfig) {
+      tableConfig.setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+      tableConfig.setDataBlockHashTableUtilRatio(DATA_BLOCK_HASH_TABLE_UTIL_RATIO);
+      tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+    }
+  },
+
+  /**
+   * For stores mostly read by iterating over ranges of keys, e.g. tables serving table scans.
+   *
+   * <p>Uses larger blocks, so a scan reads fewer of them, and drops the Bloom filter, which
+   * iterators do not use.
+   */
+  SCAN {
+    @Override
+    void apply(final Options options, final BlockBasedTableConfig tableConfig) {
+      tableConfig.setBlockSize(SCAN_BLOCK_SIZE);
+      tableConfig.setFilterPolicy(null);
+    }
+  },
+
+  /**
+   * For the segments of windowed and session stores, which are written to for every input
+   * record and read by iterating over the windows of a key.
+   *
+   * <p>Uses larger write buffers, so the segments are flushed less often into fewer, larger
+   * files for a fetch to read.
+   */
+  WINDOWED {
+    @Override
+    void apply(final Options options, final BlockBasedTableConfig tableConfig) {
+      options.setWriteBufferSize(WINDOWED_WRITE_BUFFER_SIZE);
+    }
+  };
+
+  /**
+   * The name of the config that holds the profile for all stores of a query, if any.
+   */
+  public static final String PROFILE_CONFIG = "ksql.rocksdb.store.profile";
+
+  /**
+   * The name of the config that holds the names of the stores of a query that are read by key.
+   */
+  public static final String LOOKUP_STORES_CONFIG = "ksql.rocksdb.lookup.stores";
+
+  private static final double DATA_BLOCK_HASH_TABLE_UTIL_RATIO = 0.75;
+  private static final long SCAN_BLOCK_SIZE = 16 * 1024L;
+  private static final long WINDOWED_WRITE_BUFFER_SIZE = 32 * 1024 * 1024L;
+
+  // Kafka Streams names each segment of a windowed or session store by its start time:
+  private static final Pattern SEGMENT_NAME = Pattern.compile(".+\\.\\d+");
+
+  /**
+   * Apply the profile to the options of a store.
+   */
+  abstract void apply(Options options, BlockBasedTableConfig tableConfig);
+
+  /**
+   * Select the profile of a store.
+   *
+   * @param storeName the name of the store, or store segment.
+   * @param configs the configs of the query that owns the store.
+   * @return the profile.
+   */
+  public static RocksDBStoreProfile select(
+      final String storeName,
+      final Map<String, Object> configs
+  ) {
+    final Object profile = configs.get(PROFILE_CONFIG);
+    if (profile != null && !profile.toString().isEmpty()) {
+      return parse(profile.toString());
+    }
+
+    if (isSegment(storeName)) {
+      return WINDOWED;
+    }
+
+    return lookupStores(configs).contains(storeName) ? POINT_LOOKUP : DEFAULT;
+  }
+
+  /**
+   * @param name the case-insensitive name of the profile.
+   * @return the profile.
+   */
+  public static RocksDBStoreProfile parse(final String name) {
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown RocksDB store profile: " + name
+          + ". Valid profiles are: " + Arrays.toString(values()), e);
+    }
+  }
+
+  /**
+   * @param storeName the name of a store, or store segment.
+   * @return the name of the store the segment belongs to, or the name if not a segment.
+   */
+  public static String baseStoreName(final String storeName) {
+    return isSegment(storeName)
+        ? storeName.substring(0, storeName.lastIndexOf('.'))
+        : storeName;
+  }
+
+  private static boolean isSegment(final String storeName) {
+    return SEGMENT_NAME.matcher(storeName).matches();
+  }
+
+  private static Collection<String> lookupStores(final Map<String, Object> configs) {
+    final Object stores = configs.get(LOOKUP_STORES_CONFIG);
+    if (stores == null) {
+      return Collections.emptySet();
+    }
+
+    if (stores instanceof Collection) {
+      return ((Collection<?>) stores).stream()
+          .map(Object::toString)
+          .collect(Collectors.toSet());
+    }
+
+    return Arrays.stream(stores.toString().split(","))
+        .map(String::trim)
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rocksdb;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.rocksdb.Options;
+
+/**
+ * Tracks the profile of each open store, so that the metrics of a store can be attributed to
+ * its profile.
+ *
+ * <p>Stores are tracked by the application ID of their query and their name. Segments of a
+ * windowed store are tracked under the name of the store, as that is the name their metrics
+ * are reported under.
+ */
+public final class RocksDBStoreProfiles {
+
+  private final Map<Options, Store> stores = new IdentityHashMap<>();
+  private final Map<Store, Integer> counts = new HashMap<>();
+  private final Map<RocksDBStoreProfile, Integer> profileCounts =
+      new EnumMap<>(RocksDBStoreProfile.class);
+
+  synchronized void register(
+      final String applicationId,
+      final String storeName,
+      final RocksDBStoreProfile profile,
+      final Options options
+  ) {
+    final Store store = new Store(
+        applicationId == null ? "" : applicationId,
+        RocksDBStoreProfile.baseStoreName(storeName),
+        profile
+    );
+
+    stores.put(options, store);
+    counts.merge(store, 1, Integer::sum);
+    profileCounts.merge(profile, 1, Integer::sum);
+  }
+
+  synchronized void unregister(final Options options) {
+    final Store store = stores.remove(options);
+    if (store == null) {
+      return;
+    }
+
+    counts.computeIfPresent(store, (k, count) -> count == 1 ? null : count - 1);
+    profileCounts.computeIfPresent(store.profile, (k, count) -> count == 1 ? null : count - 1);
+  }
+
+  /**
+   * Find the profile of a store from the tags of its metrics.
+   *
+   * @param threadId the ID of the stream thread that owns the store, which starts with the
+   *                 application ID of the query.
+   * @param storeName the name of the store.
+   * @return the profile, if the store is open.
+   */
+  public synchronized Optional<RocksDBStoreProfile> profileOf(
+      final String threadId,
+      final String storeName
+  ) {
+    if (threadId == null || storeName == null) {
+      return Optional.empty();
+    }
+
+    return counts.keySet().stream()
+        .filter(store -> store.storeName.equals(storeName))
+        .filter(store -> threadId.startsWith(store.applicationId + "-"))
+        .map(store -> store.profile)
+        .findFirst();
+  }
+
+  /**
+   * @return the number of open stores, or store segments, with the profile.
+   */
+  public synchronized int storeCount(final RocksDBStoreProfile profile) {
+    return profileCounts.getOrDefault(profile, 0);
+  }
+
+  private static final class Store {
+
+    private final String applicationId;
+    private final String storeName;
+    private final RocksDBStoreProfile profile;
+
+    private Store(
+        final String applicationId,
+        final String storeName,
+        final RocksDBStoreProfile profile
+    ) {
+      this.applicationId = applicationId;
+      this.storeName = storeName;
+      this.profile = profile;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Store that = (Store) o;
+      return applicationId.equals(that.applicationId)
+          && storeName.equals(that.storeName)
+          && profile == that.profile;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(applicationId, storeName, profile);
+    }
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rocksdb;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.rocksdb.AdaptiveRocksDBMemoryManager.Generation;
+import io.confluent.ksql.rocksdb.AdaptiveRocksDBMemoryManager.Pool;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+public class AdaptiveRocksDBMemoryManagerTest {
+
+  private static final long CACHE_SIZE = 1200;
+  private static final long WRITE_BUFFER_SIZE = 600;
+  private static final String DEFAULT_APP = "_confluent-ksql-default_query_CSAS_OUT_1";
+  private static final String PRIORITY_APP = "_confluent-ksql-default_query_CTAS_USERS_3";
+
+  private AdaptiveRocksDBMemoryManager manager;
+
+  @Before
+  public void setUp() {
+    manager = givenManager(ImmutableMap.of());
+  }
+
+  @Test
+  public void shouldPlaceStoresOfPriorityQueriesInPriorityPool() {
+    assertThat(manager.poolFor(PRIORITY_APP + "-thread-1"), is(Pool.PRIORITY));
+    assertThat(manager.poolFor(DEFAULT_APP), is(Pool.DEFAULT));
+    assertThat(manager.poolFor(null), is(Pool.DEFAULT));
+  }
+
+  @Test
+  public void shouldGiveOnlyPoolWithStoresAllMemoryNotReservedForOtherPools() {
+    // When:
+    manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // Then:
+    assertThat(manager.targetBlockCacheCapacity(Pool.DEFAULT), is(CACHE_SIZE));
+    assertThat(manager.blockCacheCapacity(Pool.DEFAULT), is(1080L));
+    assertThat(manager.writeBufferCapacity(Pool.DEFAULT), is(540L));
+    assertThat(manager.blockCacheCapacity(Pool.PRIORITY), is(0L));
+  }
+
+  @Test
+  public void shouldGiveReservedMemoryToFirstStoreOfPool() {
+    // Given:
+    manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // When:
+    manager.assign(PRIORITY_APP, mock(Options.class));
+
+    // Then:
+    assertThat(manager.blockCacheCapacity(Pool.PRIORITY), is(120L));
+    assertThat(manager.writeBufferCapacity(Pool.PRIORITY), is(60L));
+    assertThat(manager.liveBlockCacheCapacity(), is(CACHE_SIZE));
+    assertThat(manager.liveWriteBufferCapacity(), is(WRITE_BUFFER_SIZE));
+  }
+
+  @Test
+  public void shouldSplitCacheByWeightedStoreCount() {
+    // When:
+    manager.assign(DEFAULT_APP, mock(Options.class));
+    manager.assign(PRIORITY_APP, mock(Options.class));
+
+    // Then:
+    assertThat(manager.targetBlockCacheCapacity(Pool.PRIORITY), is(800L));
+    assertThat(manager.targetWriteBufferCapacity(Pool.PRIORITY), is(300L));
+    assertThat(manager.targetBlockCacheCapacity(Pool.DEFAULT), is(400L));
+  }
+
+  @Test
+  public void shouldGiveMoreCacheToPoolWithLowerHitRatio() {
+    // Given:
+    manager = givenManager(ImmutableMap.of(
+        KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_PRIORITY_WEIGHT_CONFIG, 1.0
+    ));
+    manager.setHitRatioSource(() -> ImmutableMap.of(Pool.DEFAULT, 0.9, Pool.PRIORITY, 0.1));
+
+    // When:
+    manager.assign(DEFAULT_APP, mock(Options.class));
+    manager.assign(PRIORITY_APP, mock(Options.class));
+
+    // Then:
+    assertThat(manager.targetBlockCacheCapacity(Pool.DEFAULT), is(440L));
+    assertThat(manager.targetBlockCacheCapacity(Pool.PRIORITY), is(760L));
+    assertThat(manager.hitRatio(Pool.PRIORITY), is(0.1));
+  }
+
+  @Test
+  public void shouldShareCachesWhileTargetWithinThreshold() {
+    // When:
+    final Generation first = manager.assign(DEFAULT_APP, mock(Options.class));
+    final Generation second = manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // Then:
+    assertThat(second.cache(), is(sameInstance(first.cache())));
+    assertThat(manager.resizeCount(), is(0L));
+  }
+
+  @Test
+  public void shouldCreateNewCachesForStoresOpenedAfterRebalance() {
+    // Given:
+    final Options priorityOptions = mock(Options.class);
+    manager.assign(PRIORITY_APP, priorityOptions);
+    final Generation first = manager.assign(DEFAULT_APP, mock(Options.class));
+    manager.release(priorityOptions);
+
+    // When:
+    final Generation second = manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // Then:
+    assertThat(second.cache(), is(not(sameInstance(first.cache()))));
+    assertThat(manager.blockCacheCapacity(Pool.DEFAULT), is(960L));
+    assertThat(manager.writeBufferCapacity(Pool.DEFAULT), is(480L));
+    assertThat(manager.resizeCount(), is(1L));
+    verify(first.cache(), never()).close();
+  }
+
+  @Test
+  public void shouldNotResizeIfNewCachesDoNotFitBesideCurrentCaches() {
+    // Given:
+    final Generation first = manager.assign(DEFAULT_APP, mock(Options.class));
+    manager.assign(PRIORITY_APP, mock(Options.class));
+
+    // When:
+    final Generation second = manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // Then:
+    assertThat(second.cache(), is(sameInstance(first.cache())));
+    assertThat(manager.resizeCount(), is(0L));
+    assertThat(manager.liveBlockCacheCapacity(), is(CACHE_SIZE));
+  }
+
+  @Test
+  public void shouldCloseDrainedCachesOnceTheirLastStoreCloses() {
+    // Given:
+    final Options priorityOptions = mock(Options.class);
+    final Options options = mock(Options.class);
+    manager.assign(PRIORITY_APP, priorityOptions);
+    final Generation first = manager.assign(DEFAULT_APP, options);
+    manager.release(priorityOptions);
+    manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // When:
+    manager.release(options);
+
+    // Then:
+    verify(first.cache()).close();
+    verify(first.writeBufferManager()).close();
+    assertThat(manager.storeCount(Pool.DEFAULT), is(1));
+  }
+
+  @Test
+  public void shouldCloseCachesOfPoolOnceItsLastStoreCloses() {
+    // Given:
+    final Options options = mock(Options.class);
+    final Generation generation = manager.assign(PRIORITY_APP, options);
+
+    // When:
+    manager.release(options);
+
+    // Then:
+    verify(generation.cache()).close();
+    assertThat(manager.blockCacheCapacity(Pool.PRIORITY), is(0L));
+    assertThat(manager.liveBlockCacheCapacity(), is(0L));
+  }
+
+  @Test
+  public void shouldNotResizeAgainWhileCachesAreDraining() {
+    // Given:
+    final Options firstPriorityOptions = mock(Options.class);
+    final Options secondPriorityOptions = mock(Options.class);
+    manager.assign(PRIORITY_APP, firstPriorityOptions);
+    manager.assign(DEFAULT_APP, mock(Options.class));
+    manager.release(firstPriorityOptions);
+    manager.assign(PRIORITY_APP, secondPriorityOptions);
+    final Generation second = manager.assign(DEFAULT_APP, mock(Options.class));
+    manager.release(secondPriorityOptions);
+
+    // When:
+    final Generation third = manager.assign(DEFAULT_APP, mock(Options.class));
+
+    // Then:
+    assertThat(third.cache(), is(sameInstance(second.cache())));
+    assertThat(manager.resizeCount(), is(1L));
+  }
+
+  @Test
+  public void shouldNeverExceedBudget() {
+    // Given:
+    final Random random = new Random(42);
+    final List<Options> open = new ArrayList<>();
+    manager.setHitRatioSource(() -> ImmutableMap.of(
+        Pool.DEFAULT, random.nextDouble(),
+        Pool.PRIORITY, random.nextDouble()
+    ));
+
+    for (int i = 0; i < 1000; i++) {
+      // When:
+      if (open.isEmpty() || random.nextBoolean()) {
+        final Options options = mock(Options.class);
+        manager.assign(random.nextBoolean() ? DEFAULT_APP : PRIORITY_APP, options);
+        open.add(options);
+      } else {
+        manager.release(open.remove(random.nextInt(open.size())));
+      }
+
+      // Then:
+      assertThat(manager.liveBlockCacheCapacity(), is(lessThanOrEqualTo(CACHE_SIZE)));
+      assertThat(manager.liveWriteBufferCapacity(), is(lessThanOrEqualTo(WRITE_BUFFER_SIZE)));
+    }
+  }
+
+  @Test
+  public void shouldGiveEachPoolWithWeightAtLeastMinShare() {
+    // When:
+    final Map<Pool, Double> shares = AdaptiveRocksDBMemoryManager.shares(
+        ImmutableMap.of(Pool.DEFAULT, 1.0, Pool.PRIORITY, 99.0),
+        0.1
+    );
+
+    // Then:
+    assertThat(shares.get(Pool.DEFAULT), is(closeTo(0.1, 0.0001)));
+    assertThat(shares.get(Pool.PRIORITY), is(closeTo(0.9, 0.0001)));
+  }
+
+  @Test
+  public void shouldGiveNoShareToPoolsWithoutWeight() {
+    // When:
+    final Map<Pool, Double> shares = AdaptiveRocksDBMemoryManager.shares(
+        ImmutableMap.of(Pool.DEFAULT, 0.0, Pool.PRIORITY, 2.0),
+        0.1
+    );
+
+    // Then:
+    assertThat(shares, is(ImmutableMap.of(Pool.PRIORITY, 1.0)));
+  }
+
+  private AdaptiveRocksDBMemoryManager givenManager(final Map<String, Object> overrides) {
+    final Map<String, Object> props = new HashMap<>();
+    props.put(KsqlBoundedMemoryRocksDBConfig.BLOCK_CACHE_SIZE, CACHE_SIZE);
+    props.put(KsqlBoundedMemoryRocksDBConfig.ACCOUNT_WRITE_BUFFER_AGAINST_CACHE, true);
+    props.put(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_ENABLED_CONFIG, true);
+    props.put(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_PRIORITY_QUERIES_CONFIG, "CTAS_USERS_3");
+    props.putAll(overrides);
+
+    return new AdaptiveRocksDBMemoryManager(
+        new KsqlBoundedMemoryRocksDBConfig(props),
+        CACHE_SIZE,
+        WRITE_BUFFER_SIZE,
+        (size, shardBits, strict, ratio) -> mock(LRUCache.class),
+        (maxMemory, cache) -> mock(WriteBufferManager.class)
+    );
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.rocksdb;
 import static java.util.Collections.emptyMap;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,6 +28,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +38,7 @@ import io.confluent.ksql.rocksdb.KsqlBoundedMemoryRocksDBConfigSetter.WriteBuffe
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.kafka.streams.StreamsConfig;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -45,6 +48,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.Cache;
+import org.rocksdb.DataBlockIndexType;
 import org.rocksdb.Env;
 import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
@@ -179,6 +183,59 @@ public class KsqlBoundedMemoryRocksDBConfigSetterTest {
     verify(tableConfig).setPinTopLevelIndexAndFilter(true);
   }
 
+  @Test
+  public void shouldSetConfigFromAdaptiveMemoryManager() {
+    // Given:
+    final Map<String, Object> props = new HashMap<>(CONFIG_PROPS);
+    props.put(KsqlBoundedMemoryRocksDBConfig.ADAPTIVE_ENABLED_CONFIG, true);
+    KsqlBoundedMemoryRocksDBConfigSetter.configure(
+        props, rocksOptions, cacheFactory, bufferManagerFactory);
+
+    // When:
+    rocksDBConfig.setConfig("store_name", rocksOptions, ImmutableMap.of(
+        StreamsConfig.APPLICATION_ID_CONFIG, "_confluent-ksql-default_query_CTAS_1"));
+
+    // Then:
+    // The minimum share of the priority pool is reserved:
+    verify(cacheFactory).create(CACHE_SIZE - (long) (CACHE_SIZE * 0.1), -1, false, 0.0);
+    verify(tableConfig).setBlockCache(blockCache);
+    verify(rocksOptions).setWriteBufferManager(bufferManager);
+    assertThat(KsqlBoundedMemoryRocksDBConfigSetter.adaptiveMemoryManager().get()
+        .storeCount(AdaptiveRocksDBMemoryManager.Pool.DEFAULT), is(1));
+  }
+
+  @Test
+  public void shouldApplyStoreProfileIfEnabled() {
+    // Given:
+    final Map<String, Object> props = new HashMap<>(CONFIG_PROPS);
+    props.put(KsqlBoundedMemoryRocksDBConfig.PROFILES_ENABLED_CONFIG, true);
+    rocksDBConfig.configure(props);
+
+    // When:
+    rocksDBConfig.setConfig("Aggregate-Aggregate-Materialize", rocksOptions, ImmutableMap.of(
+        StreamsConfig.APPLICATION_ID_CONFIG, "_confluent-ksql-default_query_CTAS_1",
+        RocksDBStoreProfile.LOOKUP_STORES_CONFIG, "Aggregate-Aggregate-Materialize"));
+
+    // Then:
+    verify(tableConfig).setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+    assertThat(KsqlBoundedMemoryRocksDBConfigSetter.storeProfiles().get()
+        .storeCount(RocksDBStoreProfile.POINT_LOOKUP), is(1));
+  }
+
+  @Test
+  public void shouldNotApplyStoreProfileIfNotEnabled() {
+    // Given:
+    rocksDBConfig.configure(CONFIG_PROPS);
+
+    // When:
+    rocksDBConfig.setConfig("Aggregate-Aggregate-Materialize", rocksOptions, ImmutableMap.of(
+        RocksDBStoreProfile.LOOKUP_STORES_CONFIG, "Aggregate-Aggregate-Materialize"));
+
+    // Then:
+    verify(tableConfig, never()).setDataBlockIndexType(any());
+    assertThat(KsqlBoundedMemoryRocksDBConfigSetter.storeProfiles().isPresent(), is(false));
+  }
+
   @Test
   public void shouldShareCacheAcrossInstances() {
     // Given:
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rocksdb;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import org.junit.Test;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Options;
+
+public class RocksDBStoreProfileTest {
+
+  private static final String APP_ID = "_confluent-ksql-default_query_CTAS_USERS_1";
+  private static final String STORE = "Aggregate-Aggregate-Materialize";
+
+  @Test
+  public void shouldSelectPointLookupForLookupStores() {
+    assertThat(
+        RocksDBStoreProfile.select(STORE, ImmutableMap.of(
+            RocksDBStoreProfile.LOOKUP_STORES_CONFIG, ImmutableList.of(STORE))),
+        is(RocksDBStoreProfile.POINT_LOOKUP)
+    );
+    assertThat(
+        RocksDBStoreProfile.select(STORE, ImmutableMap.of(
+            RocksDBStoreProfile.LOOKUP_STORES_CONFIG, "other, " + STORE)),
+        is(RocksDBStoreProfile.POINT_LOOKUP)
+    );
+  }
+
+  @Test
+  public void shouldSelectWindowedForStoreSegments() {
+    assertThat(
+        RocksDBStoreProfile.select(STORE + ".1612345600000", ImmutableMap.of(
+            RocksDBStoreProfile.LOOKUP_STORES_CONFIG, STORE)),
+        is(RocksDBStoreProfile.WINDOWED)
+    );
+  }
+
+  @Test
+  public void shouldSelectDefaultForOtherStores() {
+    assertThat(
+        RocksDBStoreProfile.select("KafkaTopic_Right-Reduce", ImmutableMap.of(
+            RocksDBStoreProfile.LOOKUP_STORES_CONFIG, STORE)),
+        is(RocksDBStoreProfile.DEFAULT)
+    );
+  }
+
+  @Test
+  public void shouldSelectOverriddenProfileForAllStores() {
+    // Given:
+    final ImmutableMap<String, Object> configs = ImmutableMap.of(
+        RocksDBStoreProfile.PROFILE_CONFIG, "scan",
+        RocksDBStoreProfile.LOOKUP_STORES_CONFIG, STORE
+    );
+
+    // Then:
+    assertThat(RocksDBStoreProfile.select(STORE, configs), is(RocksDBStoreProfile.SCAN));
+    assertThat(RocksDBStoreProfile.select(STORE + ".0", configs), is(RocksDBStoreProfile.SCAN));
+  }
+
+  @Test
+  public void shouldThrowOnUnknownProfile() {
+    // When:
+    final Exception e = assertThrows(
+        IllegalArgumentException.class,
+        () -> RocksDBStoreProfile.parse("fast")
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Unknown RocksDB store profile: fast"));
+  }
+
+  @Test
+  public void shouldUseLargerWriteBuffersForWindowedStores() {
+    // Given:
+    final Options options = mock(Options.class);
+
+    // When:
+    RocksDBStoreProfile.WINDOWED.apply(options, mock(BlockBasedTableConfig.class));
+
+    // Then:
+    verify(options).setWriteBufferSize(32 * 1024 * 1024L);
+  }
+
+  @Test
+  public void shouldDropFilterForScanStores() {
+    // Given:
+    final BlockBasedTableConfig tableConfig = mock(BlockBasedTableConfig.class);
+
+    // When:
+    RocksDBStoreProfile.SCAN.apply(mock(Options.class), tableConfig);
+
+    // Then:
+    verify(tableConfig).setBlockSize(16 * 1024L);
+    verify(tableConfig).setFilterPolicy(null);
+  }
+
+  @Test
+  public void shouldTrackProfilesOfOpenStores() {
+    // Given:
+    final RocksDBStoreProfiles profiles = new RocksDBStoreProfiles();
+    final Options first = mock(Options.class);
+    final Options second = mock(Options.class);
+    profiles.register(APP_ID, STORE + ".0", RocksDBStoreProfile.WINDOWED, first);
+    profiles.register(APP_ID, STORE + ".60000", RocksDBStoreProfile.WINDOWED, second);
+
+    // When:
+    profiles.unregister(first);
+
+    // Then:
+    assertThat(profiles.storeCount(RocksDBStoreProfile.WINDOWED), is(1));
+    assertThat(profiles.profileOf(APP_ID + "-5b6c-StreamThread-1", STORE),
+        is(Optional.of(RocksDBStoreProfile.WINDOWED)));
+    assertThat(profiles.profileOf(APP_ID + "0-5b6c-StreamThread-1", STORE),
+        is(Optional.empty()));
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.serde;
 import com.google.common.collect.ImmutableSet;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.util.KsqlConfig;
@@ -142,6 +143,36 @@ public interface Format {
       boolean isKey
   );
 
+  /**
+   * Get the serde for the supplied {@code schema}, where the deserializer need only deserialize
+   * the {@code requiredColumns}.
+   *
+   * <p>The deserializer must still return a value for every column in the schema, but may return
+   * {@code null} for any column not in {@code requiredColumns}. The default implementation
+   * deserializes all columns.
+   *
+   * <p>Values of columns that are not required need not be validated, so a malformed value in
+   * such a column need not fail deserialization.
+   *
+   * @param schema the schema of the data
+   * @param formatProperties any format specific properties
+   * @param ksqlConfig the session config
+   * @param srClientFactory supplier of the SR client
+   * @param isKey whether or not we're retreiving a key serde
+   * @param requiredColumns the names of the columns that must be deserialized
+   * @return a serde pair capable of (de)serializing the data in this format.
+   */
+  default Serde<List<?>> getSerde(
+      final PersistenceSchema schema,
+      final Map<String, String> formatProperties,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final boolean isKey,
+      final Set<ColumnName> requiredColumns
+  ) {
+    return getSerde(schema, formatProperties, ksqlConfig, srClientFactory, isKey);
+  }
+
   /**
    * Check whether given sql type is supported by this format.
    *
@@ -19,6 +19,7 @@ import com.google.common.annotations.VisibleForTesting;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.SystemColumns;
 import io.confluent.ksql.serde.tracked.TrackedCallback;
@@ -27,6 +28,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -96,6 +98,33 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
     final Serde<List<?>> formatSerde =
         innerFactory.createFormatSerde("Value", format, schema, ksqlConfig, srClientFactory, false);
 
+    return create(formatSerde, schema, loggerNamePrefix, processingLogContext, tracker);
+  }
+
+  @Override
+  public Serde<GenericRow> create(
+      final FormatInfo format,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Optional<TrackedCallback> tracker,
+      final Set<ColumnName> requiredColumns
+  ) {
+    final Serde<List<?>> formatSerde = innerFactory.createFormatSerde(
+        "Value", format, schema, ksqlConfig, srClientFactory, false, requiredColumns);
+
+    return create(formatSerde, schema, loggerNamePrefix, processingLogContext, tracker);
+  }
+
+  private Serde<GenericRow> create(
+      final Serde<List<?>> formatSerde,
+      final PersistenceSchema schema,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Optional<TrackedCallback> tracker
+  ) {
     final Serde<GenericRow> genericRowSerde = toGenericRowSerde(formatSerde, schema);
 
     final Serde<GenericRow> loggingSerde = innerFactory
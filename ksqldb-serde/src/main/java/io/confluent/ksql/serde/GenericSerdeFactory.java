@@ -24,12 +24,14 @@ import io.confluent.ksql.logging.processing.LoggingDeserializer;
 import io.confluent.ksql.logging.processing.LoggingSerializer;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.tracked.TrackedCallback;
 import io.confluent.ksql.serde.tracked.TrackedSerde;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
@@ -61,14 +63,44 @@ final class GenericSerdeFactory {
   ) {
     final Format format = formatFactory.apply(formatInfo);
 
+    return createFormatSerde(target, format, schema, () -> format
+        .getSerde(schema,
+            formatInfo.getProperties(),
+            ksqlConfig,
+            schemaRegistryClientFactory,
+            isKey
+        ));
+  }
+
+  Serde<List<?>> createFormatSerde(
+      final String target,
+      final FormatInfo formatInfo,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final boolean isKey,
+      final Set<ColumnName> requiredColumns
+  ) {
+    final Format format = formatFactory.apply(formatInfo);
+
+    return createFormatSerde(target, format, schema, () -> format
+        .getSerde(schema,
+            formatInfo.getProperties(),
+            ksqlConfig,
+            schemaRegistryClientFactory,
+            isKey,
+            requiredColumns
+        ));
+  }
+
+  private static Serde<List<?>> createFormatSerde(
+      final String target,
+      final Format format,
+      final PersistenceSchema schema,
+      final Supplier<Serde<List<?>>> serdeSupplier
+  ) {
     try {
-      return format
-          .getSerde(schema,
-              formatInfo.getProperties(),
-              ksqlConfig,
-              schemaRegistryClientFactory,
-              isKey
-          );
+      return serdeSupplier.get();
     } catch (final Exception e) {
       throw new SchemaNotSupportedException(target + " format does not support schema."
           + System.lineSeparator()
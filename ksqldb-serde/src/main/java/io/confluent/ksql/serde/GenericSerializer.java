@@ -59,7 +59,11 @@ class GenericSerializer<T> implements Serializer<T> {
 
     SerdeUtils.throwOnColumnCountMismatch(numColumns, list.size(), true, topic);
 
-    return inner.serialize(topic, list);
+    final byte[] bytes = inner.serialize(topic, list);
+    if (bytes != null) {
+      SerializationStats.instance().recordSerialized(bytes.length);
+    }
+    return bytes;
   }
 
   @Override
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable buffer that serializers write a record into, which is reused across records.
+ *
+ * <p>Each thread has one buffer, which is handed out by {@link #acquire()} and returned by
+ * {@link #close()}, so it should be used in a try-with-resources block. A serializer that acquires
+ * a buffer while the thread's buffer is in use, e.g. because it is called by another serializer,
+ * gets a new buffer instead. Once a record is written, {@link #toByteArray()} copies it out, as
+ * Kafka requires an array of the exact size.
+ *
+ * <p>Text appended to the buffer is encoded as UTF-8, with unpaired surrogates replaced by
+ * {@code '?'}, as {@link String#getBytes(java.nio.charset.Charset)} does.
+ *
+ * <p>Buffers grown beyond {@link #MAX_RETAINED_CAPACITY} by a large record are shrunk when
+ * returned, so they do not hold on to memory.
+ */
+public final class SerializationBuffer extends OutputStream implements Appendable {
+
+  @VisibleForTesting
+  static final int INITIAL_CAPACITY = 1024;
+  @VisibleForTesting
+  static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<SerializationBuffer> BUFFERS =
+      ThreadLocal.withInitial(SerializationBuffer::new);
+
+  private byte[] buf;
+  private int count;
+  private char highSurrogate;
+  private boolean inUse;
+
+  /**
+   * Acquire the calling thread's buffer, emptied, or a new one if it is in use.
+   *
+   * @return the buffer, which must be closed once done with.
+   */
+  public static SerializationBuffer acquire() {
+    final SerializationBuffer buffer = BUFFERS.get();
+    if (buffer.inUse) {
+      final SerializationBuffer nested = new SerializationBuffer();
+      nested.inUse = true;
+      return nested;
+    }
+
+    buffer.inUse = true;
+    buffer.count = 0;
+    buffer.highSurrogate = 0;
+    return buffer;
+  }
+
+  private SerializationBuffer() {
+    this.buf = allocate(INITIAL_CAPACITY);
+  }
+
+  @Override
+  public void write(final int b) {
+    ensureCapacity(count + 1);
+    buf[count++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) {
+    if (off < 0 || len < 0 || off + len > b.length) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    ensureCapacity(count + len);
+    System.arraycopy(b, off, buf, count, len);
+    count += len;
+  }
+
+  @Override
+  public SerializationBuffer append(final CharSequence csq) {
+    final CharSequence text = csq == null ? "null" : csq;
+    return append(text, 0, text.length());
+  }
+
+  @Override
+  public SerializationBuffer append(final CharSequence csq, final int start, final int end) {
+    final CharSequence text = csq == null ? "null" : csq;
+    ensureCapacity(count + end - start);
+    for (int i = start; i < end; i++) {
+      append(text.charAt(i));
+    }
+    return this;
+  }
+
+  @Override
+  public SerializationBuffer append(final char c) {
+    if (highSurrogate != 0) {
+      final char high = highSurrogate;
+      highSurrogate = 0;
+
+      if (Character.isLowSurrogate(c)) {
+        writeCodePoint(Character.toCodePoint(high, c));
+        return this;
+      }
+
+      write('?');
+    }
+
+    if (c < 0x80) {
+      write(c);
+    } else if (c < 0x800) {
+      ensureCapacity(count + 2);
+      buf[count++] = (byte) (0xC0 | (c >> 6));
+      buf[count++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c)) {
+      highSurrogate = c;
+    } else if (Character.isLowSurrogate(c)) {
+      write('?');
+    } else {
+      ensureCapacity(count + 3);
+      buf[count++] = (byte) (0xE0 | (c >> 12));
+      buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      buf[count++] = (byte) (0x80 | (c & 0x3F));
+    }
+    return this;
+  }
+
+  /**
+   * @return the number of bytes written since the buffer was acquired.
+   */
+  public int size() {
+    completeText();
+    return count;
+  }
+
+  /**
+   * Discard the bytes written beyond {@code size}.
+   *
+   * @param size the number of bytes to keep.
+   */
+  public void truncate(final int size) {
+    completeText();
+    if (size < 0 || size > count) {
+      throw new IndexOutOfBoundsException("size: " + size + ", count: " + count);
+    }
+    count = size;
+  }
+
+  /**
+   * @return a copy of the bytes written since the buffer was acquired.
+   */
+  public byte[] toByteArray() {
+    completeText();
+    return Arrays.copyOf(buf, count);
+  }
+
+  /**
+   * Return the buffer to the thread for reuse.
+   */
+  @Override
+  public void close() {
+    inUse = false;
+    if (buf.length > MAX_RETAINED_CAPACITY) {
+      buf = allocate(INITIAL_CAPACITY);
+    }
+  }
+
+  @VisibleForTesting
+  int capacity() {
+    return buf.length;
+  }
+
+  private void writeCodePoint(final int codePoint) {
+    ensureCapacity(count + 4);
+    buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+    buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+    buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+    buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+  }
+
+  private void completeText() {
+    if (highSurrogate != 0) {
+      highSurrogate = 0;
+      write('?');
+    }
+  }
+
+  private void ensureCapacity(final int required) {
+    if (required < 0) {
+      throw new OutOfMemoryError("Serialized record too large");
+    }
+
+    if (required <= buf.length) {
+      return;
+    }
+
+    final int doubled = buf.length << 1;
+    final int capacity = doubled < 0 ? Integer.MAX_VALUE - 8 : Math.max(doubled, required);
+    final byte[] grown = allocate(capacity);
+    System.arraycopy(buf, 0, grown, 0, count);
+    buf = grown;
+  }
+
+  private static byte[] allocate(final int capacity) {
+    SerializationStats.instance().recordBufferAllocation(capacity);
+    return new byte[capacity];
+  }
+}
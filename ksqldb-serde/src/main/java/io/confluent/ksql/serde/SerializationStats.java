@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * JVM-wide statistics on serialized records and the buffers they are serialized into.
+ *
+ * <p>Serialized records are counted by size class, i.e. by the smallest power of four, from 64
+ * bytes up to 64KB, that holds them. The buffer statistics count the allocations made by
+ * {@link SerializationBuffer}s. Together these give the buffer allocation per serialized record.
+ *
+ * <p>The statistics are collected for the lifetime of the JVM, but are only reported while
+ * registered with a {@link Metrics} instance by {@link #addMetrics(Metrics)}.
+ */
+public final class SerializationStats {
+
+  static final String METRIC_GROUP = "ksql-serialization";
+  static final String RECORD_COUNT_PREFIX = "record-count-";
+  static final String BUFFER_ALLOCATION_COUNT = "buffer-allocation-count";
+  static final String BUFFER_ALLOCATED_BYTES = "buffer-allocated-bytes";
+
+  private static final int[] SIZE_CLASSES = {64, 256, 1024, 4096, 16384, 65536};
+  private static final String[] SIZE_CLASS_NAMES = {
+      "64b", "256b", "1kb", "4kb", "16kb", "64kb", "over-64kb"
+  };
+
+  private static final SerializationStats INSTANCE = new SerializationStats();
+
+  private final LongAdder[] records = new LongAdder[SIZE_CLASS_NAMES.length];
+  private final LongAdder bufferAllocations = new LongAdder();
+  private final LongAdder bufferAllocatedBytes = new LongAdder();
+
+  public static SerializationStats instance() {
+    return INSTANCE;
+  }
+
+  SerializationStats() {
+    for (int i = 0; i < records.length; i++) {
+      records[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Report the statistics in the supplied {@code metrics}.
+   *
+   * <p>Metrics that are already registered, e.g. by another engine in the same JVM, are skipped.
+   *
+   * @param metrics the metrics to add the statistics to.
+   * @return the names of the metrics added, which the caller must remove once done with them.
+   */
+  public List<MetricName> addMetrics(final Metrics metrics) {
+    final ImmutableList.Builder<MetricName> added = ImmutableList.builder();
+    for (int i = 0; i < records.length; i++) {
+      final LongAdder count = records[i];
+      addMetric(metrics, added,
+          metrics.metricName(RECORD_COUNT_PREFIX + SIZE_CLASS_NAMES[i], METRIC_GROUP,
+              i < SIZE_CLASSES.length
+                  ? "The number of records serialized to at most " + SIZE_CLASS_NAMES[i]
+                  : "The number of records serialized to more than 64kb"),
+          (config, now) -> count.sum()
+      );
+    }
+
+    addMetric(metrics, added,
+        metrics.metricName(BUFFER_ALLOCATION_COUNT, METRIC_GROUP,
+            "The number of arrays allocated by serialization buffers"),
+        (config, now) -> bufferAllocations.sum()
+    );
+    addMetric(metrics, added,
+        metrics.metricName(BUFFER_ALLOCATED_BYTES, METRIC_GROUP,
+            "The total size of the arrays allocated by serialization buffers"),
+        (config, now) -> bufferAllocatedBytes.sum()
+    );
+    return added.build();
+  }
+
+  /**
+   * Record a serialized record.
+   *
+   * @param size the size of the record, in bytes.
+   */
+  public void recordSerialized(final int size) {
+    records[sizeClass(size)].increment();
+  }
+
+  /**
+   * Record the allocation of an array by a serialization buffer.
+   *
+   * @param size the size of the array, in bytes.
+   */
+  void recordBufferAllocation(final int size) {
+    bufferAllocations.increment();
+    bufferAllocatedBytes.add(size);
+  }
+
+  private static void addMetric(
+      final Metrics metrics,
+      final ImmutableList.Builder<MetricName> added,
+      final MetricName name,
+      final Gauge<Long> gauge
+  ) {
+    if (metrics.metric(name) != null) {
+      return;
+    }
+
+    metrics.addMetric(name, gauge);
+    added.add(name);
+  }
+
+  private static int sizeClass(final int size) {
+    for (int i = 0; i < SIZE_CLASSES.length; i++) {
+      if (size <= SIZE_CLASSES[i]) {
+        return i;
+      }
+    }
+    return SIZE_CLASSES.length;
+  }
+}
@@ -18,10 +18,12 @@ package io.confluent.ksql.serde;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.tracked.TrackedCallback;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -51,4 +53,41 @@ public interface ValueSerdeFactory {
       ProcessingLogContext processingLogContext,
       Optional<TrackedCallback> tracker
   );
+
+  /**
+   * Create a value serde whose deserializer need only deserialize the {@code requiredColumns}.
+   *
+   * <p>Columns that are not required may be deserialized as {@code null}. The default
+   * implementation deserializes all columns.
+   *
+   * @param format the format required.
+   * @param schema the schema of the serialized form.
+   * @param ksqlConfig the system config.
+   * @param schemaRegistryClientFactory supplier of SR client.
+   * @param loggerNamePrefix processing logger name prefix
+   * @param processingLogContext processing logger context.
+   * @param tracker optional callback used to track serde operations.
+   * @param requiredColumns the names of the columns that must be deserialized.
+   * @return the value serde.
+   */
+  default Serde<GenericRow> create(
+      final FormatInfo format,
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Optional<TrackedCallback> tracker,
+      final Set<ColumnName> requiredColumns
+  ) {
+    return create(
+        format,
+        schema,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        tracker
+    );
+  }
 }
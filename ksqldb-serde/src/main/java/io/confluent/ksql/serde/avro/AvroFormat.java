@@ -22,9 +22,12 @@ import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.connect.ConnectFormat;
 import io.confluent.ksql.serde.connect.ConnectSchemaTranslator;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.ConnectSchema;
 
@@ -85,6 +88,20 @@ public final class AvroFormat extends ConnectFormat {
         .createSerde(connectSchema, config, srFactory, targetType, isKey);
   }
 
+  @Override
+  protected Optional<Deserializer<List<?>>> getColumnsDeserializer(
+      final ConnectSchema connectSchema,
+      final Map<String, String> formatProps,
+      final KsqlConfig config,
+      final Supplier<SchemaRegistryClient> srFactory,
+      final boolean isKey
+  ) {
+    final String schemaFullName = new AvroProperties(formatProps).getFullSchemaName();
+
+    return new KsqlAvroSerdeFactory(schemaFullName)
+        .createColumnsDeserializer(connectSchema, config, srFactory, isKey);
+  }
+
   public static String getKeySchemaName(final String name) {
     final String camelName = CaseFormat.UPPER_UNDERSCORE
         .converterTo(CaseFormat.UPPER_CAMEL)
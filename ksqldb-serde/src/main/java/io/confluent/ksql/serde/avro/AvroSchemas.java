@@ -65,7 +65,7 @@ final class AvroSchemas {
     }
   }
 
-  private static String avroCompatibleFieldName(final Field field) {
+  static String avroCompatibleFieldName(final Field field) {
     // Currently the only incompatible field names expected are fully qualified
     // column identifiers. Once quoted identifier support is introduced we will
     // need to implement something more generic here.
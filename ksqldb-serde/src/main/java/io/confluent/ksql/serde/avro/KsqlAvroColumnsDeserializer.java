@@ -0,0 +1,570 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.util.KsqlConstants;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * Avro deserializer that decodes the Avro binary straight into the list of column values,
+ * rather than first converting it to Connect data and then translating that to the KSQL schema.
+ *
+ * <p>A reader is compiled for each pair of writer schema, identified by its schema id, and the
+ * KSQL schema of the deserializer. The reader walks the writer's fields in order, converting each
+ * value directly to the Java type of the column it maps to and skipping those that map to none.
+ * Fields are mapped to columns, and values converted, as {@link AvroDataTranslator} does, so both
+ * deserializers produce the same rows.
+ *
+ * <p>Writer schemas the reader does not support, e.g. unions of several types, or type pairings
+ * the Connect path rejects, are deserialized by the supplied Connect deserializer instead, which
+ * also produces the same errors.
+ */
+final class KsqlAvroColumnsDeserializer implements Deserializer<List<?>> {
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 5;
+
+  // The properties Connect uses to identify the array of entries of a map with optional keys:
+  private static final String CONNECT_INTERNAL_TYPE = "connect.internal.type";
+  private static final String MAP_ENTRY_TYPE = "MapEntry";
+  private static final String MAP_ENTRY_TYPE_NAME = "io.confluent.connect.avro.MapEntry";
+  private static final String MAP_ENTRY_KEY = "key";
+  private static final String MAP_ENTRY_VALUE = "value";
+
+  private final ConnectSchema schema;
+  private final SchemaRegistryClient srClient;
+  private final boolean isKey;
+  private final Deserializer<Struct> connectDeserializer;
+  private final ConcurrentMap<Integer, Optional<ColumnsReader>> readers =
+      new ConcurrentHashMap<>();
+
+  KsqlAvroColumnsDeserializer(
+      final ConnectSchema schema,
+      final SchemaRegistryClient srClient,
+      final boolean isKey,
+      final Deserializer<Struct> connectDeserializer
+  ) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+    this.srClient = Objects.requireNonNull(srClient, "srClient");
+    this.isKey = isKey;
+    this.connectDeserializer = Objects.requireNonNull(connectDeserializer, "connectDeserializer");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    connectDeserializer.configure(configs, isKey);
+  }
+
+  @Override
+  public List<?> deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    final Optional<ColumnsReader> reader;
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      if (bytes.length < HEADER_SIZE || buffer.get() != MAGIC_BYTE) {
+        throw new SerializationException("Unknown magic byte!");
+      }
+
+      final int schemaId = buffer.getInt();
+      reader = readers.computeIfAbsent(schemaId, id -> compile(topic, id));
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing message from topic: " + topic, e);
+    }
+
+    if (!reader.isPresent()) {
+      return toColumns(connectDeserializer.deserialize(topic, bytes));
+    }
+
+    try {
+      final BinaryDecoder decoder = DecoderFactory.get()
+          .binaryDecoder(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, null);
+
+      return reader.get().read(decoder);
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing message from topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    connectDeserializer.close();
+  }
+
+  private Optional<ColumnsReader> compile(final String topic, final int schemaId) {
+    final ParsedSchema writerSchema;
+    try {
+      writerSchema = srClient
+          .getSchemaBySubjectAndId(KsqlConstants.getSRSubject(topic, isKey), schemaId);
+    } catch (final Exception e) {
+      throw new SerializationException("Failed to fetch writer schema with id " + schemaId, e);
+    }
+
+    if (!(writerSchema.rawSchema() instanceof org.apache.avro.Schema)) {
+      return Optional.empty();
+    }
+
+    final org.apache.avro.Schema rawSchema = (org.apache.avro.Schema) writerSchema.rawSchema();
+    if (rawSchema.getType() != org.apache.avro.Schema.Type.RECORD) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(new ColumnsReader(rawSchema, schema));
+    } catch (final UnsupportedSchemaException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static List<?> toColumns(final Struct struct) {
+    if (struct == null) {
+      return null;
+    }
+
+    final List<Field> fields = struct.schema().fields();
+    final List<Object> values = new ArrayList<>(fields.size());
+    for (final Field field : fields) {
+      values.add(struct.get(field));
+    }
+    return values;
+  }
+
+  private static ValueReader reader(
+      final org.apache.avro.Schema writer,
+      final Schema schema
+  ) {
+    if (writer.getType() == org.apache.avro.Schema.Type.UNION) {
+      return unionReader(writer, schema);
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        requireType(writer, org.apache.avro.Schema.Type.BOOLEAN);
+        return Decoder::readBoolean;
+      case INT32:
+        requireType(writer, org.apache.avro.Schema.Type.INT);
+        return Decoder::readInt;
+      case INT64:
+        return bigIntReader(writer, schema);
+      case FLOAT64:
+        return doubleReader(writer);
+      case STRING:
+        return stringReader(writer);
+      case BYTES:
+        return decimalReader(writer);
+      case ARRAY:
+        requireType(writer, org.apache.avro.Schema.Type.ARRAY);
+        return new ArrayReader(reader(writer.getElementType(), schema.valueSchema()));
+      case MAP:
+        return mapReader(writer, schema);
+      case STRUCT:
+        requireType(writer, org.apache.avro.Schema.Type.RECORD);
+        return new StructReader(writer, schema);
+      default:
+        throw new UnsupportedSchemaException();
+    }
+  }
+
+  private static ValueReader unionReader(
+      final org.apache.avro.Schema writer,
+      final Schema schema
+  ) {
+    final List<org.apache.avro.Schema> types = writer.getTypes();
+    final ValueReader[] branches = new ValueReader[types.size()];
+
+    int nonNullBranches = 0;
+    for (int i = 0; i < branches.length; i++) {
+      final org.apache.avro.Schema type = types.get(i);
+      if (type.getType() == org.apache.avro.Schema.Type.NULL) {
+        branches[i] = in -> {
+          in.readNull();
+          return null;
+        };
+      } else {
+        // Connect converts unions of several types to structs:
+        if (++nonNullBranches > 1) {
+          throw new UnsupportedSchemaException();
+        }
+        branches[i] = reader(type, schema);
+      }
+    }
+
+    return in -> branches[in.readIndex()].read(in);
+  }
+
+  private static ValueReader bigIntReader(
+      final org.apache.avro.Schema writer,
+      final Schema schema
+  ) {
+    final ValueReader reader;
+    switch (writer.getType()) {
+      case INT:
+        reader = in -> (long) in.readInt();
+        break;
+      case LONG:
+        reader = Decoder::readLong;
+        break;
+      default:
+        throw new UnsupportedSchemaException();
+    }
+
+    if (!Timestamp.LOGICAL_NAME.equals(schema.name())) {
+      return reader;
+    }
+
+    return in -> new java.sql.Timestamp((Long) reader.read(in));
+  }
+
+  private static ValueReader doubleReader(final org.apache.avro.Schema writer) {
+    switch (writer.getType()) {
+      case FLOAT:
+        return in -> (double) in.readFloat();
+      case DOUBLE:
+        return Decoder::readDouble;
+      default:
+        throw new UnsupportedSchemaException();
+    }
+  }
+
+  private static ValueReader stringReader(final org.apache.avro.Schema writer) {
+    if (writer.getType() == org.apache.avro.Schema.Type.STRING) {
+      return Decoder::readString;
+    }
+
+    if (writer.getType() == org.apache.avro.Schema.Type.ENUM) {
+      final List<String> symbols = writer.getEnumSymbols();
+      return in -> symbols.get(in.readEnum());
+    }
+
+    // Connect converts logical types to other Java types, whose string form differs:
+    if (writer.getLogicalType() != null) {
+      throw new UnsupportedSchemaException();
+    }
+
+    switch (writer.getType()) {
+      case BOOLEAN:
+        return in -> String.valueOf(in.readBoolean());
+      case INT:
+        return in -> String.valueOf(in.readInt());
+      case LONG:
+        return in -> String.valueOf(in.readLong());
+      case FLOAT:
+        return in -> String.valueOf(in.readFloat());
+      case DOUBLE:
+        return in -> String.valueOf(in.readDouble());
+      default:
+        throw new UnsupportedSchemaException();
+    }
+  }
+
+  private static ValueReader decimalReader(final org.apache.avro.Schema writer) {
+    final LogicalType logicalType = writer.getLogicalType();
+    if (writer.getType() != org.apache.avro.Schema.Type.BYTES
+        || !(logicalType instanceof LogicalTypes.Decimal)) {
+      throw new UnsupportedSchemaException();
+    }
+
+    final int scale = ((LogicalTypes.Decimal) logicalType).getScale();
+
+    return in -> {
+      final ByteBuffer buffer = in.readBytes(null);
+      final byte[] unscaled = new byte[buffer.remaining()];
+      buffer.get(unscaled);
+      return new BigDecimal(new BigInteger(unscaled), scale);
+    };
+  }
+
+  private static ValueReader mapReader(
+      final org.apache.avro.Schema writer,
+      final Schema schema
+  ) {
+    if (writer.getType() == org.apache.avro.Schema.Type.MAP) {
+      if (schema.keySchema().type() != Schema.Type.STRING) {
+        throw new UnsupportedSchemaException();
+      }
+
+      return new MapReader(reader(writer.getValueType(), schema.valueSchema()));
+    }
+
+    if (writer.getType() != org.apache.avro.Schema.Type.ARRAY
+        || !isMapEntry(writer.getElementType())) {
+      throw new UnsupportedSchemaException();
+    }
+
+    return new MapEntriesReader(writer.getElementType(), schema);
+  }
+
+  private static boolean isMapEntry(final org.apache.avro.Schema schema) {
+    if (schema.getType() != org.apache.avro.Schema.Type.RECORD
+        || schema.getField(MAP_ENTRY_KEY) == null
+        || schema.getField(MAP_ENTRY_VALUE) == null) {
+      return false;
+    }
+
+    return MAP_ENTRY_TYPE.equals(schema.getProp(CONNECT_INTERNAL_TYPE))
+        || MAP_ENTRY_TYPE_NAME.equals(schema.getFullName());
+  }
+
+  private static void requireType(
+      final org.apache.avro.Schema writer,
+      final org.apache.avro.Schema.Type type
+  ) {
+    if (writer.getType() != type) {
+      throw new UnsupportedSchemaException();
+    }
+  }
+
+  private static Map<String, Integer> fieldIndexes(final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < fields.size(); i++) {
+      indexes.put(AvroSchemas.avroCompatibleFieldName(fields.get(i)), i);
+    }
+    return indexes;
+  }
+
+  /**
+   * Find the field of the KSQL struct that the writer field maps to, if any.
+   *
+   * <p>As with {@link io.confluent.ksql.serde.connect.ConnectDataTranslator}, a field with the
+   * same name is used, else one whose name is the writer's name in upper case. Names are compared
+   * with the Avro compatible names of the KSQL fields.
+   */
+  private static Integer fieldIndex(
+      final Map<String, Integer> indexes,
+      final org.apache.avro.Schema.Field writerField
+  ) {
+    final Integer index = indexes.get(writerField.name());
+    return index != null
+        ? index
+        : indexes.get(writerField.name().toUpperCase());
+  }
+
+  private interface ValueReader {
+
+    Object read(Decoder in) throws IOException;
+  }
+
+  /**
+   * Reads the fields of a record into the slots of the fields they map to. Fields that map to no
+   * slot are skipped. If several fields map to the same slot, the last wins.
+   */
+  private abstract static class RecordReader {
+
+    private final List<org.apache.avro.Schema.Field> writerFields;
+    private final int[] slots;
+    private final ValueReader[] readers;
+
+    RecordReader(final org.apache.avro.Schema writer, final Schema schema) {
+      final Map<String, Integer> indexes = fieldIndexes(schema);
+
+      this.writerFields = writer.getFields();
+      this.slots = new int[writerFields.size()];
+      this.readers = new ValueReader[writerFields.size()];
+
+      for (int i = 0; i < slots.length; i++) {
+        final org.apache.avro.Schema.Field writerField = writerFields.get(i);
+        final Integer index = fieldIndex(indexes, writerField);
+        if (index == null) {
+          slots[i] = -1;
+        } else {
+          slots[i] = index;
+          readers[i] = reader(writerField.schema(), schema.fields().get(index).schema());
+        }
+      }
+    }
+
+    void readFields(final Decoder in, final Object[] values) throws IOException {
+      for (int i = 0; i < slots.length; i++) {
+        final int slot = slots[i];
+        if (slot < 0) {
+          GenericDatumReader.skip(writerFields.get(i).schema(), in);
+        } else {
+          values[slot] = readers[i].read(in);
+        }
+      }
+    }
+  }
+
+  private static final class ColumnsReader extends RecordReader {
+
+    private final int numColumns;
+
+    ColumnsReader(final org.apache.avro.Schema writer, final Schema schema) {
+      super(writer, schema);
+      this.numColumns = schema.fields().size();
+    }
+
+    List<?> read(final Decoder in) throws IOException {
+      final Object[] values = new Object[numColumns];
+      readFields(in, values);
+      return Arrays.asList(values);
+    }
+  }
+
+  private static final class StructReader extends RecordReader implements ValueReader {
+
+    private final Schema schema;
+
+    StructReader(final org.apache.avro.Schema writer, final Schema schema) {
+      super(writer, schema);
+      this.schema = schema;
+    }
+
+    @Override
+    public Object read(final Decoder in) throws IOException {
+      final List<Field> fields = schema.fields();
+      final Object[] values = new Object[fields.size()];
+      readFields(in, values);
+
+      final Struct struct = new Struct(schema);
+      for (int i = 0; i < values.length; i++) {
+        struct.put(fields.get(i), values[i]);
+      }
+      return struct;
+    }
+  }
+
+  private static final class ArrayReader implements ValueReader {
+
+    private final ValueReader elementReader;
+
+    ArrayReader(final ValueReader elementReader) {
+      this.elementReader = Objects.requireNonNull(elementReader, "elementReader");
+    }
+
+    @Override
+    public Object read(final Decoder in) throws IOException {
+      long count = in.readArrayStart();
+      final List<Object> array = new ArrayList<>((int) count);
+      while (count > 0) {
+        for (long i = 0; i < count; i++) {
+          array.add(elementReader.read(in));
+        }
+        count = in.arrayNext();
+      }
+      return array;
+    }
+  }
+
+  private static final class MapReader implements ValueReader {
+
+    private final ValueReader valueReader;
+
+    MapReader(final ValueReader valueReader) {
+      this.valueReader = Objects.requireNonNull(valueReader, "valueReader");
+    }
+
+    @Override
+    public Object read(final Decoder in) throws IOException {
+      long count = in.readMapStart();
+      final Map<Object, Object> map = new HashMap<>();
+      while (count > 0) {
+        for (long i = 0; i < count; i++) {
+          map.put(in.readString(), valueReader.read(in));
+        }
+        count = in.mapNext();
+      }
+      return map;
+    }
+  }
+
+  /**
+   * Reads the array of key and value records Connect writes for maps with optional keys.
+   */
+  private static final class MapEntriesReader implements ValueReader {
+
+    private final List<org.apache.avro.Schema.Field> entryFields;
+    private final ValueReader[] readers;
+    private final int keyIndex;
+    private final int valueIndex;
+
+    MapEntriesReader(final org.apache.avro.Schema entry, final Schema schema) {
+      this.entryFields = entry.getFields();
+      this.readers = new ValueReader[entryFields.size()];
+      this.keyIndex = entry.getField(MAP_ENTRY_KEY).pos();
+      this.valueIndex = entry.getField(MAP_ENTRY_VALUE).pos();
+
+      readers[keyIndex] = reader(entryFields.get(keyIndex).schema(), schema.keySchema());
+      readers[valueIndex] = reader(entryFields.get(valueIndex).schema(), schema.valueSchema());
+    }
+
+    @Override
+    public Object read(final Decoder in) throws IOException {
+      long count = in.readArrayStart();
+      final Map<Object, Object> map = new HashMap<>();
+      while (count > 0) {
+        for (long i = 0; i < count; i++) {
+          readEntry(in, map);
+        }
+        count = in.arrayNext();
+      }
+      return map;
+    }
+
+    private void readEntry(final Decoder in, final Map<Object, Object> map) throws IOException {
+      Object key = null;
+      Object value = null;
+      for (int i = 0; i < readers.length; i++) {
+        if (i == keyIndex) {
+          key = readers[i].read(in);
+        } else if (i == valueIndex) {
+          value = readers[i].read(in);
+        } else {
+          GenericDatumReader.skip(entryFields.get(i).schema(), in);
+        }
+      }
+      map.put(key, value);
+    }
+  }
+
+  /**
+   * Thrown while compiling a reader for a writer schema that is not supported.
+   */
+  private static final class UnsupportedSchemaException extends RuntimeException {
+  }
+}
@@ -25,8 +25,10 @@ import io.confluent.ksql.serde.connect.KsqlConnectSerializer;
 import io.confluent.ksql.serde.tls.ThreadLocalDeserializer;
 import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -34,6 +36,7 @@ import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 
 @Immutable
 class KsqlAvroSerdeFactory {
@@ -82,6 +85,47 @@ class KsqlAvroSerdeFactory {
     );
   }
 
+  /**
+   * Create a deserializer of the columns of a wrapped value, which decodes the Avro binary
+   * directly into them rather than via a {@code Struct}, if direct deserialization is enabled.
+   *
+   * @param schema the struct schema of the columns.
+   * @param ksqlConfig the config.
+   * @param srFactory supplier of the SR client.
+   * @param isKey whether the deserializer is for a key.
+   * @return the deserializer, if enabled.
+   */
+  Optional<Deserializer<List<?>>> createColumnsDeserializer(
+      final ConnectSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> srFactory,
+      final boolean isKey
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_AVRO_DIRECT_DESERIALIZER_ENABLED)) {
+      return Optional.empty();
+    }
+
+    AvroUtil.throwOnInvalidSchema(schema);
+
+    final Supplier<Deserializer<Struct>> connectDeserializerSupplier = createConnectDeserializer(
+        schema,
+        ksqlConfig,
+        srFactory,
+        Struct.class,
+        isKey
+    );
+
+    // Sanity check:
+    connectDeserializerSupplier.get();
+
+    return Optional.of(new KsqlAvroColumnsDeserializer(
+        schema,
+        srFactory.get(),
+        isKey,
+        new ThreadLocalDeserializer<>(connectDeserializerSupplier)
+    ));
+  }
+
   private <T> Supplier<Serializer<T>> createConnectSerializer(
       final ConnectSchema schema,
       final KsqlConfig ksqlConfig,
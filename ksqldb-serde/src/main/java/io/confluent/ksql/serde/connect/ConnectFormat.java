@@ -16,6 +16,7 @@
 package io.confluent.ksql.serde.connect;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.SchemaConverters;
 import io.confluent.ksql.schema.ksql.SimpleColumn;
@@ -26,11 +27,15 @@ import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -83,6 +88,49 @@ public abstract class ConnectFormat implements Format {
         : handleWrapped(innerSchema, formatProps, config, srFactory, targetType, isKey);
   }
 
+  @Override
+  public Serde<List<?>> getSerde(
+      final PersistenceSchema schema,
+      final Map<String, String> formatProps,
+      final KsqlConfig config,
+      final Supplier<SchemaRegistryClient> srFactory,
+      final boolean isKey,
+      final Set<ColumnName> requiredColumns
+  ) {
+    final Serde<List<?>> serde = getSerde(schema, formatProps, config, srFactory, isKey);
+
+    final List<SimpleColumn> columns = schema.columns();
+    final List<SimpleColumn> required = columns.stream()
+        .filter(column -> requiredColumns.contains(column.name()))
+        .collect(Collectors.toList());
+
+    if (schema.features().enabled(SerdeFeature.UNWRAP_SINGLES)
+        || required.size() == columns.size()) {
+      return serde;
+    }
+
+    // Deserialize only the required columns, then put them back in their positions. Values of
+    // the other columns are never read, so malformed ones do not fail deserialization:
+    final ConnectSchema prunedSchema = ConnectSchemas.columnsToConnectSchema(required);
+
+    final Deserializer<List<?>> prunedDeserializer =
+        getColumnsDeserializer(prunedSchema, formatProps, config, srFactory, isKey)
+            .orElseGet(() -> new StructToListDeserializer(
+                getConnectSerde(prunedSchema, formatProps, config, srFactory, Struct.class, isKey)
+                    .deserializer(),
+                required.size()
+            ));
+
+    final int[] positions = required.stream()
+        .mapToInt(columns::indexOf)
+        .toArray();
+
+    return Serdes.serdeFrom(
+        serde.serializer(),
+        new PrunedListDeserializer(prunedDeserializer, positions, columns.size())
+    );
+  }
+
   private <T> Serde<List<?>> handleUnwrapped(
       final ConnectSchema innerSchema,
       final Map<String, String> formatProps,
@@ -115,9 +163,16 @@ public abstract class ConnectFormat implements Format {
     final Serde<Struct> connectSerde =
         getConnectSerde(innerSchema, formatProps, config, srFactory, Struct.class, isKey);
 
+    final Deserializer<List<?>> deserializer =
+        getColumnsDeserializer(innerSchema, formatProps, config, srFactory, isKey)
+            .orElseGet(() -> new StructToListDeserializer(
+                connectSerde.deserializer(),
+                innerSchema.fields().size()
+            ));
+
     return Serdes.serdeFrom(
         new ListToStructSerializer(connectSerde.serializer(), innerSchema),
-        new StructToListDeserializer(connectSerde.deserializer(), innerSchema.fields().size())
+        deserializer
     );
   }
 
@@ -125,6 +180,29 @@ public abstract class ConnectFormat implements Format {
       Map<String, String> formatProps
   );
 
+  /**
+   * Get a deserializer that reads the columns of a wrapped value directly into a list, rather
+   * than via the {@link Struct} returned by the deserializer of {@link #getConnectSerde}.
+   *
+   * <p>Formats that can not do better than the {@code Struct} need not override this.
+   *
+   * @param connectSchema the struct schema of the columns.
+   * @param formatProps the format properties.
+   * @param config the config.
+   * @param srFactory supplier of the SR client.
+   * @param isKey whether the deserializer is for a key.
+   * @return the deserializer, if the format has one.
+   */
+  protected Optional<Deserializer<List<?>>> getColumnsDeserializer(
+      final ConnectSchema connectSchema,
+      final Map<String, String> formatProps,
+      final KsqlConfig config,
+      final Supplier<SchemaRegistryClient> srFactory,
+      final boolean isKey
+  ) {
+    return Optional.empty();
+  }
+
   protected abstract <T> Serde<T> getConnectSerde(
       ConnectSchema connectSchema,
       Map<String, String> formatProps,
@@ -243,6 +321,48 @@ public abstract class ConnectFormat implements Format {
     }
   }
 
+  private static class PrunedListDeserializer implements Deserializer<List<?>> {
+
+    private final Deserializer<List<?>> inner;
+    private final int[] positions;
+    private final int numColumns;
+
+    PrunedListDeserializer(
+        final Deserializer<List<?>> inner,
+        final int[] positions,
+        final int numColumns
+    ) {
+      this.inner = Objects.requireNonNull(inner, "inner");
+      this.positions = Objects.requireNonNull(positions, "positions");
+      this.numColumns = numColumns;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      inner.configure(configs, isKey);
+    }
+
+    @Override
+    public List<?> deserialize(final String topic, final byte[] bytes) {
+      final List<?> pruned = inner.deserialize(topic, bytes);
+      if (pruned == null) {
+        return null;
+      }
+
+      final Object[] values = new Object[numColumns];
+      for (int i = 0; i < positions.length; i++) {
+        values[positions[i]] = pruned.get(i);
+      }
+
+      return Arrays.asList(values);
+    }
+
+    @Override
+    public void close() {
+      inner.close();
+    }
+  }
+
   @Override
   public boolean supportsKeyType(final SqlType type) {
     return true;
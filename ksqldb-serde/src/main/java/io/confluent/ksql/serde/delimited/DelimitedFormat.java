@@ -17,7 +17,9 @@ package io.confluent.ksql.serde.delimited;
 
 import com.google.common.collect.ImmutableSet;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.schema.ksql.SimpleColumn;
 import io.confluent.ksql.schema.ksql.types.SqlPrimitiveType;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.serde.Delimiter;
@@ -30,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
@@ -67,6 +70,25 @@ public final class DelimitedFormat implements Format {
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> srClientFactory,
       final boolean isKey) {
+    return getSerde(
+        schema,
+        formatProperties,
+        ksqlConfig,
+        srClientFactory,
+        isKey,
+        schema.columns().stream().map(SimpleColumn::name).collect(Collectors.toSet())
+    );
+  }
+
+  @Override
+  public Serde<List<?>> getSerde(
+      final PersistenceSchema schema,
+      final Map<String, String> formatProperties,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final boolean isKey,
+      final Set<ColumnName> requiredColumns
+  ) {
     FormatProperties.validateProperties(name(), formatProperties, getSupportedProperties());
     SerdeUtils.throwOnUnsupportedFeatures(schema.features(), supportedFeatures());
 
@@ -75,8 +97,12 @@ public final class DelimitedFormat implements Format {
     final CSVFormat csvFormat = CSVFormat.DEFAULT.withDelimiter(delimiter.getDelimiter());
 
     return Serdes.serdeFrom(
-        new KsqlDelimitedSerializer(schema, csvFormat),
-        new KsqlDelimitedDeserializer(schema, csvFormat)
+        new KsqlDelimitedSerializer(
+            schema,
+            csvFormat,
+            ksqlConfig.getBoolean(KsqlConfig.KSQL_SERIALIZATION_POOLED_BUFFERS_ENABLED)
+        ),
+        new KsqlDelimitedDeserializer(schema, csvFormat, requiredColumns)
     );
   }
 
@@ -16,6 +16,7 @@
 package io.confluent.ksql.serde.delimited;
 
 import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.SimpleColumn;
 import io.confluent.ksql.schema.ksql.types.SqlBaseType;
@@ -33,6 +34,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -62,15 +65,28 @@ class KsqlDelimitedDeserializer implements Deserializer<List<?>> {
       .put(SqlBaseType.TIMESTAMP,KsqlDelimitedDeserializer::timestampParser)
       .build();
 
+  // Used for columns that need not be deserialized:
+  private static final Parser SKIP = v -> null;
+
   private final CSVFormat csvFormat;
   private final List<Parser> parsers;
 
   KsqlDelimitedDeserializer(
       final PersistenceSchema schema,
       final CSVFormat csvFormat
+  ) {
+    this(schema, csvFormat, schema.columns().stream()
+        .map(SimpleColumn::name)
+        .collect(Collectors.toSet()));
+  }
+
+  KsqlDelimitedDeserializer(
+      final PersistenceSchema schema,
+      final CSVFormat csvFormat,
+      final Set<ColumnName> requiredColumns
   ) {
     this.csvFormat = Objects.requireNonNull(csvFormat, "csvFormat");
-    this.parsers = buildParsers(schema);
+    this.parsers = buildParsers(schema, requiredColumns);
   }
 
   @Override
@@ -132,7 +148,10 @@ class KsqlDelimitedDeserializer implements Deserializer<List<?>> {
     return v -> new Timestamp(Long.parseLong(v));
   }
 
-  private static List<Parser> buildParsers(final PersistenceSchema schema) {
+  private static List<Parser> buildParsers(
+      final PersistenceSchema schema,
+      final Set<ColumnName> requiredColumns
+  ) {
     final List<Parser> parsers = new ArrayList<>(schema.columns().size());
     for (final SimpleColumn column : schema.columns()) {
       final SqlBaseType baseType = column.type().baseType();
@@ -142,7 +161,9 @@ class KsqlDelimitedDeserializer implements Deserializer<List<?>> {
             + "' format does not support type '" + baseType + "', column: " + column.name());
       }
 
-      parsers.add(parserFactory.build(column.type()));
+      parsers.add(requiredColumns.contains(column.name())
+          ? parserFactory.build(column.type())
+          : SKIP);
     }
     return parsers;
   }
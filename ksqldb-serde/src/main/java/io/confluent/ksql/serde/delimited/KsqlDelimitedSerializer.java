@@ -17,6 +17,8 @@ package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.SimpleColumn;
+import io.confluent.ksql.serde.SerializationBuffer;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -35,13 +37,29 @@ class KsqlDelimitedSerializer implements Serializer<List<?>> {
 
   private final PersistenceSchema schema;
   private final CSVFormat csvFormat;
+  private final boolean pooledBuffers;
 
   KsqlDelimitedSerializer(
       final PersistenceSchema schema,
       final CSVFormat csvFormat
+  ) {
+    this(schema, csvFormat, false);
+  }
+
+  /**
+   * @param schema the schema of the columns.
+   * @param csvFormat the CSV format.
+   * @param pooledBuffers whether to print records into the thread's reusable
+   *                      {@link SerializationBuffer}, rather than into new strings.
+   */
+  KsqlDelimitedSerializer(
+      final PersistenceSchema schema,
+      final CSVFormat csvFormat,
+      final boolean pooledBuffers
   ) {
     this.schema = Objects.requireNonNull(schema, "schema");
     this.csvFormat = Objects.requireNonNull(csvFormat, "csvFormat");
+    this.pooledBuffers = pooledBuffers;
   }
 
   @Override
@@ -55,6 +73,10 @@ class KsqlDelimitedSerializer implements Serializer<List<?>> {
     }
 
     try {
+      if (pooledBuffers) {
+        return serializeToBuffer(data);
+      }
+
       final StringWriter stringWriter = new StringWriter();
       final CSVPrinter csvPrinter = new CSVPrinter(stringWriter, csvFormat);
       csvPrinter.printRecord(() -> new FieldIterator(data, schema));
@@ -69,6 +91,16 @@ class KsqlDelimitedSerializer implements Serializer<List<?>> {
   public void close() {
   }
 
+  private byte[] serializeToBuffer(final List<?> data) throws IOException {
+    try (SerializationBuffer buffer = SerializationBuffer.acquire()) {
+      final CSVPrinter csvPrinter = new CSVPrinter(buffer, csvFormat);
+      csvPrinter.printRecord(() -> new FieldIterator(data, schema));
+      // Drop the record separator:
+      buffer.truncate(buffer.size() - 2);
+      return buffer.toByteArray();
+    }
+  }
+
   private static class FieldIterator implements Iterator<Object> {
 
     private final Iterator<?> dataIt;
@@ -21,9 +21,12 @@ import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.connect.ConnectFormat;
 import io.confluent.ksql.serde.connect.ConnectSchemaTranslator;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.ConnectSchema;
 
@@ -65,4 +68,16 @@ public class JsonFormat extends ConnectFormat {
     return new KsqlJsonSerdeFactory(false)
         .createSerde(connectSchema, config, srFactory, targetType, isKey);
   }
+
+  @Override
+  protected Optional<Deserializer<List<?>>> getColumnsDeserializer(
+      final ConnectSchema connectSchema,
+      final Map<String, String> formatProps,
+      final KsqlConfig config,
+      final Supplier<SchemaRegistryClient> srFactory,
+      final boolean isKey
+  ) {
+    return new KsqlJsonSerdeFactory(false)
+        .createColumnsDeserializer(connectSchema, config);
+  }
 }
@@ -22,9 +22,12 @@ import io.confluent.ksql.serde.SerdeFeature;
 import io.confluent.ksql.serde.connect.ConnectFormat;
 import io.confluent.ksql.serde.connect.ConnectSchemaTranslator;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.ConnectSchema;
 
@@ -68,4 +71,16 @@ public class JsonSchemaFormat extends ConnectFormat {
     return new KsqlJsonSerdeFactory(true)
         .createSerde(connectSchema, config, srFactory, targetType, isKey);
   }
+
+  @Override
+  protected Optional<Deserializer<List<?>>> getColumnsDeserializer(
+      final ConnectSchema connectSchema,
+      final Map<String, String> formatProps,
+      final KsqlConfig config,
+      final Supplier<SchemaRegistryClient> srFactory,
+      final boolean isKey
+  ) {
+    return new KsqlJsonSerdeFactory(true)
+        .createColumnsDeserializer(connectSchema, config);
+  }
 }
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.serde.json;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.BooleanNode;
@@ -52,13 +53,7 @@ public final class JsonSerdeUtils {
       final ObjectMapper mapper,
       final Class<? extends T> clazz
   ) throws IOException {
-    if (!hasMagicByte(jsonWithMagic)) {
-      // don't log contents of jsonWithMagic to avoid leaking data into the logs
-      throw new KsqlException(
-          "Got unexpected JSON serialization format that did not start with the magic byte. If "
-              + "this stream was not serialized using the JsonSchemaConverter, then make sure "
-              + "the stream is declared with JSON format (not JSON_SR).");
-    }
+    throwOnMissingMagicByte(jsonWithMagic);
 
     return mapper.readValue(
         jsonWithMagic,
@@ -68,6 +63,39 @@ public final class JsonSerdeUtils {
     );
   }
 
+  /**
+   * Creates a parser over the JSON within {@code jsonWithMagic}, skipping the schema registry
+   * prefix.
+   *
+   * @param jsonWithMagic the serialized JSON
+   * @param mapper the mapper to create the parser from
+   * @return the parser
+   * @throws io.confluent.ksql.util.KsqlException If the input is not encoded
+   *         using the schema registry format.
+   */
+  static JsonParser createParserSR(
+      @Nonnull final byte[] jsonWithMagic,
+      final ObjectMapper mapper
+  ) throws IOException {
+    throwOnMissingMagicByte(jsonWithMagic);
+
+    return mapper.getFactory().createParser(
+        jsonWithMagic,
+        SIZE_OF_SR_PREFIX,
+        jsonWithMagic.length - SIZE_OF_SR_PREFIX
+    );
+  }
+
+  private static void throwOnMissingMagicByte(final byte[] jsonWithMagic) {
+    if (!hasMagicByte(jsonWithMagic)) {
+      // don't log contents of jsonWithMagic to avoid leaking data into the logs
+      throw new KsqlException(
+          "Got unexpected JSON serialization format that did not start with the magic byte. If "
+              + "this stream was not serialized using the JsonSchemaConverter, then make sure "
+              + "the stream is declared with JSON format (not JSON_SR).");
+    }
+  }
+
   /**
    * @param json the serialized JSON
    * @return whether or not this JSON contains the magic schema registry byte
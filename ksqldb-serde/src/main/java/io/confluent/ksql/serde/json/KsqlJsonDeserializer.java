@@ -60,7 +60,7 @@ public class KsqlJsonDeserializer<T> implements Deserializer<T> {
 
   private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonDeserializer.class);
   private static final SqlSchemaFormatter FORMATTER = new SqlSchemaFormatter(word -> false);
-  private static final ObjectMapper MAPPER = new ObjectMapper()
+  static final ObjectMapper MAPPER = new ObjectMapper()
       .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
       .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
 
@@ -141,6 +141,19 @@ public class KsqlJsonDeserializer<T> implements Deserializer<T> {
     return MAPPER.reader();
   }
 
+  /**
+   * Coerce a JSON value to the supplied {@code schema}.
+   *
+   * @param value the value to coerce.
+   * @param schema the schema to coerce to.
+   * @return the coerced value.
+   * @throws CoercionException if the value can not be coerced, with the path to the failing
+   *         value relative to {@code value}.
+   */
+  static Object coerce(final JsonNode value, final Schema schema) {
+    return enforceFieldType("", new JsonValueContext(value, schema));
+  }
+
   private static Object enforceFieldType(
       final String pathPart,
       final JsonValueContext context
@@ -315,7 +328,7 @@ public class KsqlJsonDeserializer<T> implements Deserializer<T> {
     }
   }
 
-  private static final class CoercionException extends RuntimeException {
+  static final class CoercionException extends RuntimeException {
 
     private final String path;
     private final String message;
@@ -24,7 +24,9 @@ import io.confluent.ksql.serde.connect.ConnectDataTranslator;
 import io.confluent.ksql.serde.connect.KsqlConnectSerializer;
 import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -64,7 +66,7 @@ class KsqlJsonSerdeFactory {
         isKey
     );
 
-    final Deserializer<T> deserializer = createDeserializer(schema, targetType);
+    final Deserializer<T> deserializer = createDeserializer(schema, ksqlConfig, targetType);
 
     // Sanity check:
     serializer.get();
@@ -94,10 +96,41 @@ class KsqlJsonSerdeFactory {
     );
   }
 
+  /**
+   * Create a deserializer of the columns of a wrapped value, which reads them directly rather
+   * than via a {@code Struct}, if streaming deserialization is enabled.
+   *
+   * @param schema the struct schema of the columns.
+   * @param ksqlConfig the config.
+   * @return the deserializer, if enabled.
+   */
+  Optional<Deserializer<List<?>>> createColumnsDeserializer(
+      final ConnectSchema schema,
+      final KsqlConfig ksqlConfig
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(KsqlJsonStreamingDeserializer.columnsDeserializer(
+        schema,
+        useSchemaRegistryFormat
+    ));
+  }
+
   private <T> Deserializer<T> createDeserializer(
       final ConnectSchema schema,
+      final KsqlConfig ksqlConfig,
       final Class<T> targetType
   ) {
+    if (ksqlConfig.getBoolean(KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED)) {
+      return KsqlJsonStreamingDeserializer.valueDeserializer(
+          schema,
+          useSchemaRegistryFormat,
+          targetType
+      );
+    }
+
     return new KsqlJsonDeserializer<>(
         schema,
         useSchemaRegistryFormat,
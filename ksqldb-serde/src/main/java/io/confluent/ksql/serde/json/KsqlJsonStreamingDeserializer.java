@@ -0,0 +1,544 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static io.confluent.ksql.serde.json.KsqlJsonDeserializer.MAPPER;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.confluent.ksql.serde.SerdeUtils;
+import io.confluent.ksql.serde.json.KsqlJsonDeserializer.CoercionException;
+import io.confluent.ksql.util.DecimalUtil;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JSON deserializer that reads the token stream of the document, rather than first reading it
+ * into a {@link JsonNode} tree.
+ *
+ * <p>A reader is built for the schema up front, which converts each JSON value directly to the
+ * Java type of its schema. Fields of an object that are not in the schema are skipped without
+ * being materialized. Values whose JSON type is not the natural match of their schema, e.g. a
+ * number held in a JSON string, are read into a tree and coerced by {@link KsqlJsonDeserializer},
+ * so that both deserializers accept the same documents and produce the same results and errors.
+ *
+ * <p>When the schema is a struct of columns, {@link #columnsDeserializer} reads the document
+ * straight into the list of column values, avoiding the intermediate {@link Struct}.
+ */
+final class KsqlJsonStreamingDeserializer<T> implements Deserializer<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonStreamingDeserializer.class);
+
+  private final boolean isJsonSchema;
+  private final RootReader<T> reader;
+  private final Deserializer<T> treeDeserializer;
+  private String target = "?";
+
+  /**
+   * Create a deserializer of values of the supplied {@code schema}.
+   */
+  static <T> KsqlJsonStreamingDeserializer<T> valueDeserializer(
+      final ConnectSchema schema,
+      final boolean isJsonSchema,
+      final Class<T> targetType
+  ) {
+    final ValueReader reader = reader(schema);
+
+    return new KsqlJsonStreamingDeserializer<>(
+        isJsonSchema,
+        parser -> SerdeUtils.castToTargetType(readRoot(reader, parser), targetType),
+        new KsqlJsonDeserializer<>(schema, isJsonSchema, targetType)
+    );
+  }
+
+  /**
+   * Create a deserializer of the columns of the supplied struct {@code schema}, returning the
+   * value of each field in the order of the schema's fields.
+   */
+  static KsqlJsonStreamingDeserializer<List<?>> columnsDeserializer(
+      final ConnectSchema schema,
+      final boolean isJsonSchema
+  ) {
+    final StructReader reader = new StructReader(schema);
+    final KsqlJsonDeserializer<Struct> structDeserializer =
+        new KsqlJsonDeserializer<>(schema, isJsonSchema, Struct.class);
+
+    return new KsqlJsonStreamingDeserializer<>(
+        isJsonSchema,
+        parser -> readRootColumns(reader, parser),
+        new Deserializer<List<?>>() {
+          @Override
+          public void configure(final Map<String, ?> configs, final boolean isKey) {
+            structDeserializer.configure(configs, isKey);
+          }
+
+          @Override
+          public List<?> deserialize(final String topic, final byte[] bytes) {
+            return toColumns(structDeserializer.deserialize(topic, bytes));
+          }
+        }
+    );
+  }
+
+  private KsqlJsonStreamingDeserializer(
+      final boolean isJsonSchema,
+      final RootReader<T> reader,
+      final Deserializer<T> treeDeserializer
+  ) {
+    this.isJsonSchema = isJsonSchema;
+    this.reader = Objects.requireNonNull(reader, "reader");
+    this.treeDeserializer = Objects.requireNonNull(treeDeserializer, "treeDeserializer");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean isKey) {
+    this.target = isKey ? "key" : "value";
+    treeDeserializer.configure(map, isKey);
+  }
+
+  @Override
+  public T deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try (JsonParser parser = isJsonSchema
+        ? JsonSerdeUtils.createParserSR(bytes, MAPPER)
+        : MAPPER.getFactory().createParser(bytes)) {
+
+      if (parser.nextToken() == null) {
+        // Leave the handling of empty documents to the tree deserializer:
+        return treeDeserializer.deserialize(topic, bytes);
+      }
+
+      final T result = reader.read(parser);
+
+      if (LOG.isTraceEnabled()) {
+        LOG.trace("Deserialized {}. topic:{}, row:{}", target, topic, result);
+      }
+
+      return result;
+    } catch (final SerializationException e) {
+      throw e;
+    } catch (final Exception e) {
+      // Clear location in order to avoid logging data, for security reasons
+      if (e instanceof JsonParseException) {
+        ((JsonParseException) e).clearLocation();
+      }
+
+      throw new SerializationException(
+          "Failed to deserialize " + target + " from topic: " + topic + ". " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    treeDeserializer.close();
+  }
+
+  private static Object readRoot(
+      final ValueReader reader,
+      final JsonParser parser
+  ) throws IOException {
+    try {
+      return reader.read(parser);
+    } catch (final RuntimeException e) {
+      throw coercionException("$", e);
+    }
+  }
+
+  private static List<?> readRootColumns(
+      final StructReader reader,
+      final JsonParser parser
+  ) throws IOException {
+    try {
+      if (parser.currentToken() == JsonToken.START_OBJECT) {
+        return Arrays.asList(reader.readFields(parser));
+      }
+
+      return toColumns((Struct) reader.read(parser));
+    } catch (final RuntimeException e) {
+      throw coercionException("$", e);
+    }
+  }
+
+  private static List<?> toColumns(final Struct struct) {
+    if (struct == null) {
+      return null;
+    }
+
+    final List<Field> fields = struct.schema().fields();
+    final List<Object> values = new ArrayList<>(fields.size());
+    for (final Field field : fields) {
+      values.add(struct.get(field));
+    }
+    return values;
+  }
+
+  private static CoercionException coercionException(
+      final String pathPart,
+      final RuntimeException e
+  ) {
+    if (e instanceof CoercionException) {
+      final CoercionException ce = (CoercionException) e;
+      return new CoercionException(ce.getRawMessage(), pathPart + ce.getPath(), ce);
+    }
+    return new CoercionException(e.getMessage(), pathPart, e);
+  }
+
+  private static ValueReader reader(final Schema schema) {
+    switch (schema.type()) {
+      case BOOLEAN:
+        return new BooleanReader(schema);
+      case INT32:
+        return new IntegerReader(schema);
+      case INT64:
+        return Timestamp.LOGICAL_NAME.equals(schema.name())
+            ? new TimestampReader(schema)
+            : new LongReader(schema);
+      case FLOAT64:
+        return new DoubleReader(schema);
+      case STRING:
+        return new StringReader(schema);
+      case BYTES:
+        return DecimalUtil.isDecimal(schema)
+            ? new DecimalReader(schema)
+            : new ValueReader(schema);
+      case ARRAY:
+        return new ArrayReader(schema);
+      case MAP:
+        return new MapReader(schema);
+      case STRUCT:
+        return new StructReader(schema);
+      default:
+        return new ValueReader(schema);
+    }
+  }
+
+  private interface RootReader<T> {
+
+    T read(JsonParser parser) throws IOException;
+  }
+
+  /**
+   * Reads a value, positioned on its first token, leaving the parser on its last token.
+   *
+   * <p>The base class reads every non-null value into a tree and coerces it with
+   * {@link KsqlJsonDeserializer}. Subclasses read the tokens that match their schema directly,
+   * deferring to the base class for anything else.
+   */
+  private static class ValueReader {
+
+    final Schema schema;
+
+    ValueReader(final Schema schema) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+    }
+
+    final Object read(final JsonParser parser) throws IOException {
+      final JsonToken token = parser.currentToken();
+      if (token == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      return readNonNull(parser, token);
+    }
+
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      final JsonNode value = MAPPER.readTree(parser);
+      return KsqlJsonDeserializer.coerce(value, schema);
+    }
+  }
+
+  private static final class BooleanReader extends ValueReader {
+
+    BooleanReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_TRUE:
+          return true;
+        case VALUE_FALSE:
+          return false;
+        default:
+          return super.readNonNull(parser, token);
+      }
+    }
+  }
+
+  private static final class IntegerReader extends ValueReader {
+
+    IntegerReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_NUMBER_INT:
+          return parser.getNumberType() == NumberType.INT
+              ? parser.getIntValue()
+              : parser.getNumberValue().intValue();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDecimalValue().intValue();
+        default:
+          return super.readNonNull(parser, token);
+      }
+    }
+  }
+
+  private static class LongReader extends ValueReader {
+
+    LongReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_NUMBER_INT:
+          return parser.getNumberType() == NumberType.BIG_INTEGER
+              ? parser.getBigIntegerValue().longValue()
+              : parser.getLongValue();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDecimalValue().longValue();
+        default:
+          return super.readNonNull(parser, token);
+      }
+    }
+  }
+
+  private static final class TimestampReader extends LongReader {
+
+    TimestampReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      final Object value = super.readNonNull(parser, token);
+      return token.isNumeric()
+          ? new java.sql.Timestamp((Long) value)
+          : value;
+    }
+  }
+
+  private static final class DoubleReader extends ValueReader {
+
+    DoubleReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token.isNumeric()) {
+        return parser.getDoubleValue();
+      }
+      return super.readNonNull(parser, token);
+    }
+  }
+
+  private static final class StringReader extends ValueReader {
+
+    StringReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      switch (token) {
+        case VALUE_STRING:
+          return parser.getText();
+        case VALUE_NUMBER_INT:
+          return parser.getNumberValue().toString();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDecimalValue().toString();
+        case VALUE_TRUE:
+          return "true";
+        case VALUE_FALSE:
+          return "false";
+        default:
+          return super.readNonNull(parser, token);
+      }
+    }
+  }
+
+  private static final class DecimalReader extends ValueReader {
+
+    DecimalReader(final Schema schema) {
+      super(schema);
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token.isNumeric()) {
+        return DecimalUtil.ensureFit(parser.getDecimalValue(), schema);
+      }
+      if (token == JsonToken.VALUE_STRING) {
+        return DecimalUtil.ensureFit(new BigDecimal(parser.getText()), schema);
+      }
+      return super.readNonNull(parser, token);
+    }
+  }
+
+  private static final class ArrayReader extends ValueReader {
+
+    private final ValueReader elementReader;
+
+    ArrayReader(final Schema schema) {
+      super(schema);
+      this.elementReader = reader(schema.valueSchema());
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token != JsonToken.START_ARRAY) {
+        return super.readNonNull(parser, token);
+      }
+
+      final List<Object> array = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        try {
+          array.add(elementReader.read(parser));
+        } catch (final RuntimeException e) {
+          throw coercionException("[" + array.size() + "]", e);
+        }
+      }
+      return array;
+    }
+  }
+
+  private static final class MapReader extends ValueReader {
+
+    private final ValueReader valueReader;
+
+    MapReader(final Schema schema) {
+      super(schema);
+      this.valueReader = reader(schema.valueSchema());
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token != JsonToken.START_OBJECT) {
+        return super.readNonNull(parser, token);
+      }
+
+      final Map<String, Object> map = new HashMap<>();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String key = parser.getCurrentName();
+        parser.nextToken();
+        try {
+          map.put(key, valueReader.read(parser));
+        } catch (final RuntimeException e) {
+          throw coercionException("." + key + ".value", e);
+        }
+      }
+      return map;
+    }
+  }
+
+  private static final class StructReader extends ValueReader {
+
+    private final List<Field> fields;
+    private final ValueReader[] fieldReaders;
+    private final String[] pathParts;
+    private final Map<String, Integer> fieldIndexes;
+
+    StructReader(final Schema schema) {
+      super(schema);
+      this.fields = schema.fields();
+      this.fieldReaders = new ValueReader[fields.size()];
+      this.pathParts = new String[fields.size()];
+      this.fieldIndexes = new HashMap<>();
+
+      for (final Field field : fields) {
+        fieldReaders[field.index()] = reader(field.schema());
+        pathParts[field.index()] = "." + field.name();
+        fieldIndexes.put(field.name(), field.index());
+      }
+    }
+
+    @Override
+    Object readNonNull(final JsonParser parser, final JsonToken token) throws IOException {
+      if (token != JsonToken.START_OBJECT) {
+        return super.readNonNull(parser, token);
+      }
+
+      final Object[] values = readFields(parser);
+      final Struct struct = new Struct(schema);
+      for (int i = 0; i != values.length; ++i) {
+        struct.put(fields.get(i), values[i]);
+      }
+      return struct;
+    }
+
+    /**
+     * Read the fields of a JSON object, positioned on its start token.
+     *
+     * <p>Fields are matched to the schema in the same way as {@link KsqlJsonDeserializer}: a
+     * field whose name matches exactly takes precedence over one whose upper-cased name matches.
+     */
+    Object[] readFields(final JsonParser parser) throws IOException {
+      final Object[] values = new Object[fieldReaders.length];
+      final boolean[] exactMatches = new boolean[fieldReaders.length];
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.getCurrentName();
+        parser.nextToken();
+
+        Integer idx = fieldIndexes.get(name);
+        final boolean exactMatch = idx != null;
+        if (!exactMatch) {
+          idx = fieldIndexes.get(name.toUpperCase());
+        }
+
+        if (idx == null || (!exactMatch && exactMatches[idx])) {
+          parser.skipChildren();
+          continue;
+        }
+
+        try {
+          values[idx] = fieldReaders[idx].read(parser);
+        } catch (final RuntimeException e) {
+          throw coercionException(pathParts[idx], e);
+        }
+
+        exactMatches[idx] |= exactMatch;
+      }
+      return values;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class SerializationBufferTest {
+
+  @Test
+  public void shouldReuseBufferOnceClosed() {
+    // Given:
+    final SerializationBuffer first;
+    try (SerializationBuffer buffer = SerializationBuffer.acquire()) {
+      buffer.write(new byte[]{1, 2, 3}, 0, 3);
+      first = buffer;
+    }
+
+    // When:
+    try (SerializationBuffer buffer = SerializationBuffer.acquire()) {
+
+      // Then:
+      assertThat(buffer, is(sameInstance(first)));
+      assertThat(buffer.size(), is(0));
+    }
+  }
+
+  @Test
+  public void shouldNotShareBufferInUse() {
+    try (SerializationBuffer outer = SerializationBuffer.acquire()) {
+      try (SerializationBuffer inner = SerializationBuffer.acquire()) {
+        assertThat(inner, is(not(sameInstance(outer))));
+      }
+    }
+  }
+
+  @Test
+  public void shouldGrowToFitRecord() {
+    try (SerializationBuffer buffer = SerializationBuffer.acquire()) {
+      // Given:
+      final byte[] bytes = new byte[SerializationBuffer.INITIAL_CAPACITY * 3];
+      bytes[bytes.length - 1] = 7;
+
+      // When:
+      buffer.write(bytes, 0, bytes.length);
+
+      // Then:
+      assertThat(buffer.toByteArray(), is(bytes));
+    }
+  }
+
+  @Test
+  public void shouldShrinkLargeBufferWhenClosed() {
+    // Given:
+    final SerializationBuffer buffer = SerializationBuffer.acquire();
+    buffer.write(new byte[SerializationBuffer.MAX_RETAINED_CAPACITY + 1], 0,
+        SerializationBuffer.MAX_RETAINED_CAPACITY + 1);
+
+    // When:
+    buffer.close();
+
+    // Then:
+    assertThat(buffer.capacity(), is(SerializationBuffer.INITIAL_CAPACITY));
+  }
+
+  @Test
+  public void shouldEncodeTextAsUtf8() {
+    try (SerializationBuffer buffer = SerializationBuffer.acquire()) {
+      // Given:
+      final String text = "a\u00e9\u20ac\ud83d\ude00 \ud83d \ude00\ud83d";
+
+      // When:
+      buffer.append(text);
+
+      // Then:
+      assertThat(buffer.toByteArray(), is(text.getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+
+  @Test
+  public void shouldTruncate() {
+    try (SerializationBuffer buffer = SerializationBuffer.acquire()) {
+      // Given:
+      buffer.append("abc\r\n");
+
+      // When:
+      buffer.truncate(buffer.size() - 2);
+
+      // Then:
+      assertThat(buffer.toByteArray(), is("abc".getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+}
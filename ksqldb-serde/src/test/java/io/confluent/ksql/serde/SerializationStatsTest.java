@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.List;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Test;
+
+public class SerializationStatsTest {
+
+  private final Metrics metrics = new Metrics();
+  private final SerializationStats stats = new SerializationStats();
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldReportRecordsBySizeClass() {
+    // Given:
+    stats.addMetrics(metrics);
+
+    // When:
+    stats.recordSerialized(10);
+    stats.recordSerialized(64);
+    stats.recordSerialized(65);
+    stats.recordSerialized(100_000);
+
+    // Then:
+    assertThat(value("record-count-64b"), is(2L));
+    assertThat(value("record-count-256b"), is(1L));
+    assertThat(value("record-count-over-64kb"), is(1L));
+  }
+
+  @Test
+  public void shouldReportBufferAllocations() {
+    // Given:
+    stats.addMetrics(metrics);
+
+    // When:
+    stats.recordBufferAllocation(1024);
+    stats.recordBufferAllocation(2048);
+
+    // Then:
+    assertThat(value(SerializationStats.BUFFER_ALLOCATION_COUNT), is(2L));
+    assertThat(value(SerializationStats.BUFFER_ALLOCATED_BYTES), is(3072L));
+  }
+
+  @Test
+  public void shouldReturnAddedMetricsForRemoval() {
+    // When:
+    final List<MetricName> added = stats.addMetrics(metrics);
+
+    // Then:
+    assertThat(added, hasItem(name(SerializationStats.BUFFER_ALLOCATION_COUNT)));
+    added.forEach(metrics::removeMetric);
+    assertThat(metrics.metric(name(SerializationStats.BUFFER_ALLOCATION_COUNT)), is(nullValue()));
+  }
+
+  @Test
+  public void shouldSkipMetricsThatAreAlreadyRegistered() {
+    // Given:
+    stats.addMetrics(metrics);
+
+    // When:
+    final List<MetricName> added = new SerializationStats().addMetrics(metrics);
+
+    // Then:
+    assertThat(added, is(empty()));
+  }
+
+  private long value(final String name) {
+    return (Long) metrics.metric(name(name)).metricValue();
+  }
+
+  private MetricName name(final String name) {
+    return metrics.metricName(name, SerializationStats.METRIC_GROUP);
+  }
+}
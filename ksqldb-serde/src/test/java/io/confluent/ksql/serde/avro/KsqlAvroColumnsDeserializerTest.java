@@ -0,0 +1,297 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericData.Record;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KsqlAvroColumnsDeserializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(Collections.singletonMap(
+      KsqlConfig.SCHEMA_REGISTRY_URL_PROPERTY, "fake-schema-registry-url"));
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("NUMBER", Schema.OPTIONAL_INT32_SCHEMA)
+      .optional()
+      .build();
+
+  private static final ConnectSchema SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("TAGS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+      .field("COUNTS", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .build();
+
+  private static final org.apache.avro.Schema ADDRESS_AVRO_SCHEMA = parseAvroSchema("{"
+      + "\"type\": \"record\","
+      + "\"name\": \"address\","
+      + "\"fields\": ["
+      + "  {\"name\": \"STREET\", \"type\": [\"null\", \"string\"]},"
+      + "  {\"name\": \"NUMBER\", \"type\": [\"null\", \"int\"]}"
+      + "]}");
+
+  private static final org.apache.avro.Schema AVRO_SCHEMA = parseAvroSchema("{"
+      + "\"type\": \"record\","
+      + "\"name\": \"row\","
+      + "\"fields\": ["
+      + "  {\"name\": \"other\", \"type\": {\"type\": \"array\", \"items\": \"long\"}},"
+      + "  {\"name\": \"id\", \"type\": \"int\"},"
+      + "  {\"name\": \"name\", \"type\": [\"null\", \"string\"]},"
+      + "  {\"name\": \"TAGS\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+      + "  {\"name\": \"COUNTS\", \"type\": {\"type\": \"map\", \"values\": \"float\"}},"
+      + "  {\"name\": \"ADDRESS\", \"type\": " + ADDRESS_AVRO_SCHEMA + "}"
+      + "]}");
+
+  private SchemaRegistryClient schemaRegistryClient;
+  private KafkaAvroSerializer serializer;
+  private Deserializer<List<?>> deserializer;
+
+  @Before
+  public void setUp() {
+    schemaRegistryClient = new MockSchemaRegistryClient();
+
+    serializer = new KafkaAvroSerializer(schemaRegistryClient, ImmutableMap.of(
+        AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, true,
+        AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, ""
+    ));
+
+    deserializer = givenDeserializerForSchema(SCHEMA);
+  }
+
+  @Test
+  public void shouldDeserializeColumns() {
+    // Given:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, givenRow());
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(ImmutableList.of(
+        10L,
+        "bob",
+        ImmutableList.of("a", "b"),
+        ImmutableMap.of("x", 1.5),
+        new Struct(ADDRESS_SCHEMA).put("STREET", "main").put("NUMBER", 1)
+    )));
+  }
+
+  @Test
+  public void shouldDeserializeSameAsConnectDeserializer() {
+    // Given:
+    final Deserializer<Struct> connectDeserializer = givenConnectDeserializerForSchema(SCHEMA);
+
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, givenRow());
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    final Struct expected = connectDeserializer.deserialize(SOME_TOPIC, bytes);
+    assertThat(result, is(ImmutableList.of(
+        expected.get("ID"),
+        expected.get("name"),
+        expected.get("TAGS"),
+        expected.get("COUNTS"),
+        expected.get("ADDRESS")
+    )));
+  }
+
+  @Test
+  public void shouldDeserializeMissingFieldsAsNull() {
+    // Given:
+    final org.apache.avro.Schema avroSchema = parseAvroSchema("{"
+        + "\"type\": \"record\","
+        + "\"name\": \"row\","
+        + "\"fields\": [{\"name\": \"ID\", \"type\": \"long\"}]"
+        + "}");
+
+    final Record record = new Record(avroSchema);
+    record.put("ID", 10L);
+
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, record);
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(Arrays.asList(10L, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldDeserializeMapsWrittenAsArraysOfEntries() {
+    // Given:
+    final org.apache.avro.Schema entrySchema = parseAvroSchema("{"
+        + "\"type\": \"record\","
+        + "\"name\": \"entry\","
+        + "\"connect.internal.type\": \"MapEntry\","
+        + "\"fields\": ["
+        + "  {\"name\": \"key\", \"type\": [\"null\", \"string\"]},"
+        + "  {\"name\": \"value\", \"type\": [\"null\", \"double\"]}"
+        + "]}");
+
+    final org.apache.avro.Schema avroSchema = parseAvroSchema("{"
+        + "\"type\": \"record\","
+        + "\"name\": \"row\","
+        + "\"fields\": [{\"name\": \"COUNTS\", \"type\": "
+        + "{\"type\": \"array\", \"items\": " + entrySchema + "}}]"
+        + "}");
+
+    final Record entry = new Record(avroSchema.getField("COUNTS").schema().getElementType());
+    entry.put("key", "x");
+    entry.put("value", 1.5);
+
+    final Record record = new Record(avroSchema);
+    record.put("COUNTS", new GenericData.Array<>(
+        avroSchema.getField("COUNTS").schema(),
+        ImmutableList.of(entry)
+    ));
+
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, record);
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result.get(3), is(ImmutableMap.of("x", 1.5)));
+  }
+
+  @Test
+  public void shouldFallBackToConnectDeserializerForUnsupportedSchemas() {
+    // Given:
+    final org.apache.avro.Schema avroSchema = parseAvroSchema("{"
+        + "\"type\": \"record\","
+        + "\"name\": \"row\","
+        + "\"fields\": [{\"name\": \"ID\", \"type\": \"boolean\"}]"
+        + "}");
+
+    final Record record = new Record(avroSchema);
+    record.put("ID", true);
+
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, record);
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize(SOME_TOPIC, bytes)
+    );
+
+    // Then:
+    assertThat(e.getCause(), (hasMessage(is(
+        "Cannot deserialize type boolean as type int64 for path: ->ID"))));
+  }
+
+  @Test
+  public void shouldDeserializeNullAsNull() {
+    assertThat(deserializer.deserialize(SOME_TOPIC, null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnUnknownMagicByte() {
+    // Given:
+    final byte[] bytes = {1, 0, 0, 0, 1, 0};
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize(SOME_TOPIC, bytes)
+    );
+
+    // Then:
+    assertThat(e.getCause(), (hasMessage(is("Unknown magic byte!"))));
+  }
+
+  private Deserializer<List<?>> givenDeserializerForSchema(final ConnectSchema schema) {
+    final Deserializer<List<?>> deserializer = new KsqlAvroSerdeFactory(
+        AvroProperties.DEFAULT_AVRO_SCHEMA_FULL_NAME)
+        .createColumnsDeserializer(schema, KSQL_CONFIG, () -> schemaRegistryClient, false)
+        .orElseThrow(IllegalStateException::new);
+
+    deserializer.configure(Collections.emptyMap(), false);
+
+    return deserializer;
+  }
+
+  private Deserializer<Struct> givenConnectDeserializerForSchema(final ConnectSchema schema) {
+    final Deserializer<Struct> deserializer = new KsqlAvroSerdeFactory(
+        AvroProperties.DEFAULT_AVRO_SCHEMA_FULL_NAME)
+        .createSerde(schema, KSQL_CONFIG, () -> schemaRegistryClient, Struct.class, false)
+        .deserializer();
+
+    deserializer.configure(Collections.emptyMap(), false);
+
+    return deserializer;
+  }
+
+  private static Record givenRow() {
+    final Record address = new Record(ADDRESS_AVRO_SCHEMA);
+    address.put("STREET", "main");
+    address.put("NUMBER", 1);
+
+    final Map<String, Float> counts = ImmutableMap.of("x", 1.5f);
+
+    final Record record = new Record(AVRO_SCHEMA);
+    record.put("other", new GenericData.Array<>(
+        AVRO_SCHEMA.getField("other").schema(),
+        ImmutableList.of(1L, 2L)
+    ));
+    record.put("id", 10);
+    record.put("name", "bob");
+    record.put("TAGS", new GenericData.Array<>(
+        AVRO_SCHEMA.getField("TAGS").schema(),
+        ImmutableList.of("a", "b")
+    ));
+    record.put("COUNTS", counts);
+    record.put("ADDRESS", address);
+    return record;
+  }
+
+  private static org.apache.avro.Schema parseAvroSchema(final String avroSchema) {
+    return new org.apache.avro.Schema.Parser().parse(avroSchema);
+  }
+}
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.name.ColumnName;
@@ -37,6 +38,7 @@ import io.confluent.ksql.serde.SerdeFeatures;
 import io.confluent.ksql.serde.unwrapped.UnwrappedDeserializer;
 import io.confluent.ksql.serde.unwrapped.UnwrappedSerializer;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -131,6 +133,39 @@ public class ConnectFormatTest {
     assertThat(result.deserializer(), instanceOf(UnwrappedDeserializer.class));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    // Given:
+    when(persistenceSchema.columns()).thenReturn(ImmutableList.of(
+        createColumn("bob", SqlTypes.INTEGER),
+        createColumn("vic", SqlTypes.STRING)
+    ));
+
+    final ConnectSchema prunedSchema = (ConnectSchema) SchemaBuilder.struct()
+        .field("vic", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    final byte[] bytes = new byte[]{1};
+    when(deserializer.deserialize("topic", bytes))
+        .thenReturn(new Struct(prunedSchema).put("vic", "a"));
+
+    // When:
+    final Serde<List<?>> result = format.getSerde(
+        persistenceSchema,
+        formatProps,
+        config,
+        srFactory,
+        false,
+        ImmutableSet.of(ColumnName.of("vic"))
+    );
+
+    // Then:
+    verify(format)
+        .getConnectSerde(prunedSchema, formatProps, config, srFactory, Struct.class, false);
+
+    assertThat(result.deserializer().deserialize("topic", bytes), is(Arrays.asList(null, "a")));
+  }
+
   @Test
   public void shouldThrowOnSerializationIfStructColumnValueDoesNotMatchSchema() {
     // Given:
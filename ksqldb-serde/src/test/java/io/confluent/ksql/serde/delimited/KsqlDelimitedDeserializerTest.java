@@ -23,6 +23,7 @@ import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.SimpleColumn;
@@ -85,6 +86,25 @@ public class KsqlDelimitedDeserializerTest {
     assertThat(result, contains(1511897796092L, 1L, "item_1", null, null, null));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        ORDER_SCHEMA,
+        CSVFormat.DEFAULT,
+        ImmutableSet.of(ColumnName.of("ORDERID"), ColumnName.of("ITEMID"))
+    );
+
+    final byte[] bytes = "not-a-long,1,item_1,not-a-double,10.10,100\r\n"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final List<?> result = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(result, contains(null, 1L, "item_1", null, null, null));
+  }
+
   @Test
   public void shouldThrowIfRowHasTooFewColumns() {
     // Given:
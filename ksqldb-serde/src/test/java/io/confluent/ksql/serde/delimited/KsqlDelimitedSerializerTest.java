@@ -227,6 +227,22 @@ public class KsqlDelimitedSerializerTest {
     assertThat(new String(bytes, StandardCharsets.UTF_8), is("1511897796092\t1\titem_1\t10.0\t100"));
   }
 
+  @Test
+  public void shouldSerializeSameWithPooledBuffers() {
+    // Given:
+    final List<?> values = Arrays.asList(
+        1511897796092L, 1L, "it\"em, \u00e9\u20ac\ud83d\ude00", 10.0, new Timestamp(100));
+
+    final KsqlDelimitedSerializer pooledSerializer =
+        new KsqlDelimitedSerializer(SCHEMA, CSV_FORMAT, true);
+
+    // When:
+    final byte[] bytes = pooledSerializer.serialize("t1", values);
+
+    // Then:
+    assertThat(bytes, is(serializer.serialize("t1", values)));
+  }
+
   private void givenSingleColumnSerializer(final SqlType columnType) {
     final PersistenceSchema schema = givenSingleColumnPersistenceSchema(columnType);
 
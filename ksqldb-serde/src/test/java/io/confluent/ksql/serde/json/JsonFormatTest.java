@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.SerdeFeatures;
+import io.confluent.ksql.util.KsqlConfig;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JsonFormatTest {
+
+  private static final ColumnName COL_A = ColumnName.of("A");
+  private static final ColumnName COL_B = ColumnName.of("B");
+
+  private static final PersistenceSchema SCHEMA = PersistenceSchema.from(
+      LogicalSchema.builder()
+          .valueColumn(COL_A, SqlTypes.INTEGER)
+          .valueColumn(COL_B, SqlTypes.INTEGER)
+          .build()
+          .value(),
+      SerdeFeatures.of()
+  );
+
+  private static final byte[] MALFORMED_B = "{\"A\": 1, \"B\": \"not-a-number\"}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private static final KsqlConfig CONFIG = new KsqlConfig(ImmutableMap.of());
+
+  @Mock
+  private Supplier<SchemaRegistryClient> srFactory;
+
+  @Test
+  public void shouldNotFailOnMalformedValueOfColumnThatIsNotRequired() {
+    // Given:
+    final Deserializer<List<?>> deserializer = deserializer(ImmutableSet.of(COL_A));
+
+    // When:
+    final List<?> result = deserializer.deserialize("topic", MALFORMED_B);
+
+    // Then:
+    assertThat(result, is(Arrays.asList(1, null)));
+  }
+
+  @Test
+  public void shouldFailOnMalformedValueOfRequiredColumn() {
+    // Given:
+    final Deserializer<List<?>> deserializer = deserializer(ImmutableSet.of(COL_A, COL_B));
+
+    // When:
+    assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize("topic", MALFORMED_B)
+    );
+  }
+
+  private Deserializer<List<?>> deserializer(final Set<ColumnName> requiredColumns) {
+    return new JsonFormat()
+        .getSerde(SCHEMA, ImmutableMap.of(), CONFIG, srFactory, false, requiredColumns)
+        .deserializer();
+  }
+}
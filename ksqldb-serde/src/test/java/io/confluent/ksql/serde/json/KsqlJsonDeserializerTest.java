@@ -48,6 +48,7 @@ import java.util.Map;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -109,7 +110,12 @@ public class KsqlJsonDeserializerTest {
 
   @Parameters(name = "{0}")
   public static Collection<Object[]> data() {
-    return Arrays.asList(new Object[][]{{"Plain JSON", false}, {"Magic byte prefixed", true}});
+    return Arrays.asList(new Object[][]{
+        {"Plain JSON", false, false},
+        {"Magic byte prefixed", true, false},
+        {"Plain JSON streaming", false, true},
+        {"Magic byte prefixed streaming", true, true}
+    });
   }
 
   @Parameter
@@ -118,8 +124,11 @@ public class KsqlJsonDeserializerTest {
   @Parameter(1)
   public boolean useSchemas;
 
+  @Parameter(2)
+  public boolean streaming;
+
   private Struct expectedOrder;
-  private KsqlJsonDeserializer<Struct> deserializer;
+  private Deserializer<Struct> deserializer;
 
   @Before
   public void before() {
@@ -288,7 +297,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldCreateJsonStringForStructIfDefinedAsVarchar() {
     // Given:
-    final KsqlJsonDeserializer<Struct> deserializer = givenDeserializerForSchema(
+    final Deserializer<Struct> deserializer = givenDeserializerForSchema(
         SchemaBuilder.struct()
             .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
             .build(),
@@ -317,7 +326,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonBoolean() {
     // Given:
-    final KsqlJsonDeserializer<Boolean> deserializer = 
+    final Deserializer<Boolean> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_BOOLEAN_SCHEMA, Boolean.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -332,7 +341,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceToBoolean() {
     // Given:
-    final KsqlJsonDeserializer<Boolean> deserializer = 
+    final Deserializer<Boolean> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_BOOLEAN_SCHEMA, Boolean.class);
 
     final byte[] bytes = serializeJson(IntNode.valueOf(23));
@@ -351,7 +360,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonNumberAsInt() {
     // Given:
-    final KsqlJsonDeserializer<Integer> deserializer = 
+    final Deserializer<Integer> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_INT32_SCHEMA, Integer.class);
 
     final List<String> validCoercions = ImmutableList.of(
@@ -375,7 +384,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceToInt() {
     // Given:
-    final KsqlJsonDeserializer<Integer> deserializer = 
+    final Deserializer<Integer> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_INT32_SCHEMA, Integer.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -394,7 +403,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonNumberAsBigInt() {
     // Given:
-    final KsqlJsonDeserializer<Long> deserializer = 
+    final Deserializer<Long> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA, Long.class);
 
     final List<String> validCoercions = ImmutableList.of(
@@ -419,7 +428,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceToBigInt() {
     // Given:
-    final KsqlJsonDeserializer<Long> deserializer = 
+    final Deserializer<Long> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA, Long.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -438,7 +447,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonNumberAsDouble() {
     // Given:
-    final KsqlJsonDeserializer<Double> deserializer = 
+    final Deserializer<Double> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_FLOAT64_SCHEMA, Double.class);
 
     final List<String> validCoercions = ImmutableList.of(
@@ -463,7 +472,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceToDouble() {
     // Given:
-    final KsqlJsonDeserializer<Double> deserializer = 
+    final Deserializer<Double> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_FLOAT64_SCHEMA, Double.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -482,7 +491,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonText() {
     // Given:
-    final KsqlJsonDeserializer<String> deserializer = 
+    final Deserializer<String> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_STRING_SCHEMA, String.class);
 
     final Map<String, String> validCoercions = ImmutableMap.<String, String>builder()
@@ -510,7 +519,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonNumberAsBigDecimal() {
     // Given:
-    final KsqlJsonDeserializer<BigDecimal> deserializer = 
+    final Deserializer<BigDecimal> deserializer = 
         givenDeserializerForSchema(DecimalUtil.builder(20, 19).build(), BigDecimal.class);
 
     final List<String> validCoercions = ImmutableList.of(
@@ -533,7 +542,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializeDecimalsWithoutStrippingTrailingZeros() {
     // Given:
-    final KsqlJsonDeserializer<BigDecimal> deserializer = 
+    final Deserializer<BigDecimal> deserializer = 
         givenDeserializerForSchema(DecimalUtil.builder(3, 1).build(), BigDecimal.class);
 
     final byte[] bytes = addMagic("10.0".getBytes(UTF_8));
@@ -548,7 +557,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldFixScaleWhenDeserializingDecimalsWithTooSmallAScale() {
     // Given:
-    final KsqlJsonDeserializer<BigDecimal> deserializer =
+    final Deserializer<BigDecimal> deserializer =
         givenDeserializerForSchema(DecimalUtil.builder(4, 3).build(), BigDecimal.class);
 
     final byte[] bytes = addMagic("1.1".getBytes(UTF_8));
@@ -563,7 +572,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfDecimalHasLargerScale() {
     // Given:
-    final KsqlJsonDeserializer<BigDecimal> deserializer =
+    final Deserializer<BigDecimal> deserializer =
         givenDeserializerForSchema(DecimalUtil.builder(4, 1).build(), BigDecimal.class);
 
     final byte[] bytes = addMagic("1.12".getBytes(UTF_8));
@@ -582,7 +591,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializeScientificNotation() {
     // Given:
-    final KsqlJsonDeserializer<BigDecimal> deserializer = 
+    final Deserializer<BigDecimal> deserializer = 
         givenDeserializerForSchema(DecimalUtil.builder(3, 1).build(), BigDecimal.class);
 
     final byte[] bytes = addMagic("1E+1".getBytes(UTF_8));
@@ -597,7 +606,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceToBigDecimal() {
     // Given:
-    final KsqlJsonDeserializer<BigDecimal> deserializer = 
+    final Deserializer<BigDecimal> deserializer = 
         givenDeserializerForSchema(DecimalUtil.builder(20, 19).build(), BigDecimal.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -616,7 +625,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializeToTimestamp() {
     // Given:
-    final KsqlJsonDeserializer<java.sql.Timestamp> deserializer =
+    final Deserializer<java.sql.Timestamp> deserializer =
         givenDeserializerForSchema(Timestamp.SCHEMA, java.sql.Timestamp.class);
 
     final byte[] bytes = serializeJson(100L);
@@ -631,7 +640,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceToTimestamp() {
     // Given:
-    final KsqlJsonDeserializer<java.sql.Timestamp> deserializer =
+    final Deserializer<java.sql.Timestamp> deserializer =
         givenDeserializerForSchema(Timestamp.SCHEMA, java.sql.Timestamp.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -650,7 +659,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonArray() {
     // Given:
-    final KsqlJsonDeserializer<List> deserializer = givenDeserializerForSchema(
+    final Deserializer<List> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .array(Schema.OPTIONAL_INT64_SCHEMA)
             .build(),
@@ -669,7 +678,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfNotAnArray() {
     // Given:
-    final KsqlJsonDeserializer<List> deserializer = givenDeserializerForSchema(
+    final Deserializer<List> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .array(Schema.OPTIONAL_STRING_SCHEMA)
             .build(),
@@ -692,7 +701,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceArrayElement() {
     // Given:
-    final KsqlJsonDeserializer<List> deserializer = givenDeserializerForSchema(
+    final Deserializer<List> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .array(Schema.OPTIONAL_INT32_SCHEMA)
             .build(),
@@ -717,7 +726,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldDeserializedJsonObjectAsMap() {
     // Given:
-    final KsqlJsonDeserializer<Map> deserializer = givenDeserializerForSchema(
+    final Deserializer<Map> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA)
             .build(),
@@ -736,7 +745,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfNotAnMap() {
     // Given:
-    final KsqlJsonDeserializer<Map> deserializer = givenDeserializerForSchema(
+    final Deserializer<Map> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.INT32_SCHEMA)
             .build(),
@@ -759,7 +768,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldThrowIfCanNotCoerceMapValue() {
     // Given:
-    final KsqlJsonDeserializer<Map> deserializer = givenDeserializerForSchema(
+    final Deserializer<Map> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.INT32_SCHEMA)
             .build(),
@@ -829,7 +838,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldIncludeTopicNameInException() {
     // Given:
-    final KsqlJsonDeserializer<Long> deserializer = 
+    final Deserializer<Long> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA, Long.class);
 
     final byte[] bytes = "true".getBytes(StandardCharsets.UTF_8);
@@ -848,7 +857,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldNotIncludeBadValueInExceptionAsThatWouldBeASecurityIssue() {
     // Given:
-    final KsqlJsonDeserializer<Long> deserializer = 
+    final Deserializer<Long> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA, Long.class);
 
     final byte[] bytes = "\"personal info: do not log me\"".getBytes(StandardCharsets.UTF_8);
@@ -868,7 +877,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldNotIncludeBadValueInExceptionOnJsonParseException() {
     // Given:
-    final KsqlJsonDeserializer<Long> deserializer =
+    final Deserializer<Long> deserializer =
         givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA, Long.class);
 
     final byte[] bytes = "{bad json containing personal info: do not log me".getBytes(StandardCharsets.UTF_8);
@@ -888,7 +897,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldIncludePathForErrorsInRootNode() {
     // Given:
-    final KsqlJsonDeserializer<Double> deserializer = 
+    final Deserializer<Double> deserializer = 
         givenDeserializerForSchema(Schema.OPTIONAL_FLOAT64_SCHEMA, Double.class);
 
     final byte[] bytes = serializeJson(BooleanNode.valueOf(true));
@@ -924,7 +933,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldIncludePathForErrorsInArrayElements() {
     // Given:
-    final KsqlJsonDeserializer<List> deserializer = givenDeserializerForSchema(
+    final Deserializer<List> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .array(Schema.OPTIONAL_INT32_SCHEMA)
             .build(),
@@ -948,7 +957,7 @@ public class KsqlJsonDeserializerTest {
   @Test
   public void shouldIncludePathForErrorsInMapValues() {
     // Given:
-    final KsqlJsonDeserializer<Map> deserializer = givenDeserializerForSchema(
+    final Deserializer<Map> deserializer = givenDeserializerForSchema(
         SchemaBuilder
             .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.INT32_SCHEMA)
             .build(),
@@ -967,11 +976,13 @@ public class KsqlJsonDeserializerTest {
     assertThat(e.getCause(), (hasMessage(endsWith("path: $.b.value"))));
   }
   
-  private <T> KsqlJsonDeserializer<T> givenDeserializerForSchema(
+  private <T> Deserializer<T> givenDeserializerForSchema(
       final Schema schema, 
       final Class<T> type
   ) {
-    return new KsqlJsonDeserializer<>((ConnectSchema) schema, useSchemas, type);
+    return streaming
+        ? KsqlJsonStreamingDeserializer.valueDeserializer((ConnectSchema) schema, useSchemas, type)
+        : new KsqlJsonDeserializer<>((ConnectSchema) schema, useSchemas, type);
   }
 
   private byte[] serializeJson(final Object expected) {
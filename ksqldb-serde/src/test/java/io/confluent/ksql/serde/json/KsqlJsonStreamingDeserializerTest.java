@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+
+public class KsqlJsonStreamingDeserializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("NUMBER", Schema.OPTIONAL_INT32_SCHEMA)
+      .optional()
+      .build();
+
+  private static final ConnectSchema SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("TAGS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .build();
+
+  private final KsqlJsonStreamingDeserializer<List<?>> deserializer =
+      KsqlJsonStreamingDeserializer.columnsDeserializer(SCHEMA, false);
+
+  @Test
+  public void shouldDeserializeColumns() {
+    // Given:
+    final byte[] bytes = bytes("{"
+        + "\"id\": 10,"
+        + "\"name\": \"bob\","
+        + "\"tags\": [\"a\", \"b\"],"
+        + "\"address\": {\"street\": \"main\", \"number\": 1}"
+        + "}");
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(ImmutableList.of(
+        10L,
+        "bob",
+        ImmutableList.of("a", "b"),
+        new Struct(ADDRESS_SCHEMA).put("STREET", "main").put("NUMBER", 1)
+    )));
+  }
+
+  @Test
+  public void shouldSkipFieldsNotInSchema() {
+    // Given:
+    final byte[] bytes = bytes("{"
+        + "\"other\": {\"id\": 20, \"nested\": [1, {\"name\": \"alice\"}]},"
+        + "\"id\": 10,"
+        + "\"others\": [{\"id\": 30}]"
+        + "}");
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(Arrays.asList(10L, null, null, null)));
+  }
+
+  @Test
+  public void shouldPreferExactFieldNameMatchWhateverTheOrder() {
+    // Given:
+    final byte[] exactFirst = bytes("{\"ID\": 1, \"id\": 2}");
+    final byte[] exactLast = bytes("{\"id\": 2, \"ID\": 1}");
+
+    // When:
+    final List<?> resultExactFirst = deserializer.deserialize(SOME_TOPIC, exactFirst);
+    final List<?> resultExactLast = deserializer.deserialize(SOME_TOPIC, exactLast);
+
+    // Then:
+    assertThat(resultExactFirst.get(0), is(1L));
+    assertThat(resultExactLast.get(0), is(1L));
+  }
+
+  @Test
+  public void shouldOnlyMatchCaseSensitiveFieldsExactly() {
+    // Given:
+    final byte[] bytes = bytes("{\"NAME\": \"bob\"}");
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result.get(1), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeSameAsTreeDeserializer() {
+    // Given:
+    final KsqlJsonDeserializer<Struct> treeDeserializer =
+        new KsqlJsonDeserializer<>(SCHEMA, false, Struct.class);
+
+    final byte[] bytes = bytes("{"
+        + "\"Id\": \"10\","
+        + "\"name\": {\"first\": \"bob\"},"
+        + "\"TAGS\": [1, 2.50, true, null],"
+        + "\"ADDRESS\": {\"NUMBER\": 1.9}"
+        + "}");
+
+    // When:
+    final List<?> result = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    final Struct expected = treeDeserializer.deserialize(SOME_TOPIC, bytes);
+    assertThat(result, is(ImmutableList.of(
+        expected.get("ID"),
+        expected.get("name"),
+        expected.get("TAGS"),
+        expected.get("ADDRESS")
+    )));
+  }
+
+  @Test
+  public void shouldDeserializeNullAsNull() {
+    assertThat(deserializer.deserialize(SOME_TOPIC, bytes("null")), is(nullValue()));
+  }
+
+  @Test
+  public void shouldIncludePathForErrorsInNestedFields() {
+    // Given:
+    final byte[] bytes = bytes("{\"address\": {\"number\": true}}");
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize(SOME_TOPIC, bytes)
+    );
+
+    // Then:
+    assertThat(e.getCause(), (hasMessage(endsWith("path: $.ADDRESS.NUMBER"))));
+  }
+
+  @Test
+  public void shouldThrowIfNotAnObject() {
+    // Given:
+    final byte[] bytes = bytes("[1]");
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize(SOME_TOPIC, bytes)
+    );
+
+    // Then:
+    assertThat(e.getCause(), (hasMessage(endsWith("path: $"))));
+  }
+
+  private static byte[] bytes(final String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
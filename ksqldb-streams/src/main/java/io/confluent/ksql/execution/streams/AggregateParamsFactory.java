@@ -102,8 +102,10 @@ public class AggregateParamsFactory {
         .map(KsqlAggregateFunction::getInitialValueSupplier)
         .collect(Collectors.toList());
 
+    final boolean inPlace = config.getBoolean(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED);
+
     final Optional<KudafUndoAggregator> undoAggregator =
-        buildUndoAggregators(nonAggregateColumns.size(), table, functions);
+        buildUndoAggregators(nonAggregateColumns.size(), table, functions, inPlace);
 
     final LogicalSchema aggregateSchema =
         buildSchema(schema, nonAggregateColumns, functions, true, false);
@@ -113,7 +115,7 @@ public class AggregateParamsFactory {
 
     return new AggregateParams(
         new KudafInitializer(nonAggregateColumns.size(), initialValueSuppliers),
-        aggregatorFactory.create(nonAggregateColumns.size(), functions),
+        aggregatorFactory.create(nonAggregateColumns.size(), functions, inPlace),
         undoAggregator,
         aggregateSchema,
         outputSchema
@@ -123,7 +125,8 @@ public class AggregateParamsFactory {
   private Optional<KudafUndoAggregator> buildUndoAggregators(
       final int nonAggColumnCount,
       final boolean table,
-      final List<KsqlAggregateFunction<?, ?, ?>> functions
+      final List<KsqlAggregateFunction<?, ?, ?>> functions,
+      final boolean inPlace
   ) {
     if (!table) {
       return Optional.empty();
@@ -133,7 +136,7 @@ public class AggregateParamsFactory {
     for (final KsqlAggregateFunction<?, ?, ?> function : functions) {
       tableFunctions.add((TableAggregationFunction<?, ?, ?>) function);
     }
-    return Optional.of(undoAggregatorFactory.create(nonAggColumnCount, tableFunctions));
+    return Optional.of(undoAggregatorFactory.create(nonAggColumnCount, tableFunctions, inPlace));
   }
 
   private static List<KsqlAggregateFunction<?, ?, ?>> resolveAggregateFunctions(
@@ -193,7 +196,8 @@ public class AggregateParamsFactory {
 
     KudafAggregator<?> create(
         int nonAggColumnCount,
-        List<KsqlAggregateFunction<?, ?, ?>> functions
+        List<KsqlAggregateFunction<?, ?, ?>> functions,
+        boolean inPlace
     );
   }
 
@@ -201,7 +205,8 @@ public class AggregateParamsFactory {
 
     KudafUndoAggregator create(
         int nonAggColumnCount,
-        List<TableAggregationFunction<?, ?, ?>> functions
+        List<TableAggregationFunction<?, ?, ?>> functions,
+        boolean inPlace
     );
   }
 }
@@ -192,7 +192,7 @@ public final class KSPlanBuilder implements PlanBuilder {
       final PlanInfo planInfo) {
     final KStreamHolder<K> source = streamSink.getSource().build(this, planInfo);
     StreamSinkBuilder.build(source, streamSink, buildContext);
-    return null;
+    return source;
   }
 
   @Override
@@ -202,7 +202,8 @@ public final class KSPlanBuilder implements PlanBuilder {
     return SourceBuilder.buildStream(
         buildContext,
         streamSource,
-        streamsFactories.getConsumedFactory()
+        streamsFactories.getConsumedFactory(),
+        planInfo
     );
   }
 
@@ -213,7 +214,8 @@ public final class KSPlanBuilder implements PlanBuilder {
     return SourceBuilder.buildWindowedStream(
         buildContext,
         windowedStreamSource,
-        streamsFactories.getConsumedFactory()
+        streamsFactories.getConsumedFactory(),
+        planInfo
     );
   }
 
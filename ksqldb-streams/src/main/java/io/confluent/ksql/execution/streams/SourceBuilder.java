@@ -35,6 +35,7 @@ import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
 import io.confluent.ksql.execution.streams.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.execution.streams.timestamp.TimestampExtractionPolicyFactory;
 import io.confluent.ksql.execution.timestamp.TimestampColumn;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -49,8 +50,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.config.ConfigException;
@@ -82,11 +85,13 @@ public final class SourceBuilder {
   public static KStreamHolder<GenericKey> buildStream(
       final RuntimeBuildContext buildContext,
       final StreamSource source,
-      final ConsumedFactory consumedFactory
+      final ConsumedFactory consumedFactory,
+      final PlanInfo planInfo
   ) {
     final PhysicalSchema physicalSchema = getPhysicalSchema(source);
 
-    final Serde<GenericRow> valueSerde = getValueSerde(buildContext, source, physicalSchema);
+    final Serde<GenericRow> valueSerde =
+        getStreamValueSerde(buildContext, source, physicalSchema, planInfo);
 
     final Serde<GenericKey> keySerde = buildContext.buildKeySerde(
         source.getFormats().getKeyFormat(),
@@ -120,11 +125,13 @@ public final class SourceBuilder {
   static KStreamHolder<Windowed<GenericKey>> buildWindowedStream(
       final RuntimeBuildContext buildContext,
       final WindowedStreamSource source,
-      final ConsumedFactory consumedFactory
+      final ConsumedFactory consumedFactory,
+      final PlanInfo planInfo
   ) {
     final PhysicalSchema physicalSchema = getPhysicalSchema(source);
 
-    final Serde<GenericRow> valueSerde = getValueSerde(buildContext, source, physicalSchema);
+    final Serde<GenericRow> valueSerde =
+        getStreamValueSerde(buildContext, source, physicalSchema, planInfo);
 
     final WindowInfo windowInfo = source.getWindowInfo();
     final Serde<Windowed<GenericKey>> keySerde = buildContext.buildKeySerde(
@@ -285,6 +292,35 @@ public final class SourceBuilder {
     );
   }
 
+  private static Serde<GenericRow> getStreamValueSerde(
+      final RuntimeBuildContext buildContext,
+      final SourceStep<?> streamSource,
+      final PhysicalSchema physicalSchema,
+      final PlanInfo planInfo
+  ) {
+    // Only streams are pruned, as table sources may be materialized in a state store:
+    final Optional<Set<ColumnName>> requiredColumns = planInfo
+        .getRequiredColumns(streamSource)
+        .filter(columns -> buildContext.getKsqlConfig()
+            .getBoolean(KsqlConfig.KSQL_SOURCE_COLUMN_PRUNING_ENABLED));
+
+    if (!requiredColumns.isPresent()) {
+      return getValueSerde(buildContext, streamSource, physicalSchema);
+    }
+
+    final Set<ColumnName> columns = new HashSet<>(requiredColumns.get());
+    streamSource.getTimestampColumn()
+        .map(TimestampColumn::getColumn)
+        .ifPresent(columns::add);
+
+    return buildContext.buildValueSerde(
+        streamSource.getFormats().getValueFormat(),
+        physicalSchema,
+        streamSource.getProperties().getQueryContext(),
+        columns
+    );
+  }
+
   private static PhysicalSchema getPhysicalSchema(final SourceStep<?> streamSource) {
     return PhysicalSchema.from(
         streamSource.getSourceSchema(),
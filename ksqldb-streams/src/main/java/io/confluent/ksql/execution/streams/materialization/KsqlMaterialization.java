@@ -26,8 +26,9 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.transform.KsqlProcessingContext;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.CloseableIterator;
+import io.confluent.ksql.util.IteratorUtil;
 import java.time.Instant;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -148,17 +149,32 @@ class KsqlMaterialization implements Materialization {
     }
 
     @Override
-    public Iterator<Row> get(final int partition) {
+    public CloseableIterator<Row> get(final int partition) {
+      return transform(table.get(partition));
+    }
+
+    @Override
+    public CloseableIterator<Row> get(
+        final int partition,
+        final GenericKey from,
+        final GenericKey to
+    ) {
+      return transform(table.get(partition, from, to));
+    }
+
+    private CloseableIterator<Row> transform(final CloseableIterator<Row> rows) {
       if (transforms.isEmpty()) {
-        return table.get(partition);
+        return rows;
       }
 
-      return Streams.stream(table.get(partition))
-          .map(row -> filterAndTransform(row.key(), getIntermediateRow(row), row.rowTime())
-              .map(v -> row.withValue(v, schema())))
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .iterator();
+      return IteratorUtil.onClose(
+          Streams.stream(rows)
+              .map(row -> filterAndTransform(row.key(), getIntermediateRow(row), row.rowTime())
+                  .map(v -> row.withValue(v, schema())))
+              .filter(Optional::isPresent)
+              .map(Optional::get)
+              .iterator(),
+          rows::close);
     }
   }
 
@@ -194,21 +210,34 @@ class KsqlMaterialization implements Materialization {
     }
 
     @Override
-    public Iterator<WindowedRow> get(final int partition, final Range<Instant> windowStartBounds,
+    public CloseableIterator<WindowedRow> get(final int partition,
+        final Range<Instant> windowStartBounds,
         final Range<Instant> windowEndBounds) {
+      return transform(table.get(partition, windowStartBounds, windowEndBounds));
+    }
+
+    @Override
+    public CloseableIterator<WindowedRow> get(final int partition, final GenericKey from,
+        final GenericKey to, final Range<Instant> windowStartBounds,
+        final Range<Instant> windowEndBounds) {
+      return transform(table.get(partition, from, to, windowStartBounds, windowEndBounds));
+    }
+
+    private CloseableIterator<WindowedRow> transform(final CloseableIterator<WindowedRow> result) {
       if (transforms.isEmpty()) {
-        return table.get(partition, windowStartBounds, windowEndBounds);
+        return result;
       }
 
-      final Iterator<WindowedRow> result = table.get(partition, windowStartBounds, windowEndBounds);
-      return Streams.stream(result)
-          .map(row ->  {
-            return filterAndTransform(row.windowedKey(), getIntermediateRow(row), row.rowTime())
-                .map(v -> row.withValue(v, schema()));
-          })
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .iterator();
+      return IteratorUtil.onClose(
+          Streams.stream(result)
+              .map(row ->  {
+                return filterAndTransform(row.windowedKey(), getIntermediateRow(row), row.rowTime())
+                    .map(v -> row.withValue(v, schema()));
+              })
+              .filter(Optional::isPresent)
+              .map(Optional::get)
+              .iterator(),
+          result::close);
     }
   }
 
@@ -16,7 +16,7 @@
 package io.confluent.ksql.execution.streams.materialization;
 
 import io.confluent.ksql.GenericKey;
-import java.util.Iterator;
+import io.confluent.ksql.util.CloseableIterator;
 import java.util.Optional;
 
 /**
@@ -37,7 +37,20 @@ public interface MaterializedTable {
    * Scan the table for rows
    *
    * @param partition partition to limit the get to
-   * @return the rows.
+   * @return the rows, which must be closed if not read to the end.
    */
-  Iterator<Row> get(int partition);
+  CloseableIterator<Row> get(int partition);
+
+  /**
+   * Scan the table for rows with keys between {@code from} and {@code to}, inclusive.
+   *
+   * <p>Keys are compared in the order of the underlying store, i.e. by their serialized form,
+   * so callers must only pass bounds for which this matches the order they require.
+   *
+   * @param partition partition to limit the get to
+   * @param from the lower bound, or {@code null} if unbounded.
+   * @param to the upper bound, or {@code null} if unbounded.
+   * @return the rows, which must be closed if not read to the end.
+   */
+  CloseableIterator<Row> get(int partition, GenericKey from, GenericKey to);
 }
@@ -17,8 +17,8 @@ package io.confluent.ksql.execution.streams.materialization;
 
 import com.google.common.collect.Range;
 import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.util.CloseableIterator;
 import java.time.Instant;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -46,7 +46,26 @@ public interface MaterializedWindowedTable {
    * @param partition partition to limit the get to
    * @param windowStart the bounds on the window's start time.
    * @param windowEnd the bounds on the window's end time.
-   * @return the rows for the key that exist within the range.
+   * @return the rows that exist within the range, which must be closed if not read to the end.
+   */
+  CloseableIterator<WindowedRow> get(
+      int partition, Range<Instant> windowStart, Range<Instant> windowEnd);
+
+  /**
+   * Get the values in table with keys between {@code from} and {@code to}, inclusive, where the
+   * window start time is within the supplied {@code lower} and {@code upper} bounds.
+   *
+   * <p>Keys are compared in the order of the underlying store, i.e. by their serialized form,
+   * so callers must only pass bounds for which this matches the order they require.
+   *
+   * @param partition partition to limit the get to
+   * @param from the lower bound on the key, or {@code null} if unbounded.
+   * @param to the upper bound on the key, or {@code null} if unbounded.
+   * @param windowStart the bounds on the window's start time.
+   * @param windowEnd the bounds on the window's end time.
+   * @return the rows for the keys that exist within the range, which must be closed if not read
+   *     to the end.
    */
-  Iterator<WindowedRow> get(int partition, Range<Instant> windowStart, Range<Instant> windowEnd);
+  CloseableIterator<WindowedRow> get(int partition, GenericKey from, GenericKey to,
+      Range<Instant> windowStart, Range<Instant> windowEnd);
 }
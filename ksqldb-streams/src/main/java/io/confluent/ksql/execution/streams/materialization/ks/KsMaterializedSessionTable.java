@@ -25,8 +25,8 @@ import io.confluent.ksql.execution.streams.materialization.MaterializedWindowedT
 import io.confluent.ksql.execution.streams.materialization.WindowedRow;
 import io.confluent.ksql.execution.streams.materialization.ks.SessionStoreCacheBypass.SessionStoreCacheBypassFetcher;
 import io.confluent.ksql.execution.streams.materialization.ks.SessionStoreCacheBypass.SessionStoreCacheBypassFetcherRange;
+import io.confluent.ksql.util.CloseableIterator;
 import java.time.Instant;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import org.apache.kafka.streams.KeyValue;
@@ -72,7 +72,15 @@ class KsMaterializedSessionTable implements MaterializedWindowedTable {
   }
 
   @Override
-  public Iterator<WindowedRow> get(final int partition, final Range<Instant> windowStartBounds,
+  public CloseableIterator<WindowedRow> get(final int partition,
+      final Range<Instant> windowStartBounds,
+      final Range<Instant> windowEndBounds) {
+    throw new MaterializationException("Table scan unsupported on session tables");
+  }
+
+  @Override
+  public CloseableIterator<WindowedRow> get(final int partition, final GenericKey from,
+      final GenericKey to, final Range<Instant> windowStartBounds,
       final Range<Instant> windowEndBounds) {
     throw new MaterializationException("Table scan unsupported on session tables");
   }
@@ -21,8 +21,8 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.util.CloseableIterator;
 import io.confluent.ksql.util.IteratorUtil;
-import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.kafka.streams.state.KeyValueIterator;
@@ -58,16 +58,31 @@ class KsMaterializedTable implements MaterializedTable {
   }
 
   @Override
-  public Iterator<Row> get(final int partition) {
+  public CloseableIterator<Row> get(final int partition) {
+    return get(partition, null, null);
+  }
+
+  @Override
+  public CloseableIterator<Row> get(
+      final int partition,
+      final GenericKey from,
+      final GenericKey to
+  ) {
     try {
       final ReadOnlyKeyValueStore<GenericKey, ValueAndTimestamp<GenericRow>> store = stateStore
           .store(QueryableStoreTypes.timestampedKeyValueStore(), partition);
 
-      final KeyValueIterator<GenericKey, ValueAndTimestamp<GenericRow>> iterator = store.all();
-      return Streams.stream(IteratorUtil.onComplete(iterator, iterator::close))
-          .map(keyValue -> Row.of(stateStore.schema(), keyValue.key, keyValue.value.value(),
-              keyValue.value.timestamp()))
-          .iterator();
+      // Only keys within the range are read from the store, and so deserialized:
+      final KeyValueIterator<GenericKey, ValueAndTimestamp<GenericRow>> iterator =
+          from == null && to == null
+              ? store.all()
+              : store.range(from, to);
+      return IteratorUtil.onClose(
+          Streams.stream(iterator)
+              .map(keyValue -> Row.of(stateStore.schema(), keyValue.key, keyValue.value.value(),
+                  keyValue.value.timestamp()))
+              .iterator(),
+          iterator::close);
     } catch (final Exception e) {
       throw new MaterializationException("Failed to scan materialized table", e);
     }
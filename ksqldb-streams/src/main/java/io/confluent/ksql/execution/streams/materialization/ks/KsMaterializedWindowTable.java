@@ -27,10 +27,10 @@ import io.confluent.ksql.execution.streams.materialization.WindowedRow;
 import io.confluent.ksql.execution.streams.materialization.ks.WindowStoreCacheBypass.WindowStoreCacheBypassFetcher;
 import io.confluent.ksql.execution.streams.materialization.ks.WindowStoreCacheBypass.WindowStoreCacheBypassFetcherAll;
 import io.confluent.ksql.execution.streams.materialization.ks.WindowStoreCacheBypass.WindowStoreCacheBypassFetcherRange;
+import io.confluent.ksql.util.CloseableIterator;
 import io.confluent.ksql.util.IteratorUtil;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import org.apache.kafka.streams.KeyValue;
@@ -119,10 +119,20 @@ class KsMaterializedWindowTable implements MaterializedWindowedTable {
     }
   }
 
-  public Iterator<WindowedRow> get(
+  public CloseableIterator<WindowedRow> get(
       final int partition,
       final Range<Instant> windowStartBounds,
       final Range<Instant> windowEndBounds) {
+    return get(partition, null, null, windowStartBounds, windowEndBounds);
+  }
+
+  @Override
+  public CloseableIterator<WindowedRow> get(
+      final int partition,
+      final GenericKey from,
+      final GenericKey to,
+      final Range<Instant> windowStartBounds,
+      final Range<Instant> windowEndBounds) {
     try {
       final ReadOnlyWindowStore<GenericKey, ValueAndTimestamp<GenericRow>> store = stateStore
           .store(QueryableStoreTypes.timestampedWindowStore(), partition);
@@ -131,9 +141,12 @@ class KsMaterializedWindowTable implements MaterializedWindowedTable {
 
       final Instant upper = calculateUpperBound(windowStartBounds, windowEndBounds);
 
+      // The store only supports key ranges bounded on both sides:
       final KeyValueIterator<Windowed<GenericKey>, ValueAndTimestamp<GenericRow>> iterator
-          = cacheBypassFetcherAll.fetchAll(store, lower, upper);
-      return Streams.stream(IteratorUtil.onComplete(iterator, iterator::close)).map(next -> {
+          = from != null && to != null
+              ? cacheBypassFetcherRange.fetchRange(store, from, to, lower, upper)
+              : cacheBypassFetcherAll.fetchAll(store, lower, upper);
+      return IteratorUtil.onClose(Streams.stream(iterator).map(next -> {
         final Instant windowStart = next.key.window().startTime();
         if (!windowStartBounds.contains(windowStart)) {
           return null;
@@ -155,7 +168,7 @@ class KsMaterializedWindowTable implements MaterializedWindowedTable {
         );
 
         return row;
-      }).filter(Objects::nonNull).iterator();
+      }).filter(Objects::nonNull).iterator(), iterator::close);
     } catch (final Exception e) {
       throw new MaterializationException("Failed to scan materialized table", e);
     }
@@ -18,11 +18,18 @@ package io.confluent.ksql.execution.streams.metrics;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.rocksdb.AdaptiveRocksDBMemoryManager;
+import io.confluent.ksql.rocksdb.AdaptiveRocksDBMemoryManager.Pool;
+import io.confluent.ksql.rocksdb.KsqlBoundedMemoryRocksDBConfigSetter;
+import io.confluent.ksql.rocksdb.RocksDBStoreProfile;
+import io.confluent.ksql.rocksdb.RocksDBStoreProfiles;
 import java.math.BigInteger;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -70,6 +77,25 @@ public class RocksDBMetricsCollector implements MetricsReporter {
   static final String ESTIMATED_BYTES_OF_PENDING_COMPACTION = "estimate-pending-compaction-bytes";
   static final String TOTAL_SST_FILES_SIZE = "total-sst-files-size";
   static final String LIVE_SST_FILES_SIZE = "live-sst-files-size";
+  static final String BLOCK_CACHE_DATA_HIT_RATIO = "block-cache-data-hit-ratio";
+  static final String BLOCK_CACHE_INDEX_HIT_RATIO = "block-cache-index-hit-ratio";
+  static final String BLOCK_CACHE_FILTER_HIT_RATIO = "block-cache-filter-hit-ratio";
+  static final String MEMTABLE_HIT_RATIO = "memtable-hit-ratio";
+  private static final Set<String> HIT_RATIOS = ImmutableSet.of(
+      BLOCK_CACHE_DATA_HIT_RATIO,
+      BLOCK_CACHE_INDEX_HIT_RATIO,
+      BLOCK_CACHE_FILTER_HIT_RATIO,
+      MEMTABLE_HIT_RATIO
+  );
+
+  static final String ADAPTIVE_BLOCK_CACHE_CAPACITY = "block-cache-capacity";
+  static final String ADAPTIVE_BLOCK_CACHE_TARGET_CAPACITY = "block-cache-target-capacity";
+  static final String ADAPTIVE_WRITE_BUFFER_CAPACITY = "write-buffer-capacity";
+  static final String ADAPTIVE_STORE_COUNT = "store-count";
+  static final String ADAPTIVE_RESIZE_COUNT = "adaptive-resize-count";
+  static final String PROFILE_STORE_COUNT = "store-count";
+  private static final String THREAD_ID_TAG = "thread-id";
+  private static final String STATE_ID_TAG_SUFFIX = "-state-id";
 
   static final String UPDATE_INTERVAL_CONFIG = "ksql.rocksdb.metrics.update.interval.seconds";
 
@@ -87,6 +113,7 @@ public class RocksDBMetricsCollector implements MetricsReporter {
   private static final Object lock = new Object();
 
   private static Map<String, Collection<AggregatedMetric<?>>> registeredMetrics = null;
+  private static final Map<MetricName, KafkaMetric> hitRatioMetrics = new ConcurrentHashMap<>();
   private final Metrics metrics;
 
   public RocksDBMetricsCollector() {
@@ -120,6 +147,9 @@ public class RocksDBMetricsCollector implements MetricsReporter {
       return;
     }
     metricRemoval(metric);
+    if (HIT_RATIOS.contains(metric.metricName().name())) {
+      hitRatioMetrics.put(metric.metricName(), metric);
+    }
     final Collection<AggregatedMetric<?>> registered
         = registeredMetrics.get(metric.metricName().name());
     if (registered == null) {
@@ -134,6 +164,7 @@ public class RocksDBMetricsCollector implements MetricsReporter {
     if (!metricName.group().equals(StreamsMetricsImpl.STATE_STORE_LEVEL_GROUP)) {
       return;
     }
+    hitRatioMetrics.remove(metricName);
     final Collection<AggregatedMetric<?>> registered
         = registeredMetrics.get(metricName.name());
     if (registered == null) {
@@ -145,6 +176,7 @@ public class RocksDBMetricsCollector implements MetricsReporter {
   @VisibleForTesting
   static void reset() {
     registeredMetrics = null;
+    hitRatioMetrics.clear();
   }
 
   @Override
@@ -283,7 +315,139 @@ public class RocksDBMetricsCollector implements MetricsReporter {
               .stream()
               .collect(Collectors.toMap(Map.Entry::getKey, e -> ImmutableList.copyOf(e.getValue())))
       );
+      KsqlBoundedMemoryRocksDBConfigSetter.adaptiveMemoryManager()
+          .ifPresent(manager -> registerAdaptiveMemory(manager, metrics));
+      KsqlBoundedMemoryRocksDBConfigSetter.storeProfiles()
+          .ifPresent(profiles -> registerStoreProfiles(profiles, metrics));
+    }
+  }
+
+  /**
+   * Feeds the block cache hit ratios of the stores to the adaptive memory manager, and reports
+   * its decisions for each pool.
+   */
+  private static void registerAdaptiveMemory(
+      final AdaptiveRocksDBMemoryManager manager,
+      final Metrics metrics
+  ) {
+    manager.setHitRatioSource(() -> poolHitRatios(manager));
+
+    for (final Pool pool : Pool.values()) {
+      final String prefix = "adaptive-" + pool.name().toLowerCase() + "-";
+      metrics.addMetric(
+          metrics.metricName(prefix + ADAPTIVE_BLOCK_CACHE_CAPACITY, KSQL_ROCKSDB_METRICS_GROUP),
+          (Gauge<Long>) (c, t) -> manager.blockCacheCapacity(pool)
+      );
+      metrics.addMetric(
+          metrics.metricName(
+              prefix + ADAPTIVE_BLOCK_CACHE_TARGET_CAPACITY, KSQL_ROCKSDB_METRICS_GROUP),
+          (Gauge<Long>) (c, t) -> manager.targetBlockCacheCapacity(pool)
+      );
+      metrics.addMetric(
+          metrics.metricName(prefix + ADAPTIVE_WRITE_BUFFER_CAPACITY, KSQL_ROCKSDB_METRICS_GROUP),
+          (Gauge<Long>) (c, t) -> manager.writeBufferCapacity(pool)
+      );
+      metrics.addMetric(
+          metrics.metricName(prefix + ADAPTIVE_STORE_COUNT, KSQL_ROCKSDB_METRICS_GROUP),
+          (Gauge<Integer>) (c, t) -> manager.storeCount(pool)
+      );
+      metrics.addMetric(
+          metrics.metricName(prefix + BLOCK_CACHE_DATA_HIT_RATIO, KSQL_ROCKSDB_METRICS_GROUP),
+          (Gauge<Double>) (c, t) -> manager.hitRatio(pool)
+      );
+    }
+
+    metrics.addMetric(
+        metrics.metricName(ADAPTIVE_RESIZE_COUNT, KSQL_ROCKSDB_METRICS_GROUP),
+        (Gauge<Long>) (c, t) -> manager.resizeCount()
+    );
+  }
+
+  @VisibleForTesting
+  static Map<Pool, Double> poolHitRatios(final AdaptiveRocksDBMemoryManager manager) {
+    final Map<Pool, Double> totals = new EnumMap<>(Pool.class);
+    final Map<Pool, Integer> counts = new EnumMap<>(Pool.class);
+
+    for (final KafkaMetric metric : hitRatioMetrics.values()) {
+      if (!metric.metricName().name().equals(BLOCK_CACHE_DATA_HIT_RATIO)) {
+        continue;
+      }
+
+      final Object value = metric.metricValue();
+      if (!(value instanceof Double) || ((Double) value).isNaN()) {
+        continue;
+      }
+
+      // The thread ID starts with the application ID of the query:
+      final Pool pool = manager.poolFor(metric.metricName().tags().get(THREAD_ID_TAG));
+      totals.merge(pool, (Double) value, Double::sum);
+      counts.merge(pool, 1, Integer::sum);
+    }
+
+    final Map<Pool, Double> ratios = new EnumMap<>(Pool.class);
+    totals.forEach((pool, total) -> ratios.put(pool, total / counts.get(pool)));
+    return ratios;
+  }
+
+  /**
+   * Reports the number of stores with each profile, and their average hit ratios, which show
+   * how many reads each profile saves from going to disk.
+   */
+  private static void registerStoreProfiles(
+      final RocksDBStoreProfiles profiles,
+      final Metrics metrics
+  ) {
+    for (final RocksDBStoreProfile profile : RocksDBStoreProfile.values()) {
+      final String prefix = "profile-" + profile.name().toLowerCase().replace('_', '-') + "-";
+      metrics.addMetric(
+          metrics.metricName(prefix + PROFILE_STORE_COUNT, KSQL_ROCKSDB_METRICS_GROUP),
+          (Gauge<Integer>) (c, t) -> profiles.storeCount(profile)
+      );
+
+      for (final String hitRatio : HIT_RATIOS) {
+        metrics.addMetric(
+            metrics.metricName(prefix + hitRatio, KSQL_ROCKSDB_METRICS_GROUP),
+            (Gauge<Double>) (c, t) -> profileHitRatio(profiles, profile, hitRatio)
+        );
+      }
+    }
+  }
+
+  @VisibleForTesting
+  static double profileHitRatio(
+      final RocksDBStoreProfiles profiles,
+      final RocksDBStoreProfile profile,
+      final String hitRatio
+  ) {
+    double total = 0;
+    int count = 0;
+
+    for (final KafkaMetric metric : hitRatioMetrics.values()) {
+      final MetricName name = metric.metricName();
+      if (!name.name().equals(hitRatio)) {
+        continue;
+      }
+
+      final Object value = metric.metricValue();
+      if (!(value instanceof Double) || ((Double) value).isNaN()) {
+        continue;
+      }
+
+      final String storeName = name.tags().entrySet().stream()
+          .filter(tag -> tag.getKey().endsWith(STATE_ID_TAG_SUFFIX))
+          .map(Map.Entry::getValue)
+          .findFirst()
+          .orElse(null);
+
+      if (profiles.profileOf(name.tags().get(THREAD_ID_TAG), storeName)
+          .filter(profile::equals)
+          .isPresent()) {
+        total += (Double) value;
+        count++;
+      }
     }
+
+    return count == 0 ? Double.NaN : total / count;
   }
 
   private static void registerAll(
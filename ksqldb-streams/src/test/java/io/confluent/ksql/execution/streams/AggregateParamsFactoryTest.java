@@ -5,12 +5,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.function.TableAggregationFunction;
@@ -106,8 +108,8 @@ public class AggregateParamsFactoryTest {
     when(tableAgg.returnType()).thenReturn(SqlTypes.INTEGER);
     when(tableAgg.getAggregateType()).thenReturn(SqlTypes.BIGINT);
 
-    when(udafFactory.create(anyInt(), any())).thenReturn(aggregator);
-    when(undoUdafFactory.create(anyInt(), any())).thenReturn(undoAggregator);
+    when(udafFactory.create(anyInt(), any(), anyBoolean())).thenReturn(aggregator);
+    when(undoUdafFactory.create(anyInt(), any(), anyBoolean())).thenReturn(undoAggregator);
 
     aggregateParams = new AggregateParamsFactory(udafFactory, undoUdafFactory).create(
         INPUT_SCHEMA,
@@ -122,7 +124,24 @@ public class AggregateParamsFactoryTest {
   @SuppressWarnings("unchecked")
   @Test
   public void shouldCreateAggregatorWithCorrectParams() {
-    verify(udafFactory).create(2, ImmutableList.of(agg0, agg1));
+    verify(udafFactory).create(2, ImmutableList.of(agg0, agg1), true);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldCreateAggregatorThatCopiesRowsIfInPlaceDisabled() {
+    // When:
+    new AggregateParamsFactory(udafFactory, undoUdafFactory).create(
+        INPUT_SCHEMA,
+        NON_AGG_COLUMNS,
+        functionRegistry,
+        FUNCTIONS,
+        false,
+        new KsqlConfig(ImmutableMap.of(KsqlConfig.KSQL_AGGREGATE_IN_PLACE_ENABLED, false))
+    );
+
+    // Then:
+    verify(udafFactory).create(2, ImmutableList.of(agg0, agg1), false);
   }
 
   @Test
@@ -137,7 +156,7 @@ public class AggregateParamsFactoryTest {
     );
 
     // Then:
-    verify(undoUdafFactory).create(2, ImmutableList.of(tableAgg));
+    verify(undoUdafFactory).create(2, ImmutableList.of(tableAgg), true);
   }
 
   @Test
@@ -21,13 +21,19 @@ import static org.hamcrest.Matchers.is;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericKey;
 import io.confluent.ksql.execution.context.QueryContext;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
 import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.plan.ExecutionStepPropertiesV1;
 import io.confluent.ksql.execution.plan.Formats;
 import io.confluent.ksql.execution.plan.JoinType;
 import io.confluent.ksql.execution.plan.PlanInfoExtractor;
 import io.confluent.ksql.execution.plan.PlanInfo;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamSelect;
 import io.confluent.ksql.execution.plan.StreamSelectKey;
 import io.confluent.ksql.execution.plan.StreamSource;
 import io.confluent.ksql.execution.plan.StreamTableJoin;
@@ -62,6 +68,8 @@ public class PlanInfoExtractorTest {
   private StreamTableJoin<GenericKey> streamAndTableJoined;
   private StreamTableJoin<GenericKey> streamRepartitionedAndTableJoined;
   private StreamSelectKey<GenericKey> streamAndTableJoinedRepartitioned;
+  private StreamSelect<GenericKey> streamFilteredAndSelected;
+  private StreamSelect<GenericKey> streamRepartitionedAndSelected;
 
   private PlanInfoExtractor planInfoExtractor;
 
@@ -109,6 +117,28 @@ public class PlanInfoExtractorTest {
         ImmutableList.of(repartitionKey)
     );
 
+    final StreamFilter<GenericKey> streamFiltered = new StreamFilter<>(
+        new ExecutionStepPropertiesV1(queryContext),
+        streamSource,
+        new ComparisonExpression(
+            ComparisonExpression.Type.GREATER_THAN,
+            column("A"),
+            new IntegerLiteral(10)
+        )
+    );
+    streamFilteredAndSelected = new StreamSelect<>(
+        new ExecutionStepPropertiesV1(queryContext),
+        streamFiltered,
+        ImmutableList.of(),
+        ImmutableList.of(SelectExpression.of(ColumnName.of("X"), column("B")))
+    );
+    streamRepartitionedAndSelected = new StreamSelect<>(
+        new ExecutionStepPropertiesV1(queryContext),
+        streamSourceRepartitioned,
+        ImmutableList.of(),
+        ImmutableList.of(SelectExpression.of(ColumnName.of("X"), column("B")))
+    );
+
     planInfoExtractor = new PlanInfoExtractor();
   }
 
@@ -159,4 +189,48 @@ public class PlanInfoExtractorTest {
     assertThat(planInfo.isRepartitionedInPlan(streamSource), is(false));
     assertThat(planInfo.isRepartitionedInPlan(tableSource), is(false));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldExtractAllColumnsRequiredIfNotProjected() {
+    // When:
+    final PlanInfo planInfo = streamSource.extractPlanInfo(planInfoExtractor);
+
+    // Then:
+    assertThat(planInfo.getRequiredColumns(streamSource), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldExtractColumnsReadByFilterAndProjection() {
+    // When:
+    final PlanInfo planInfo = streamFilteredAndSelected.extractPlanInfo(planInfoExtractor);
+
+    // Then:
+    assertThat(
+        planInfo.getRequiredColumns(streamSource),
+        is(Optional.of(ImmutableSet.of(ColumnName.of("A"), ColumnName.of("B"))))
+    );
+  }
+
+  @Test
+  public void shouldExtractAllColumnsRequiredIfRepartitionedBeforeProjection() {
+    // When:
+    final PlanInfo planInfo = streamRepartitionedAndSelected.extractPlanInfo(planInfoExtractor);
+
+    // Then:
+    assertThat(planInfo.getRequiredColumns(streamSource), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldExtractAllColumnsRequiredForJoinedSources() {
+    // When:
+    final PlanInfo planInfo = streamAndTableJoined.extractPlanInfo(planInfoExtractor);
+
+    // Then:
+    assertThat(planInfo.getRequiredColumns(streamSource), is(Optional.empty()));
+    assertThat(planInfo.getRequiredColumns(tableSource), is(Optional.empty()));
+  }
+
+  private static Expression column(final String name) {
+    return new UnqualifiedColumnReferenceExp(ColumnName.of(name));
+  }
+}
@@ -31,6 +31,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericKey;
 import io.confluent.ksql.GenericRow;
@@ -472,6 +473,43 @@ public class SourceBuilderTest {
     verify(buildContext).buildValueSerde(valueFormatInfo, PHYSICAL_SCHEMA, ctx);
   }
 
+  @Test
+  public void shouldBuildPrunedSourceValueSerdeForStream() {
+    // Given:
+    givenUnwindowedSourceStream();
+    when(planInfo.getRequiredColumns(streamSource))
+        .thenReturn(Optional.of(ImmutableSet.of(ColumnName.of("field1"))));
+    when(buildContext.buildValueSerde(any(), any(), any(), any())).thenReturn(valueSerde);
+
+    // When:
+    streamSource.build(planBuilder, planInfo);
+
+    // Then:
+    verify(buildContext).buildValueSerde(
+        valueFormatInfo,
+        PHYSICAL_SCHEMA,
+        ctx,
+        ImmutableSet.of(ColumnName.of("field1"), ColumnName.of("field2"))
+    );
+  }
+
+  @Test
+  public void shouldNotBuildPrunedSourceValueSerdeIfDisabled() {
+    // Given:
+    when(buildContext.getKsqlConfig()).thenReturn(new KsqlConfig(
+        ImmutableMap.of(KsqlConfig.KSQL_SOURCE_COLUMN_PRUNING_ENABLED, false)
+    ));
+    givenUnwindowedSourceStream();
+    when(planInfo.getRequiredColumns(streamSource))
+        .thenReturn(Optional.of(ImmutableSet.of(ColumnName.of("field1"))));
+
+    // When:
+    streamSource.build(planBuilder, planInfo);
+
+    // Then:
+    verify(buildContext).buildValueSerde(valueFormatInfo, PHYSICAL_SCHEMA, ctx);
+  }
+
   @Test
   public void shouldBuildSourceKeySerdeCorrectly() {
     // Given:
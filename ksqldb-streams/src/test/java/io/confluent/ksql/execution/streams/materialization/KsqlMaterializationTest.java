@@ -16,7 +16,6 @@
 package io.confluent.ksql.execution.streams.materialization;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterators;
 import com.google.common.collect.Range;
 import com.google.common.collect.Streams;
 import com.google.common.testing.NullPointerTester;
@@ -30,6 +29,7 @@ import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.IteratorUtil;
 import java.time.Instant;
 import java.util.Iterator;
 import java.util.List;
@@ -89,6 +89,8 @@ public class KsqlMaterializationTest {
   private MaterializedTable innerNonWindowed;
   @Mock
   private MaterializedWindowedTable innerWindowed;
+  @Mock
+  private Runnable innerClose;
 
   private KsqlMaterialization materialization;
 
@@ -163,10 +165,11 @@ public class KsqlMaterializationTest {
     when(inner.windowed()).thenReturn(innerWindowed);
 
     when(innerNonWindowed.get(any(), anyInt())).thenReturn(Optional.of(row));
-    when(innerNonWindowed.get(anyInt())).thenReturn(Iterators.forArray(row, row2));
+    when(innerNonWindowed.get(anyInt()))
+        .thenReturn(IteratorUtil.onClose(ImmutableList.of(row, row2).iterator(), innerClose));
     when(innerWindowed.get(any(), anyInt(), any(), any())).thenReturn(ImmutableList.of(windowedRow));
     when(innerWindowed.get(anyInt(), any(), any()))
-        .thenReturn(ImmutableList.of(windowedRow, windowedRow2).iterator());
+        .thenReturn(IteratorUtil.of(windowedRow, windowedRow2));
   }
 
   @SuppressWarnings("UnstableApiUsage")
@@ -374,6 +377,18 @@ public class KsqlMaterializationTest {
     assertThat(result.hasNext(), is(false));
   }
 
+  @Test
+  public void shouldCloseInnerIteratorIfClosedBeforeExhausted_fullScan() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+
+    // When:
+    table.get(partition).close();
+
+    // Then:
+    verify(innerClose).run();
+  }
+
   @Test
   public void shouldCallTransformsInOrder() {
     // Given:
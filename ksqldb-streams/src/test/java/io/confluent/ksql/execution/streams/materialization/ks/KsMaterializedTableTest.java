@@ -22,6 +22,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +37,7 @@ import io.confluent.ksql.execution.streams.materialization.Row;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.CloseableIterator;
 import java.util.Iterator;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -227,4 +229,56 @@ public class KsMaterializedTableTest {
     // Then:
     verify(keyValueIterator).close();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldCloseIteratorIfClosedBeforeExhausted_fullTableScan() {
+    // Given:
+    when(tableStore.all()).thenReturn(keyValueIterator);
+    when(keyValueIterator.hasNext()).thenReturn(true);
+    when(keyValueIterator.next()).thenReturn(KEY_VALUE1);
+    final CloseableIterator<Row> rows = table.get(PARTITION);
+    rows.next();
+
+    // When:
+    rows.close();
+    rows.close();
+
+    // Then:
+    verify(keyValueIterator).close();
+    assertThat(rows.hasNext(), is(false));
+  }
+
+  @Test
+  public void shouldReturnValuesRangeScan() {
+    // Given:
+    when(tableStore.range(A_KEY, A_KEY2)).thenReturn(keyValueIterator);
+    when(keyValueIterator.hasNext()).thenReturn(true, true, false);
+    when(keyValueIterator.next())
+        .thenReturn(KEY_VALUE1)
+        .thenReturn(KEY_VALUE2);
+
+    // When:
+    Iterator<Row> rows = table.get(PARTITION, A_KEY, A_KEY2);
+
+    // Then:
+    assertThat(rows.next(), is(Row.of(SCHEMA, A_KEY, ROW1, TIME1)));
+    assertThat(rows.next(), is(Row.of(SCHEMA, A_KEY2, ROW2, TIME2)));
+    assertThat(rows.hasNext(), is(false));
+    verify(tableStore, never()).all();
+  }
+
+  @Test
+  public void shouldRangeScanWithOpenUpperBound() {
+    // Given:
+    when(tableStore.range(A_KEY, null)).thenReturn(keyValueIterator);
+    when(keyValueIterator.hasNext()).thenReturn(false);
+
+    // When:
+    Streams.stream(table.get(PARTITION, A_KEY, null))
+        .collect(Collectors.toList());
+
+    // Then:
+    verify(tableStore).range(A_KEY, null);
+    verify(keyValueIterator).close();
+  }
+}
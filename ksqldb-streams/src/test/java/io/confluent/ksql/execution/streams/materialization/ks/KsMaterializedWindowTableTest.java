@@ -25,6 +25,7 @@ import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -265,6 +266,39 @@ public class KsMaterializedWindowTableTest {
     );
   }
 
+  @Test
+  public void shouldFetchRangeIfKeyBoundedOnBothSides() {
+    // Given:
+    when(cacheBypassFetcherRange.fetchRange(any(), any(), any(), any(), any()))
+        .thenReturn(keyValueIterator);
+
+    // When:
+    table.get(PARTITION, A_KEY, A_KEY2, Range.all(), Range.all());
+
+    // Then:
+    verify(cacheBypassFetcherRange).fetchRange(
+        eq(tableStore),
+        eq(A_KEY),
+        eq(A_KEY2),
+        eq(Instant.ofEpochMilli(0)),
+        eq(Instant.ofEpochMilli(Long.MAX_VALUE))
+    );
+    verify(cacheBypassFetcherAll, never()).fetchAll(any(), any(), any());
+  }
+
+  @Test
+  public void shouldFetchAllIfKeyBoundedOnOneSide() {
+    // When:
+    table.get(PARTITION, A_KEY, null, Range.all(), Range.all());
+
+    // Then:
+    verify(cacheBypassFetcherAll).fetchAll(
+        eq(tableStore),
+        eq(Instant.ofEpochMilli(0)),
+        eq(Instant.ofEpochMilli(Long.MAX_VALUE))
+    );
+  }
+
   @Test
   public void shouldFetchWithOnlyStartBounds() {
     // When:
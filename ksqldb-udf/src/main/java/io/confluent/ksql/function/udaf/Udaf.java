@@ -30,6 +30,11 @@ package io.confluent.ksql.function.udaf;
  *   <li>{@code map(agg)}: reduces the intermediate state to the final output type.</li>
  * </ol>
  *
+ * <p>The aggregate passed to {@code aggregate} and the first aggregate passed to {@code merge}
+ * are not used again once the call returns, so mutable aggregates, e.g. a List or Map, may be
+ * updated in place and returned rather than copied. The second aggregate passed to
+ * {@code merge} must not be modified.
+ *
  * @param <I> the input type
  * @param <A> the intermediate aggregate type
  * @param <O> the final output type